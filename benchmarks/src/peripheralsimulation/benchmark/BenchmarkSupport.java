@@ -0,0 +1,79 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.benchmark;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import peripheralsimulation.engine.SchedulerType;
+import peripheralsimulation.engine.SimulationEngine;
+import peripheralsimulation.io.UserPreferencesBlock;
+import peripheralsimulation.model.PeripheralModel;
+import peripheralsimulation.model.SysTickTimerModel;
+import peripheralsimulation.model.systick.SysTickTimerConfig;
+import peripheralsimulation.ui.SimulationGuiChoice;
+import peripheralsimulation.utils.OutputRowStore;
+import peripheralsimulation.utils.OverflowPolicy;
+import peripheralsimulation.utils.RegisterMap;
+
+/**
+ * Helpers shared by the benchmarks: engine settings which do not depend on the
+ * {@link peripheralsimulation.io.UserPreferences} singleton and model
+ * factories.
+ *
+ * @author Veronika Lenková
+ */
+final class BenchmarkSupport {
+
+	private BenchmarkSupport() {
+	}
+
+	/**
+	 * Creates engine settings producing an output after every event.
+	 *
+	 * @param clkFreq   The clock frequency in Hz (also used as the external
+	 *                  clock).
+	 * @param rangeTo   The simulated time in seconds.
+	 * @param scheduler The event scheduler type.
+	 * @return The settings.
+	 */
+	static UserPreferencesBlock settings(int clkFreq, double rangeTo, SchedulerType scheduler) {
+		return new UserPreferencesBlock(0, 0, rangeTo, clkFreq, clkFreq, 0, false, List.of(),
+				SimulationGuiChoice.TABLE, "us", scheduler, OverflowPolicy.BLOCK,
+				OutputRowStore.DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a SysTick model using the processor clock.
+	 *
+	 * @param enabled     Whether the counter (and its interrupt) is enabled.
+	 * @param reloadValue The value of SYST_RVR.
+	 * @return The model.
+	 */
+	static SysTickTimerModel sysTick(boolean enabled, int reloadValue) {
+		RegisterMap map = new RegisterMap(new HashMap<>(Map.of(SysTickTimerConfig.CSR_OFFSET, enabled ? 0x7 : 0, // SYST_CSR
+				SysTickTimerConfig.RVR_OFFSET, reloadValue, // SYST_RVR
+				SysTickTimerConfig.CVR_OFFSET, 0, // SYST_CVR
+				SysTickTimerConfig.CALIB_OFFSET, 0 // SYST_CALIB
+		)));
+		return new SysTickTimerModel(new SysTickTimerConfig(map));
+	}
+
+	/**
+	 * Creates an engine running the model with the given settings.
+	 *
+	 * @param model         The peripheral model.
+	 * @param settings      The engine settings.
+	 * @param outputHandler The consumer of the outputs.
+	 * @return The initialized engine.
+	 */
+	static SimulationEngine engine(PeripheralModel model, UserPreferencesBlock settings,
+			BiConsumer<Double, Object[]> outputHandler) {
+		SimulationEngine engine = new SimulationEngine(outputHandler);
+		engine.setSettings(settings);
+		engine.setPeripheralModel(model);
+		return engine;
+	}
+
+}
@@ -0,0 +1,32 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Counts the outputs produced by the engine. With a monitoring period of 0 the
+ * engine produces one output per executed event, so JMH reports the counter as
+ * events per second next to the primary result.
+ *
+ * @author Veronika Lenková
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class EventCounter {
+
+	/** Number of executed events in the current iteration */
+	public long events;
+
+	/**
+	 * Resets the counter before each iteration.
+	 */
+	@Setup(Level.Iteration)
+	public void reset() {
+		events = 0;
+	}
+
+}
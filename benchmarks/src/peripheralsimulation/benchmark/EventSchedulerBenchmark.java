@@ -0,0 +1,165 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import peripheralsimulation.engine.EventScheduler;
+import peripheralsimulation.engine.SchedulerType;
+import peripheralsimulation.engine.SimulationEngine;
+
+/**
+ * Raw throughput of the event schedulers and of the engine event loop, in
+ * events per second.
+ *
+ * <p>
+ * {@link #hold()} is the classic "hold" model: with a fixed number of pending
+ * events, every operation polls the earliest one and schedules a new one a
+ * random delay later. {@link #engineHandler()} and {@link #engineRunnable()}
+ * run the same kind of workload through {@link SimulationEngine}, once with a
+ * registered handler and once with a new lambda per event.
+ * </p>
+ *
+ * @author Veronika Lenková
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dperipheralsimulation.logLevel=WARN")
+public class EventSchedulerBenchmark {
+
+	/** Number of events executed by one engine run */
+	private static final int ENGINE_EVENTS = 100_000;
+
+	/** Number of precomputed random delays (a power of two) */
+	private static final int DELAYS = 1 << 12;
+
+	/** The scheduler under test */
+	@Param({ "HEAP", "CALENDAR", "TIMING_WHEEL" })
+	public SchedulerType schedulerType;
+
+	/** Number of pending events */
+	@Param({ "16", "1024", "65536" })
+	public int pending;
+
+	/** Precomputed random delays in ticks (mostly short, some far ahead) */
+	private final long[] delays = new long[DELAYS];
+
+	/** Index of the next delay */
+	private int nextDelay;
+
+	/** The scheduler used by {@link #hold()} */
+	private EventScheduler scheduler;
+
+	/** The engine used by the engine benchmarks */
+	private SimulationEngine engine;
+
+	/** Number of events the engine benchmarks still have to schedule */
+	private int remaining;
+
+	/**
+	 * Fills the scheduler with the pending events.
+	 */
+	@Setup(Level.Iteration)
+	public void setUp() {
+		Random random = new Random(42);
+		for (int i = 0; i < DELAYS; i++) {
+			delays[i] = random.nextInt(16) == 0 ? 1 + random.nextInt(1_000_000) : 1 + random.nextInt(1_000);
+		}
+		scheduler = schedulerType.createScheduler();
+		for (int i = 0; i < pending; i++) {
+			scheduler.add(nextDelay(), i, null);
+		}
+		engine = new SimulationEngine(null);
+		engine.setSettings(BenchmarkSupport.settings(1_000_000, Double.MAX_VALUE, schedulerType));
+	}
+
+	/**
+	 * Polls the earliest event and schedules a new one.
+	 *
+	 * @return The handler id of the polled event.
+	 */
+	@Benchmark
+	public int hold() {
+		int handler = scheduler.poll();
+		scheduler.add(scheduler.getPolledTime() + nextDelay(), handler, null);
+		return handler;
+	}
+
+	/**
+	 * Runs the engine with {@link #pending} self-rescheduling registered
+	 * handlers.
+	 *
+	 * @return The final simulation tick.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(ENGINE_EVENTS)
+	public long engineHandler() {
+		engine.initSimulation();
+		remaining = ENGINE_EVENTS - pending;
+		int[] id = new int[1];
+		id[0] = engine.registerHandler(() -> {
+			if (remaining > 0) {
+				remaining--;
+				engine.scheduleEventAtTick(engine.getCurrentTick() + nextDelay(), id[0]);
+			}
+		});
+		for (int i = 0; i < pending; i++) {
+			engine.scheduleEventAtTick(nextDelay(), id[0]);
+		}
+		engine.startSimulation(Double.MAX_VALUE);
+		return engine.getCurrentTick();
+	}
+
+	/**
+	 * Runs the engine with {@link #pending} self-rescheduling actions, each
+	 * scheduled as a new lambda.
+	 *
+	 * @return The final simulation tick.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(ENGINE_EVENTS)
+	public long engineRunnable() {
+		engine.initSimulation();
+		remaining = ENGINE_EVENTS - pending;
+		for (int i = 0; i < pending; i++) {
+			engine.scheduleEventAtTick(nextDelay(), this::reschedule);
+		}
+		engine.startSimulation(Double.MAX_VALUE);
+		return engine.getCurrentTick();
+	}
+
+	/**
+	 * Schedules the next action while events remain.
+	 */
+	private void reschedule() {
+		if (remaining > 0) {
+			remaining--;
+			engine.scheduleEventAtTick(engine.getCurrentTick() + nextDelay(), this::reschedule);
+		}
+	}
+
+	/**
+	 * Returns the next precomputed delay.
+	 */
+	private long nextDelay() {
+		return delays[nextDelay++ & (DELAYS - 1)];
+	}
+
+}
@@ -0,0 +1,102 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import peripheralsimulation.engine.SchedulerType;
+import peripheralsimulation.engine.SimulationEngine;
+import peripheralsimulation.engine.UserEvent;
+import peripheralsimulation.io.ConfigYamlUtils;
+import peripheralsimulation.io.SimulationConfig;
+import peripheralsimulation.io.UserPreferencesBlock;
+import peripheralsimulation.model.Peripheral;
+import peripheralsimulation.model.PeripheralModel;
+import peripheralsimulation.utils.RegisterUtils;
+
+/**
+ * Simulation of the FlexIO example configurations from the resources folder
+ * ({@code 1pwm_444.csv} with {@code pwm_config.yaml}, {@code uart_444.csv} with
+ * {@code uart_config.yaml}). The clock frequency and user events come from the
+ * YAML file, the simulated time is fixed so that the runs are comparable.
+ *
+ * @author Veronika Lenková
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dperipheralsimulation.logLevel=WARN")
+public class FlexIOBenchmark {
+
+	/** Simulated time of one run in seconds */
+	private static final double SIMULATED_TIME = 0.01;
+
+	/** The example: register CSV file and YAML configuration, separated by ':' */
+	@Param({ "1pwm_444.csv:pwm_config.yaml", "uart_444.csv:uart_config.yaml" })
+	public String example;
+
+	/** Directory holding the example files (relative to the working directory) */
+	@Param({ "resources" })
+	public String resourcesDir;
+
+	/** The register values of the example */
+	private Map<String, Integer> registers;
+
+	/** The configuration of the example */
+	private SimulationConfig config;
+
+	/** Engine settings with the clock of the example */
+	private UserPreferencesBlock settings;
+
+	/**
+	 * Loads the example files.
+	 *
+	 * @throws IOException If a file cannot be read.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		String[] files = example.split(":");
+		registers = RegisterUtils.loadRegistersFromCsv(Path.of(resourcesDir, files[0]));
+		config = ConfigYamlUtils.loadYaml(Path.of(resourcesDir, files[1]));
+		UserPreferencesBlock preferences = config.getPreferences();
+		settings = BenchmarkSupport.settings(preferences.getClkFreq(), SIMULATED_TIME, SchedulerType.HEAP);
+	}
+
+	/**
+	 * Runs the example for {@link #SIMULATED_TIME}.
+	 *
+	 * @param counter The counter of executed events.
+	 * @return The final simulation tick.
+	 */
+	@Benchmark
+	public long run(EventCounter counter) {
+		PeripheralModel model = Peripheral.FLEXIO
+				.createModel(RegisterUtils.convertToRegisterMap(registers, Peripheral.FLEXIO));
+		SimulationEngine engine = BenchmarkSupport.engine(model, settings, (time, outputs) -> counter.events++);
+		for (UserEvent event : config.getEvents()) {
+			event.setTargetPeripheral(model);
+			engine.addUserEvent(event);
+		}
+		engine.initSimulation();
+		engine.startSimulation(SIMULATED_TIME);
+		return engine.getCurrentTick();
+	}
+
+}
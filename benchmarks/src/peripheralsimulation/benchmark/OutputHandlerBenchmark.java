@@ -0,0 +1,172 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import peripheralsimulation.engine.SampleSink;
+import peripheralsimulation.engine.SchedulerType;
+import peripheralsimulation.engine.SimulationEngine;
+import peripheralsimulation.headless.CsvOutputWriter;
+import peripheralsimulation.io.trace.TraceWriter;
+import peripheralsimulation.io.trace.VcdWriter;
+import peripheralsimulation.model.OutputSchema;
+import peripheralsimulation.model.SysTickTimerModel;
+import peripheralsimulation.utils.OverflowPolicy;
+import peripheralsimulation.utils.SampleRingBuffer;
+
+/**
+ * The output path of a SysTick simulation with one output per event, for each
+ * consumer of the outputs: a blackhole (the engine alone), the UI ring buffer
+ * of primitive samples (drained and boxed on the same thread, as a stand-in
+ * for the UI frame), and the CSV, trace and VCD writers.
+ *
+ * @author Veronika Lenková
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dperipheralsimulation.logLevel=WARN")
+public class OutputHandlerBenchmark {
+
+	/** Clock frequency of the simulated timer (48 MHz) */
+	private static final int CLOCK_FREQUENCY = 48_000_000;
+
+	/** Simulated time of one run in seconds */
+	private static final double SIMULATED_TIME = 0.005;
+
+	/** The value of SYST_RVR */
+	private static final int RELOAD_VALUE = 9;
+
+	/** Capacity of the ring buffer */
+	private static final int RING_CAPACITY = 1 << 16;
+
+	/** The consumer of the outputs */
+	@Param({ "BLACKHOLE", "RING_BUFFER", "CSV", "TRACE", "VCD" })
+	public String sink;
+
+	/** Directory for the output files */
+	private Path directory;
+
+	/**
+	 * Creates the directory for the output files.
+	 *
+	 * @throws IOException If the directory cannot be created.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("output-benchmark");
+	}
+
+	/**
+	 * Deletes the output files.
+	 *
+	 * @throws IOException If a file cannot be deleted.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		try (var files = Files.list(directory)) {
+			for (Path file : (Iterable<Path>) files::iterator) {
+				Files.delete(file);
+			}
+		}
+		Files.delete(directory);
+	}
+
+	/**
+	 * Runs the timer for {@link #SIMULATED_TIME} with the selected consumer.
+	 *
+	 * @param counter   The counter of executed events.
+	 * @param blackhole The blackhole consuming the outputs.
+	 * @return The final simulation tick.
+	 * @throws IOException If an output file cannot be written.
+	 */
+	@Benchmark
+	public long run(EventCounter counter, Blackhole blackhole) throws IOException {
+		SysTickTimerModel model = BenchmarkSupport.sysTick(true, RELOAD_VALUE);
+		switch (sink) {
+		case "RING_BUFFER":
+			OutputSchema schema = model.getOutputSchema();
+			SampleRingBuffer buffer = new SampleRingBuffer(RING_CAPACITY, schema.size(), OverflowPolicy.DROP);
+			SampleRingBuffer.SampleConsumer drain = (time, values) -> blackhole.consume(schema.toObjects(values, 0));
+			long tick = simulateSamples(model, counter, (time, values) -> {
+				if (buffer.size() == RING_CAPACITY) {
+					buffer.drain(drain, RING_CAPACITY);
+				}
+				buffer.offer(time, values);
+			});
+			buffer.drain(drain, RING_CAPACITY);
+			return tick;
+		case "CSV":
+			int[] columns = new int[model.getOutputNames().length];
+			for (int i = 0; i < columns.length; i++) {
+				columns[i] = i;
+			}
+			try (CsvOutputWriter writer = new CsvOutputWriter(directory.resolve("out.csv"), model.getOutputNames(),
+					columns)) {
+				return simulate(model, counter, writer);
+			}
+		case "TRACE":
+			try (TraceWriter writer = new TraceWriter(directory.resolve("out.trace"), model)) {
+				return simulate(model, counter, writer);
+			}
+		case "VCD":
+			try (VcdWriter writer = new VcdWriter(directory.resolve("out.vcd"), model)) {
+				return simulate(model, counter, writer);
+			}
+		default:
+			return simulate(model, counter, (time, outputs) -> blackhole.consume(outputs));
+		}
+	}
+
+	/**
+	 * Runs the model, counting the outputs passed to the handler.
+	 */
+	private static long simulate(SysTickTimerModel model, EventCounter counter,
+			BiConsumer<Double, Object[]> outputHandler) {
+		SimulationEngine engine = BenchmarkSupport.engine(model,
+				BenchmarkSupport.settings(CLOCK_FREQUENCY, SIMULATED_TIME, SchedulerType.HEAP), (time, outputs) -> {
+					counter.events++;
+					outputHandler.accept(time, outputs);
+				});
+		engine.initSimulation();
+		engine.startSimulation(SIMULATED_TIME);
+		return engine.getCurrentTick();
+	}
+
+	/**
+	 * Runs the model, counting the primitive samples passed to the sink.
+	 */
+	private static long simulateSamples(SysTickTimerModel model, EventCounter counter, SampleSink sampleSink) {
+		SimulationEngine engine = BenchmarkSupport.engine(model,
+				BenchmarkSupport.settings(CLOCK_FREQUENCY, SIMULATED_TIME, SchedulerType.HEAP), null);
+		engine.setSampleSink((time, values) -> {
+			counter.events++;
+			sampleSink.acceptSample(time, values);
+		});
+		engine.initSimulation();
+		engine.startSimulation(SIMULATED_TIME);
+		return engine.getCurrentTick();
+	}
+
+}
@@ -0,0 +1,67 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import peripheralsimulation.engine.SchedulerType;
+import peripheralsimulation.engine.SimulationEngine;
+import peripheralsimulation.io.UserPreferencesBlock;
+
+/**
+ * Simulation of an enabled SysTick timer for several reload values. The model
+ * only schedules underflows and flag edges, so the number of events per
+ * simulated second falls with the reload value; the {@link EventCounter}
+ * reports the executed events per second.
+ *
+ * @author Veronika Lenková
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dperipheralsimulation.logLevel=WARN")
+public class SysTickBenchmark {
+
+	/** Clock frequency of the simulated timer (48 MHz) */
+	private static final int CLOCK_FREQUENCY = 48_000_000;
+
+	/** Simulated time of one run in seconds */
+	private static final double SIMULATED_TIME = 0.01;
+
+	/** The value of SYST_RVR */
+	@Param({ "1", "99", "9999" })
+	public int reloadValue;
+
+	/** The scheduler used by the engine */
+	@Param({ "HEAP", "TIMING_WHEEL" })
+	public SchedulerType schedulerType;
+
+	/**
+	 * Runs the timer for {@link #SIMULATED_TIME}.
+	 *
+	 * @param counter The counter of executed events.
+	 * @return The final simulation tick.
+	 */
+	@Benchmark
+	public long run(EventCounter counter) {
+		UserPreferencesBlock settings = BenchmarkSupport.settings(CLOCK_FREQUENCY, SIMULATED_TIME, schedulerType);
+		SimulationEngine engine = BenchmarkSupport.engine(BenchmarkSupport.sysTick(true, reloadValue), settings,
+				(time, outputs) -> counter.events++);
+		engine.initSimulation();
+		engine.startSimulation(SIMULATED_TIME);
+		return engine.getCurrentTick();
+	}
+
+}
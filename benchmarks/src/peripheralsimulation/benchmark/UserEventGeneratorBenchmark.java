@@ -0,0 +1,76 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import peripheralsimulation.engine.SchedulerType;
+import peripheralsimulation.engine.SimulationEngine;
+import peripheralsimulation.engine.UserEvent;
+import peripheralsimulation.engine.UserEventType;
+import peripheralsimulation.model.SysTickTimerModel;
+import peripheralsimulation.model.systick.SysTickTimerConfig;
+
+/**
+ * Thousands of periodic user events writing a register of a disabled SysTick
+ * timer, so that the run measures the {@link peripheralsimulation.engine.UserEventGenerator}
+ * and the engine rather than the model.
+ *
+ * @author Veronika Lenková
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dperipheralsimulation.logLevel=WARN")
+public class UserEventGeneratorBenchmark {
+
+	/** Clock frequency of the engine (1 MHz) */
+	private static final int CLOCK_FREQUENCY = 1_000_000;
+
+	/** Simulated time of one run in seconds */
+	private static final double SIMULATED_TIME = 0.1;
+
+	/** Number of periodic user events */
+	@Param({ "1000", "5000" })
+	public int eventCount;
+
+	/** The scheduler used by the engine */
+	@Param({ "HEAP", "CALENDAR", "TIMING_WHEEL" })
+	public SchedulerType schedulerType;
+
+	/**
+	 * Runs the user events for {@link #SIMULATED_TIME}.
+	 *
+	 * @param counter The counter of executed events.
+	 * @return The final simulation tick.
+	 */
+	@Benchmark
+	public long run(EventCounter counter) {
+		SysTickTimerModel model = BenchmarkSupport.sysTick(false, 99);
+		SimulationEngine engine = BenchmarkSupport.engine(model,
+				BenchmarkSupport.settings(CLOCK_FREQUENCY, SIMULATED_TIME, schedulerType),
+				(time, outputs) -> counter.events++);
+		for (int i = 0; i < eventCount; i++) {
+			// periods from 10 us to 10 ms, spread over the whole range
+			double period = 1e-5 * (1 + i % 1000);
+			engine.addUserEvent(new UserEvent(i * 1e-6, period, 0, model, UserEventType.WRITE_VALUE,
+					SysTickTimerConfig.RVR_OFFSET, 0, 99 + i % 100));
+		}
+		engine.initSimulation();
+		engine.startSimulation(SIMULATED_TIME);
+		return engine.getCurrentTick();
+	}
+
+}
@@ -0,0 +1,180 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.engine;
+
+import java.util.Arrays;
+
+/**
+ * Common part of the {@link EventScheduler} implementations. Events are stored
+ * in pooled slots backed by parallel primitive arrays (times, sequence numbers,
+ * handler ids); subclasses only order the slot indices. Released slots are
+ * reused, so once the arrays have grown to the working size, scheduling and
+ * polling do not allocate anything.
+ *
+ * @author Veronika Lenková
+ */
+public abstract class AbstractEventScheduler implements EventScheduler {
+
+	/** Initial number of slots */
+	protected static final int INITIAL_CAPACITY = 64;
+
+	/** Event times (in ticks), indexed by slot */
+	protected long[] times = new long[INITIAL_CAPACITY];
+
+	/** Event sequence numbers (insertion order), indexed by slot */
+	protected long[] sequences = new long[INITIAL_CAPACITY];
+
+	/** Event handler ids, indexed by slot */
+	private int[] handlers = new int[INITIAL_CAPACITY];
+
+	/** Actions of events scheduled without a handler id, indexed by slot */
+	private Runnable[] actions = new Runnable[INITIAL_CAPACITY];
+
+	/** Number of pending events */
+	protected int size;
+
+	/** Stack of free slot indices */
+	private int[] freeSlots = new int[INITIAL_CAPACITY];
+
+	/** Number of free slots on the stack */
+	private int freeCount;
+
+	/** Number of slots ever allocated (slots above this index are untouched) */
+	private int allocatedSlots;
+
+	/** Sequence number of the next added event */
+	private long nextSequence;
+
+	/** Time of the last polled event */
+	private long polledTime;
+
+	/** Action of the last polled event (null if it had a handler id) */
+	private Runnable polledAction;
+
+	@Override
+	public void add(long time, int handler, Runnable action) {
+		int slot = allocateSlot();
+		times[slot] = time;
+		sequences[slot] = nextSequence++;
+		handlers[slot] = handler;
+		actions[slot] = action;
+		size++;
+		insert(slot);
+	}
+
+	@Override
+	public int poll() {
+		int slot = removeFirst();
+		size--;
+		polledTime = times[slot];
+		polledAction = actions[slot];
+		actions[slot] = null;
+		freeSlots[freeCount++] = slot;
+		return handlers[slot];
+	}
+
+	@Override
+	public long peekTime() {
+		return times[first()];
+	}
+
+	@Override
+	public long getPolledTime() {
+		return polledTime;
+	}
+
+	@Override
+	public Runnable getPolledAction() {
+		return polledAction;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(actions, 0, allocatedSlots, null);
+		for (int slot = 0; slot < allocatedSlots; slot++) {
+			freeSlots[slot] = slot;
+		}
+		freeCount = allocatedSlots;
+		size = 0;
+		nextSequence = 0;
+		polledAction = null;
+		clearOrder();
+	}
+
+	/**
+	 * Returns true if the event in slot a must run before the event in slot b,
+	 * i.e. it is earlier, or it has the same time and was added first.
+	 *
+	 * @param a The first slot.
+	 * @param b The second slot.
+	 * @return true if a is earlier than b.
+	 */
+	protected final boolean before(int a, int b) {
+		return times[a] < times[b] || (times[a] == times[b] && sequences[a] < sequences[b]);
+	}
+
+	/**
+	 * Inserts a newly added slot into the ordering structure. {@link #size}
+	 * already includes the new event.
+	 *
+	 * @param slot The slot of the new event.
+	 */
+	protected abstract void insert(int slot);
+
+	/**
+	 * Returns the slot of the earliest event without removing it.
+	 *
+	 * @return The slot of the earliest event.
+	 */
+	protected abstract int first();
+
+	/**
+	 * Removes the earliest event from the ordering structure. {@link #size} still
+	 * includes the removed event.
+	 *
+	 * @return The slot of the removed event.
+	 */
+	protected abstract int removeFirst();
+
+	/**
+	 * Removes all slots from the ordering structure.
+	 */
+	protected abstract void clearOrder();
+
+	/**
+	 * Grows the per-slot arrays of the ordering structure. Subclasses create them
+	 * with {@link #INITIAL_CAPACITY} slots.
+	 *
+	 * @param capacity The new number of slots.
+	 */
+	protected abstract void growOrder(int capacity);
+
+	/**
+	 * Takes a free slot, growing the arrays if all slots are in use.
+	 */
+	private int allocateSlot() {
+		if (freeCount > 0) {
+			return freeSlots[--freeCount];
+		}
+		if (allocatedSlots == times.length) {
+			int capacity = times.length * 2;
+			times = Arrays.copyOf(times, capacity);
+			sequences = Arrays.copyOf(sequences, capacity);
+			handlers = Arrays.copyOf(handlers, capacity);
+			actions = Arrays.copyOf(actions, capacity);
+			freeSlots = Arrays.copyOf(freeSlots, capacity);
+			growOrder(capacity);
+		}
+		return allocatedSlots++;
+	}
+
+}
@@ -0,0 +1,225 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.engine;
+
+import java.util.Arrays;
+
+/**
+ * Event scheduler based on a calendar queue (R. Brown, 1988). The time axis is
+ * divided into "days" of a fixed width which are mapped cyclically onto a
+ * power-of-two number of buckets ("a year"); each bucket keeps a sorted list of
+ * its events. When the bucket width matches the typical gap between events,
+ * insert and poll are O(1) on average, which fits the simulation workload of
+ * many events scheduled one clock period ahead.
+ *
+ * <p>
+ * The number of buckets follows the number of pending events, and the bucket
+ * width is re-estimated from the earliest events on every resize (and when a
+ * poll has to fall back to a direct search because the width is too small).
+ * </p>
+ *
+ * @author Veronika Lenková
+ */
+public class CalendarQueueScheduler extends AbstractEventScheduler {
+
+	/** Marker of the end of a bucket list */
+	private static final int NONE = -1;
+
+	/** Minimal number of buckets */
+	private static final int MIN_BUCKETS = 2;
+
+	/** Number of earliest events sampled to estimate the bucket width */
+	private static final int WIDTH_SAMPLES = 25;
+
+	/** Next slot in the same bucket list, indexed by slot */
+	private int[] next = new int[INITIAL_CAPACITY];
+
+	/** Buffer of slots used when rebuilding the buckets, indexed by position */
+	private int[] rebuildBuffer = new int[INITIAL_CAPACITY];
+
+	/** First slot of each bucket list (lists are sorted by time and sequence) */
+	private int[] bucketHeads = new int[MIN_BUCKETS];
+
+	/** Width of a bucket in ticks */
+	private long width = 1;
+
+	/** Bucket of the current window (where the search for the next event starts) */
+	private int currentBucket;
+
+	/** End (exclusive, in ticks) of the current window */
+	private long currentTop = 1;
+
+	/** Set when a poll needed a direct search; the width is then re-estimated */
+	private boolean widthStale;
+
+	/**
+	 * Constructor for CalendarQueueScheduler.
+	 */
+	public CalendarQueueScheduler() {
+		Arrays.fill(bucketHeads, NONE);
+	}
+
+	@Override
+	protected void insert(int slot) {
+		if (times[slot] < currentTop - width) {
+			// earlier than the current window, move the window back
+			moveWindowTo(times[slot]);
+		}
+		link(slot);
+		if (size > 2 * bucketHeads.length) {
+			resize(bucketHeads.length * 2, size);
+		}
+	}
+
+	@Override
+	protected int first() {
+		return bucketHeads[locate()];
+	}
+
+	@Override
+	protected int removeFirst() {
+		int bucket = locate();
+		int slot = bucketHeads[bucket];
+		bucketHeads[bucket] = next[slot];
+		int remaining = size - 1;
+		if (remaining < bucketHeads.length / 2 && bucketHeads.length > MIN_BUCKETS) {
+			resize(bucketHeads.length / 2, remaining);
+		} else if (widthStale && remaining > 1) {
+			resize(bucketHeads.length, remaining);
+		}
+		return slot;
+	}
+
+	@Override
+	protected void clearOrder() {
+		Arrays.fill(bucketHeads, NONE);
+		currentBucket = 0;
+		currentTop = width;
+		widthStale = false;
+	}
+
+	@Override
+	protected void growOrder(int capacity) {
+		next = Arrays.copyOf(next, capacity);
+		rebuildBuffer = Arrays.copyOf(rebuildBuffer, capacity);
+	}
+
+	/**
+	 * Finds the bucket holding the earliest event and makes its window current.
+	 * The scheduler must not be empty.
+	 */
+	private int locate() {
+		int mask = bucketHeads.length - 1;
+		int bucket = currentBucket;
+		long top = currentTop;
+		for (int i = 0; i < bucketHeads.length; i++) {
+			int head = bucketHeads[bucket];
+			if (head != NONE && times[head] < top) {
+				currentBucket = bucket;
+				currentTop = top;
+				return bucket;
+			}
+			bucket = (bucket + 1) & mask;
+			top += width;
+		}
+		// no event within one year, search the heads directly
+		int earliest = NONE;
+		for (int head : bucketHeads) {
+			if (head != NONE && (earliest == NONE || before(head, earliest))) {
+				earliest = head;
+			}
+		}
+		moveWindowTo(times[earliest]);
+		widthStale = true;
+		return currentBucket;
+	}
+
+	/**
+	 * Makes the window containing the given time current.
+	 */
+	private void moveWindowTo(long time) {
+		long day = Math.floorDiv(time, width);
+		currentBucket = (int) (day & (bucketHeads.length - 1));
+		currentTop = (day + 1) * width;
+	}
+
+	/**
+	 * Inserts the slot into its bucket list, keeping the list sorted.
+	 */
+	private void link(int slot) {
+		int bucket = (int) (Math.floorDiv(times[slot], width) & (bucketHeads.length - 1));
+		int head = bucketHeads[bucket];
+		if (head == NONE || before(slot, head)) {
+			next[slot] = head;
+			bucketHeads[bucket] = slot;
+			return;
+		}
+		int previous = head;
+		while (next[previous] != NONE && !before(slot, next[previous])) {
+			previous = next[previous];
+		}
+		next[slot] = next[previous];
+		next[previous] = slot;
+	}
+
+	/**
+	 * Redistributes the events into the given number of buckets with a newly
+	 * estimated width.
+	 *
+	 * @param buckets The new number of buckets (a power of two).
+	 * @param count   The number of events currently in the buckets.
+	 */
+	private void resize(int buckets, int count) {
+		// take the earliest events in order, they determine the new width
+		int samples = Math.min(count, WIDTH_SAMPLES);
+		int collected = 0;
+		for (int i = 0; i < samples; i++) {
+			int bucket = locate();
+			int slot = bucketHeads[bucket];
+			bucketHeads[bucket] = next[slot];
+			rebuildBuffer[collected++] = slot;
+		}
+		for (int bucket = 0; bucket < bucketHeads.length; bucket++) {
+			for (int slot = bucketHeads[bucket]; slot != NONE; slot = next[slot]) {
+				rebuildBuffer[collected++] = slot;
+			}
+		}
+		width = estimateWidth(samples);
+		bucketHeads = new int[buckets];
+		Arrays.fill(bucketHeads, NONE);
+		widthStale = false;
+		if (collected > 0) {
+			moveWindowTo(times[rebuildBuffer[0]]);
+		}
+		for (int i = 0; i < collected; i++) {
+			link(rebuildBuffer[i]);
+		}
+	}
+
+	/**
+	 * Estimates the bucket width as three times the average gap between the
+	 * sampled (sorted) events, ignoring gaps larger than twice the overall
+	 * average.
+	 */
+	private long estimateWidth(int samples) {
+		if (samples < 2) {
+			return width;
+		}
+		long first = times[rebuildBuffer[0]];
+		long last = times[rebuildBuffer[samples - 1]];
+		double average = (double) (last - first) / (samples - 1);
+		double sum = 0;
+		int gaps = 0;
+		for (int i = 1; i < samples; i++) {
+			long gap = times[rebuildBuffer[i]] - times[rebuildBuffer[i - 1]];
+			if (gap <= 2 * average) {
+				sum += gap;
+				gaps++;
+			}
+		}
+		if (gaps == 0 || sum == 0) {
+			return width;
+		}
+		return Math.max(1, Math.round(3 * sum / gaps));
+	}
+
+}
@@ -0,0 +1,91 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.engine;
+
+/**
+ * Pending event set used by the {@link SimulationEngine}. Implementations
+ * differ only in the data structure which orders the events (see
+ * {@link SchedulerType}), so they can be swapped and benchmarked against each
+ * other for a given scenario.
+ *
+ * <p>
+ * An event is either a registered handler id (allocation-free path) or a
+ * {@link Runnable} with the handler id {@link #NO_HANDLER}.
+ * </p>
+ *
+ * <p>
+ * Ordering contract: events are polled in ascending order of time, and events
+ * with the same time are polled in the order in which they were added (FIFO,
+ * by an insertion sequence number). Every implementation must keep this order
+ * exactly, so that a simulation run is reproducible and its trace does not
+ * depend on the selected scheduler.
+ * </p>
+ *
+ * @author Veronika Lenková
+ */
+public interface EventScheduler {
+
+	/** Handler id used for events carrying their own {@link Runnable} */
+	int NO_HANDLER = -1;
+
+	/**
+	 * Adds an event.
+	 *
+	 * @param time    The time (in ticks) of the event.
+	 * @param handler The id of the handler to run, or {@link #NO_HANDLER}.
+	 * @param action  The action to run if the handler id is {@link #NO_HANDLER},
+	 *                otherwise null.
+	 */
+	void add(long time, int handler, Runnable action);
+
+	/**
+	 * Removes the earliest event (the first added one if several events have the
+	 * earliest time). The time and action of the event are available
+	 * through {@link #getPolledTime()} and {@link #getPolledAction()} until the
+	 * next poll. The scheduler must not be empty.
+	 *
+	 * @return The handler id of the event, or {@link #NO_HANDLER} if the event
+	 *         carries its own action.
+	 */
+	int poll();
+
+	/**
+	 * Returns the time of the earliest event. The scheduler must not be empty.
+	 *
+	 * @return The time (in ticks) of the earliest event.
+	 */
+	long peekTime();
+
+	/**
+	 * Returns the time of the last polled event.
+	 *
+	 * @return The time (in ticks) of the last polled event.
+	 */
+	long getPolledTime();
+
+	/**
+	 * Returns the action of the last polled event.
+	 *
+	 * @return The action, or null if the event was scheduled with a handler id.
+	 */
+	Runnable getPolledAction();
+
+	/**
+	 * Checks if there are no pending events.
+	 *
+	 * @return true if there are no pending events.
+	 */
+	boolean isEmpty();
+
+	/**
+	 * Returns the number of pending events.
+	 *
+	 * @return The number of pending events.
+	 */
+	int size();
+
+	/**
+	 * Removes all pending events.
+	 */
+	void clear();
+
+}
@@ -0,0 +1,84 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.engine;
+
+import java.util.Arrays;
+
+/**
+ * Event scheduler ordering the pooled event slots by a binary heap of slot
+ * indices. Insert and poll are O(log n) regardless of the distribution of the
+ * event times, which makes it a safe default.
+ *
+ * @author Veronika Lenková
+ */
+public class HeapEventScheduler extends AbstractEventScheduler {
+
+	/** Binary heap of slot indices */
+	private int[] heap = new int[INITIAL_CAPACITY];
+
+	@Override
+	protected void insert(int slot) {
+		heap[size - 1] = slot;
+		siftUp(size - 1);
+	}
+
+	@Override
+	protected int first() {
+		return heap[0];
+	}
+
+	@Override
+	protected int removeFirst() {
+		int slot = heap[0];
+		int last = size - 1;
+		if (last > 0) {
+			heap[0] = heap[last];
+			siftDown(0, last);
+		}
+		return slot;
+	}
+
+	@Override
+	protected void clearOrder() {
+		// heap entries above size are ignored
+	}
+
+	@Override
+	protected void growOrder(int capacity) {
+		heap = Arrays.copyOf(heap, capacity);
+	}
+
+	private void siftUp(int index) {
+		int slot = heap[index];
+		while (index > 0) {
+			int parent = (index - 1) >>> 1;
+			int parentSlot = heap[parent];
+			if (!before(slot, parentSlot)) {
+				break;
+			}
+			heap[index] = parentSlot;
+			index = parent;
+		}
+		heap[index] = slot;
+	}
+
+	private void siftDown(int index, int count) {
+		int slot = heap[index];
+		int half = count >>> 1;
+		while (index < half) {
+			int child = 2 * index + 1;
+			int childSlot = heap[child];
+			int right = child + 1;
+			if (right < count && before(heap[right], childSlot)) {
+				child = right;
+				childSlot = heap[child];
+			}
+			if (!before(childSlot, slot)) {
+				break;
+			}
+			heap[index] = childSlot;
+			index = child;
+		}
+		heap[index] = slot;
+	}
+
+}
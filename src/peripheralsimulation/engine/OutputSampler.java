@@ -0,0 +1,325 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.engine;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.LongConsumer;
+
+import peripheralsimulation.model.OutputSchema;
+import peripheralsimulation.model.PeripheralModel;
+
+/**
+ * Samples the outputs of the model of a {@link SimulationEngine} at the due
+ * monitoring points and passes them to the output handler and the sample sink.
+ * The outputs are always sampled with
+ * {@link PeripheralModel#sampleOutputs(long[], int)} into one reused array;
+ * only an output handler gets them boxed, as a slow adapter.
+ * The engine asks {@link #isDue(long)} after the last event of every time step
+ * and calls {@link #sample(long, double)} only when a monitoring point is due,
+ * so the outputs of the model are not read (and their flags not sampled) in
+ * between.
+ *
+ * <p>
+ * With a monitoring period, the monitoring points are rangeFrom, rangeFrom +
+ * period, ... up to the end of the run. The sampler schedules a monitoring
+ * event at the first point when the run starts and at the next point after
+ * every sample, so the engine stops at every point, also where the model has
+ * no event of its own, and the samples fall exactly on the points. Without a
+ * period the outputs are sampled after every time step from rangeFrom on.
+ * </p>
+ *
+ * <p>
+ * With a window sink the sampler aggregates: the outputs are also observed
+ * after every time step between the monitoring points
+ * ({@link #observe()}), reduced into a {@link SampleWindow}, and the window
+ * is passed to the sink at the next monitoring point, so the pulses between
+ * the points are counted. The time steps without an event are not observed.
+ * </p>
+ *
+ * <p>
+ * With {@link SimulationContext#isOnlyChanges()} a sample is emitted only if a
+ * selected output channel differs from the last emitted sample. The channels
+ * are compared as primitive values on the simulation thread, so the unchanged
+ * samples never reach the output handler or the sample sink.
+ * </p>
+ *
+ * @author Veronika Lenková
+ */
+final class OutputSampler {
+
+	/** A consumer of the boxed outputs, null if there is none */
+	private final BiConsumer<Double, Object[]> outputHandler;
+
+	/** A consumer of the primitive outputs, null if there is none */
+	private SampleSink sampleSink;
+
+	/** A consumer of the aggregated windows, null if there is none */
+	private WindowSink windowSink;
+
+	/** The window the outputs are aggregated in (reused) */
+	private final SampleWindow window = new SampleWindow();
+
+	/** True if a window was opened and not yet passed to the window sink */
+	private boolean windowOpen;
+
+	/** The tick at which the open window ends */
+	private long windowEndTick;
+
+	/** The model sampled in the current run, null if nothing is sampled */
+	private PeripheralModel model;
+
+	/** The time base of the current run */
+	private TimeBase timeBase;
+
+	/** The array the outputs are sampled into (reused) */
+	private long[] values = new long[0];
+
+	/** The schema of the sampled outputs, used to box them for the output handler */
+	private OutputSchema schema;
+
+	/** True if only samples with a changed channel are emitted in the current run */
+	private boolean onlyChanges;
+
+	/** Indices of the channels compared for {@link #onlyChanges} */
+	private int[] changeChannels = new int[0];
+
+	/** The values of the last emitted sample (indexed by channel) */
+	private long[] lastEmitted = new long[0];
+
+	/** True once a sample was emitted in the current run */
+	private boolean emittedBefore;
+
+	/** The tick of the next monitoring point */
+	private long nextTick;
+
+	/** Ticks between the monitoring points (0 = every time step) */
+	private long period;
+
+	/** Schedules the monitoring event at a tick (set for a run with a period) */
+	private LongConsumer monitoringScheduler;
+
+	/** Number of samples emitted in the current run */
+	private long samples;
+
+	/**
+	 * Constructor for OutputSampler.
+	 *
+	 * @param outputHandler A consumer of the boxed outputs, or null.
+	 */
+	OutputSampler(BiConsumer<Double, Object[]> outputHandler) {
+		this.outputHandler = outputHandler;
+	}
+
+	/**
+	 * Sets a consumer of primitive output samples.
+	 *
+	 * @param sampleSink The sample sink, or null to use only the output handler.
+	 */
+	void setSampleSink(SampleSink sampleSink) {
+		this.sampleSink = sampleSink;
+	}
+
+	/**
+	 * Sets a consumer of the outputs aggregated over the monitoring windows.
+	 *
+	 * @param windowSink The window sink, or null to sample only at the
+	 *                   monitoring points.
+	 */
+	void setWindowSink(WindowSink windowSink) {
+		this.windowSink = windowSink;
+	}
+
+	/**
+	 * Prepares the sampling of one run.
+	 *
+	 * @param model    The model to sample, or null.
+	 * @param timeBase The time base of the run.
+	 * @param context  The settings of the run (monitoring range and period,
+	 *                 selected outputs and whether only changes are emitted).
+	 * @param scheduler Schedules the monitoring event at a tick, so that the
+	 *                 engine stops at every monitoring point of a run with a
+	 *                 period.
+	 * @throws IllegalArgumentException If a selected output is not an output of
+	 *                                  the model.
+	 */
+	void start(PeripheralModel model, TimeBase timeBase, SimulationContext context, LongConsumer scheduler) {
+		boolean consumed = outputHandler != null || sampleSink != null || windowSink != null;
+		this.model = consumed ? model : null;
+		this.timeBase = timeBase;
+		this.nextTick = timeBase.toTicks(context.getRangeFrom());
+		this.period = Math.max(0, timeBase.toTicks(context.getMonitoringPeriod()));
+		this.samples = 0;
+		this.windowOpen = false;
+		this.emittedBefore = false;
+		this.onlyChanges = this.model != null && context.isOnlyChanges();
+		this.monitoringScheduler = (this.model != null && period > 0) ? scheduler : null;
+		if (this.model != null) {
+			schema = model.getOutputSchema();
+			if (values.length != schema.size()) {
+				values = new long[schema.size()];
+				lastEmitted = new long[schema.size()];
+			}
+			if (windowSink != null) {
+				window.start(schema);
+			}
+			if (onlyChanges) {
+				changeChannels = channelsOf(context.getOutputs());
+			}
+		}
+		if (monitoringScheduler != null) {
+			monitoringScheduler.accept(nextTick);
+		}
+	}
+
+	/**
+	 * Returns the indices of the channels with the given names, all channels if
+	 * no name is given.
+	 */
+	private int[] channelsOf(List<String> outputs) {
+		if (outputs.isEmpty()) {
+			int[] channels = new int[schema.size()];
+			for (int i = 0; i < channels.length; i++) {
+				channels[i] = i;
+			}
+			return channels;
+		}
+		int[] channels = new int[outputs.size()];
+		for (int i = 0; i < channels.length; i++) {
+			channels[i] = schema.indexOf(outputs.get(i));
+			if (channels[i] < 0) {
+				throw new IllegalArgumentException("Unknown output " + outputs.get(i));
+			}
+		}
+		return channels;
+	}
+
+	/**
+	 * Returns true if the outputs are sampled in the current run.
+	 *
+	 * @return True if there is a model and a consumer of its outputs.
+	 */
+	boolean isActive() {
+		return model != null;
+	}
+
+	/**
+	 * Returns true if a monitoring point is due at the tick.
+	 *
+	 * @param tick The current tick.
+	 * @return True if the outputs should be sampled.
+	 */
+	boolean isDue(long tick) {
+		return model != null && tick >= nextTick;
+	}
+
+	/**
+	 * Observes the outputs after a time step between the monitoring points. Does
+	 * nothing unless the outputs are aggregated into an open window. The model
+	 * reports the flags from its observation latch, so the sample at the next
+	 * monitoring point still gets them.
+	 */
+	void observe() {
+		if (windowOpen) {
+			model.observeOutputs(values, 0);
+			window.observe(values);
+		}
+	}
+
+	/**
+	 * Samples the outputs and moves to the next monitoring point. The model
+	 * writes into the reused array and only the output handler gets boxed
+	 * values. With a window sink the open window is passed to the sink
+	 * and the next one is opened with an observation of this time step. With only
+	 * changes, a sample without a changed channel is not emitted.
+	 *
+	 * @param tick The current tick (a due monitoring point).
+	 * @param time The current time in seconds.
+	 */
+	void sample(long tick, double time) {
+		if (windowSink != null) {
+			// the window counts the flags since the previous step, not since the previous sample
+			model.observeOutputs(values, 0);
+			openWindow(tick);
+		}
+		model.sampleOutputs(values, 0);
+		if (!onlyChanges || changed()) {
+			if (sampleSink != null) {
+				sampleSink.acceptSample(time, values);
+			}
+			if (outputHandler != null) {
+				outputHandler.accept(time, schema.toObjects(values, 0));
+			}
+			samples++;
+		}
+		if (monitoringScheduler != null) {
+			nextTick += period;
+			monitoringScheduler.accept(nextTick);
+		}
+	}
+
+	/**
+	 * Checks if a compared channel differs from the last emitted sample, and
+	 * remembers the sample if it does. The first sample of a run is a change.
+	 */
+	private boolean changed() {
+		boolean changed = !emittedBefore;
+		for (int channel : changeChannels) {
+			if (values[channel] != lastEmitted[channel]) {
+				changed = true;
+				break;
+			}
+		}
+		if (changed) {
+			for (int channel : changeChannels) {
+				lastEmitted[channel] = values[channel];
+			}
+			emittedBefore = true;
+		}
+		return changed;
+	}
+
+	/**
+	 * Passes the open window to the window sink and opens the window of the
+	 * monitoring point at the tick with the observed values.
+	 */
+	private void openWindow(long tick) {
+		closeWindow(windowEndTick);
+		windowEndTick = tick + period;
+		window.open(timeBase.toSeconds(tick));
+		window.observe(values);
+		windowOpen = true;
+	}
+
+	/**
+	 * Passes the open window, if any, to the window sink.
+	 *
+	 * @param endTick The end of the window (the end of the run for the last one).
+	 */
+	private void closeWindow(long endTick) {
+		if (windowOpen) {
+			window.close(timeBase.toSeconds(Math.min(endTick, windowEndTick)));
+			windowSink.acceptWindow(window);
+			windowOpen = false;
+		}
+	}
+
+	/**
+	 * Finishes the run: passes the last, possibly partial window to the window
+	 * sink. The partial window ends with the last time step of the run.
+	 *
+	 * @param tick The tick of the last time step.
+	 */
+	void finish(long tick) {
+		closeWindow(tick);
+	}
+
+	/**
+	 * Returns the number of samples emitted in the current run.
+	 *
+	 * @return The number of samples.
+	 */
+	long getSamples() {
+		return samples;
+	}
+
+}
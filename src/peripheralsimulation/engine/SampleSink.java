@@ -0,0 +1,26 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.engine;
+
+import peripheralsimulation.model.OutputSchema;
+
+/**
+ * Consumer of primitive output samples of the {@link SimulationEngine} (see
+ * {@link SimulationEngine#setSampleSink(SampleSink)}). The engine samples the
+ * outputs of the model into one reused array, so a sink which keeps the values
+ * must copy them. The channels are described by the
+ * {@link OutputSchema} of the model.
+ *
+ * @author Veronika Lenková
+ */
+@FunctionalInterface
+public interface SampleSink {
+
+	/**
+	 * Consumes one output sample.
+	 *
+	 * @param time   The simulation time in seconds.
+	 * @param values The output values, one per channel (reused by the engine).
+	 */
+	void acceptSample(double time, long[] values);
+
+}
@@ -0,0 +1,217 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.engine;
+
+import java.util.Arrays;
+
+import peripheralsimulation.model.OutputSchema;
+
+/**
+ * Outputs of a peripheral model reduced over one monitoring window: for every
+ * channel the minimum, maximum and last value, the number of transitions
+ * (changes between two consecutive time steps) and the number of time steps in
+ * which the channel was set (non-zero). The engine observes the outputs after
+ * every time step of the window and passes the window to the
+ * {@link WindowSink} once it is complete (see
+ * {@link SimulationEngine#setWindowSink(WindowSink)}).
+ *
+ * <p>
+ * The engine reuses one window for the whole run, so a sink which keeps the
+ * values must copy them. Observing a time step does not allocate.
+ * </p>
+ *
+ * @author Veronika Lenková
+ */
+public final class SampleWindow {
+
+	/** The schema of the aggregated outputs */
+	private OutputSchema schema;
+
+	/** Minimum values of the channels in the window */
+	private long[] min = new long[0];
+
+	/** Maximum values of the channels in the window */
+	private long[] max = new long[0];
+
+	/** Last values of the channels (kept over windows for the transitions) */
+	private long[] last = new long[0];
+
+	/** Numbers of transitions of the channels in the window */
+	private long[] transitions = new long[0];
+
+	/** Numbers of time steps in which the channels were set */
+	private long[] setCounts = new long[0];
+
+	/** True once a time step was observed in the run */
+	private boolean observedBefore;
+
+	/** Start of the window in seconds */
+	private double startTime;
+
+	/** End of the window in seconds (exclusive) */
+	private double endTime;
+
+	/** Number of time steps observed in the window */
+	private long steps;
+
+	/** Index of the window in the run, starting with 0 */
+	private long index;
+
+	/**
+	 * Constructor for SampleWindow. The window is prepared for a run by the
+	 * engine.
+	 */
+	SampleWindow() {
+	}
+
+	/**
+	 * Prepares the window for a new run.
+	 *
+	 * @param schema The schema of the aggregated outputs.
+	 */
+	void start(OutputSchema schema) {
+		this.schema = schema;
+		int size = schema.size();
+		if (min.length != size) {
+			min = new long[size];
+			max = new long[size];
+			last = new long[size];
+			transitions = new long[size];
+			setCounts = new long[size];
+		}
+		observedBefore = false;
+		steps = 0;
+		index = -1;
+	}
+
+	/**
+	 * Opens the next window.
+	 *
+	 * @param startTime The start of the window in seconds.
+	 */
+	void open(double startTime) {
+		this.startTime = startTime;
+		this.endTime = startTime;
+		steps = 0;
+		index++;
+		Arrays.fill(transitions, 0);
+		Arrays.fill(setCounts, 0);
+	}
+
+	/**
+	 * Adds the outputs after one time step to the window.
+	 *
+	 * @param values The sampled outputs, one per channel.
+	 */
+	void observe(long[] values) {
+		boolean first = steps == 0;
+		for (int i = 0; i < values.length; i++) {
+			long value = values[i];
+			if (first) {
+				min[i] = value;
+				max[i] = value;
+			} else if (value < min[i]) {
+				min[i] = value;
+			} else if (value > max[i]) {
+				max[i] = value;
+			}
+			if (observedBefore && value != last[i]) {
+				transitions[i]++;
+			}
+			if (value != 0) {
+				setCounts[i]++;
+			}
+			last[i] = value;
+		}
+		observedBefore = true;
+		steps++;
+	}
+
+	/**
+	 * Closes the window before it is passed to the sink.
+	 *
+	 * @param endTime The end of the window in seconds (exclusive).
+	 */
+	void close(double endTime) {
+		this.endTime = endTime;
+	}
+
+	/**
+	 * Returns the schema of the aggregated outputs.
+	 *
+	 * @return The output schema.
+	 */
+	public OutputSchema getSchema() {
+		return schema;
+	}
+
+	/**
+	 * Returns the number of channels.
+	 *
+	 * @return The number of channels.
+	 */
+	public int size() {
+		return min.length;
+	}
+
+	/**
+	 * Returns the start of the window.
+	 *
+	 * @return The start of the window in seconds.
+	 */
+	public double getStartTime() {
+		return startTime;
+	}
+
+	/**
+	 * Returns the end of the window. The last window of a run ends with the run.
+	 *
+	 * @return The end of the window in seconds (exclusive).
+	 */
+	public double getEndTime() {
+		return endTime;
+	}
+
+	/**
+	 * Returns the number of time steps observed in the window.
+	 *
+	 * @return The number of time steps.
+	 */
+	public long getSteps() {
+		return steps;
+	}
+
+	/**
+	 * Returns the index of the window in the run.
+	 *
+	 * @return The index, starting with 0.
+	 */
+	public long getIndex() {
+		return index;
+	}
+
+	public long getMin(int channel) {
+		return min[channel];
+	}
+
+	public long getMax(int channel) {
+		return max[channel];
+	}
+
+	public long getLast(int channel) {
+		return last[channel];
+	}
+
+	public long getTransitions(int channel) {
+		return transitions[channel];
+	}
+
+	public long getSetCount(int channel) {
+		return setCounts[channel];
+	}
+
+	@Override
+	public String toString() {
+		return "SampleWindow[" + index + ": " + startTime + ".." + endTime + " s, steps=" + steps + "]";
+	}
+
+}
@@ -0,0 +1,59 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.engine;
+
+/**
+ * Enum representing the available {@link EventScheduler} implementations.
+ * <p>
+ * The scheduler is selected in the YAML preferences block (key
+ * {@code scheduler}) and created by the engine when the simulation is
+ * initialized.
+ * </p>
+ *
+ * @author Veronika Lenková
+ */
+public enum SchedulerType {
+
+	/** Binary heap, O(log n) for any distribution of event times */
+	HEAP("Heap"),
+
+	/** Calendar queue, O(1) on average for evenly spread event times */
+	CALENDAR("Calendar queue"),
+
+	/** Hierarchical timing wheel, O(1) insert for any event times */
+	TIMING_WHEEL("Timing wheel");
+
+	/** The display name of the scheduler type */
+	private final String displayName;
+
+	/**
+	 * Constructor for SchedulerType enum.
+	 *
+	 * @param displayName the display name of the scheduler type
+	 */
+	SchedulerType(String displayName) {
+		this.displayName = displayName;
+	}
+
+	/**
+	 * Creates a new empty scheduler of this type.
+	 *
+	 * @return the new scheduler
+	 */
+	public EventScheduler createScheduler() {
+		switch (this) {
+		case CALENDAR:
+			return new CalendarQueueScheduler();
+		case TIMING_WHEEL:
+			return new TimingWheelScheduler();
+		case HEAP:
+		default:
+			return new HeapEventScheduler();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return displayName;
+	}
+
+}
@@ -0,0 +1,168 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.engine;
+
+import java.util.List;
+
+/**
+ * Immutable settings of one simulation run: clock frequencies, time range,
+ * monitoring period, selected outputs, scheduler and user events. The engine
+ * and the peripheral models read the settings only from the context of their
+ * engine ({@link SimulationEngine#setContext(SimulationContext)}), so several
+ * simulations with different clocks or ranges can run concurrently in one JVM.
+ * The context is produced by the view from the user preferences, or from a
+ * YAML configuration by the headless runners.
+ *
+ * @author Veronika Lenková
+ */
+public final class SimulationContext {
+
+	/** Default main clock frequency in Hz */
+	public static final int DEFAULT_CLOCK_FREQUENCY = 8_000_000;
+
+	/** Default external clock frequency in Hz */
+	public static final int DEFAULT_EXTERNAL_CLOCK_FREQUENCY = 12_000_000;
+
+	/** Context of an engine without explicit settings: default clocks, no events */
+	public static final SimulationContext DEFAULT = new SimulationContext(DEFAULT_CLOCK_FREQUENCY,
+			DEFAULT_EXTERNAL_CLOCK_FREQUENCY, 0, 0, 0, 0, false, List.of(), SchedulerType.HEAP, List.of());
+
+	/** The main (CPU) clock frequency in Hz */
+	private final long clockFrequency;
+
+	/** The external reference clock frequency in Hz */
+	private final long externalClockFrequency;
+
+	/** Start of the monitored time range in seconds */
+	private final double rangeFrom;
+
+	/** End of the simulated time range in seconds */
+	private final double rangeTo;
+
+	/** Interval between output samples in seconds (<= 0 = every time step) */
+	private final double monitoringPeriod;
+
+	/** Delay after every executed event in milliseconds */
+	private final long waitMs;
+
+	/** Whether only samples in which a selected output changed are emitted */
+	private final boolean onlyChanges;
+
+	/** Names of the selected outputs (empty = all outputs) */
+	private final List<String> outputs;
+
+	/** The event scheduler implementation */
+	private final SchedulerType scheduler;
+
+	/** User events scheduled by {@link SimulationEngine#initSimulation()} */
+	private final List<UserEvent> events;
+
+	/**
+	 * Constructor for SimulationContext.
+	 *
+	 * @param clockFrequency         The main clock frequency in Hz.
+	 * @param externalClockFrequency The external clock frequency in Hz (0 if not
+	 *                               used).
+	 * @param rangeFrom              Start of the monitored time range in seconds.
+	 * @param rangeTo                End of the simulated time range in seconds.
+	 * @param monitoringPeriod       Interval between output samples in seconds
+	 *                               (<= 0 = every time step).
+	 * @param waitMs                 Delay after every executed event in
+	 *                               milliseconds.
+	 * @param onlyChanges            Whether only samples in which a selected
+	 *                               output changed are emitted.
+	 * @param outputs                Names of the selected outputs (null or empty
+	 *                               = all outputs).
+	 * @param scheduler              The event scheduler (null = heap).
+	 * @param events                 User events (null = none).
+	 * @throws IllegalArgumentException If a clock frequency is negative.
+	 */
+	public SimulationContext(long clockFrequency, long externalClockFrequency, double rangeFrom, double rangeTo,
+			double monitoringPeriod, long waitMs, boolean onlyChanges, List<String> outputs, SchedulerType scheduler,
+			List<UserEvent> events) {
+		if (clockFrequency < 0 || externalClockFrequency < 0) {
+			throw new IllegalArgumentException(
+					"Clock frequencies must not be negative: " + clockFrequency + ", " + externalClockFrequency);
+		}
+		this.clockFrequency = clockFrequency;
+		this.externalClockFrequency = externalClockFrequency;
+		this.rangeFrom = rangeFrom;
+		this.rangeTo = rangeTo;
+		this.monitoringPeriod = monitoringPeriod;
+		this.waitMs = waitMs;
+		this.onlyChanges = onlyChanges;
+		this.outputs = outputs == null ? List.of() : List.copyOf(outputs);
+		this.scheduler = scheduler == null ? SchedulerType.HEAP : scheduler;
+		this.events = events == null ? List.of() : List.copyOf(events);
+	}
+
+	public long getClockFrequency() {
+		return clockFrequency;
+	}
+
+	public long getExternalClockFrequency() {
+		return externalClockFrequency;
+	}
+
+	public double getRangeFrom() {
+		return rangeFrom;
+	}
+
+	public double getRangeTo() {
+		return rangeTo;
+	}
+
+	public double getMonitoringPeriod() {
+		return monitoringPeriod;
+	}
+
+	public long getWaitMs() {
+		return waitMs;
+	}
+
+	public boolean isOnlyChanges() {
+		return onlyChanges;
+	}
+
+	public List<String> getOutputs() {
+		return outputs;
+	}
+
+	public SchedulerType getScheduler() {
+		return scheduler;
+	}
+
+	public List<UserEvent> getEvents() {
+		return events;
+	}
+
+	/**
+	 * Returns a copy of this context with other clock frequencies (e.g. one point
+	 * of a parameter sweep).
+	 *
+	 * @param clockFrequency         The main clock frequency in Hz.
+	 * @param externalClockFrequency The external clock frequency in Hz.
+	 * @return The new context.
+	 */
+	public SimulationContext withClockFrequencies(long clockFrequency, long externalClockFrequency) {
+		return new SimulationContext(clockFrequency, externalClockFrequency, rangeFrom, rangeTo, monitoringPeriod,
+				waitMs, onlyChanges, outputs, scheduler, events);
+	}
+
+	/**
+	 * Returns a copy of this context without the delay after every event.
+	 *
+	 * @return The new context.
+	 */
+	public SimulationContext withoutWait() {
+		return new SimulationContext(clockFrequency, externalClockFrequency, rangeFrom, rangeTo, monitoringPeriod, 0,
+				onlyChanges, outputs, scheduler, events);
+	}
+
+	@Override
+	public String toString() {
+		return "SimulationContext[clk=" + clockFrequency + " Hz, extClk=" + externalClockFrequency + " Hz, range="
+				+ rangeFrom + ".." + rangeTo + " s, monitoringPeriod=" + monitoringPeriod + " s, scheduler="
+				+ scheduler + ", events=" + events.size() + "]";
+	}
+
+}
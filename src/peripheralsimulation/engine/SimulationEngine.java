@@ -1,13 +1,20 @@
 /** Copyright (c) 2025, Veronika Lenková */
 package peripheralsimulation.engine;
 
-import java.util.Comparator;
-import java.util.PriorityQueue;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.BiConsumer;
 
-import peripheralsimulation.io.UserPreferences;
+import peripheralsimulation.engine.jfr.EventBatchEvent;
+import peripheralsimulation.engine.jfr.OutputHandlerEvent;
+import peripheralsimulation.engine.jfr.SimulationRunEvent;
+import peripheralsimulation.io.UserPreferencesBlock;
 import peripheralsimulation.model.PeripheralModel;
+import peripheralsimulation.model.PeripheralSet;
+import peripheralsimulation.utils.SimulationLogger;
 
 /**
  * Universal simulation core, which is able to simulate any peripheral model. It
@@ -18,25 +25,146 @@ import peripheralsimulation.model.PeripheralModel;
  */
 public class SimulationEngine {
 
+	/** Logger of the simulation lifecycle (written off the simulation thread) */
+	private static final SimulationLogger LOG = SimulationLogger.getLogger(SimulationEngine.class);
+
+	/**
+	 * Number of executed events between two publishes of the metrics (a power of
+	 * two).
+	 */
+	private static final int METRICS_PUBLISH_INTERVAL = 1 << 12;
+
+	/**
+	 * Value of {@link #stepsRemaining} when the run is not limited to a number of
+	 * events.
+	 */
+	private static final long UNLIMITED = -1;
+
+	/**
+	 * Kind of a {@link ControlCommand}.
+	 */
+	private enum CommandType {
+		PAUSE, RESUME, STEP, RUN_UNTIL, STOP
+	}
+
+	/**
+	 * A command sent to the running simulation.
+	 */
+	private static final class ControlCommand {
+
+		/** The kind of the command */
+		private final CommandType type;
+
+		/** Number of events (STEP) or tick (RUN_UNTIL), unused otherwise */
+		private final long argument;
+
+		/**
+		 * Constructor for ControlCommand.
+		 *
+		 * @param type     The kind of the command.
+		 * @param argument The argument of the command.
+		 */
+		private ControlCommand(CommandType type, long argument) {
+			this.type = type;
+			this.argument = argument;
+		}
+	}
+
+	/**
+	 * The scheduler holding all pending events, ordered by ascending event time.
+	 * Its implementation is selected by the user preferences and created in
+	 * {@link #initSimulation()}.
+	 */
+	private EventScheduler eventQueue = new HeapEventScheduler();
+
+	/**
+	 * Handlers registered by {@link #registerHandler(Runnable)}, indexed by
+	 * handler id.
+	 */
+	private Runnable[] handlers = new Runnable[8];
+
+	/**
+	 * Index of the instance of a {@link PeripheralSet} which registered each
+	 * handler, -1 for the handlers of a single model or of the engine. Indexed
+	 * like {@link #handlers}.
+	 */
+	private int[] handlerOwners = new int[8];
+
+	/**
+	 * Number of registered handlers.
+	 */
+	private int handlerCount;
+
+	/**
+	 * Index of the instance whose handlers are being registered, -1 outside the
+	 * initialization of a set.
+	 */
+	private int registeringOwner = -1;
+
+	/**
+	 * Id of the handler of the monitoring events, -1 if it is not registered. The
+	 * event does nothing itself; it makes the engine stop at a monitoring point,
+	 * so the outputs are sampled there even if the model has no event at that
+	 * tick. The events of this handler are not counted as executed events (steps,
+	 * metrics and flight recorder batches).
+	 */
+	private int monitoringHandler = -1;
+
+	/**
+	 * Current simulation time in ticks of the {@link #timeBase}.
+	 */
+	private long currentTick;
+
+	/**
+	 * Integer time base used to convert between ticks and seconds.
+	 */
+	private TimeBase timeBase;
+
+	/**
+	 * State of the simulation, written by the simulation thread and readable from
+	 * any thread.
+	 */
+	private volatile SimulationState state = SimulationState.IDLE;
+
+	/**
+	 * Control commands sent from other threads (e.g. the UI). The simulation
+	 * thread applies them at safe points between two events, so the event queue
+	 * is only ever touched by the simulation thread while a run is active.
+	 */
+	private final Queue<ControlCommand> commands = new ConcurrentLinkedQueue<>();
+
 	/**
-	 * A priority queue to hold all scheduled events. The queue is ordered by
-	 * ascending event time.
+	 * The thread running {@link #startSimulation(double)}, unparked when a
+	 * command is sent to a paused simulation.
 	 */
-	private final Queue<SimulationEvent> eventQueue = new PriorityQueue<>(
-			Comparator.comparingDouble(SimulationEvent::getTime));
+	private volatile Thread simulationThread;
 
 	/**
-	 * Current simulation time in arbitrary time units.
+	 * Set when the run should stop at the next safe point (simulation thread
+	 * only).
 	 */
-	private double currentTime;
+	private boolean stopRequested;
 
 	/**
-	 * Flag indicating whether the simulation is running.
+	 * Set while the run is paused (simulation thread only).
 	 */
-	private boolean running;
+	private boolean paused;
 
 	/**
-	 * Peripheral model simulated by this engine.
+	 * Number of events to execute before the run pauses, or {@link #UNLIMITED}
+	 * (simulation thread only).
+	 */
+	private long stepsRemaining = UNLIMITED;
+
+	/**
+	 * The run pauses before the first event later than this tick (simulation
+	 * thread only).
+	 */
+	private long pauseAfterTick = Long.MAX_VALUE;
+
+	/**
+	 * Peripheral model simulated by this engine: a single model, or a
+	 * {@link PeripheralSet} of several models sharing the timeline.
 	 */
 	private PeripheralModel peripheralModel;
 
@@ -47,108 +175,535 @@ public class SimulationEngine {
 	private BiConsumer<Double, Object[]> outputHandler;
 
 	/**
-	 * User preferences for the simulation.
+	 * Samples the outputs at the due monitoring points for the
+	 * {@link #outputHandler} and the sample sink.
 	 */
-	private UserPreferences userPreferences = UserPreferences.getInstance();
+	private final OutputSampler sampler;
 
 	/**
-	 * The time at which the next output should be produced.
+	 * Settings of the simulation run (clocks, time range, monitoring period and
+	 * user events). The engine and its models read no other settings.
 	 */
-	private double nextMonitorTime = 0.0;
+	private SimulationContext context = SimulationContext.DEFAULT;
 
 	/**
 	 * The user event generator responsible for scheduling user events.
 	 */
 	private UserEventGenerator userEventGenerator = new UserEventGenerator();
 
+	/**
+	 * Counters of the runs, published by the simulation thread.
+	 */
+	private final SimulationMetrics metrics = new SimulationMetrics();
+
+	/**
+	 * Number of events scheduled since the simulation was initialized.
+	 */
+	private long eventsScheduled;
+
+	/**
+	 * Largest number of pending events since the simulation was initialized.
+	 */
+	private int queueHighWaterMark;
+
+	/**
+	 * Flight recorder event of the current batch of executed events, null if the
+	 * event was disabled when the batch started.
+	 */
+	private EventBatchEvent batchEvent;
+
+	/**
+	 * Number of events executed in the run before the current batch.
+	 */
+	private long batchFirstEvent;
+
+	/**
+	 * Events of the registered handlers of each instance of a
+	 * {@link PeripheralSet} executed in the current batch, null for a single
+	 * model.
+	 */
+	private long[] batchInstanceEvents;
+
+	/**
+	 * Instance names of the set, indexed like {@link #batchInstanceEvents}.
+	 */
+	private List<String> batchInstanceNames;
+
 	/**
 	 * Constructor for the simulation engine.
 	 * 
-	 * @param outputHandler A consumer to handle simulation output.
+	 * @param outputHandler A consumer to handle simulation output (boxed, one new
+	 *                      array per sample), or null if the outputs are only
+	 *                      consumed by a sample or window sink.
 	 */
 	public SimulationEngine(BiConsumer<Double, Object[]> outputHandler) {
 		this.outputHandler = outputHandler;
-		this.currentTime = 0.0;
-		this.running = false;
+		this.sampler = new OutputSampler(outputHandler);
+		this.currentTick = 0;
 		this.peripheralModel = null;
+		this.timeBase = createTimeBase(context);
+	}
+
+	/**
+	 * Creates the time base in which the periods of all clocks of the context
+	 * are an exact number of ticks. Reads the context directly, so the
+	 * constructor calls no overridable method.
+	 *
+	 * @param context The settings of the run.
+	 * @return The time base for the clocks of the context.
+	 */
+	private static TimeBase createTimeBase(SimulationContext context) {
+		return TimeBase.forClocks(context.getClockFrequency(), context.getExternalClockFrequency());
 	}
 
 	/**
 	 * Initializes or resets the simulation. Clears the event queue and sets time to
-	 * zero. Schedules all user events.
+	 * zero. Schedules all user events. The engine is {@link SimulationState#STARTING}
+	 * from then on, so a command sent before {@link #startSimulation(double)} (e.g.
+	 * a stop) is applied when the run starts.
 	 */
 	public void initSimulation() {
-		eventQueue.clear();
-		currentTime = 0.0;
-		running = false;
+		if (state == SimulationState.IDLE) {
+			// commands left over from the previous run
+			commands.clear();
+			state = SimulationState.STARTING;
+		}
+		try {
+			initializeRun();
+		} catch (RuntimeException e) {
+			state = SimulationState.IDLE;
+			throw e;
+		}
+	}
+
+	/**
+	 * Creates the event queue of the run and initializes the models and user
+	 * events.
+	 */
+	private void initializeRun() {
+		eventQueue = context.getScheduler().createScheduler();
+		clearHandlers();
+		currentTick = 0;
+		timeBase = createTimeBase(context);
+		eventsScheduled = 0;
+		queueHighWaterMark = 0;
+		metrics.reset();
 
-		if (peripheralModel != null) {
+		batchInstanceEvents = null;
+		if (peripheralModel instanceof PeripheralSet) {
+			initializeInstances((PeripheralSet) peripheralModel);
+		} else if (peripheralModel != null) {
 			peripheralModel.initialize(this);
 		}
 
 		userEventGenerator.scheduleAll(this);
+		userEventGenerator.scheduleAll(this, context.getEvents());
+	}
+
+	/**
+	 * Initializes the models of a set one by one and remembers which instance
+	 * registered each handler, so the flight recorder batches count the executed
+	 * events per instance.
+	 */
+	private void initializeInstances(PeripheralSet set) {
+		List<String> instanceNames = set.getInstanceNames();
+		for (int i = 0; i < instanceNames.size(); i++) {
+			registeringOwner = i;
+			set.getModel(instanceNames.get(i)).initialize(this);
+		}
+		registeringOwner = -1;
+		batchInstanceEvents = new long[instanceNames.size()];
+		batchInstanceNames = instanceNames;
 	}
 
 	/**
 	 * Starts the simulation up to a specified maximum time (or until no more
-	 * events).
+	 * events). The calling thread runs the simulation; other threads control it
+	 * with {@link #pauseSimulation()}, {@link #resumeSimulation()},
+	 * {@link #stepSimulation(long)}, {@link #runSimulationUntil(double)} and
+	 * {@link #stopSimulation()}. A paused run does not return, it waits for the
+	 * next command.
 	 *
 	 * @param maxTime The simulation will not proceed beyond this time.
 	 */
 	public void startSimulation(double maxTime) {
-		running = true;
-		nextMonitorTime = userPreferences.getSimulationTimeRangeFrom();
-		double period = userPreferences.getMonitoringPeriod();
+		simulationThread = Thread.currentThread();
+		stopRequested = false;
+		paused = false;
+		stepsRemaining = UNLIMITED;
+		pauseAfterTick = Long.MAX_VALUE;
+		state = SimulationState.RUNNING;
+		long maxTick = timeBase.toTicks(maxTime);
+		sampler.start(peripheralModel, timeBase, context, this::scheduleMonitoringPoint);
+		long millisToWait = context.getWaitMs();
+		long startNanos = System.nanoTime();
+		long executed = 0;
+		long pauseStartNanos = 0;
+		SimulationRunEvent runEvent = new SimulationRunEvent();
+		runEvent.begin();
+		recordBatch(0);
 
-		while (running && !eventQueue.isEmpty()) {
-			SimulationEvent next = eventQueue.peek();
-			if (next.getTime() > maxTime) {
+		while (true) {
+			// safe point: apply the commands of other threads
+			if (!commands.isEmpty()) {
+				applyCommands();
+			}
+			if (stopRequested || eventQueue.isEmpty() || eventQueue.peekTime() > maxTick) {
 				break;
 			}
+			if (!paused && (stepsRemaining == 0 || eventQueue.peekTime() > pauseAfterTick)) {
+				paused = true;
+			}
+			if (paused) {
+				if (state != SimulationState.PAUSED) {
+					pauseStartNanos = System.nanoTime();
+					publishMetrics(executed, startNanos);
+					state = SimulationState.PAUSED;
+					LOG.debug("Simulácia pozastavená.");
+				}
+				LockSupport.park(this);
+				continue;
+			}
+			if (state == SimulationState.PAUSED) {
+				// the pause does not count as wall time of the run
+				startNanos += System.nanoTime() - pauseStartNanos;
+				state = SimulationState.RUNNING;
+			}
 
 			// Pop the event from the queue
-			eventQueue.poll();
+			int handler = eventQueue.poll();
 
 			// Advance simulation time
-			currentTime = next.getTime();
+			currentTick = eventQueue.getPolledTime();
 
-			// Execute event logic
-			next.run();
+			// Execute event logic (a monitoring point only samples, it is not counted)
+			boolean modelEvent = handler != monitoringHandler || monitoringHandler < 0;
+			if (handler == EventScheduler.NO_HANDLER) {
+				eventQueue.getPolledAction().run();
+			} else if (modelEvent) {
+				handlers[handler].run();
+				if (batchEvent != null && handlerOwners[handler] >= 0) {
+					batchInstanceEvents[handlerOwners[handler]]++;
+				}
+			}
+			if (modelEvent) {
+				executed++;
+				if (stepsRemaining > 0) {
+					stepsRemaining--;
+				}
+			}
 
-			if (peripheralModel != null) {
-				Object[] outputs = peripheralModel.getOutputs();
-				if (currentTime >= nextMonitorTime && outputHandler != null) {
+			// one sample per due monitoring point, after all events of the tick have run
+			if (sampler.isActive() && (eventQueue.isEmpty() || eventQueue.peekTime() != currentTick)) {
+				if (!sampler.isDue(currentTick)) {
+					sampler.observe();
+				} else if (OutputHandlerEvent.TYPE.isEnabled()) {
+					emitRecorded();
+				} else {
 					// Poslanie výstupu do SimulationView
-					outputHandler.accept(currentTime, outputs);
-					if (period > 0) {
-						nextMonitorTime += period;
-					}
+					sampler.sample(currentTick, timeBase.toSeconds(currentTick));
+				}
+			}
+			if (modelEvent && ((executed & (METRICS_PUBLISH_INTERVAL - 1)) == 0 || millisToWait > 0)) {
+				publishMetrics(executed, startNanos);
+			}
+			if (modelEvent && millisToWait > 0) {
+				try {
+					Thread.sleep(millisToWait);
+				} catch (InterruptedException e) {
+					LOG.warn("Wait between events interrupted: " + e);
 				}
 			}
-			try {
-				Thread.sleep(userPreferences.getMillisToWait());
-			} catch (InterruptedException e) {
-				e.printStackTrace();
+		}
+		sampler.finish(currentTick);
+		publishMetrics(executed, startNanos);
+		batchEvent = null;
+		runEvent.end();
+		if (runEvent.shouldCommit()) {
+			runEvent.peripheral = getPeripheralName();
+			runEvent.scheduler = context.getScheduler().name();
+			runEvent.maxTime = maxTime;
+			runEvent.simulatedTime = timeBase.toSeconds(currentTick);
+			runEvent.eventsExecuted = executed;
+			runEvent.samplesEmitted = sampler.getSamples();
+			runEvent.stopped = stopRequested;
+			runEvent.commit();
+		}
+		clearSimulation();
+		state = SimulationState.IDLE;
+		simulationThread = null;
+		LOG.debug("Simulácia ukončená, žiadne ďalšie udalosti.");
+	}
+
+	/**
+	 * Schedules the monitoring event at a monitoring point (re-armed by the
+	 * sampler after every sample). Nothing is scheduled once no model event is
+	 * pending, so the run ends with the last event of the model. The monitoring
+	 * events are not counted as scheduled events.
+	 */
+	private void scheduleMonitoringPoint(long tick) {
+		if (eventQueue.isEmpty()) {
+			return;
+		}
+		if (monitoringHandler < 0) {
+			monitoringHandler = registerHandler(() -> {
+				// the sample is taken after the last event of the tick
+			});
+		}
+		eventQueue.add(Math.max(tick, currentTick), monitoringHandler, null);
+	}
+
+	/**
+	 * Applies the pending control commands (simulation thread only).
+	 */
+	private void applyCommands() {
+		ControlCommand command;
+		while ((command = commands.poll()) != null) {
+			switch (command.type) {
+			case PAUSE:
+				paused = true;
+				stepsRemaining = UNLIMITED;
+				pauseAfterTick = Long.MAX_VALUE;
+				break;
+			case RESUME:
+				paused = false;
+				stepsRemaining = UNLIMITED;
+				pauseAfterTick = Long.MAX_VALUE;
+				break;
+			case STEP:
+				paused = false;
+				stepsRemaining = command.argument;
+				pauseAfterTick = Long.MAX_VALUE;
+				break;
+			case RUN_UNTIL:
+				paused = false;
+				stepsRemaining = UNLIMITED;
+				pauseAfterTick = command.argument;
+				break;
+			case STOP:
+			default:
+				stopRequested = true;
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Sends a command to the running (or starting) simulation and wakes it up if
+	 * it is paused. Without an active run the command is ignored.
+	 */
+	private void sendCommand(CommandType type, long argument) {
+		if (state == SimulationState.IDLE) {
+			return;
+		}
+		commands.offer(new ControlCommand(type, argument));
+		Thread thread = simulationThread;
+		if (thread != null) {
+			LockSupport.unpark(thread);
+		}
+	}
+
+	/**
+	 * Pauses the running simulation after the event being executed. The
+	 * simulation thread waits until the run is resumed, stepped or stopped.
+	 */
+	public void pauseSimulation() {
+		sendCommand(CommandType.PAUSE, 0);
+	}
+
+	/**
+	 * Resumes a paused simulation (and cancels a pending step or run-until
+	 * limit).
+	 */
+	public void resumeSimulation() {
+		sendCommand(CommandType.RESUME, 0);
+	}
+
+	/**
+	 * Executes the given number of events and pauses the simulation again.
+	 *
+	 * @param events The number of events to execute.
+	 * @throws IllegalArgumentException If the number of events is not positive.
+	 */
+	public void stepSimulation(long events) {
+		if (events <= 0) {
+			throw new IllegalArgumentException("Number of steps must be positive: " + events);
+		}
+		sendCommand(CommandType.STEP, events);
+	}
+
+	/**
+	 * Runs the simulation until the given time and pauses it before the first
+	 * later event. The run still ends at the maximum time given to
+	 * {@link #startSimulation(double)}.
+	 *
+	 * @param time The time (in seconds) until which the simulation runs.
+	 */
+	public void runSimulationUntil(double time) {
+		sendCommand(CommandType.RUN_UNTIL, timeBase.toTicks(time));
+	}
+
+	/**
+	 * Publishes the counters of the running simulation to {@link #metrics}.
+	 */
+	private void publishMetrics(long executed, long startNanos) {
+		metrics.publish(executed, eventsScheduled, queueHighWaterMark, sampler.getSamples(),
+				timeBase.toSeconds(currentTick), System.nanoTime() - startNanos);
+		recordBatch(executed);
+	}
+
+	/**
+	 * Commits the flight recorder event of the current batch of executed events
+	 * and starts the next one. Nothing is allocated while the event is disabled.
+	 */
+	private void recordBatch(long executed) {
+		EventBatchEvent batch = batchEvent;
+		if (batch != null) {
+			batch.end();
+			if (batch.shouldCommit()) {
+				batch.peripheral = getPeripheralName();
+				batch.events = executed - batchFirstEvent;
+				batch.instanceEvents = formatInstanceEvents();
+				batch.endTime = timeBase.toSeconds(currentTick);
+				batch.commit();
+			}
+			batchEvent = null;
+		}
+		if (EventBatchEvent.TYPE.isEnabled()) {
+			batch = new EventBatchEvent();
+			batch.startTime = timeBase.toSeconds(currentTick);
+			batchFirstEvent = executed;
+			if (batchInstanceEvents != null) {
+				Arrays.fill(batchInstanceEvents, 0);
+			}
+			batch.begin();
+			batchEvent = batch;
+		}
+	}
+
+	/**
+	 * Returns the events of the current batch per instance of the set (e.g.
+	 * "SYSTICK=10, FLEXIO0=4000"), null for a single model.
+	 */
+	private String formatInstanceEvents() {
+		if (batchInstanceEvents == null) {
+			return null;
+		}
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < batchInstanceEvents.length; i++) {
+			if (i > 0) {
+				text.append(", ");
 			}
+			text.append(batchInstanceNames.get(i)).append('=').append(batchInstanceEvents[i]);
 		}
-		running = false;
-		stopSimulation();
-		System.out.println("[SimulationEngine] Simulácia ukončená, žiadne ďalšie udalosti.");
+		return text.toString();
+	}
+
+	/**
+	 * Emits a sample, timed by a flight recorder event.
+	 */
+	private void emitRecorded() {
+		OutputHandlerEvent event = new OutputHandlerEvent();
+		double time = timeBase.toSeconds(currentTick);
+		event.begin();
+		sampler.sample(currentTick, time);
+		event.end();
+		if (event.shouldCommit()) {
+			event.simulationTime = time;
+			event.commit();
+		}
+	}
+
+	/**
+	 * Returns the simple class name of the simulated peripheral model.
+	 */
+	private String getPeripheralName() {
+		return peripheralModel != null ? peripheralModel.getClass().getSimpleName() : null;
 	}
 
 	/**
-	 * Schedules a new event in the simulation.
+	 * Schedules a new event in the simulation. The time is rounded to the nearest
+	 * tick of the engine time base. Events at the same tick run in the order in
+	 * which they were scheduled.
 	 * 
-	 * @param eventTime The time at which the event should trigger.
+	 * @param eventTime The time (in seconds) at which the event should trigger.
 	 * @param action    The action (lambda or Runnable) to run at that time.
 	 */
 	public void scheduleEvent(double eventTime, Runnable action) {
-		SimulationEvent event = new SimulationEvent(eventTime, action);
-		eventQueue.add(event);
+		scheduleEventAtTick(timeBase.toTicks(eventTime), action);
+	}
+
+	/**
+	 * Schedules a new event in the simulation at an exact tick of the engine time
+	 * base. Peripheral models should prefer this method together with
+	 * {@link #getClockPeriod(long)} so that periodic events never drift.
+	 * 
+	 * @param eventTick The time (in ticks) at which the event should trigger.
+	 * @param action    The action (lambda or Runnable) to run at that time.
+	 */
+	public void scheduleEventAtTick(long eventTick, Runnable action) {
+		eventQueue.add(eventTick, EventScheduler.NO_HANDLER, action);
+		countScheduled();
+	}
+
+	/**
+	 * Schedules a registered handler at an exact tick of the engine time base.
+	 * Unlike {@link #scheduleEventAtTick(long, Runnable)} this does not allocate
+	 * anything, so it should be used for events which are scheduled over and over
+	 * again (e.g. clock ticks of a peripheral).
+	 * 
+	 * @param eventTick The time (in ticks) at which the event should trigger.
+	 * @param handlerId The id returned by {@link #registerHandler(Runnable)}.
+	 */
+	public void scheduleEventAtTick(long eventTick, int handlerId) {
+		eventQueue.add(eventTick, handlerId, null);
+		countScheduled();
 	}
 
 	/**
-	 * Adds a peripheral model to be managed by this engine.
+	 * Updates the scheduling counters after an event was added.
+	 */
+	private void countScheduled() {
+		eventsScheduled++;
+		int depth = eventQueue.size();
+		if (depth > queueHighWaterMark) {
+			queueHighWaterMark = depth;
+		}
+	}
+
+	/**
+	 * Registers an event handler which can be scheduled repeatedly by its id. The
+	 * registrations are cleared by {@link #initSimulation()}, so peripheral models
+	 * should register their handlers in
+	 * {@link PeripheralModel#initialize(SimulationEngine)}.
+	 * 
+	 * @param handler The action to run when the event is triggered.
+	 * @return The id of the handler.
+	 */
+	public int registerHandler(Runnable handler) {
+		if (handlerCount == handlers.length) {
+			handlers = Arrays.copyOf(handlers, handlerCount * 2);
+			handlerOwners = Arrays.copyOf(handlerOwners, handlerCount * 2);
+		}
+		handlers[handlerCount] = handler;
+		handlerOwners[handlerCount] = registeringOwner;
+		return handlerCount++;
+	}
+
+	/**
+	 * Removes all registered handlers.
+	 */
+	private void clearHandlers() {
+		Arrays.fill(handlers, 0, handlerCount, null);
+		handlerCount = 0;
+		monitoringHandler = -1;
+	}
+
+	/**
+	 * Sets the peripheral model managed by this engine, replacing all models set
+	 * or added before. Several models can be simulated together with
+	 * {@link #addPeripheralModel(String, PeripheralModel)} or by setting a
+	 * {@link PeripheralSet}.
 	 * 
 	 * @param peripheral The peripheral model implementing {@link PeripheralModel}.
 	 */
@@ -156,6 +711,62 @@ public class SimulationEngine {
 		this.peripheralModel = peripheral;
 	}
 
+	/**
+	 * Sets a consumer of primitive output samples. The outputs are sampled with
+	 * {@link PeripheralModel#sampleOutputs(long[], int)} into one reused array,
+	 * which the sink gets without boxing; an output handler, if any, gets the
+	 * same sample as boxed values.
+	 * 
+	 * @param sampleSink The sample sink, or null to use only the output handler.
+	 */
+	public void setSampleSink(SampleSink sampleSink) {
+		sampler.setSampleSink(sampleSink);
+	}
+
+	/**
+	 * Sets a consumer of the outputs aggregated over the monitoring windows. The
+	 * outputs are then also observed after every time step between the
+	 * monitoring points and reduced per channel (minimum, maximum, last value,
+	 * transitions and time steps set); one {@link SampleWindow} is passed to the
+	 * sink per monitoring period, and the last one when the run ends. The output
+	 * handler and the sample sink still get one sample per monitoring point.
+	 *
+	 * @param windowSink The window sink, or null to sample only at the monitoring
+	 *                   points.
+	 */
+	public void setWindowSink(WindowSink windowSink) {
+		sampler.setWindowSink(windowSink);
+	}
+
+	/**
+	 * Adds a peripheral model under an instance name. All added models share the
+	 * event queue and timeline; their outputs are namespaced as
+	 * {@code <instance>.<output>} and sampled into one array per time step.
+	 * 
+	 * @param instanceName The unique name of the instance (e.g. "FLEXIO0").
+	 * @param peripheral   The peripheral model.
+	 * @throws IllegalStateException If a single model was set by
+	 *                               {@link #setPeripheralModel(PeripheralModel)}.
+	 */
+	public void addPeripheralModel(String instanceName, PeripheralModel peripheral) {
+		if (peripheralModel == null) {
+			peripheralModel = new PeripheralSet();
+		} else if (!(peripheralModel instanceof PeripheralSet)) {
+			throw new IllegalStateException("A single peripheral model is set, use a PeripheralSet instead.");
+		}
+		((PeripheralSet) peripheralModel).add(instanceName, peripheral);
+	}
+
+	/**
+	 * Returns the peripheral model whose outputs the engine emits: the single
+	 * model, or the {@link PeripheralSet} of all added models.
+	 * 
+	 * @return The peripheral model, or null if none is set.
+	 */
+	public PeripheralModel getPeripheralModel() {
+		return peripheralModel;
+	}
+
 	/**
 	 * Adds a user event definition to the simulation. This allows for scheduling
 	 * user-defined events that can be triggered at specific times.
@@ -168,31 +779,148 @@ public class SimulationEngine {
 
 	/**
 	 * Stops the simulation and clears the event queue. The simulation time is set
-	 * to zero.
+	 * to zero. A running simulation is stopped by the simulation thread at the
+	 * next safe point (also if it is paused), and a starting one before its first
+	 * event, so this method can be called from any thread. The event queue is only
+	 * cleared here if no run is active.
 	 */
 	public void stopSimulation() {
-		running = false;
+		if (state == SimulationState.IDLE) {
+			clearSimulation();
+		} else if (Thread.currentThread() == simulationThread) {
+			stopRequested = true;
+		} else {
+			sendCommand(CommandType.STOP, 0);
+		}
+	}
+
+	/**
+	 * Clears the event queue and sets the simulation time to zero.
+	 */
+	private void clearSimulation() {
 		eventQueue.clear();
-		currentTime = 0.0;
-		System.out.println("[SimulationEngine] Simulácia zastavená.");
+		currentTick = 0;
+		LOG.debug("Simulácia zastavená.");
 	}
 
 	/**
-	 * Returns the current simulation time.
+	 * Returns the current simulation time in seconds.
 	 * 
-	 * @return The current simulation time.
+	 * @return The current simulation time in seconds.
 	 */
 	public double getCurrentTime() {
-		return currentTime;
+		return timeBase.toSeconds(currentTick);
 	}
 
 	/**
-	 * Checks if the simulation is currently running.
+	 * Returns the current simulation time in ticks of the engine time base.
+	 * 
+	 * @return The current simulation time in ticks.
+	 */
+	public long getCurrentTick() {
+		return currentTick;
+	}
+
+	/**
+	 * Returns the time base used to convert between ticks and seconds.
+	 * 
+	 * @return The engine time base.
+	 */
+	public TimeBase getTimeBase() {
+		return timeBase;
+	}
+
+	/**
+	 * Returns the period of a clock with the given frequency in ticks of the
+	 * engine time base.
+	 * 
+	 * @param frequency The clock frequency in Hz.
+	 * @return The clock period in ticks.
+	 */
+	public long getClockPeriod(long frequency) {
+		return timeBase.periodOf(frequency);
+	}
+
+	/**
+	 * Sets the context of the next runs (clock frequencies, monitoring range and
+	 * period, wait time, scheduler type and user events). The context is used
+	 * from the next {@link #initSimulation()}; its user events are scheduled in
+	 * addition to the events added by {@link #addUserEvent(UserEvent)}.
+	 * 
+	 * @param context The simulation context.
+	 * @throws IllegalArgumentException If the context is null.
+	 */
+	public void setContext(SimulationContext context) {
+		if (context == null) {
+			throw new IllegalArgumentException("Simulation context must not be null");
+		}
+		this.context = context;
+	}
+
+	/**
+	 * Returns the context of the simulation runs.
+	 * 
+	 * @return The simulation context.
+	 */
+	public SimulationContext getContext() {
+		return context;
+	}
+
+	/**
+	 * Sets the context of the next runs from a preferences block (e.g. loaded
+	 * from a YAML file), without user events.
+	 * 
+	 * @param settings The settings of the simulation.
+	 */
+	public void setSettings(UserPreferencesBlock settings) {
+		setContext(settings.toSimulationContext(List.of()));
+	}
+
+	/**
+	 * Returns the frequency of the main (CPU) clock.
+	 * 
+	 * @return The clock frequency in Hz.
+	 */
+	public long getClockFrequency() {
+		return context.getClockFrequency();
+	}
+
+	/**
+	 * Returns the frequency of the external reference clock.
+	 * 
+	 * @return The external clock frequency in Hz.
+	 */
+	public long getExternalClockFrequency() {
+		return context.getExternalClockFrequency();
+	}
+
+	/**
+	 * Returns the counters of the current (or last) run. They are updated by the
+	 * simulation thread and can be read from any thread.
+	 * 
+	 * @return The simulation metrics.
+	 */
+	public SimulationMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Checks if the simulation is currently running (a paused run is still
+	 * running, a starting one is not yet).
 	 * 
 	 * @return True if the simulation is running, false otherwise.
 	 */
 	public boolean isSimulationRunning() {
-		return running;
+		return state == SimulationState.RUNNING || state == SimulationState.PAUSED;
+	}
+
+	/**
+	 * Returns the state of the simulation. Can be called from any thread.
+	 * 
+	 * @return The simulation state.
+	 */
+	public SimulationState getSimulationState() {
+		return state;
 	}
 
 	/**
@@ -0,0 +1,198 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.engine;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import peripheralsimulation.utils.SimulationLogger;
+
+/**
+ * Counters of a {@link SimulationEngine} run. The engine counts in plain local
+ * variables and fields of the simulation thread and publishes the totals here
+ * periodically (see {@link #publish}), so counting needs neither locks nor
+ * allocation; readers on other threads see values at most one publish
+ * interval old. The values are plain volatile fields, so a reader may combine
+ * values of two neighbouring publishes.
+ *
+ * <p>
+ * The metrics can be registered as a platform MXBean with
+ * {@link #register(String)}.
+ * </p>
+ *
+ * @author Veronika Lenková
+ */
+public class SimulationMetrics implements SimulationMetricsMXBean {
+
+	/** Logger of the MXBean registration */
+	private static final SimulationLogger LOG = SimulationLogger.getLogger(SimulationMetrics.class);
+
+	/** Object name of the MXBean without the instance name */
+	public static final String OBJECT_NAME_PREFIX = "peripheralsimulation:type=SimulationMetrics,name=";
+
+	/** Nanoseconds per second */
+	private static final double NANOS_PER_SECOND = 1e9;
+
+	/** Number of executed events */
+	private volatile long eventsExecuted;
+
+	/** Number of scheduled events */
+	private volatile long eventsScheduled;
+
+	/** Largest number of pending events */
+	private volatile int queueHighWaterMark;
+
+	/** Number of outputs passed to the output handler */
+	private volatile long samplesEmitted;
+
+	/** Number of samples dropped by the consumer of the outputs */
+	private volatile long samplesDropped;
+
+	/** Simulated time in seconds */
+	private volatile double simulatedTime;
+
+	/** Wall-clock time of the run in nanoseconds */
+	private volatile long wallNanos;
+
+	/** Name under which the MXBean is registered, null if not registered */
+	private ObjectName objectName;
+
+	/**
+	 * Publishes the counters of the simulation thread.
+	 *
+	 * @param executed      The number of executed events.
+	 * @param scheduled     The number of scheduled events.
+	 * @param highWaterMark The largest number of pending events.
+	 * @param samples       The number of emitted samples.
+	 * @param simTime       The simulated time in seconds.
+	 * @param wallTime      The wall-clock time of the run in nanoseconds.
+	 */
+	void publish(long executed, long scheduled, int highWaterMark, long samples, double simTime, long wallTime) {
+		eventsExecuted = executed;
+		eventsScheduled = scheduled;
+		queueHighWaterMark = highWaterMark;
+		samplesEmitted = samples;
+		simulatedTime = simTime;
+		wallNanos = wallTime;
+	}
+
+	/**
+	 * Resets all counters (called when the simulation is initialized).
+	 */
+	void reset() {
+		publish(0, 0, 0, 0, 0, 0);
+		samplesDropped = 0;
+	}
+
+	/**
+	 * Sets the number of samples dropped by the consumer of the outputs. The
+	 * engine cannot see dropped samples, so the consumer reports them.
+	 *
+	 * @param dropped The total number of dropped samples of the run.
+	 */
+	public void setSamplesDropped(long dropped) {
+		samplesDropped = dropped;
+	}
+
+	/**
+	 * Registers the metrics as a platform MXBean. A failure is only logged, the
+	 * simulation does not depend on JMX.
+	 *
+	 * @param name The instance name (the {@code name} key of the object name).
+	 */
+	public synchronized void register(String name) {
+		unregister();
+		try {
+			ObjectName newName = new ObjectName(OBJECT_NAME_PREFIX + ObjectName.quote(name));
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			if (server.isRegistered(newName)) {
+				server.unregisterMBean(newName);
+			}
+			server.registerMBean(this, newName);
+			objectName = newName;
+		} catch (JMException e) {
+			LOG.warn("Simulation metrics not registered: " + e);
+		}
+	}
+
+	/**
+	 * Unregisters the MXBean registered by {@link #register(String)}.
+	 */
+	public synchronized void unregister() {
+		if (objectName == null) {
+			return;
+		}
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+		} catch (JMException e) {
+			LOG.warn("Simulation metrics not unregistered: " + e);
+		}
+		objectName = null;
+	}
+
+	/**
+	 * Returns the name under which the MXBean is registered.
+	 *
+	 * @return The object name, or null if not registered.
+	 */
+	public synchronized ObjectName getObjectName() {
+		return objectName;
+	}
+
+	@Override
+	public long getEventsExecuted() {
+		return eventsExecuted;
+	}
+
+	@Override
+	public long getEventsScheduled() {
+		return eventsScheduled;
+	}
+
+	@Override
+	public int getQueueHighWaterMark() {
+		return queueHighWaterMark;
+	}
+
+	@Override
+	public long getSamplesEmitted() {
+		return samplesEmitted;
+	}
+
+	@Override
+	public long getSamplesDropped() {
+		return samplesDropped;
+	}
+
+	@Override
+	public double getSimulatedTime() {
+		return simulatedTime;
+	}
+
+	@Override
+	public double getWallTime() {
+		return wallNanos / NANOS_PER_SECOND;
+	}
+
+	@Override
+	public double getSimToWallRatio() {
+		long wall = wallNanos;
+		return wall > 0 ? simulatedTime * NANOS_PER_SECOND / wall : 0;
+	}
+
+	@Override
+	public double getEventsPerSecond() {
+		long wall = wallNanos;
+		return wall > 0 ? eventsExecuted * NANOS_PER_SECOND / wall : 0;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("events %d (%.0f/s), scheduled %d, queue max %d, samples %d, dropped %d, sim/wall %.3g",
+				getEventsExecuted(), getEventsPerSecond(), getEventsScheduled(), getQueueHighWaterMark(),
+				getSamplesEmitted(), getSamplesDropped(), getSimToWallRatio());
+	}
+
+}
@@ -0,0 +1,80 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.engine;
+
+/**
+ * Management interface of {@link SimulationMetrics}. The attributes can be read
+ * with any JMX client (e.g. JConsole or VisualVM) under the object name
+ * {@code peripheralsimulation:type=SimulationMetrics,name=...}.
+ *
+ * @author Veronika Lenková
+ */
+public interface SimulationMetricsMXBean {
+
+	/**
+	 * Returns the number of events executed in the current (or last) run.
+	 *
+	 * @return The number of executed events.
+	 */
+	long getEventsExecuted();
+
+	/**
+	 * Returns the number of events scheduled since the simulation was
+	 * initialized.
+	 *
+	 * @return The number of scheduled events.
+	 */
+	long getEventsScheduled();
+
+	/**
+	 * Returns the largest number of pending events since the simulation was
+	 * initialized.
+	 *
+	 * @return The queue depth high-water mark.
+	 */
+	int getQueueHighWaterMark();
+
+	/**
+	 * Returns the number of outputs passed to the output handler.
+	 *
+	 * @return The number of emitted samples.
+	 */
+	long getSamplesEmitted();
+
+	/**
+	 * Returns the number of samples dropped by the consumer of the outputs (e.g.
+	 * the UI buffer).
+	 *
+	 * @return The number of dropped samples.
+	 */
+	long getSamplesDropped();
+
+	/**
+	 * Returns the simulated time reached by the run.
+	 *
+	 * @return The simulated time in seconds.
+	 */
+	double getSimulatedTime();
+
+	/**
+	 * Returns the wall-clock time spent in the run.
+	 *
+	 * @return The wall-clock time in seconds.
+	 */
+	double getWallTime();
+
+	/**
+	 * Returns the simulated time divided by the wall-clock time (above 1 the
+	 * simulation runs faster than real time).
+	 *
+	 * @return The sim-time/wall-time ratio, 0 before the first run.
+	 */
+	double getSimToWallRatio();
+
+	/**
+	 * Returns the number of executed events per wall-clock second.
+	 *
+	 * @return The event rate, 0 before the first run.
+	 */
+	double getEventsPerSecond();
+
+}
@@ -0,0 +1,43 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.engine;
+
+/**
+ * State of a {@link SimulationEngine} run.
+ *
+ * @author Veronika Lenková
+ */
+public enum SimulationState {
+
+	/** No run is active */
+	IDLE("Idle"),
+
+	/**
+	 * The run is initialized but not started yet; commands are kept until it
+	 * starts
+	 */
+	STARTING("Starting"),
+
+	/** The simulation thread executes events */
+	RUNNING("Running"),
+
+	/** The run waits for a resume, step, run-until or stop command */
+	PAUSED("Paused");
+
+	/** The display name of the state */
+	private final String displayName;
+
+	/**
+	 * Constructor for SimulationState enum.
+	 *
+	 * @param displayName the display name of the state
+	 */
+	SimulationState(String displayName) {
+		this.displayName = displayName;
+	}
+
+	@Override
+	public String toString() {
+		return displayName;
+	}
+
+}
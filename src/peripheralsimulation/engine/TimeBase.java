@@ -0,0 +1,128 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.engine;
+
+/**
+ * Integer time base of the simulation. The engine keeps time as a {@code long}
+ * count of base ticks; seconds are only used at the boundaries (configuration,
+ * user events and outputs).
+ *
+ * <p>
+ * The tick rate is chosen as a common multiple of all configured clock
+ * frequencies (and of 1 GHz, so that there is at least nanosecond resolution).
+ * The period of every configured clock is then an exact number of ticks and
+ * repeated scheduling {@code now + period} never drifts.
+ * </p>
+ *
+ * @author Veronika Lenková
+ */
+public final class TimeBase {
+
+	/** Minimal resolution of the time base (1 ns) */
+	public static final long MIN_TICKS_PER_SECOND = 1_000_000_000L;
+
+	/**
+	 * Maximal resolution of the time base (1 fs). With this resolution a
+	 * {@code long} still covers more than two hours of simulated time.
+	 */
+	public static final long MAX_TICKS_PER_SECOND = 1_000_000_000_000_000L;
+
+	/**
+	 * Resolution used when the common multiple of the clocks is too large (1 ps).
+	 * Clock periods are then rounded to the nearest picosecond.
+	 */
+	public static final long FALLBACK_TICKS_PER_SECOND = 1_000_000_000_000L;
+
+	/** Number of ticks in one second of simulated time */
+	private final long ticksPerSecond;
+
+	/**
+	 * Constructor for TimeBase.
+	 *
+	 * @param ticksPerSecond Number of ticks in one second of simulated time.
+	 */
+	public TimeBase(long ticksPerSecond) {
+		if (ticksPerSecond <= 0) {
+			throw new IllegalArgumentException("Ticks per second must be positive: " + ticksPerSecond);
+		}
+		this.ticksPerSecond = ticksPerSecond;
+	}
+
+	/**
+	 * Creates a time base in which the period of every given clock is an exact
+	 * number of ticks. Non-positive frequencies are ignored.
+	 *
+	 * @param clockFrequencies The clock frequencies in Hz.
+	 * @return The time base for the given clocks.
+	 */
+	public static TimeBase forClocks(long... clockFrequencies) {
+		long ticksPerSecond = MIN_TICKS_PER_SECOND;
+		for (long frequency : clockFrequencies) {
+			if (frequency <= 0) {
+				continue;
+			}
+			long gcd = gcd(ticksPerSecond, frequency);
+			long multiplier = frequency / gcd;
+			if (ticksPerSecond > MAX_TICKS_PER_SECOND / multiplier) {
+				return new TimeBase(FALLBACK_TICKS_PER_SECOND);
+			}
+			ticksPerSecond *= multiplier;
+		}
+		return new TimeBase(ticksPerSecond);
+	}
+
+	/**
+	 * Converts seconds to the nearest number of ticks.
+	 *
+	 * @param seconds The time in seconds.
+	 * @return The time in ticks.
+	 */
+	public long toTicks(double seconds) {
+		return Math.round(seconds * ticksPerSecond);
+	}
+
+	/**
+	 * Converts ticks to seconds.
+	 *
+	 * @param ticks The time in ticks.
+	 * @return The time in seconds.
+	 */
+	public double toSeconds(long ticks) {
+		return (double) ticks / ticksPerSecond;
+	}
+
+	/**
+	 * Returns the period of a clock in ticks. If the frequency is not positive,
+	 * the period is one second (the same fallback the models always used).
+	 *
+	 * @param frequency The clock frequency in Hz.
+	 * @return The clock period in ticks (at least 1).
+	 */
+	public long periodOf(long frequency) {
+		if (frequency <= 0) {
+			return ticksPerSecond;
+		}
+		return Math.max(1, Math.round((double) ticksPerSecond / frequency));
+	}
+
+	/**
+	 * Returns the number of ticks in one second.
+	 *
+	 * @return The number of ticks in one second.
+	 */
+	public long getTicksPerSecond() {
+		return ticksPerSecond;
+	}
+
+	/**
+	 * Greatest common divisor of two positive numbers.
+	 */
+	private static long gcd(long a, long b) {
+		while (b != 0) {
+			long t = a % b;
+			a = b;
+			b = t;
+		}
+		return a;
+	}
+
+}
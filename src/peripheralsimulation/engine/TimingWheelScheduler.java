@@ -0,0 +1,172 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.engine;
+
+import java.util.Arrays;
+
+/**
+ * Event scheduler based on a hierarchical timing wheel. Each level has 64 slots
+ * and covers 64 times the range of the level below; the level of an event is
+ * given by the highest bit in which its time differs from the current wheel
+ * time, so insert is O(1). The earliest non-empty slot is found with one
+ * {@link Long#numberOfTrailingZeros(long)} on the occupancy bitmap of a level;
+ * when the lowest level is empty, the earliest slot of a higher level is
+ * cascaded down.
+ *
+ * <p>
+ * Events with the same time always share one wheel slot (their placement
+ * depends only on the time), and slot lists are appended to and cascaded in
+ * list order, so same-time events keep the FIFO order without comparing their
+ * sequence numbers.
+ * </p>
+ *
+ * <p>
+ * Event times must not be negative. An event added before the current wheel
+ * time (which is never later than the earliest pending event) rebuilds the
+ * wheel.
+ * </p>
+ *
+ * @author Veronika Lenková
+ */
+public class TimingWheelScheduler extends AbstractEventScheduler {
+
+	/** Marker of the end of a slot list */
+	private static final int NONE = -1;
+
+	/** Number of time bits resolved by one level */
+	private static final int BITS_PER_LEVEL = 6;
+
+	/** Number of slots of one level */
+	private static final int SLOTS_PER_LEVEL = 1 << BITS_PER_LEVEL;
+
+	/** Number of levels (enough to cover all non-negative long times) */
+	private static final int LEVELS = (Long.SIZE + BITS_PER_LEVEL - 1) / BITS_PER_LEVEL;
+
+	/** Next slot in the same wheel slot list, indexed by event slot */
+	private int[] next = new int[INITIAL_CAPACITY];
+
+	/** Buffer of slots used when rebuilding the wheel, indexed by position */
+	private int[] rebuildBuffer = new int[INITIAL_CAPACITY];
+
+	/** First event slot of each wheel slot, indexed by level * 64 + wheel slot */
+	private final int[] heads = new int[LEVELS * SLOTS_PER_LEVEL];
+
+	/** Last event slot of each wheel slot, indexed by level * 64 + wheel slot */
+	private final int[] tails = new int[LEVELS * SLOTS_PER_LEVEL];
+
+	/** Bitmap of the non-empty wheel slots of each level */
+	private final long[] occupied = new long[LEVELS];
+
+	/** Current wheel time (never later than the earliest pending event) */
+	private long wheelTime;
+
+	/**
+	 * Constructor for TimingWheelScheduler.
+	 */
+	public TimingWheelScheduler() {
+		Arrays.fill(heads, NONE);
+	}
+
+	@Override
+	protected void insert(int slot) {
+		if (times[slot] < wheelTime) {
+			rebuild(times[slot]);
+		}
+		link(slot);
+	}
+
+	@Override
+	protected int first() {
+		return heads[earliestSlot()];
+	}
+
+	@Override
+	protected int removeFirst() {
+		int wheelSlot = earliestSlot();
+		int slot = heads[wheelSlot];
+		heads[wheelSlot] = next[slot];
+		if (next[slot] == NONE) {
+			tails[wheelSlot] = NONE;
+			occupied[0] &= ~(1L << wheelSlot);
+		}
+		return slot;
+	}
+
+	@Override
+	protected void clearOrder() {
+		Arrays.fill(heads, NONE);
+		Arrays.fill(tails, NONE);
+		Arrays.fill(occupied, 0);
+		wheelTime = 0;
+	}
+
+	@Override
+	protected void growOrder(int capacity) {
+		next = Arrays.copyOf(next, capacity);
+		rebuildBuffer = Arrays.copyOf(rebuildBuffer, capacity);
+	}
+
+	/**
+	 * Returns the level 0 wheel slot holding the earliest events, cascading
+	 * higher levels down if needed. The scheduler must not be empty.
+	 */
+	private int earliestSlot() {
+		while (occupied[0] == 0) {
+			int level = 1;
+			while (occupied[level] == 0) {
+				level++;
+			}
+			int wheelSlot = Long.numberOfTrailingZeros(occupied[level]);
+			int shift = level * BITS_PER_LEVEL;
+			// advance to the start of the wheel slot and redistribute its events
+			wheelTime = (wheelTime & ~((1L << (shift + BITS_PER_LEVEL)) - 1)) | ((long) wheelSlot << shift);
+			int index = level * SLOTS_PER_LEVEL + wheelSlot;
+			int slot = heads[index];
+			heads[index] = NONE;
+			tails[index] = NONE;
+			occupied[level] &= ~(1L << wheelSlot);
+			while (slot != NONE) {
+				int following = next[slot];
+				link(slot);
+				slot = following;
+			}
+		}
+		return Long.numberOfTrailingZeros(occupied[0]);
+	}
+
+	/**
+	 * Appends the event slot to its wheel slot.
+	 */
+	private void link(int slot) {
+		long time = times[slot];
+		long difference = time ^ wheelTime;
+		int level = difference == 0 ? 0 : (Long.SIZE - 1 - Long.numberOfLeadingZeros(difference)) / BITS_PER_LEVEL;
+		int wheelSlot = (int) (time >>> (level * BITS_PER_LEVEL)) & (SLOTS_PER_LEVEL - 1);
+		int index = level * SLOTS_PER_LEVEL + wheelSlot;
+		next[slot] = NONE;
+		if (heads[index] == NONE) {
+			heads[index] = slot;
+			occupied[level] |= 1L << wheelSlot;
+		} else {
+			next[tails[index]] = slot;
+		}
+		tails[index] = slot;
+	}
+
+	/**
+	 * Moves the wheel back to the given time and re-inserts all pending events.
+	 */
+	private void rebuild(long time) {
+		int collected = 0;
+		for (int index = 0; index < heads.length; index++) {
+			for (int slot = heads[index]; slot != NONE; slot = next[slot]) {
+				rebuildBuffer[collected++] = slot;
+			}
+		}
+		clearOrder();
+		wheelTime = time;
+		for (int i = 0; i < collected; i++) {
+			link(rebuildBuffer[i]);
+		}
+	}
+
+}
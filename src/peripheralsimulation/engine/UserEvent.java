@@ -59,7 +59,8 @@ public class UserEvent {
 	 *                         one-time event.
 	 * @param repeatCount      The number of times to repeat. If 0 or negative =>
 	 *                         infinite.
-	 * @param targetPeripheral The peripheral we want to act on.
+	 * @param targetPeripheral The peripheral we want to act on (null = the model
+	 *                         of the engine).
 	 * @param eventType        The kind of action to perform: e.g. toggle bit, set
 	 *                         bit, write register, etc.
 	 * @param registerAddress  The address of the register to act on.
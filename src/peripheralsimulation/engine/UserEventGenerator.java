@@ -4,6 +4,9 @@ package peripheralsimulation.engine;
 import java.util.ArrayList;
 import java.util.List;
 
+import peripheralsimulation.engine.jfr.UserEventAppliedEvent;
+import peripheralsimulation.model.PeripheralModel;
+
 /**
  * UserEventGenerator is responsible for scheduling user events in a simulation
  * engine. It maintains a list of user events and provides methods to add and
@@ -33,38 +36,84 @@ public class UserEventGenerator {
 	 * Called from SimulationEngine's initSimulation() to schedule these events.
 	 */
 	public void scheduleAll(SimulationEngine engine) {
-		for (UserEvent event : userEvents) {
-			scheduleOne(engine, event, event.getStartTime(), event.getRepeatCount());
+		scheduleAll(engine, userEvents);
+	}
+
+	/**
+	 * Schedules the given events (e.g. the events of the simulation context).
+	 * 
+	 * @param engine The simulation engine to use for scheduling.
+	 * @param events The user events to schedule.
+	 */
+	public void scheduleAll(SimulationEngine engine, List<UserEvent> events) {
+		for (UserEvent event : events) {
+			scheduleOne(engine, event, 0, event.getRepeatCount());
 		}
 	}
 
 	/**
 	 * Schedules a single user event.
 	 * 
-	 * @param engine    The simulation engine to use for scheduling.
-	 * @param event     The user event definition to schedule.
-	 * @param eventTime The time at which the event should occur.
-	 * @param remaining The number of times to repeat the event. If <= 0, it will
-	 *                  repeat indefinitely.
+	 * @param engine     The simulation engine to use for scheduling.
+	 * @param event      The user event definition to schedule.
+	 * @param occurrence The index of this occurrence (0 = first firing). The time
+	 *                   is computed from the start time so that repeated events
+	 *                   do not accumulate rounding errors.
+	 * @param remaining  The number of times to repeat the event. If <= 0, it will
+	 *                   repeat indefinitely.
 	 */
-	private void scheduleOne(SimulationEngine engine, UserEvent event, double eventTime, int remaining) {
+	private void scheduleOne(SimulationEngine engine, UserEvent event, long occurrence, int remaining) {
+		double eventTime = event.getStartTime() + occurrence * event.getPeriod();
 		engine.scheduleEvent(eventTime, () -> {
 			// apply the user event
-			event.getTargetPeripheral().applyUserEvent(event);
+			if (UserEventAppliedEvent.TYPE.isEnabled()) {
+				applyRecorded(engine, event, occurrence);
+			} else {
+				targetOf(engine, event).applyUserEvent(event);
+			}
 
 			// if repeating, schedule again
 			if (event.getPeriod() > 0) {
 				int newCount = (remaining <= 0) ? remaining : remaining - 1;
 				// if newCount=0 => infinite
 				if (newCount == 0 || newCount > 0) {
-					double nextTime = eventTime + event.getPeriod();
 					// schedule the next
-					scheduleOne(engine, event, nextTime, newCount);
+					scheduleOne(engine, event, occurrence + 1, newCount);
 				}
 			}
 		});
 	}
 
+	/**
+	 * Applies the user event, timed by a flight recorder event.
+	 */
+	private static void applyRecorded(SimulationEngine engine, UserEvent event, long occurrence) {
+		UserEventAppliedEvent recorded = new UserEventAppliedEvent();
+		recorded.begin();
+		PeripheralModel target = targetOf(engine, event);
+		target.applyUserEvent(event);
+		recorded.end();
+		if (recorded.shouldCommit()) {
+			recorded.peripheral = target.getClass().getSimpleName();
+			recorded.eventType = String.valueOf(event.getEventType());
+			recorded.registerAddress = event.getRegisterAddress();
+			recorded.bitPosition = event.getBitPosition();
+			recorded.value = event.getValue();
+			recorded.occurrence = occurrence;
+			recorded.simulationTime = engine.getCurrentTime();
+			recorded.commit();
+		}
+	}
+
+	/**
+	 * Returns the model the event acts on: its target peripheral, or the model of
+	 * the engine if the event has no target (e.g. loaded from a YAML file).
+	 */
+	private static PeripheralModel targetOf(SimulationEngine engine, UserEvent event) {
+		PeripheralModel target = event.getTargetPeripheral();
+		return target != null ? target : engine.getPeripheralModel();
+	}
+
 	/**
 	 * Clears all scheduled user events.
 	 */
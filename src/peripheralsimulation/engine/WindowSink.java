@@ -0,0 +1,23 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.engine;
+
+/**
+ * Consumer of the outputs of the {@link SimulationEngine} aggregated over the
+ * monitoring windows (see
+ * {@link SimulationEngine#setWindowSink(WindowSink)}). The engine passes one
+ * reused {@link SampleWindow} per completed window, so a sink which keeps the
+ * values must copy them.
+ *
+ * @author Veronika Lenková
+ */
+@FunctionalInterface
+public interface WindowSink {
+
+	/**
+	 * Consumes one completed monitoring window.
+	 *
+	 * @param window The aggregated outputs of the window (reused by the engine).
+	 */
+	void acceptWindow(SampleWindow window);
+
+}
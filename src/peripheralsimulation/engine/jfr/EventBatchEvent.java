@@ -0,0 +1,54 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.engine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event covering a batch of executed events. The engine commits
+ * one batch each time it publishes its metrics, so the batches split a run into
+ * phases which can be correlated with GC pauses and CPU samples. For a
+ * peripheral set the batch also counts the events per member instance.
+ *
+ * @author Veronika Lenková
+ */
+@Name("peripheralsimulation.EventBatch")
+@Label("Simulation Event Batch")
+@Category({ "Peripheral Simulation" })
+@Description("Events executed by the simulation engine since the previous batch")
+@StackTrace(false)
+public class EventBatchEvent extends Event {
+
+	/** Type of this event, checked before a batch is started */
+	public static final EventType TYPE = EventType.getEventType(EventBatchEvent.class);
+
+	/** Simple class name of the peripheral model which scheduled the events */
+	@Label("Peripheral")
+	public String peripheral;
+
+	/** Number of events executed in the batch */
+	@Label("Events")
+	public long events;
+
+	/**
+	 * Events of the registered handlers of each instance of a peripheral set
+	 * executed in the batch (e.g. "SYSTICK=10, FLEXIO0=4000"), null for a single
+	 * model
+	 */
+	@Label("Events per Instance")
+	public String instanceEvents;
+
+	/** Simulated time at the start of the batch, in seconds */
+	@Label("Start Simulation Time [s]")
+	public double startTime;
+
+	/** Simulated time at the end of the batch, in seconds */
+	@Label("End Simulation Time [s]")
+	public double endTime;
+
+}
@@ -0,0 +1,35 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.engine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder event for one call of the engine output handler. The
+ * handler runs once per sample, so only calls longer than the threshold
+ * (1 ms by default, configurable in the recording settings) are recorded.
+ *
+ * @author Veronika Lenková
+ */
+@Name("peripheralsimulation.OutputHandler")
+@Label("Simulation Output Handler")
+@Category({ "Peripheral Simulation" })
+@Description("A slow call of the output handler (e.g. blocked on a full UI buffer)")
+@Threshold("1 ms")
+@StackTrace(false)
+public class OutputHandlerEvent extends Event {
+
+	/** Type of this event, checked before the handler call is timed */
+	public static final EventType TYPE = EventType.getEventType(OutputHandlerEvent.class);
+
+	/** Simulated time of the sample, in seconds */
+	@Label("Simulation Time [s]")
+	public double simulationTime;
+
+}
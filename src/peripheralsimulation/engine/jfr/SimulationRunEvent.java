@@ -0,0 +1,53 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.engine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event covering one simulation run, from the start of
+ * {@link peripheralsimulation.engine.SimulationEngine#startSimulation(double)}
+ * until the run finishes or is stopped.
+ *
+ * @author Veronika Lenková
+ */
+@Name("peripheralsimulation.SimulationRun")
+@Label("Simulation Run")
+@Category({ "Peripheral Simulation" })
+@Description("One run of the simulation engine")
+@StackTrace(false)
+public class SimulationRunEvent extends Event {
+
+	/** Simple class name of the simulated peripheral model */
+	@Label("Peripheral")
+	public String peripheral;
+
+	/** Name of the event scheduler */
+	@Label("Scheduler")
+	public String scheduler;
+
+	/** Simulated time at which the run ends at the latest, in seconds */
+	@Label("Max Simulation Time [s]")
+	public double maxTime;
+
+	/** Simulated time reached by the run, in seconds */
+	@Label("Simulated Time [s]")
+	public double simulatedTime;
+
+	/** Number of executed events */
+	@Label("Events Executed")
+	public long eventsExecuted;
+
+	/** Number of outputs passed to the output handler */
+	@Label("Samples Emitted")
+	public long samplesEmitted;
+
+	/** True if the run was stopped before it ran out of events or time */
+	@Label("Stopped")
+	public boolean stopped;
+
+}
@@ -0,0 +1,56 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.engine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for one application of a user event by the
+ * {@link peripheralsimulation.engine.UserEventGenerator}.
+ *
+ * @author Veronika Lenková
+ */
+@Name("peripheralsimulation.UserEventApplied")
+@Label("User Event Applied")
+@Category({ "Peripheral Simulation" })
+@Description("A user event applied to a peripheral register")
+@StackTrace(false)
+public class UserEventAppliedEvent extends Event {
+
+	/** Type of this event, checked before the application is timed */
+	public static final EventType TYPE = EventType.getEventType(UserEventAppliedEvent.class);
+
+	/** Simple class name of the target peripheral model */
+	@Label("Peripheral")
+	public String peripheral;
+
+	/** The kind of action (toggle/set/clear bit, write value) */
+	@Label("Event Type")
+	public String eventType;
+
+	/** Address of the register acted on */
+	@Label("Register Address")
+	public int registerAddress;
+
+	/** Bit position (ignored for writes) */
+	@Label("Bit Position")
+	public int bitPosition;
+
+	/** Value written (writes only) */
+	@Label("Value")
+	public int value;
+
+	/** Index of this occurrence (0 = first firing) */
+	@Label("Occurrence")
+	public long occurrence;
+
+	/** Simulated time of the application, in seconds */
+	@Label("Simulation Time [s]")
+	public double simulationTime;
+
+}
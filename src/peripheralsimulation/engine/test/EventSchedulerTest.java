@@ -0,0 +1,184 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.engine.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+import peripheralsimulation.engine.EventScheduler;
+import peripheralsimulation.engine.SchedulerType;
+
+/**
+ * Test class for the {@link EventScheduler} implementations. Every test runs
+ * against each {@link SchedulerType}.
+ *
+ * @author Veronika Lenková
+ */
+@RunWith(Parameterized.class)
+public class EventSchedulerTest {
+
+	/** The scheduler type under test */
+	private final SchedulerType type;
+
+	/** The scheduler under test */
+	private EventScheduler scheduler;
+
+	/**
+	 * Returns the scheduler types to test.
+	 *
+	 * @return The scheduler types.
+	 */
+	@Parameters(name = "{0}")
+	public static Collection<Object[]> types() {
+		return Arrays.stream(SchedulerType.values()).map(type -> new Object[] { type }).toList();
+	}
+
+	/**
+	 * Constructor for EventSchedulerTest.
+	 *
+	 * @param type The scheduler type under test.
+	 */
+	public EventSchedulerTest(SchedulerType type) {
+		this.type = type;
+	}
+
+	@Before
+	public void setUp() {
+		scheduler = type.createScheduler();
+	}
+
+	/**
+	 * Randomly interleaved adds and polls must return the same times as a
+	 * reference priority queue.
+	 */
+	@Test
+	public void testRandomOperationsMatchReference() {
+		Random random = new Random(7);
+		PriorityQueue<Long> reference = new PriorityQueue<>();
+		long now = 0;
+		for (int i = 0; i < 20_000; i++) {
+			if (reference.isEmpty() || random.nextInt(3) != 0) {
+				// mostly near future, sometimes far ahead or at the same time
+				long delay = random.nextInt(10) == 0 ? random.nextInt(1_000_000) : random.nextInt(200);
+				scheduler.add(now + delay, (int) delay, null);
+				reference.add(now + delay);
+			} else {
+				assertEquals(reference.peek().longValue(), scheduler.peekTime());
+				scheduler.poll();
+				now = reference.poll();
+				assertEquals(now, scheduler.getPolledTime());
+			}
+			assertEquals(reference.size(), scheduler.size());
+		}
+		while (!reference.isEmpty()) {
+			scheduler.poll();
+			assertEquals(reference.poll().longValue(), scheduler.getPolledTime());
+		}
+		assertTrue(scheduler.isEmpty());
+	}
+
+	/**
+	 * Events with the same time must be polled in the order in which they were
+	 * added, also when they were added at different points of the run.
+	 */
+	@Test
+	public void testSameTimeEventsAreFifo() {
+		Random random = new Random(11);
+		// reference ordered by time, then by insertion order
+		PriorityQueue<long[]> reference = new PriorityQueue<>(
+				(a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+		long now = 0;
+		int added = 0;
+		for (int i = 0; i < 20_000; i++) {
+			if (reference.isEmpty() || random.nextInt(3) != 0) {
+				// few distinct times, so many events share them
+				long time = now + 64L * random.nextInt(8) * (random.nextBoolean() ? 1 : 4_096);
+				scheduler.add(time, added, null);
+				reference.add(new long[] { time, added });
+				added++;
+			} else {
+				long[] expected = reference.poll();
+				assertEquals(expected[1], scheduler.poll());
+				assertEquals(expected[0], scheduler.getPolledTime());
+				now = expected[0];
+			}
+		}
+		while (!reference.isEmpty()) {
+			assertEquals(reference.poll()[1], scheduler.poll());
+		}
+	}
+
+	/**
+	 * Fixed period events (the typical peripheral clock workload) must run in
+	 * time order.
+	 */
+	@Test
+	public void testPeriodicEventsRunInTimeOrder() {
+		long[] periods = { 125, 500, 1_000_000 };
+		for (int handler = 0; handler < periods.length; handler++) {
+			scheduler.add(periods[handler], handler, null);
+		}
+		long previous = 0;
+		for (int i = 0; i < 50_000; i++) {
+			int handler = scheduler.poll();
+			long time = scheduler.getPolledTime();
+			assertTrue("Events must not go back in time", time >= previous);
+			assertEquals(0, time % periods[handler]);
+			scheduler.add(time + periods[handler], handler, null);
+			previous = time;
+		}
+		assertEquals(periods.length, scheduler.size());
+	}
+
+	/**
+	 * An event added before the already polled events must still come first.
+	 */
+	@Test
+	public void testEventEarlierThanPolledTimeComesFirst() {
+		scheduler.add(1_000, 0, null);
+		scheduler.add(100_000, 1, null);
+		scheduler.poll();
+		scheduler.add(5, 2, null);
+		assertEquals(5, scheduler.peekTime());
+		assertEquals(2, scheduler.poll());
+		assertEquals(1, scheduler.poll());
+	}
+
+	/**
+	 * Events without a handler id must carry their action, clear must remove all
+	 * pending events.
+	 */
+	@Test
+	public void testActionsAndClear() {
+		Runnable action = () -> {
+		};
+		scheduler.add(10, EventScheduler.NO_HANDLER, action);
+		scheduler.add(20, 3, null);
+		assertEquals(EventScheduler.NO_HANDLER, scheduler.poll());
+		assertSame(action, scheduler.getPolledAction());
+		assertEquals(3, scheduler.poll());
+		assertNull(scheduler.getPolledAction());
+
+		for (int i = 0; i < 100; i++) {
+			scheduler.add(i * 7L, i, null);
+		}
+		scheduler.clear();
+		assertTrue(scheduler.isEmpty());
+		scheduler.add(42, 1, null);
+		assertEquals(1, scheduler.size());
+		assertEquals(42, scheduler.peekTime());
+	}
+
+}
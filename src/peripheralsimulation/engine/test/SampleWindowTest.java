@@ -0,0 +1,139 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.engine.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import peripheralsimulation.engine.SampleWindow;
+import peripheralsimulation.engine.SchedulerType;
+import peripheralsimulation.engine.SimulationContext;
+import peripheralsimulation.engine.SimulationEngine;
+import peripheralsimulation.model.SysTickTimerModel;
+import peripheralsimulation.model.test.SysTickFixtures;
+
+/**
+ * Test class for the aggregation of the outputs over the monitoring windows
+ * into {@link SampleWindow}s.
+ *
+ * @author Veronika Lenková
+ */
+public class SampleWindowTest {
+
+	/** Index of the SysTick counter output */
+	private static final int CURRENT = 0;
+
+	/** Index of the SysTick interrupt output */
+	private static final int INTERRUPT = 1;
+
+	/** Index of the SysTick COUNTFLAG output */
+	private static final int COUNTFLAG = 2;
+
+	/**
+	 * A SysTick timer underflowing every 100 us, monitored every 1 ms: every full
+	 * window must count all ten interrupt pulses and the counter range, while the
+	 * output handler still gets one sample per monitoring point.
+	 */
+	@Test
+	public void testWindowsCountPulses() {
+		List<long[]> windows = new ArrayList<>();
+		List<double[]> times = new ArrayList<>();
+		int[] points = new int[1];
+		SimulationEngine engine = new SimulationEngine((time, outputs) -> points[0]++);
+		engine.setWindowSink(window -> {
+			windows.add(new long[] { window.getSteps(), window.getMin(CURRENT), window.getMax(CURRENT),
+					window.getSetCount(INTERRUPT), window.getTransitions(INTERRUPT), window.getTransitions(COUNTFLAG),
+					window.getLast(INTERRUPT) });
+			times.add(new double[] { window.getStartTime(), window.getEndTime() });
+		});
+		engine.setContext(new SimulationContext(1_000_000, 1_000_000, 0, 0.01, 0.001, 0, false, List.of(),
+				SchedulerType.HEAP, List.of()));
+		engine.setPeripheralModel(SysTickFixtures.createSysTick(99));
+		engine.initSimulation();
+		engine.startSimulation(0.01);
+
+		// windows from 0, 1, ..., 9 ms and the underflow at 10 ms
+		assertEquals(11, windows.size());
+		assertEquals(windows.size(), points[0]);
+		// the first window has no underflow at 0 us
+		assertEquals(9, windows.get(0)[3]);
+		for (int i = 1; i < 10; i++) {
+			long[] window = windows.get(i);
+			assertEquals(i * 0.001, times.get(i)[0], 1e-12);
+			assertEquals((i + 1) * 0.001, times.get(i)[1], 1e-12);
+			// the clock edge before an underflow, the underflow and the clock edge
+			// clearing COUNTFLAG per 100 us
+			assertEquals("steps", 30, window[0]);
+			assertEquals("CURRENT min", 0, window[1]);
+			assertEquals("CURRENT max", 99, window[2]);
+			assertEquals("INTERRUPT set", 10, window[3]);
+			assertEquals("INTERRUPT transitions", 20, window[4]);
+			assertEquals("COUNTFLAG transitions", 20, window[5]);
+			assertEquals("INTERRUPT last", 0, window[6]);
+		}
+		// the last window ends with the run
+		assertEquals(0.01, times.get(10)[1], 1e-12);
+	}
+
+	/**
+	 * Observing the steps for the windows must not consume the latched flags of
+	 * the samples: with an underflow every 100 us and a monitoring point every
+	 * 250 us, every sample after the first must still report INTERRUPT, while
+	 * the windows count each pulse once.
+	 */
+	@Test
+	public void testObservationKeepsSampledFlags() {
+		List<long[]> samples = new ArrayList<>();
+		List<Long> pulses = new ArrayList<>();
+		SimulationEngine engine = new SimulationEngine(null);
+		engine.setSampleSink((time, values) -> samples.add(values.clone()));
+		engine.setWindowSink(window -> pulses.add(window.getSetCount(INTERRUPT)));
+		engine.setContext(new SimulationContext(1_000_000, 1_000_000, 0, 0.01, 0.00025, 0, false, List.of(),
+				SchedulerType.HEAP, List.of()));
+		engine.setPeripheralModel(SysTickFixtures.createSysTick(99));
+		engine.initSimulation();
+		engine.startSimulation(0.01);
+
+		// monitoring points 0, 250 us, ..., 10 ms
+		assertEquals(41, samples.size());
+		assertEquals(0, samples.get(0)[INTERRUPT]);
+		for (long[] sample : samples.subList(1, samples.size())) {
+			assertEquals("INTERRUPT", 1, sample[INTERRUPT]);
+			assertEquals("COUNTFLAG", 1, sample[COUNTFLAG]);
+		}
+		// 100 underflows, the one at 10 ms in the last window
+		assertEquals(100, pulses.stream().mapToLong(Long::longValue).sum());
+	}
+
+	/**
+	 * Without a window sink the outputs must not be read between the monitoring
+	 * points.
+	 */
+	@Test
+	public void testNoObservationWithoutWindowSink() {
+		int[] reads = new int[1];
+		SysTickTimerModel model = new SysTickTimerModel(
+				SysTickFixtures.createConfig(SysTickFixtures.CSR_ENABLED_PROCESSOR_CLOCK, 99)) {
+			@Override
+			public void sampleOutputs(long[] values, int offset) {
+				reads[0]++;
+				super.sampleOutputs(values, offset);
+			}
+		};
+		SimulationEngine engine = new SimulationEngine(null);
+		engine.setSampleSink((time, values) -> {
+		});
+		engine.setContext(new SimulationContext(1_000_000, 1_000_000, 0, 0.01, 0.001, 0, false, List.of(),
+				SchedulerType.HEAP, List.of()));
+		engine.setPeripheralModel(model);
+		engine.initSimulation();
+		engine.startSimulation(0.01);
+
+		assertEquals("One read per monitoring point", 11, reads[0]);
+		assertEquals(11, engine.getMetrics().getSamplesEmitted());
+	}
+
+}
@@ -0,0 +1,137 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.engine.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import peripheralsimulation.engine.SchedulerType;
+import peripheralsimulation.engine.SimulationContext;
+import peripheralsimulation.engine.SimulationEngine;
+import peripheralsimulation.engine.UserEvent;
+import peripheralsimulation.engine.UserEventType;
+import peripheralsimulation.io.UserPreferences;
+import peripheralsimulation.model.test.SysTickFixtures;
+import peripheralsimulation.model.systick.SysTickTimerConfig;
+
+/**
+ * Test class for {@link SimulationContext}: engines with different contexts
+ * must not influence each other, and the context must not change after it was
+ * created.
+ *
+ * @author Veronika Lenková
+ */
+public class SimulationContextTest {
+
+	/** Index of the SysTick interrupt output */
+	private static final int INTERRUPT = 1;
+
+	/**
+	 * Two engines running concurrently with different clocks must each count the
+	 * interrupts of their own clock.
+	 *
+	 * @throws InterruptedException If the test is interrupted.
+	 */
+	@Test
+	public void testConcurrentEnginesWithDifferentClocks() throws InterruptedException {
+		AtomicLong slow = new AtomicLong();
+		AtomicLong fast = new AtomicLong();
+		Thread slowRun = new Thread(() -> slow.set(countInterrupts(context(1_000_000, List.of()))));
+		Thread fastRun = new Thread(() -> fast.set(countInterrupts(context(4_000_000, List.of()))));
+		slowRun.start();
+		fastRun.start();
+		slowRun.join();
+		fastRun.join();
+
+		// reload 99 => one interrupt every 100 clock cycles, 10 ms simulated
+		assertEquals(100, slow.get());
+		assertEquals(400, fast.get());
+	}
+
+	/**
+	 * The user events of the context must be scheduled by the engine and act on
+	 * the model of the engine when they have no target.
+	 */
+	@Test
+	public void testContextEventsActOnEngineModel() {
+		// disable the timer (CSR bit 0) after 5 ms, before the underflow at 5 ms
+		UserEvent disable = new UserEvent(0.005, 0, 1, null, UserEventType.CLEAR_BIT, SysTickTimerConfig.CSR_OFFSET,
+				0, 0);
+		long interrupts = countInterrupts(context(1_000_000, List.of(disable)));
+		assertEquals(49, interrupts);
+	}
+
+	/**
+	 * A context created by the user preferences must not follow later changes of
+	 * the preferences, and its lists must not be modifiable.
+	 */
+	@Test
+	public void testContextIsSnapshot() {
+		UserPreferences preferences = UserPreferences.getInstance();
+		int original = preferences.getClockFrequency();
+		try {
+			preferences.setClockFrequency(1_000_000);
+			SimulationContext context = preferences.toSimulationContext();
+			preferences.setClockFrequency(2_000_000);
+			assertEquals(1_000_000, context.getClockFrequency());
+
+			List<String> outputs = new ArrayList<>(List.of("INTERRUPT"));
+			SimulationContext copied = new SimulationContext(1, 1, 0, 1, 0, 0, false, outputs, null, null);
+			outputs.add("CURRENT");
+			assertEquals(List.of("INTERRUPT"), copied.getOutputs());
+			assertEquals(SchedulerType.HEAP, copied.getScheduler());
+			assertTrue(copied.getEvents().isEmpty());
+			try {
+				copied.getOutputs().add("COUNTFLAG");
+				throw new AssertionError("The outputs must not be modifiable");
+			} catch (UnsupportedOperationException e) {
+				// expected
+			}
+		} finally {
+			preferences.setClockFrequency(original);
+		}
+	}
+
+	/**
+	 * Negative clock frequencies must be rejected.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeClockFrequency() {
+		context(-1, List.of());
+	}
+
+	/**
+	 * Creates a context simulating 10 ms with the given clock and events.
+	 */
+	private static SimulationContext context(long clockFrequency, List<UserEvent> events) {
+		return new SimulationContext(clockFrequency, clockFrequency, 0, 0.01, 0, 0, false, List.of(),
+				SchedulerType.HEAP, events);
+	}
+
+	/**
+	 * Runs a SysTick timer with reload 99 on the processor clock and counts the
+	 * rising edges of its interrupt output.
+	 */
+	private static long countInterrupts(SimulationContext context) {
+		long[] interrupts = new long[1];
+		boolean[] high = new boolean[1];
+		SimulationEngine engine = new SimulationEngine((time, outputs) -> {
+			boolean level = Boolean.TRUE.equals(outputs[INTERRUPT]);
+			if (level && !high[0]) {
+				interrupts[0]++;
+			}
+			high[0] = level;
+		});
+		engine.setContext(context);
+		engine.setPeripheralModel(SysTickFixtures.createSysTick(99));
+		engine.initSimulation();
+		engine.startSimulation(context.getRangeTo());
+		return interrupts[0];
+	}
+
+}
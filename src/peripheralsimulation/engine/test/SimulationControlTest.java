@@ -0,0 +1,189 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.engine.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import peripheralsimulation.engine.SchedulerType;
+import peripheralsimulation.engine.SimulationEngine;
+import peripheralsimulation.engine.SimulationMetrics;
+import peripheralsimulation.engine.SimulationState;
+import peripheralsimulation.io.UserPreferencesBlock;
+import peripheralsimulation.model.SysTickTimerModel;
+import peripheralsimulation.model.test.SysTickFixtures;
+import peripheralsimulation.ui.SimulationGuiChoice;
+import peripheralsimulation.utils.OutputRowStore;
+import peripheralsimulation.utils.OverflowPolicy;
+
+/**
+ * Test class for controlling a running {@link SimulationEngine} from another
+ * thread (pause, resume, step, run until and stop).
+ *
+ * @author Veronika Lenková
+ */
+public class SimulationControlTest {
+
+	/** Maximal time to wait for the simulation thread in milliseconds */
+	private static final long TIMEOUT_MILLIS = 10_000;
+
+	/** The engine under test */
+	private SimulationEngine engine;
+
+	/** The thread running the simulation */
+	private Thread simulationThread;
+
+	@Before
+	public void setUp() {
+		engine = new SimulationEngine((time, outputs) -> {
+		});
+		engine.setSettings(new UserPreferencesBlock(0, 0, 1, 1_000_000, 1_000_000, 0, false, List.of(),
+				SimulationGuiChoice.TABLE, "us", SchedulerType.HEAP, OverflowPolicy.BLOCK,
+				OutputRowStore.DEFAULT_CAPACITY));
+		engine.initSimulation();
+		// an endless clock: one event every microsecond
+		long period = engine.getClockPeriod(1_000_000);
+		int[] clock = new int[1];
+		clock[0] = engine
+				.registerHandler(() -> engine.scheduleEventAtTick(engine.getCurrentTick() + period, clock[0]));
+		engine.scheduleEventAtTick(period, clock[0]);
+		simulationThread = new Thread(() -> engine.startSimulation(1e6));
+	}
+
+	@After
+	public void tearDown() throws InterruptedException {
+		engine.stopSimulation();
+		simulationThread.join(TIMEOUT_MILLIS);
+	}
+
+	/**
+	 * A paused run must execute exactly the requested number of steps and pause
+	 * again, and continue after resume.
+	 *
+	 * @throws InterruptedException If the test is interrupted.
+	 */
+	@Test
+	public void testPauseStepResume() throws InterruptedException {
+		SimulationMetrics metrics = engine.getMetrics();
+		engine.pauseSimulation();
+		simulationThread.start();
+		await(() -> engine.getSimulationState() == SimulationState.PAUSED);
+		assertEquals("Paused before the first event", 0, metrics.getEventsExecuted());
+
+		engine.stepSimulation(5);
+		await(() -> engine.getSimulationState() == SimulationState.PAUSED && metrics.getEventsExecuted() == 5);
+		Thread.sleep(50);
+		assertEquals("A paused run must not execute events", 5, metrics.getEventsExecuted());
+		assertEquals(5e-6, metrics.getSimulatedTime(), 1e-12);
+
+		engine.resumeSimulation();
+		await(() -> metrics.getEventsExecuted() > 5);
+		assertTrue(engine.isSimulationRunning());
+	}
+
+	/**
+	 * Run until must pause before the first event later than the given time.
+	 *
+	 * @throws InterruptedException If the test is interrupted.
+	 */
+	@Test
+	public void testRunUntil() throws InterruptedException {
+		SimulationMetrics metrics = engine.getMetrics();
+		engine.runSimulationUntil(0.002);
+		simulationThread.start();
+		await(() -> engine.getSimulationState() == SimulationState.PAUSED);
+		assertEquals(2000, metrics.getEventsExecuted());
+		assertEquals(0.002, metrics.getSimulatedTime(), 1e-12);
+	}
+
+	/**
+	 * Stop from another thread must end a running as well as a paused run and
+	 * reset the engine.
+	 *
+	 * @throws InterruptedException If the test is interrupted.
+	 */
+	@Test
+	public void testStopFromAnotherThread() throws InterruptedException {
+		simulationThread.start();
+		await(() -> engine.getMetrics().getEventsExecuted() > 0);
+		engine.pauseSimulation();
+		await(() -> engine.getSimulationState() == SimulationState.PAUSED);
+		engine.stopSimulation();
+		simulationThread.join(TIMEOUT_MILLIS);
+
+		assertFalse("The simulation thread must end", simulationThread.isAlive());
+		assertEquals(SimulationState.IDLE, engine.getSimulationState());
+		assertFalse(engine.isSimulationRunning());
+		assertEquals(0, engine.getCurrentTick());
+	}
+
+	/**
+	 * A stop sent while another thread initializes the run must end the run
+	 * before its first event, without touching the event queue from the stopping
+	 * thread.
+	 *
+	 * @throws InterruptedException If the test is interrupted.
+	 */
+	@Test
+	public void testStopDuringInitialization() throws InterruptedException {
+		CountDownLatch initializing = new CountDownLatch(1);
+		CountDownLatch stopped = new CountDownLatch(1);
+		SysTickTimerModel model = new SysTickTimerModel(SysTickFixtures.createConfig(
+				SysTickFixtures.CSR_ENABLED_PROCESSOR_CLOCK, 100)) {
+			@Override
+			public void initialize(SimulationEngine simulationEngine) {
+				initializing.countDown();
+				try {
+					stopped.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				super.initialize(simulationEngine);
+			}
+		};
+		engine.setPeripheralModel(model);
+		simulationThread = new Thread(() -> {
+			engine.initSimulation();
+			engine.startSimulation(1e6);
+		});
+		simulationThread.start();
+		assertTrue(initializing.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+		assertEquals(SimulationState.STARTING, engine.getSimulationState());
+		engine.stopSimulation();
+		stopped.countDown();
+		simulationThread.join(TIMEOUT_MILLIS);
+
+		assertFalse("The simulation thread must end", simulationThread.isAlive());
+		assertEquals("A stopped run must not execute events", 0, engine.getMetrics().getEventsExecuted());
+		assertEquals(SimulationState.IDLE, engine.getSimulationState());
+	}
+
+	/**
+	 * The number of steps must be positive.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testStepMustBePositive() {
+		engine.stepSimulation(0);
+	}
+
+	/**
+	 * Waits until the condition holds.
+	 */
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+		while (!condition.getAsBoolean()) {
+			assertTrue("Timed out waiting for the simulation", System.currentTimeMillis() < deadline);
+			Thread.sleep(1);
+		}
+	}
+
+}
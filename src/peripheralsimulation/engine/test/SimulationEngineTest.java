@@ -5,12 +5,18 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import peripheralsimulation.engine.SchedulerType;
+import peripheralsimulation.engine.SimulationContext;
 import peripheralsimulation.engine.SimulationEngine;
+import peripheralsimulation.engine.TimeBase;
 import peripheralsimulation.model.Peripheral;
 import peripheralsimulation.model.PeripheralModel;
 
@@ -45,16 +51,49 @@ public class SimulationEngineTest {
 	}
 
 	/**
-	 * Two events scheduled for the exact same time must both execute.
+	 * Two events scheduled for the exact same time must both execute, in the
+	 * order in which they were scheduled.
 	 */
 	@Test
 	public void testSimultaneousEvents() {
-		AtomicInteger counter = new AtomicInteger();
-		engine.scheduleEvent(2.0, counter::incrementAndGet);
-		engine.scheduleEvent(2.0, counter::incrementAndGet);
+		List<String> executed = new ArrayList<>();
+		engine.scheduleEvent(2.0, () -> executed.add("first"));
+		engine.scheduleEvent(2.0, () -> executed.add("second"));
 
 		engine.startSimulation(3);
-		assertEquals("Both events scheduled at t=2.0 should fire", 2, counter.get());
+		assertEquals("Both events scheduled at t=2.0 should fire in scheduling order", List.of("first", "second"),
+				executed);
+	}
+
+	/**
+	 * Same-time events (registered handlers and plain actions mixed) must run in
+	 * the order in which they were scheduled, with every scheduler type.
+	 */
+	@Test
+	public void testSimultaneousEventsAreFifoForEverySchedulerType() {
+		for (SchedulerType type : SchedulerType.values()) {
+			engine.setContext(new SimulationContext(SimulationContext.DEFAULT_CLOCK_FREQUENCY,
+					SimulationContext.DEFAULT_EXTERNAL_CLOCK_FREQUENCY, 0, 0, 0, 0, false, List.of(), type, List.of()));
+			engine.initSimulation();
+			List<Integer> executed = new ArrayList<>();
+			int handler = engine.registerHandler(() -> executed.add(executed.size()));
+			for (int i = 0; i < 100; i++) {
+				// a far event first, so the same-time events are not the only ones pending
+				engine.scheduleEvent(2.5, () -> {
+				});
+				if (i % 2 == 0) {
+					engine.scheduleEventAtTick(engine.getTimeBase().toTicks(2.0), handler);
+				} else {
+					int expected = i;
+					engine.scheduleEvent(2.0, () -> executed.add(expected));
+				}
+			}
+			engine.startSimulation(3);
+			for (int i = 0; i < executed.size(); i++) {
+				assertEquals(type + ": event " + i + " out of order", i, executed.get(i).intValue());
+			}
+			assertEquals(100, executed.size());
+		}
 	}
 
 	/**
@@ -78,7 +117,7 @@ public class SimulationEngineTest {
 			@Override
 			public Object[] getOutputs() {
 				outputCalls.incrementAndGet();
-				return new Object[] { "ok" };
+				return new Object[] { 1 };
 			}
 
 			@Override
@@ -100,8 +139,8 @@ public class SimulationEngineTest {
 
 			@Override
 			public String[] getOutputNames() {
-				// Intentionally empty
-				return null;
+				// the outputs are sampled through the schema of these names
+				return new String[] { "OK" };
 			}
 
 			@Override
@@ -243,4 +282,49 @@ public class SimulationEngineTest {
 		assertFalse("Event at t=10.0 must not fire if maxTime=5.0", called[0]);
 	}
 
+	/**
+	 * Clock periods must be an exact number of ticks, so that scheduling one clock
+	 * period after another for a whole second does not drift: for every clock of
+	 * the time base, frequency times period must be exactly one second.
+	 */
+	@Test
+	public void testClockPeriodDoesNotDrift() {
+		long[][] clockPairs = { { 48_000_000, 12_000_000 }, { 7_372_800, 12_000_000 }, { 8_000_000, 7_372_800 },
+				{ 32_768, 48_000_000 } };
+		for (long[] clocks : clockPairs) {
+			TimeBase timeBase = TimeBase.forClocks(clocks);
+			for (long frequency : clocks) {
+				long period = timeBase.periodOf(frequency);
+				assertEquals(frequency + " periods of " + frequency + " Hz must be exactly 1 s",
+						timeBase.getTicksPerSecond(), period * frequency);
+				assertEquals(1.0, timeBase.toSeconds(period * frequency), 0.0);
+			}
+		}
+	}
+
+	/**
+	 * Events scheduled in random order, mixing registered handlers and plain
+	 * runnables, must be executed in ascending time order.
+	 */
+	@Test
+	public void testManyEventsRunInTimeOrder() {
+		List<Long> executed = new ArrayList<>();
+		int handler = engine.registerHandler(() -> executed.add(engine.getCurrentTick()));
+		Random random = new Random(42);
+		for (int i = 0; i < 1000; i++) {
+			long tick = 1 + random.nextInt(1_000_000);
+			if (i % 2 == 0) {
+				engine.scheduleEventAtTick(tick, handler);
+			} else {
+				engine.scheduleEventAtTick(tick, () -> executed.add(engine.getCurrentTick()));
+			}
+		}
+
+		engine.startSimulation(1.0);
+		assertEquals("All events must be executed", 1000, executed.size());
+		for (int i = 1; i < executed.size(); i++) {
+			assertTrue("Events must run in time order", executed.get(i - 1) <= executed.get(i));
+		}
+	}
+
 }
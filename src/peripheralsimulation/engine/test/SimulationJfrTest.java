@@ -0,0 +1,155 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.engine.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import peripheralsimulation.engine.SchedulerType;
+import peripheralsimulation.engine.SimulationEngine;
+import peripheralsimulation.engine.UserEvent;
+import peripheralsimulation.engine.UserEventType;
+import peripheralsimulation.io.UserPreferencesBlock;
+import peripheralsimulation.model.SysTickTimerModel;
+import peripheralsimulation.model.test.SysTickFixtures;
+import peripheralsimulation.model.systick.SysTickTimerConfig;
+import peripheralsimulation.ui.SimulationGuiChoice;
+import peripheralsimulation.utils.OutputRowStore;
+import peripheralsimulation.utils.OverflowPolicy;
+
+/**
+ * Test class for the flight recorder events of the simulation engine and the
+ * user event generator.
+ *
+ * @author Veronika Lenková
+ */
+public class SimulationJfrTest {
+
+	/**
+	 * For a peripheral set the batches must count the events of each instance:
+	 * a timer underflowing every 10 us executes ten times the events of one
+	 * underflowing every 100 us.
+	 *
+	 * @throws Exception If the recording cannot be written or read.
+	 */
+	@Test
+	public void testBatchEventsPerInstance() throws Exception {
+		SimulationEngine engine = new SimulationEngine((time, outputs) -> {
+		});
+		engine.setSettings(new UserPreferencesBlock(0, 0, 0.01, 1_000_000, 1_000_000, 0, false, List.of(),
+				SimulationGuiChoice.TABLE, "us", SchedulerType.HEAP, OverflowPolicy.BLOCK,
+				OutputRowStore.DEFAULT_CAPACITY));
+		engine.addPeripheralModel("FAST", SysTickFixtures.createSysTick(9));
+		engine.addPeripheralModel("SLOW", SysTickFixtures.createSysTick(99));
+
+		Path file = Files.createTempFile("simulation", ".jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable("peripheralsimulation.EventBatch");
+			recording.start();
+			engine.initSimulation();
+			engine.startSimulation(0.01);
+			recording.stop();
+			recording.dump(file);
+
+			Map<String, Long> perInstance = new HashMap<>();
+			long batched = 0;
+			for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+				if (event.getEventType().getName().equals("peripheralsimulation.EventBatch")) {
+					assertEquals("PeripheralSet", event.getString("peripheral"));
+					batched += event.getLong("events");
+					for (String count : event.getString("instanceEvents").split(", ")) {
+						String[] pair = count.split("=");
+						perInstance.merge(pair[0], Long.parseLong(pair[1]), Long::sum);
+					}
+				}
+			}
+			assertEquals(engine.getMetrics().getEventsExecuted(), batched);
+			assertEquals(batched, perInstance.get("FAST") + perInstance.get("SLOW"));
+			assertTrue("The fast timer has more events", perInstance.get("FAST") > 5 * perInstance.get("SLOW"));
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	/**
+	 * A recorded run must produce one run event, batches covering all executed
+	 * events, one output handler event per sample (with a zero threshold) and one
+	 * event per applied user event.
+	 *
+	 * @throws Exception If the recording cannot be written or read.
+	 */
+	@Test
+	public void testRecordedRun() throws Exception {
+		SysTickTimerModel model = SysTickFixtures.createSysTick(99);
+		SimulationEngine engine = new SimulationEngine((time, outputs) -> {
+		});
+		engine.setSettings(new UserPreferencesBlock(0, 0, 0.1, 1_000_000, 1_000_000, 0, false, List.of(),
+				SimulationGuiChoice.TABLE, "us", SchedulerType.HEAP, OverflowPolicy.BLOCK,
+				OutputRowStore.DEFAULT_CAPACITY));
+		engine.setPeripheralModel(model);
+		// rewrites the reload value every 20 ms from 10 ms on, 5 times up to 100 ms
+		engine.addUserEvent(new UserEvent(0.01, 0.02, 0, model, UserEventType.WRITE_VALUE,
+				SysTickTimerConfig.RVR_OFFSET, 0, 99));
+
+		Path file = Files.createTempFile("simulation", ".jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable("peripheralsimulation.SimulationRun");
+			recording.enable("peripheralsimulation.EventBatch");
+			recording.enable("peripheralsimulation.OutputHandler").withThreshold(Duration.ZERO);
+			recording.enable("peripheralsimulation.UserEventApplied");
+			recording.start();
+			engine.initSimulation();
+			engine.startSimulation(0.1);
+			recording.stop();
+			recording.dump(file);
+
+			List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+			long executed = engine.getMetrics().getEventsExecuted();
+			long runs = 0;
+			long batched = 0;
+			long outputs = 0;
+			long userEvents = 0;
+			for (RecordedEvent event : events) {
+				switch (event.getEventType().getName()) {
+				case "peripheralsimulation.SimulationRun":
+					runs++;
+					assertEquals("SysTickTimerModel", event.getString("peripheral"));
+					assertEquals(executed, event.getLong("eventsExecuted"));
+					assertFalse(event.getBoolean("stopped"));
+					break;
+				case "peripheralsimulation.EventBatch":
+					batched += event.getLong("events");
+					break;
+				case "peripheralsimulation.OutputHandler":
+					outputs++;
+					break;
+				case "peripheralsimulation.UserEventApplied":
+					userEvents++;
+					assertEquals(SysTickTimerConfig.RVR_OFFSET, event.getInt("registerAddress"));
+					break;
+				default:
+					break;
+				}
+			}
+			assertEquals(1, runs);
+			assertEquals(executed, batched);
+			assertEquals(engine.getMetrics().getSamplesEmitted(), outputs);
+			assertEquals(5, userEvents);
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+}
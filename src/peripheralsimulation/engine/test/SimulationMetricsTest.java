@@ -0,0 +1,131 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.engine.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import peripheralsimulation.engine.SchedulerType;
+import peripheralsimulation.engine.SimulationEngine;
+import peripheralsimulation.engine.SimulationMetrics;
+import peripheralsimulation.io.UserPreferencesBlock;
+import peripheralsimulation.model.test.SysTickFixtures;
+import peripheralsimulation.ui.SimulationGuiChoice;
+import peripheralsimulation.utils.OutputRowStore;
+import peripheralsimulation.utils.OverflowPolicy;
+
+/**
+ * Test class for {@link SimulationMetrics} and the counters published by the
+ * {@link SimulationEngine}.
+ *
+ * @author Veronika Lenková
+ */
+public class SimulationMetricsTest {
+
+	/** Number of outputs received by the output handler */
+	private long receivedOutputs;
+
+	/** The engine under test */
+	private SimulationEngine engine;
+
+	@Before
+	public void setUp() {
+		engine = new SimulationEngine((time, outputs) -> receivedOutputs++);
+		engine.setSettings(new UserPreferencesBlock(0, 0, 1, 1_000_000, 1_000_000, 0, false, List.of(),
+				SimulationGuiChoice.TABLE, "us", SchedulerType.HEAP, OverflowPolicy.BLOCK,
+				OutputRowStore.DEFAULT_CAPACITY));
+		engine.initSimulation();
+	}
+
+	/**
+	 * The engine must count executed and scheduled events, the queue depth
+	 * high-water mark and the reached simulation time.
+	 */
+	@Test
+	public void testEventCounters() {
+		for (int i = 1; i <= 10; i++) {
+			engine.scheduleEvent(i * 1e-3, () -> {
+			});
+		}
+		// one event scheduling two more while the queue is almost empty
+		engine.scheduleEvent(0.5, () -> {
+			engine.scheduleEvent(0.6, () -> {
+			});
+			engine.scheduleEvent(0.7, () -> {
+			});
+		});
+		engine.startSimulation(1);
+
+		SimulationMetrics metrics = engine.getMetrics();
+		assertEquals(13, metrics.getEventsExecuted());
+		assertEquals(13, metrics.getEventsScheduled());
+		assertEquals(11, metrics.getQueueHighWaterMark());
+		assertEquals(0.7, metrics.getSimulatedTime(), 1e-12);
+		assertEquals("No model, no outputs", 0, metrics.getSamplesEmitted());
+		assertTrue(metrics.getWallTime() > 0);
+		assertTrue(metrics.getSimToWallRatio() > 0);
+		assertTrue(metrics.getEventsPerSecond() > 0);
+	}
+
+	/**
+	 * Every output passed to the output handler must be counted, and a new
+	 * initialization must reset the counters.
+	 */
+	@Test
+	public void testSamplesCountedAndResetOnInit() {
+		engine.setPeripheralModel(SysTickFixtures.createSysTick(99));
+		engine.initSimulation();
+		engine.startSimulation(0.01);
+
+		SimulationMetrics metrics = engine.getMetrics();
+		assertTrue(receivedOutputs > 0);
+		assertEquals(receivedOutputs, metrics.getSamplesEmitted());
+		assertEquals("One output per event with a monitoring period of 0", metrics.getEventsExecuted(),
+				metrics.getSamplesEmitted());
+
+		metrics.setSamplesDropped(5);
+		engine.initSimulation();
+		assertEquals(0, metrics.getEventsExecuted());
+		assertEquals(0, metrics.getSamplesEmitted());
+		assertEquals(0, metrics.getSamplesDropped());
+		assertEquals(0, metrics.getSimToWallRatio(), 0);
+	}
+
+	/**
+	 * The metrics must be readable through the platform MBean server while they
+	 * are registered.
+	 *
+	 * @throws Exception If the MBean server access fails.
+	 */
+	@Test
+	public void testRegisteredAsMXBean() throws Exception {
+		engine.scheduleEvent(1e-3, () -> {
+		});
+		engine.startSimulation(1);
+		SimulationMetrics metrics = engine.getMetrics();
+		metrics.register("SimulationMetricsTest");
+		try {
+			ObjectName name = metrics.getObjectName();
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			assertTrue(server.isRegistered(name));
+			assertEquals(1L, server.getAttribute(name, "EventsExecuted"));
+			assertEquals(1L, server.getAttribute(name, "EventsScheduled"));
+		} finally {
+			ObjectName name = metrics.getObjectName();
+			metrics.unregister();
+			assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+			assertNull(metrics.getObjectName());
+		}
+	}
+
+}
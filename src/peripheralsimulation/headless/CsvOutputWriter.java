@@ -0,0 +1,96 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.headless;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+/**
+ * Output handler of the {@link peripheralsimulation.engine.SimulationEngine}
+ * which streams the selected outputs to a CSV file (one row per output sample,
+ * the first column is the simulation time in seconds). Nothing is kept in
+ * memory. Unchanged samples are skipped by the engine
+ * ({@link peripheralsimulation.engine.SimulationContext#isOnlyChanges()}).
+ *
+ * @author Veronika Lenková
+ */
+public class CsvOutputWriter implements BiConsumer<Double, Object[]>, Closeable {
+
+	/** Separator of the CSV columns */
+	private static final char SEPARATOR = ',';
+
+	/** The writer of the CSV file */
+	private final BufferedWriter writer;
+
+	/** Indices of the written outputs */
+	private final int[] columns;
+
+	/** Number of written rows (without the header) */
+	private long rowCount;
+
+	/**
+	 * Constructor for CsvOutputWriter. Creates the file and writes the header.
+	 *
+	 * @param file        The CSV file to write.
+	 * @param outputNames The names of all outputs of the peripheral model.
+	 * @param columns     The indices of the outputs to write.
+	 * @throws IOException If the file cannot be created.
+	 */
+	public CsvOutputWriter(Path file, String[] outputNames, int[] columns) throws IOException {
+		this.writer = Files.newBufferedWriter(file);
+		this.columns = columns;
+		writer.write("time");
+		for (int column : columns) {
+			writer.write(SEPARATOR);
+			writer.write(outputNames[column]);
+		}
+		writer.newLine();
+	}
+
+	/**
+	 * Writes one output sample.
+	 *
+	 * @param time    The simulation time in seconds.
+	 * @param outputs The outputs of the peripheral model.
+	 * @throws UncheckedIOException If the row cannot be written.
+	 */
+	@Override
+	public void accept(Double time, Object[] outputs) {
+		try {
+			writer.write(Double.toString(time));
+			for (int i = 0; i < columns.length; i++) {
+				writer.write(SEPARATOR);
+				writer.write(String.valueOf(outputs[columns[i]]));
+			}
+			writer.newLine();
+			rowCount++;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Returns the number of written rows (without the header).
+	 *
+	 * @return The number of written rows.
+	 */
+	public long getRowCount() {
+		return rowCount;
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+
+	@Override
+	public String toString() {
+		return "CsvOutputWriter" + Arrays.toString(columns);
+	}
+
+}
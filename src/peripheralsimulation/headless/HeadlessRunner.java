@@ -0,0 +1,160 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.headless;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import peripheralsimulation.engine.SampleSink;
+import peripheralsimulation.engine.SimulationContext;
+import peripheralsimulation.engine.SimulationEngine;
+import peripheralsimulation.engine.WindowSink;
+import peripheralsimulation.io.ConfigYamlUtils;
+import peripheralsimulation.io.SimulationConfig;
+import peripheralsimulation.io.UserPreferencesBlock;
+import peripheralsimulation.io.trace.TraceWriter;
+import peripheralsimulation.io.trace.VcdWriter;
+import peripheralsimulation.model.Peripheral;
+import peripheralsimulation.model.PeripheralModel;
+import peripheralsimulation.utils.RegisterUtils;
+
+/**
+ * Runs a simulation without the Eclipse workbench. The peripheral is configured
+ * from a register CSV file, the preferences and user events are read from a
+ * YAML configuration file and the outputs are streamed to a CSV file by
+ * {@link CsvOutputWriter}, to a binary trace by {@link TraceWriter} when the
+ * output file name ends with {@value #TRACE_EXTENSION}, or to a value change
+ * dump by {@link VcdWriter} when it ends with {@value #VCD_EXTENSION}. When it
+ * ends with {@value #WINDOWS_EXTENSION}, the selected outputs are aggregated
+ * over the monitoring windows and written by {@link WindowCsvWriter}. Neither
+ * SWT nor the {@code UserPreferences} singleton is used, so the runner can be
+ * used from scripts and CI; {@code waitMs} of the configuration is ignored.
+ *
+ * <pre>
+ * java peripheralsimulation.headless.HeadlessRunner &lt;SYSTICKTIMER|FLEXIO&gt; &lt;registers.csv&gt; &lt;config.yaml&gt; &lt;output.csv|.windows.csv|.trace|.vcd&gt;
+ * </pre>
+ *
+ * @author Veronika Lenková
+ */
+public final class HeadlessRunner {
+
+	/** Extension of output files written as binary traces */
+	public static final String TRACE_EXTENSION = ".trace";
+
+	/** Extension of output files written as value change dumps */
+	public static final String VCD_EXTENSION = ".vcd";
+
+	/** Extension of output files written as aggregated monitoring windows */
+	public static final String WINDOWS_EXTENSION = ".windows.csv";
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private HeadlessRunner() {
+	}
+
+	/**
+	 * Runs one simulation and writes its outputs to a CSV file, a CSV file of
+	 * monitoring windows, a binary trace or a value change dump.
+	 *
+	 * @param peripheral   The simulated peripheral.
+	 * @param registersCsv The register CSV file (name,value per line).
+	 * @param configYaml   The YAML configuration (preferences and events).
+	 * @param output       The CSV, trace or VCD file to write the outputs to.
+	 * @return The number of written rows (samples or windows).
+	 * @throws IOException If an input file cannot be read or the output cannot be
+	 *                     written.
+	 */
+	public static long run(Peripheral peripheral, Path registersCsv, Path configYaml, Path output)
+			throws IOException {
+		PeripheralModel model = peripheral.createModel(
+				RegisterUtils.convertToRegisterMap(RegisterUtils.loadRegistersFromCsv(registersCsv), peripheral));
+		SimulationConfig config = ConfigYamlUtils.loadYaml(configYaml, model);
+		UserPreferencesBlock preferences = config.getPreferences();
+
+		String fileName = output.getFileName().toString();
+		// traces and dumps always hold every output channel
+		if (fileName.endsWith(TRACE_EXTENSION)) {
+			try (TraceWriter writer = new TraceWriter(output, model)) {
+				simulate(model, config, null, writer, null);
+				return writer.getSampleCount();
+			}
+		}
+		if (fileName.endsWith(VCD_EXTENSION)) {
+			try (VcdWriter writer = new VcdWriter(output, model)) {
+				simulate(model, config, null, writer, null);
+				return writer.getSampleCount();
+			}
+		}
+		if (fileName.endsWith(WINDOWS_EXTENSION)) {
+			try (WindowCsvWriter writer = new WindowCsvWriter(output, model.getOutputNames(),
+					selectColumns(model, preferences.getOutputs()))) {
+				simulate(model, config, null, null, writer);
+				return writer.getRowCount();
+			}
+		}
+		try (CsvOutputWriter writer = new CsvOutputWriter(output, model.getOutputNames(),
+				selectColumns(model, preferences.getOutputs()))) {
+			simulate(model, config, writer, null, null);
+			return writer.getRowCount();
+		}
+	}
+
+	/**
+	 * Runs the simulation of the model with the given configuration. Binary
+	 * writers get primitive samples, the CSV writer boxed outputs and the window
+	 * writer aggregated windows. The run ignores {@code waitMs}, so it always
+	 * runs at full speed.
+	 */
+	private static void simulate(PeripheralModel model, SimulationConfig config,
+			BiConsumer<Double, Object[]> outputHandler, SampleSink sampleSink, WindowSink windowSink) {
+		SimulationContext context = config.toSimulationContext().withoutWait();
+		SimulationEngine engine = new SimulationEngine(outputHandler);
+		engine.setSampleSink(sampleSink);
+		engine.setWindowSink(windowSink);
+		engine.setContext(context);
+		engine.setPeripheralModel(model);
+		engine.initSimulation();
+		engine.startSimulation(context.getRangeTo());
+	}
+
+	/**
+	 * Returns the indices of the selected outputs, all outputs if none is
+	 * selected.
+	 */
+	private static int[] selectColumns(PeripheralModel model, List<String> outputs) {
+		if (outputs == null || outputs.isEmpty()) {
+			int[] columns = new int[model.getOutputNames().length];
+			for (int i = 0; i < columns.length; i++) {
+				columns[i] = i;
+			}
+			return columns;
+		}
+		int[] columns = new int[outputs.size()];
+		for (int i = 0; i < columns.length; i++) {
+			columns[i] = model.getOutputIndex(outputs.get(i));
+		}
+		return columns;
+	}
+
+	/**
+	 * Command line entry point.
+	 *
+	 * @param args peripheral, register CSV file, YAML configuration, output CSV,
+	 *             windows CSV, trace or VCD file
+	 * @throws IOException If an input file cannot be read or the output cannot be
+	 *                     written.
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length != 4) {
+			System.err.println(
+					"Usage: HeadlessRunner <SYSTICKTIMER|FLEXIO> <registers.csv> <config.yaml> <output.csv|.windows.csv|.trace|.vcd>");
+			System.exit(2);
+		}
+		Peripheral peripheral = Peripheral.valueOf(args[0].toUpperCase());
+		long rows = run(peripheral, Path.of(args[1]), Path.of(args[2]), Path.of(args[3]));
+		System.out.println("[HeadlessRunner] " + rows + " rows written to " + args[3]);
+	}
+
+}
@@ -0,0 +1,156 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.headless;
+
+/**
+ * Summary of one run of a parameter sweep ({@link SweepRunner}). Besides the
+ * engine counters it holds, for every summarised one-bit output (a pin level or
+ * a flag), the number of rising edges and the mean time between them, e.g. the
+ * interrupt period of a SysTick timer or the number of UART frame errors
+ * ({@code Shifter0_SEF}) of a FlexIO.
+ *
+ * @author Veronika Lenková
+ */
+public class SweepResult {
+
+	/** The variation which was simulated */
+	private final SweepVariation variation;
+
+	/** Names of the summarised outputs */
+	private final String[] outputNames;
+
+	/** Number of rising edges of each summarised output */
+	private final long[] risingEdges;
+
+	/** Mean time between rising edges of each output in seconds (NaN if < 2) */
+	private final double[] meanPeriods;
+
+	/** Number of executed events */
+	private final long eventsExecuted;
+
+	/** Number of output samples */
+	private final long samplesEmitted;
+
+	/** Reached simulation time in seconds */
+	private final double simulatedTime;
+
+	/** Wall-clock duration of the run in seconds */
+	private final double wallTime;
+
+	/** The error which ended the run, null if the run succeeded */
+	private final String error;
+
+	/**
+	 * Constructor for a finished run.
+	 *
+	 * @param variation      The simulated variation.
+	 * @param outputNames    Names of the summarised outputs.
+	 * @param risingEdges    Number of rising edges of each output.
+	 * @param meanPeriods    Mean time between rising edges of each output.
+	 * @param eventsExecuted Number of executed events.
+	 * @param samplesEmitted Number of output samples.
+	 * @param simulatedTime  Reached simulation time in seconds.
+	 * @param wallTime       Wall-clock duration of the run in seconds.
+	 */
+	public SweepResult(SweepVariation variation, String[] outputNames, long[] risingEdges, double[] meanPeriods,
+			long eventsExecuted, long samplesEmitted, double simulatedTime, double wallTime) {
+		this.variation = variation;
+		this.outputNames = outputNames;
+		this.risingEdges = risingEdges;
+		this.meanPeriods = meanPeriods;
+		this.eventsExecuted = eventsExecuted;
+		this.samplesEmitted = samplesEmitted;
+		this.simulatedTime = simulatedTime;
+		this.wallTime = wallTime;
+		this.error = null;
+	}
+
+	/**
+	 * Constructor for a failed run.
+	 *
+	 * @param variation The simulated variation.
+	 * @param error     The description of the error.
+	 */
+	public SweepResult(SweepVariation variation, String error) {
+		this.variation = variation;
+		this.outputNames = new String[0];
+		this.risingEdges = new long[0];
+		this.meanPeriods = new double[0];
+		this.eventsExecuted = 0;
+		this.samplesEmitted = 0;
+		this.simulatedTime = 0;
+		this.wallTime = 0;
+		this.error = error;
+	}
+
+	public SweepVariation getVariation() {
+		return variation;
+	}
+
+	public String[] getOutputNames() {
+		return outputNames;
+	}
+
+	/**
+	 * Returns the number of rising edges of a summarised output.
+	 *
+	 * @param outputName The name of the output.
+	 * @return The number of rising edges.
+	 * @throws IllegalArgumentException If the output is not summarised.
+	 */
+	public long getRisingEdges(String outputName) {
+		return risingEdges[indexOf(outputName)];
+	}
+
+	/**
+	 * Returns the mean time between the rising edges of a summarised output.
+	 *
+	 * @param outputName The name of the output.
+	 * @return The mean period in seconds, NaN if the output rose less than twice.
+	 * @throws IllegalArgumentException If the output is not summarised.
+	 */
+	public double getMeanPeriod(String outputName) {
+		return meanPeriods[indexOf(outputName)];
+	}
+
+	public long getEventsExecuted() {
+		return eventsExecuted;
+	}
+
+	public long getSamplesEmitted() {
+		return samplesEmitted;
+	}
+
+	public double getSimulatedTime() {
+		return simulatedTime;
+	}
+
+	public double getWallTime() {
+		return wallTime;
+	}
+
+	public String getError() {
+		return error;
+	}
+
+	/**
+	 * Returns whether the run finished without an error.
+	 *
+	 * @return True if the run succeeded.
+	 */
+	public boolean isSuccessful() {
+		return error == null;
+	}
+
+	/**
+	 * Returns the index of a summarised output.
+	 */
+	private int indexOf(String outputName) {
+		for (int i = 0; i < outputNames.length; i++) {
+			if (outputNames[i].equals(outputName)) {
+				return i;
+			}
+		}
+		throw new IllegalArgumentException("Output not summarised: " + outputName);
+	}
+
+}
@@ -0,0 +1,328 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.headless;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import peripheralsimulation.engine.SampleSink;
+import peripheralsimulation.engine.SimulationContext;
+import peripheralsimulation.engine.SimulationEngine;
+import peripheralsimulation.engine.SimulationMetrics;
+import peripheralsimulation.io.ConfigYamlUtils;
+import peripheralsimulation.model.OutputSchema;
+import peripheralsimulation.model.OutputType;
+import peripheralsimulation.model.Peripheral;
+import peripheralsimulation.model.PeripheralModel;
+import peripheralsimulation.utils.RegisterUtils;
+
+/**
+ * Runs one scenario (a register CSV file and a YAML configuration) for many
+ * parameter variations in parallel and summarises every run into one row of a
+ * table. Each variation is simulated by its own {@link SimulationEngine},
+ * model and user events on a {@link ForkJoinPool}; nothing is shared between
+ * the runs and the {@code UserPreferences} singleton is not used.
+ *
+ * <p>
+ * The summarised outputs are the one-bit outputs selected in the configuration
+ * (all one-bit outputs if none is selected). For each of them the table holds
+ * the number of rising edges and the mean time between them. The runs ignore
+ * {@code waitMs} and do not keep the samples.
+ * </p>
+ *
+ * <pre>
+ * java peripheralsimulation.headless.SweepRunner &lt;SYSTICKTIMER|FLEXIO&gt; &lt;registers.csv&gt; &lt;config.yaml&gt; &lt;variations.csv&gt; [summary.csv] [threads]
+ * </pre>
+ *
+ * @author Veronika Lenková
+ */
+public final class SweepRunner {
+
+	/** Separator of the summary CSV columns */
+	private static final char SEPARATOR = ',';
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private SweepRunner() {
+	}
+
+	/**
+	 * Runs the scenario for every variation and returns the summaries in the
+	 * order of the variations. A failure of one run (e.g. an invalid register
+	 * value) is reported in its result and does not stop the other runs.
+	 *
+	 * @param peripheral   The simulated peripheral.
+	 * @param registersCsv The base register CSV file (name,value per line).
+	 * @param configYaml   The base YAML configuration (preferences and events).
+	 * @param variations   The variations to simulate.
+	 * @param parallelism  The number of runs simulated at the same time.
+	 * @return The summaries of the runs.
+	 * @throws IOException              If the register file cannot be read.
+	 * @throws IllegalArgumentException If the parallelism is not positive or a
+	 *                                  variation sets an unknown register.
+	 */
+	public static List<SweepResult> run(Peripheral peripheral, Path registersCsv, Path configYaml,
+			List<SweepVariation> variations, int parallelism) throws IOException {
+		if (parallelism <= 0) {
+			throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+		}
+		for (SweepVariation variation : variations) {
+			for (String register : variation.getRegisters().keySet()) {
+				if (RegisterUtils.getRegisterOffset(register, peripheral) == -1) {
+					throw new IllegalArgumentException(
+							"Unknown register " + register + " of " + peripheral + " in variation " + variation);
+				}
+			}
+		}
+		Map<String, Integer> baseRegisters = RegisterUtils.loadRegistersFromCsv(registersCsv);
+
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			List<ForkJoinTask<SweepResult>> tasks = new ArrayList<>(variations.size());
+			for (SweepVariation variation : variations) {
+				tasks.add(pool.submit(() -> runVariation(peripheral, baseRegisters, configYaml, variation)));
+			}
+			List<SweepResult> results = new ArrayList<>(tasks.size());
+			for (ForkJoinTask<SweepResult> task : tasks) {
+				results.add(task.join());
+			}
+			return results;
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Simulates one variation.
+	 */
+	private static SweepResult runVariation(Peripheral peripheral, Map<String, Integer> baseRegisters,
+			Path configYaml, SweepVariation variation) {
+		try {
+			Map<String, Integer> registers = new HashMap<>(baseRegisters);
+			registers.putAll(variation.getRegisters());
+			PeripheralModel model = peripheral
+					.createModel(RegisterUtils.convertToRegisterMap(registers, peripheral));
+			SimulationContext base = ConfigYamlUtils.loadYaml(configYaml, model).toSimulationContext();
+			SimulationContext context = base.withClockFrequencies(
+					variation.getClkFreq() > 0 ? variation.getClkFreq() : base.getClockFrequency(),
+					variation.getExtClkFreq() > 0 ? variation.getExtClkFreq() : base.getExternalClockFrequency())
+					.withoutWait();
+
+			EdgeCounter counter = new EdgeCounter(selectOutputs(model, context.getOutputs()));
+			SimulationEngine engine = new SimulationEngine(null);
+			engine.setSampleSink(counter);
+			engine.setContext(context);
+			engine.setPeripheralModel(model);
+			engine.initSimulation();
+			engine.startSimulation(context.getRangeTo());
+
+			SimulationMetrics metrics = engine.getMetrics();
+			String[] names = new String[counter.columns.length];
+			double[] periods = new double[names.length];
+			for (int i = 0; i < names.length; i++) {
+				names[i] = model.getOutputName(counter.columns[i]);
+				periods[i] = counter.edges[i] < 2 ? Double.NaN
+						: (counter.lastEdge[i] - counter.firstEdge[i]) / (counter.edges[i] - 1);
+			}
+			return new SweepResult(variation, names, counter.edges, periods, metrics.getEventsExecuted(),
+					metrics.getSamplesEmitted(), metrics.getSimulatedTime(), metrics.getWallTime());
+		} catch (IOException | RuntimeException e) {
+			return new SweepResult(variation, e.toString());
+		}
+	}
+
+	/**
+	 * Returns the indices of the selected one-bit outputs, all one-bit outputs if
+	 * none is selected. The outputs are described by the output schema of the
+	 * model: booleans and one-bit integers.
+	 */
+	private static int[] selectOutputs(PeripheralModel model, List<String> outputs) {
+		OutputSchema schema = model.getOutputSchema();
+		List<Integer> columns = new ArrayList<>();
+		if (outputs == null || outputs.isEmpty()) {
+			for (int i = 0; i < schema.size(); i++) {
+				columns.add(i);
+			}
+		} else {
+			for (String output : outputs) {
+				columns.add(model.getOutputIndex(output));
+			}
+		}
+		return columns.stream().filter(i -> schema.getType(i) == OutputType.BOOLEAN || schema.getBitWidth(i) == 1)
+				.mapToInt(Integer::intValue).toArray();
+	}
+
+	/**
+	 * Formats the summaries as a table with aligned columns (e.g. for the
+	 * console).
+	 *
+	 * @param results The summaries of the runs.
+	 * @return The formatted table.
+	 */
+	public static String formatTable(List<SweepResult> results) {
+		List<String[]> rows = toRows(results);
+		int[] widths = new int[rows.get(0).length];
+		for (String[] row : rows) {
+			for (int i = 0; i < row.length; i++) {
+				widths[i] = Math.max(widths[i], row[i].length());
+			}
+		}
+		StringBuilder table = new StringBuilder();
+		for (String[] row : rows) {
+			for (int i = 0; i < row.length; i++) {
+				table.append(i == 0 ? String.format("%-" + widths[i] + "s", row[i])
+						: String.format("  %" + widths[i] + "s", row[i]));
+			}
+			table.append(System.lineSeparator());
+		}
+		return table.toString();
+	}
+
+	/**
+	 * Writes the summaries to a CSV file, one row per variation.
+	 *
+	 * @param results The summaries of the runs.
+	 * @param file    The CSV file to write.
+	 * @throws IOException If the file cannot be written.
+	 */
+	public static void writeCsv(List<SweepResult> results, Path file) throws IOException {
+		try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+			for (String[] row : toRows(results)) {
+				writer.write(String.join(String.valueOf(SEPARATOR), row));
+				writer.newLine();
+			}
+		}
+	}
+
+	/**
+	 * Converts the summaries to table rows, the first row is the header.
+	 */
+	private static List<String[]> toRows(List<SweepResult> results) {
+		String[] outputNames = results.stream().filter(SweepResult::isSuccessful).findFirst()
+				.map(SweepResult::getOutputNames).orElse(new String[0]);
+		int columns = 5 + 2 * outputNames.length + 1;
+		List<String[]> rows = new ArrayList<>(results.size() + 1);
+		String[] header = new String[columns];
+		header[0] = "name";
+		header[1] = "events";
+		header[2] = "samples";
+		header[3] = "simTime[s]";
+		header[4] = "wallTime[s]";
+		for (int i = 0; i < outputNames.length; i++) {
+			header[5 + 2 * i] = outputNames[i] + ".edges";
+			header[6 + 2 * i] = outputNames[i] + ".period[s]";
+		}
+		header[columns - 1] = "error";
+		rows.add(header);
+		for (SweepResult result : results) {
+			String[] row = new String[columns];
+			Arrays.fill(row, "");
+			row[0] = result.getVariation().getName();
+			if (result.isSuccessful()) {
+				row[1] = Long.toString(result.getEventsExecuted());
+				row[2] = Long.toString(result.getSamplesEmitted());
+				row[3] = format(result.getSimulatedTime());
+				row[4] = format(result.getWallTime());
+				for (int i = 0; i < outputNames.length; i++) {
+					row[5 + 2 * i] = Long.toString(result.getRisingEdges(outputNames[i]));
+					double period = result.getMeanPeriod(outputNames[i]);
+					row[6 + 2 * i] = Double.isNaN(period) ? "" : format(period);
+				}
+			} else {
+				// the error is the last column, keep it on one CSV cell
+				row[columns - 1] = result.getError().replace(SEPARATOR, ';');
+			}
+			rows.add(row);
+		}
+		return rows;
+	}
+
+	/**
+	 * Formats a time in seconds.
+	 */
+	private static String format(double seconds) {
+		return String.format(Locale.ROOT, "%.6g", seconds);
+	}
+
+	/**
+	 * Command line entry point.
+	 *
+	 * @param args peripheral, register CSV file, YAML configuration, variations
+	 *             CSV file, optionally the summary CSV file and the number of
+	 *             threads (all processors by default)
+	 * @throws IOException If an input file cannot be read or the summary cannot
+	 *                     be written.
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 4 || args.length > 6) {
+			System.err.println("Usage: SweepRunner <SYSTICKTIMER|FLEXIO> <registers.csv> <config.yaml> "
+					+ "<variations.csv> [summary.csv] [threads]");
+			System.exit(2);
+		}
+		Peripheral peripheral = Peripheral.valueOf(args[0].toUpperCase());
+		int threads = args.length == 6 ? Integer.parseInt(args[5]) : Runtime.getRuntime().availableProcessors();
+		List<SweepResult> results = run(peripheral, Path.of(args[1]), Path.of(args[2]),
+				SweepVariation.loadFromCsv(Path.of(args[3])), threads);
+		System.out.print(formatTable(results));
+		if (args.length >= 5) {
+			writeCsv(results, Path.of(args[4]));
+			System.out.println("[SweepRunner] " + results.size() + " runs written to " + args[4]);
+		}
+	}
+
+	/**
+	 * Output handler counting the rising edges of the summarised outputs.
+	 */
+	private static final class EdgeCounter implements SampleSink {
+
+		/** Indices of the summarised outputs */
+		private final int[] columns;
+
+		/** Number of rising edges of each output */
+		private final long[] edges;
+
+		/** Time of the first rising edge of each output */
+		private final double[] firstEdge;
+
+		/** Time of the last rising edge of each output */
+		private final double[] lastEdge;
+
+		/** The level of each output in the previous sample */
+		private final boolean[] high;
+
+		private EdgeCounter(int[] columns) {
+			this.columns = columns;
+			this.edges = new long[columns.length];
+			this.firstEdge = new double[columns.length];
+			this.lastEdge = new double[columns.length];
+			this.high = new boolean[columns.length];
+		}
+
+		@Override
+		public void acceptSample(double time, long[] values) {
+			for (int i = 0; i < columns.length; i++) {
+				boolean level = values[columns[i]] != 0;
+				if (level && !high[i]) {
+					if (edges[i] == 0) {
+						firstEdge[i] = time;
+					}
+					lastEdge[i] = time;
+					edges[i]++;
+				}
+				high[i] = level;
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,165 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.headless;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One point of a parameter sweep run by {@link SweepRunner}: register values
+ * (by register name, e.g. {@code SYST_RVR} or {@code TIMCMP0}) which override
+ * the base register CSV, and optionally other clock frequencies than in the
+ * base YAML configuration.
+ *
+ * @author Veronika Lenková
+ */
+public class SweepVariation {
+
+	/** Column of the variations CSV with the variation name */
+	public static final String NAME_COLUMN = "name";
+
+	/** Column of the variations CSV with the main clock frequency */
+	public static final String CLK_FREQ_COLUMN = "clkFreq";
+
+	/** Column of the variations CSV with the external clock frequency */
+	public static final String EXT_CLK_FREQ_COLUMN = "extClkFreq";
+
+	/** The name of the variation (first column of the summary table) */
+	private final String name;
+
+	/** Register values overriding the base registers (name -> value) */
+	private final Map<String, Integer> registers;
+
+	/** The main clock frequency in Hz, 0 to keep the base configuration */
+	private final int clkFreq;
+
+	/** The external clock frequency in Hz, 0 to keep the base configuration */
+	private final int extClkFreq;
+
+	/**
+	 * Constructor for SweepVariation.
+	 *
+	 * @param name       The name of the variation.
+	 * @param registers  Register values overriding the base registers.
+	 * @param clkFreq    The main clock frequency in Hz, 0 to keep the base
+	 *                   configuration.
+	 * @param extClkFreq The external clock frequency in Hz, 0 to keep the base
+	 *                   configuration.
+	 * @throws IllegalArgumentException If the name is empty or a frequency is
+	 *                                  negative.
+	 */
+	public SweepVariation(String name, Map<String, Integer> registers, int clkFreq, int extClkFreq) {
+		if (name == null || name.isBlank()) {
+			throw new IllegalArgumentException("Variation name must not be empty");
+		}
+		if (clkFreq < 0 || extClkFreq < 0) {
+			throw new IllegalArgumentException("Invalid clock frequency of variation " + name);
+		}
+		this.name = name;
+		this.registers = Map.copyOf(registers);
+		this.clkFreq = clkFreq;
+		this.extClkFreq = extClkFreq;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Map<String, Integer> getRegisters() {
+		return registers;
+	}
+
+	public int getClkFreq() {
+		return clkFreq;
+	}
+
+	public int getExtClkFreq() {
+		return extClkFreq;
+	}
+
+	/**
+	 * Loads variations from a CSV file. The header names the columns:
+	 * {@value #NAME_COLUMN}, optionally {@value #CLK_FREQ_COLUMN} and
+	 * {@value #EXT_CLK_FREQ_COLUMN}, and register names. Every other line is one
+	 * variation; values are decimal or hexadecimal with the {@code 0x} prefix and
+	 * an empty cell keeps the base value.
+	 *
+	 * <pre>
+	 * name,SYST_RVR,clkFreq
+	 * rvr999,999,
+	 * rvr4799_8MHz,0x12BF,8000000
+	 * </pre>
+	 *
+	 * @param file The variations CSV file.
+	 * @return The variations in the order of the file.
+	 * @throws IOException              If the file cannot be read.
+	 * @throws IllegalArgumentException If the header has no name column or a line
+	 *                                  is malformed.
+	 */
+	public static List<SweepVariation> loadFromCsv(Path file) throws IOException {
+		List<String> lines = Files.readAllLines(file);
+		if (lines.isEmpty()) {
+			return List.of();
+		}
+		String[] header = lines.get(0).split(",", -1);
+		int nameColumn = -1;
+		for (int i = 0; i < header.length; i++) {
+			header[i] = header[i].trim();
+			if (header[i].equals(NAME_COLUMN)) {
+				nameColumn = i;
+			}
+		}
+		if (nameColumn < 0) {
+			throw new IllegalArgumentException("Missing column '" + NAME_COLUMN + "' in " + file);
+		}
+		List<SweepVariation> variations = new ArrayList<>();
+		for (int line = 1; line < lines.size(); line++) {
+			if (lines.get(line).isBlank()) {
+				continue;
+			}
+			String[] cells = lines.get(line).split(",", -1);
+			if (cells.length != header.length) {
+				throw new IllegalArgumentException("Line " + (line + 1) + " of " + file + " has " + cells.length
+						+ " columns, expected " + header.length);
+			}
+			Map<String, Integer> registers = new LinkedHashMap<>();
+			int clkFreq = 0;
+			int extClkFreq = 0;
+			for (int i = 0; i < header.length; i++) {
+				String cell = cells[i].trim();
+				if (i == nameColumn || cell.isEmpty()) {
+					continue;
+				}
+				int value = parseValue(cell);
+				switch (header[i]) {
+				case CLK_FREQ_COLUMN -> clkFreq = value;
+				case EXT_CLK_FREQ_COLUMN -> extClkFreq = value;
+				default -> registers.put(header[i], value);
+				}
+			}
+			variations.add(new SweepVariation(cells[nameColumn].trim(), registers, clkFreq, extClkFreq));
+		}
+		return variations;
+	}
+
+	/**
+	 * Parses a decimal or hexadecimal ({@code 0x} prefix) value.
+	 */
+	private static int parseValue(String cell) {
+		String value = cell.replace("_", "");
+		if (value.startsWith("0x") || value.startsWith("0X")) {
+			return (int) Long.parseLong(value.substring(2), 16);
+		}
+		return (int) Long.parseLong(value);
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+
+}
@@ -0,0 +1,119 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.headless;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import peripheralsimulation.engine.SampleWindow;
+import peripheralsimulation.engine.WindowSink;
+
+/**
+ * Window sink of the {@link peripheralsimulation.engine.SimulationEngine} which
+ * streams the aggregated monitoring windows to a CSV file: one row per window
+ * with its start, end and number of time steps, and for every written output
+ * the minimum, maximum and last value, the number of transitions and the number
+ * of time steps in which the output was set.
+ *
+ * @author Veronika Lenková
+ */
+public class WindowCsvWriter implements WindowSink, Closeable {
+
+	/** Separator of the CSV columns */
+	private static final char SEPARATOR = ',';
+
+	/** Suffixes of the columns written for every output */
+	private static final String[] AGGREGATES = { "min", "max", "last", "transitions", "set" };
+
+	/** The writer of the CSV file */
+	private final BufferedWriter writer;
+
+	/** Indices of the written outputs */
+	private final int[] columns;
+
+	/** Number of written rows (without the header) */
+	private long rowCount;
+
+	/**
+	 * Constructor for WindowCsvWriter. Creates the file and writes the header.
+	 *
+	 * @param file        The CSV file to write.
+	 * @param outputNames The names of all outputs of the peripheral model.
+	 * @param columns     The indices of the outputs to write.
+	 * @throws IOException If the file cannot be created.
+	 */
+	public WindowCsvWriter(Path file, String[] outputNames, int[] columns) throws IOException {
+		this.writer = Files.newBufferedWriter(file);
+		this.columns = columns;
+		writer.write("from,to,steps");
+		for (int column : columns) {
+			for (String aggregate : AGGREGATES) {
+				writer.write(SEPARATOR);
+				writer.write(outputNames[column]);
+				writer.write('.');
+				writer.write(aggregate);
+			}
+		}
+		writer.newLine();
+	}
+
+	/**
+	 * Writes one monitoring window.
+	 *
+	 * @param window The aggregated outputs of the window.
+	 * @throws UncheckedIOException If the row cannot be written.
+	 */
+	@Override
+	public void acceptWindow(SampleWindow window) {
+		try {
+			writer.write(Double.toString(window.getStartTime()));
+			writer.write(SEPARATOR);
+			writer.write(Double.toString(window.getEndTime()));
+			writer.write(SEPARATOR);
+			writer.write(Long.toString(window.getSteps()));
+			for (int column : columns) {
+				write(window.getMin(column));
+				write(window.getMax(column));
+				write(window.getLast(column));
+				write(window.getTransitions(column));
+				write(window.getSetCount(column));
+			}
+			writer.newLine();
+			rowCount++;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Writes one value with the preceding separator.
+	 */
+	private void write(long value) throws IOException {
+		writer.write(SEPARATOR);
+		writer.write(Long.toString(value));
+	}
+
+	/**
+	 * Returns the number of written rows (without the header).
+	 *
+	 * @return The number of written rows.
+	 */
+	public long getRowCount() {
+		return rowCount;
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+
+	@Override
+	public String toString() {
+		return "WindowCsvWriter" + Arrays.toString(columns);
+	}
+
+}
@@ -0,0 +1,184 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.headless.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import peripheralsimulation.headless.HeadlessRunner;
+import peripheralsimulation.model.Peripheral;
+
+/**
+ * Test class for {@link HeadlessRunner}. Runs a SysTick simulation from
+ * register and configuration files and checks the written CSV output.
+ *
+ * @author Veronika Lenková
+ */
+public class HeadlessRunnerTest {
+
+	/** Folder for the input and output files */
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Selected outputs are written in the configured order, and with onlyChanges
+	 * no two consecutive rows have the same values.
+	 */
+	@Test
+	public void testSelectedOutputsOnlyChanges() throws IOException {
+		Path output = folder.getRoot().toPath().resolve("out.csv");
+		long rows = HeadlessRunner.run(Peripheral.SYSTICKTIMER, writeRegisters(),
+				writeConfig("[ \"INTERRUPT\", \"COUNTFLAG\" ]", true), output);
+
+		List<String> lines = Files.readAllLines(output);
+		assertEquals("time,INTERRUPT,COUNTFLAG", lines.get(0));
+		assertEquals(rows, lines.size() - 1);
+		assertTrue("Underflows must be written", rows > 1);
+		for (int i = 2; i < lines.size(); i++) {
+			assertEquals(3, lines.get(i).split(",").length);
+			assertNotEquals("Unchanged rows must be skipped", values(lines.get(i - 1)), values(lines.get(i)));
+		}
+	}
+
+	/**
+	 * Without selected outputs all outputs are written, one row per sample.
+	 */
+	@Test
+	public void testAllOutputsWithoutSelection() throws IOException {
+		Path output = folder.getRoot().toPath().resolve("all.csv");
+		long rows = HeadlessRunner.run(Peripheral.SYSTICKTIMER, writeRegisters(), writeConfig("[]", false), output);
+
+		List<String> lines = Files.readAllLines(output);
+		assertEquals("time,CURRENT,INTERRUPT,COUNTFLAG", lines.get(0));
+		assertEquals(rows, lines.size() - 1);
+		// 1 MHz, reload 99 => one underflow every 100 us, 10 in 1 ms
+		assertTrue("Every underflow must be written", rows >= 10);
+		String firstUnderflow = lines.stream().skip(1).filter(line -> line.split(",")[2].equals("true"))
+				.findFirst().orElseThrow();
+		assertEquals(0.0001, Double.parseDouble(firstUnderflow.split(",")[0]), 1e-12);
+	}
+
+	/**
+	 * With a monitoring period every monitoring point is written, although the
+	 * timer only has an event at its underflows (every 10 ms with the registers of
+	 * resources/systick.csv): CURRENT must count down between the underflows.
+	 */
+	@Test
+	public void testMonitoringPointsBetweenSparseEvents() throws IOException {
+		Path registers = folder.getRoot().toPath().resolve("systick_12mhz.csv");
+		Files.write(registers, List.of("SYST_CSR,0x00000003", "SYST_RVR,0x0001D4BF", "SYST_CVR,0x00000000",
+				"SYST_CALIB,0x00000000"));
+		Path config = folder.getRoot().toPath().resolve("config_1ms.yaml");
+		Files.write(config, List.of("preferences:", "  monitoringPeriod: 0.001", "  rangeFrom: 0.0",
+				"  rangeTo: 0.03", "  clkFreq: 48000000", "  extClkFreq: 12000000", "  waitMs: 0",
+				"  onlyChanges: false", "  outputs: []", "  gui: TABLE", "  timeUnit: ms"));
+		Path output = folder.getRoot().toPath().resolve("sparse.csv");
+		long rows = HeadlessRunner.run(Peripheral.SYSTICKTIMER, registers, config, output);
+
+		List<String> lines = Files.readAllLines(output);
+		// monitoring points 0, 1, ..., 30 ms
+		assertEquals(31, rows);
+		for (int k = 0; k <= 30; k++) {
+			String[] row = lines.get(k + 1).split(",");
+			assertEquals(k * 0.001, Double.parseDouble(row[0]), 1e-12);
+			// 12 000 clock cycles per ms, reload 119 999 every 10 ms
+			assertEquals("CURRENT at " + k + " ms", 119_999 - 12_000 * (k % 10), Integer.parseInt(row[1]));
+		}
+	}
+
+	/**
+	 * A windows CSV holds one row per monitoring window with the aggregates of the
+	 * selected outputs: every full window of 250 us counts the interrupts of
+	 * its underflows, although they are cleared between the windows.
+	 */
+	@Test
+	public void testAggregatedWindows() throws IOException {
+		Path output = folder.getRoot().toPath().resolve("out" + HeadlessRunner.WINDOWS_EXTENSION);
+		long rows = HeadlessRunner.run(Peripheral.SYSTICKTIMER, writeRegisters(),
+				writeConfig("[ \"INTERRUPT\" ]", false, 0.00025), output);
+
+		List<String> lines = Files.readAllLines(output);
+		assertEquals("from,to,steps,INTERRUPT.min,INTERRUPT.max,INTERRUPT.last,INTERRUPT.transitions,INTERRUPT.set",
+				lines.get(0));
+		assertEquals(rows, lines.size() - 1);
+		// windows from 0, 250, 500 and 750 us, and the underflow at 1 ms
+		assertEquals(5, rows);
+		String[] second = lines.get(2).split(",");
+		assertEquals(0.00025, Double.parseDouble(second[0]), 1e-12);
+		assertEquals(0.0005, Double.parseDouble(second[1]), 1e-12);
+		assertEquals("max", "1", second[4]);
+		assertTrue("Underflows in the window", Long.parseLong(second[7]) >= 2);
+	}
+
+	/**
+	 * A headless run must not wait between the events, whatever waitMs the
+	 * configuration sets for the view.
+	 */
+	@Test
+	public void testWaitIgnored() throws IOException {
+		Path output = folder.getRoot().toPath().resolve("nowait.csv");
+		long start = System.nanoTime();
+		long rows = HeadlessRunner.run(Peripheral.SYSTICKTIMER, writeRegisters(), writeConfig("[]", false, 0, 1000),
+				output);
+		long millis = (System.nanoTime() - start) / 1_000_000;
+
+		assertTrue("Every underflow must be written", rows >= 10);
+		// waiting 1 s after each of the 20 events would take 20 s
+		assertTrue("Run took " + millis + " ms", millis < 5000);
+	}
+
+	/**
+	 * Writes the SysTick registers: enabled, interrupt on, processor clock, reload
+	 * 99.
+	 */
+	private Path writeRegisters() throws IOException {
+		Path file = folder.getRoot().toPath().resolve("systick.csv");
+		Files.write(file, List.of("SYST_CSR,0x00000007", "SYST_RVR,0x00000063", "SYST_CVR,0x00000000",
+				"SYST_CALIB,0x00000000"));
+		return file;
+	}
+
+	/**
+	 * Writes a configuration running 1 ms at 1 MHz.
+	 */
+	private Path writeConfig(String outputs, boolean onlyChanges) throws IOException {
+		return writeConfig(outputs, onlyChanges, 0);
+	}
+
+	/**
+	 * Writes a configuration running 1 ms at 1 MHz with a monitoring period.
+	 */
+	private Path writeConfig(String outputs, boolean onlyChanges, double monitoringPeriod) throws IOException {
+		return writeConfig(outputs, onlyChanges, monitoringPeriod, 0);
+	}
+
+	/**
+	 * Writes a configuration running 1 ms at 1 MHz with a monitoring period and a
+	 * delay after every event.
+	 */
+	private Path writeConfig(String outputs, boolean onlyChanges, double monitoringPeriod, long waitMs)
+			throws IOException {
+		Path file = folder.getRoot().toPath().resolve("config.yaml");
+		Files.write(file, List.of("preferences:", "  monitoringPeriod: " + monitoringPeriod, "  rangeFrom: 0.0",
+				"  rangeTo: 0.001", "  clkFreq: 1000000", "  extClkFreq: 1000000", "  waitMs: " + waitMs,
+				"  onlyChanges: " + onlyChanges, "  outputs: " + outputs, "  gui: TABLE", "  timeUnit: us"));
+		return file;
+	}
+
+	/**
+	 * Returns the values of a CSV row without the time column.
+	 */
+	private static String values(String line) {
+		return line.substring(line.indexOf(',') + 1);
+	}
+
+}
@@ -0,0 +1,116 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.headless.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import peripheralsimulation.headless.SweepResult;
+import peripheralsimulation.headless.SweepRunner;
+import peripheralsimulation.headless.SweepVariation;
+import peripheralsimulation.model.Peripheral;
+
+/**
+ * Test class for {@link SweepRunner}. Runs a SysTick scenario for several
+ * reload values and clock frequencies in parallel and checks the summarised
+ * interrupt periods.
+ *
+ * @author Veronika Lenková
+ */
+public class SweepRunnerTest {
+
+	/** Folder for the input and output files */
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Every variation must be simulated with its own registers and clock, and the
+	 * results must keep the order of the variations.
+	 */
+	@Test
+	public void testInterruptPeriodPerVariation() throws IOException {
+		List<SweepVariation> variations = List.of(new SweepVariation("rvr99", Map.of("SYST_RVR", 99), 0, 0),
+				new SweepVariation("rvr199", Map.of("SYST_RVR", 199), 0, 0),
+				new SweepVariation("rvr99_2MHz", Map.of("SYST_RVR", 99), 2_000_000, 0),
+				new SweepVariation("base", Map.of(), 0, 0));
+		List<SweepResult> results = SweepRunner.run(Peripheral.SYSTICKTIMER, writeRegisters(), writeConfig(),
+				variations, 3);
+
+		assertEquals(4, results.size());
+		double[] periods = { 100e-6, 200e-6, 50e-6, 500e-6 };
+		for (int i = 0; i < periods.length; i++) {
+			SweepResult result = results.get(i);
+			assertTrue(result.getError(), result.isSuccessful());
+			assertEquals(variations.get(i), result.getVariation());
+			assertEquals(periods[i], result.getMeanPeriod("INTERRUPT"), 1e-9);
+			assertEquals(Math.round(0.01 / periods[i]), result.getRisingEdges("INTERRUPT"));
+		}
+	}
+
+	/**
+	 * The summary table must have a header and one row per variation.
+	 */
+	@Test
+	public void testSummaryCsv() throws IOException {
+		Path variationsCsv = folder.getRoot().toPath().resolve("variations.csv");
+		Files.write(variationsCsv, List.of("name,SYST_RVR,clkFreq", "rvr99,99,", "rvr0x13,0x13,2_000_000"));
+		List<SweepVariation> variations = SweepVariation.loadFromCsv(variationsCsv);
+		assertEquals(19, (int) variations.get(1).getRegisters().get("SYST_RVR"));
+		assertEquals(2_000_000, variations.get(1).getClkFreq());
+
+		List<SweepResult> results = SweepRunner.run(Peripheral.SYSTICKTIMER, writeRegisters(), writeConfig(),
+				variations, 2);
+		Path summary = folder.getRoot().toPath().resolve("summary.csv");
+		SweepRunner.writeCsv(results, summary);
+
+		List<String> lines = Files.readAllLines(summary);
+		assertEquals(3, lines.size());
+		assertEquals("name,events,samples,simTime[s],wallTime[s],INTERRUPT.edges,INTERRUPT.period[s],error",
+				lines.get(0));
+		assertTrue(lines.get(1).startsWith("rvr99,"));
+		assertTrue(lines.get(2).contains(",1.00000e-05,"));
+	}
+
+	/**
+	 * A variation setting a register the peripheral does not have must be
+	 * rejected before any run.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownRegister() throws IOException {
+		SweepRunner.run(Peripheral.SYSTICKTIMER, writeRegisters(), writeConfig(),
+				List.of(new SweepVariation("typo", Map.of("SYST_RV", 1), 0, 0)), 1);
+	}
+
+	/**
+	 * Writes the SysTick registers: enabled, interrupt on, processor clock, reload
+	 * 499.
+	 */
+	private Path writeRegisters() throws IOException {
+		Path file = folder.getRoot().toPath().resolve("systick.csv");
+		Files.write(file, List.of("SYST_CSR,0x00000007", "SYST_RVR,0x000001F3", "SYST_CVR,0x00000000",
+				"SYST_CALIB,0x00000000"));
+		return file;
+	}
+
+	/**
+	 * Writes a configuration running 10 ms at 1 MHz and summarising the interrupt
+	 * flag.
+	 */
+	private Path writeConfig() throws IOException {
+		Path file = folder.getRoot().toPath().resolve("config.yaml");
+		Files.write(file, List.of("preferences:", "  monitoringPeriod: 0", "  rangeFrom: 0.0", "  rangeTo: 0.01",
+				"  clkFreq: 1000000", "  extClkFreq: 1000000", "  waitMs: 0", "  onlyChanges: false",
+				"  outputs: [ \"INTERRUPT\" ]", "  gui: TABLE", "  timeUnit: us"));
+		return file;
+	}
+
+}
@@ -12,9 +12,13 @@ import java.util.Map;
 
 import org.yaml.snakeyaml.DumperOptions;
 import org.yaml.snakeyaml.Yaml;
+import peripheralsimulation.engine.SchedulerType;
 import peripheralsimulation.engine.UserEvent;
 import peripheralsimulation.engine.UserEventType;
+import peripheralsimulation.model.PeripheralModel;
 import peripheralsimulation.ui.SimulationGuiChoice;
+import peripheralsimulation.utils.OutputRowStore;
+import peripheralsimulation.utils.OverflowPolicy;
 
 /**
  * ConfigYamlUtils class is responsible for loading and saving YAML
@@ -25,21 +29,35 @@ import peripheralsimulation.ui.SimulationGuiChoice;
 public final class ConfigYamlUtils {
 
 	/**
-	 * Load a YAML configuration file.
+	 * Load a YAML configuration file. The user events have no target peripheral,
+	 * they act on the model of the engine which runs them.
 	 *
 	 * @param file The path to the configuration file.
 	 * @return The loaded SimulationConfig object.
 	 * @throws IOException If an I/O error occurs while reading the file.
 	 */
-	@SuppressWarnings("unchecked")
 	public static SimulationConfig loadYaml(Path file) throws IOException {
+		return loadYaml(file, null);
+	}
+
+	/**
+	 * Load a YAML configuration file with user events targeting the given model.
+	 *
+	 * @param file            The path to the configuration file.
+	 * @param peripheralModel The target of the user events (null = the model of
+	 *                        the engine).
+	 * @return The loaded SimulationConfig object.
+	 * @throws IOException If an I/O error occurs while reading the file.
+	 */
+	@SuppressWarnings("unchecked")
+	public static SimulationConfig loadYaml(Path file, PeripheralModel peripheralModel) throws IOException {
 		Yaml yaml = new Yaml();
 		try (InputStream in = Files.newInputStream(file)) {
 			Object cfg = yaml.load(in);
 			if (cfg == null) {
 				throw new IOException("YAML is empty or does not match SimulationConfig.");
 			}
-			return parseYamlToConfig((Map<String, Object>) cfg);
+			return parseYamlToConfig((Map<String, Object>) cfg, peripheralModel);
 		}
 	}
 
@@ -61,13 +79,27 @@ public final class ConfigYamlUtils {
 	}
 
 	/**
-	 * Convert a YAML configuration file to a SimulationConfig object.
+	 * Convert a YAML configuration file to a SimulationConfig object. The user
+	 * events act on the model of the engine which runs them.
 	 *
 	 * @param root The root map of the YAML configuration.
 	 * @return The SimulationConfig object.
 	 */
-	@SuppressWarnings("unchecked")
 	public static SimulationConfig parseYamlToConfig(Map<String, Object> root) {
+		return parseYamlToConfig(root, null);
+	}
+
+	/**
+	 * Convert a YAML configuration file to a SimulationConfig object with user
+	 * events targeting the given model.
+	 *
+	 * @param root            The root map of the YAML configuration.
+	 * @param peripheralModel The target of the user events (null = the model of
+	 *                        the engine).
+	 * @return The SimulationConfig object.
+	 */
+	@SuppressWarnings("unchecked")
+	public static SimulationConfig parseYamlToConfig(Map<String, Object> root, PeripheralModel peripheralModel) {
 
 		/* ---------- 1. preferences ---------- */
 		Map<String, Object> preferencesMap = (Map<String, Object>) root.getOrDefault("preferences", Map.of());
@@ -83,9 +115,15 @@ public final class ConfigYamlUtils {
 		SimulationGuiChoice gui = SimulationGuiChoice
 				.valueOf(String.valueOf(preferencesMap.getOrDefault("gui", "TABLE")).toUpperCase());
 		String timeUnit = String.valueOf(preferencesMap.getOrDefault("timeUnit", "ms"));
+		SchedulerType scheduler = SchedulerType
+				.valueOf(String.valueOf(preferencesMap.getOrDefault("scheduler", "HEAP")).toUpperCase());
+		OverflowPolicy uiOverflow = OverflowPolicy
+				.valueOf(String.valueOf(preferencesMap.getOrDefault("uiOverflow", "BLOCK")).toUpperCase());
+		int tableRows = toInt(preferencesMap.get("tableRows"), OutputRowStore.DEFAULT_CAPACITY);
 
 		UserPreferencesBlock prefBlock = new UserPreferencesBlock(monitoringPeriod, rangeFrom, rangeTo, clkFreq,
-				extClkFreq, waitMs, onlyChanges, outputs, gui, timeUnit);
+				extClkFreq, waitMs, onlyChanges, outputs, gui, timeUnit, scheduler, uiOverflow,
+				tableRows);
 
 		/* ---------- 2. events ---------- */
 		List<Map<String, Object>> eventsList = (List<Map<String, Object>>) root.getOrDefault("events", List.of());
@@ -100,8 +138,7 @@ public final class ConfigYamlUtils {
 			int bit = toInt(event.get("bit"), 0);
 			int value = toInt(event.get("value"), 0);
 
-			events.add(new UserEvent(start, period, repeat, UserPreferences.getInstance().getPeripheralModel(), type,
-					reg, bit, value));
+			events.add(new UserEvent(start, period, repeat, peripheralModel, type, reg, bit, value));
 		}
 
 		return new SimulationConfig(prefBlock, events);
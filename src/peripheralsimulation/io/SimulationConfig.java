@@ -2,6 +2,8 @@
 package peripheralsimulation.io;
 
 import java.util.List;
+
+import peripheralsimulation.engine.SimulationContext;
 import peripheralsimulation.engine.UserEvent;
 
 /**
@@ -47,4 +49,14 @@ public class SimulationConfig {
 		return events;
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Creates the context of a simulation run with the preferences and events of
+	 * this configuration.
+	 *
+	 * @return The simulation context.
+	 */
+	public SimulationContext toSimulationContext() {
+		return preferences.toSimulationContext(events);
+	}
+
+}
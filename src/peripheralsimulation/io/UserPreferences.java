@@ -5,10 +5,14 @@ import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.List;
 
+import peripheralsimulation.engine.SchedulerType;
+import peripheralsimulation.engine.SimulationContext;
 import peripheralsimulation.engine.UserEvent;
 import peripheralsimulation.model.Peripheral;
 import peripheralsimulation.model.PeripheralModel;
 import peripheralsimulation.ui.SimulationGuiChoice;
+import peripheralsimulation.utils.OutputRowStore;
+import peripheralsimulation.utils.OverflowPolicy;
 
 /**
  * Singleton class that manages user preferences for the simulation.
@@ -84,10 +88,19 @@ public final class UserPreferences {
 	private List<UserEvent> userEvents = new ArrayList<>();
 
 	/** Clock source frequency */
-	private int clockFrequency = 8_000_000; // 8 MHz
+	private int clockFrequency = SimulationContext.DEFAULT_CLOCK_FREQUENCY;
 
 	/** External clock frequency */
-	private int externalClockFrequency = 12_000_000; // 0 MHz
+	private int externalClockFrequency = SimulationContext.DEFAULT_EXTERNAL_CLOCK_FREQUENCY;
+
+	/** The event scheduler implementation used by the simulation engine */
+	private SchedulerType schedulerType = SchedulerType.HEAP;
+
+	/** What to do when the UI cannot keep up with the simulation */
+	private OverflowPolicy uiOverflowPolicy = OverflowPolicy.BLOCK;
+
+	/** Number of last rows kept by the simulation table */
+	private int tableRows = OutputRowStore.DEFAULT_CAPACITY;
 
 	private UserPreferences() {
 		// Private constructor to prevent instantiation
@@ -98,7 +111,7 @@ public final class UserPreferences {
 	 *
 	 * @return The singleton instance of UserPreferences
 	 */
-	public static UserPreferences getInstance() {
+	public static synchronized UserPreferences getInstance() {
 		if (instance == null) {
 			instance = new UserPreferences();
 		}
@@ -159,6 +172,22 @@ public final class UserPreferences {
 		setOnlyChanges(preferences.isOnlyChanges());
 		setSelectedOutputs(preferences.getOutputs());
 		setTimeScaleUnits(preferences.getTimeUnit());
+		setSchedulerType(preferences.getScheduler());
+		setUiOverflowPolicy(preferences.getUiOverflow());
+		setTableRows(preferences.getTableRows());
+	}
+
+	/**
+	 * Creates the context of the next simulation run from the current
+	 * preferences and user events. Later changes of the preferences do not
+	 * affect the returned context.
+	 *
+	 * @return The simulation context.
+	 */
+	public SimulationContext toSimulationContext() {
+		return new SimulationContext(clockFrequency, externalClockFrequency, simulationTimeRangeFrom,
+				simulationTimeRangeTo, monitoringPeriod, millisToWait, onlyChanges, selectedOutputs, schedulerType,
+				userEvents);
 	}
 
 	/* ================================================================== */
@@ -311,4 +340,28 @@ public final class UserPreferences {
 		this.externalClockFrequency = externalClockFrequency;
 	}
 
+	public SchedulerType getSchedulerType() {
+		return schedulerType;
+	}
+
+	public void setSchedulerType(SchedulerType schedulerType) {
+		this.schedulerType = schedulerType;
+	}
+
+	public OverflowPolicy getUiOverflowPolicy() {
+		return uiOverflowPolicy;
+	}
+
+	public void setUiOverflowPolicy(OverflowPolicy uiOverflowPolicy) {
+		this.uiOverflowPolicy = uiOverflowPolicy;
+	}
+
+	public int getTableRows() {
+		return tableRows;
+	}
+
+	public void setTableRows(int tableRows) {
+		this.tableRows = tableRows;
+	}
+
 }
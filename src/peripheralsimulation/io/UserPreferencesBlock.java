@@ -3,14 +3,20 @@ package peripheralsimulation.io;
 
 import java.util.List;
 
+import peripheralsimulation.engine.SchedulerType;
+import peripheralsimulation.engine.SimulationContext;
+import peripheralsimulation.engine.UserEvent;
 import peripheralsimulation.ui.SimulationGuiChoice;
+import peripheralsimulation.utils.OverflowPolicy;
 
 /**
  * User preferences block in the YAML configuration file.
  *
  * This class represents the user preferences for the simulation, including
  * monitoring period, range, clock frequencies, wait time, output devices,
- * simulation GUI choice, and time unit.
+ * simulation GUI choice, time unit, event scheduler type, the overflow
+ * policy of the buffer between the simulation and the UI and the number of
+ * rows kept by the table.
  *
  * @author Veronika Lenková
  */
@@ -45,6 +51,15 @@ public class UserPreferencesBlock {
 	/** The time unit for the simulation. */
 	private String timeUnit;
 
+	/** The event scheduler implementation used by the engine. */
+	private SchedulerType scheduler;
+
+	/** What to do when the UI cannot keep up with the simulation. */
+	private OverflowPolicy uiOverflow;
+
+	/** The number of last rows kept by the table. */
+	private int tableRows;
+
 	/**
 	 * User preferences block in the YAML configuration file.
 	 *
@@ -58,10 +73,14 @@ public class UserPreferencesBlock {
 	 * @param outputs          The list of output devices.
 	 * @param simulationGui    The simulation GUI choice.
 	 * @param timeUnit         The time unit for the simulation.
+	 * @param scheduler        The event scheduler type.
+	 * @param uiOverflow       The overflow policy of the UI output buffer.
+	 * @param tableRows        The number of last rows kept by the table.
 	 */
 	public UserPreferencesBlock(double monitoringPeriod, double rangeFrom, double rangeTo, int clkFreq, int extClkFreq,
 			long waitMs, boolean onlyChanges, List<String> outputs, SimulationGuiChoice simulationGui,
-			String timeUnit) {
+			String timeUnit, SchedulerType scheduler, OverflowPolicy uiOverflow,
+			int tableRows) {
 		this.monitoringPeriod = monitoringPeriod;
 		this.rangeFrom = rangeFrom;
 		this.rangeTo = rangeTo;
@@ -72,6 +91,9 @@ public class UserPreferencesBlock {
 		this.outputs = outputs;
 		this.simulationGui = simulationGui;
 		this.timeUnit = timeUnit;
+		this.scheduler = scheduler;
+		this.uiOverflow = uiOverflow;
+		this.tableRows = tableRows;
 	}
 
 	public double getMonitoringPeriod() {
@@ -154,4 +176,39 @@ public class UserPreferencesBlock {
 		this.timeUnit = timeUnit;
 	}
 
+	public SchedulerType getScheduler() {
+		return scheduler;
+	}
+
+	public void setScheduler(SchedulerType scheduler) {
+		this.scheduler = scheduler;
+	}
+
+	public OverflowPolicy getUiOverflow() {
+		return uiOverflow;
+	}
+
+	public void setUiOverflow(OverflowPolicy uiOverflow) {
+		this.uiOverflow = uiOverflow;
+	}
+
+	public int getTableRows() {
+		return tableRows;
+	}
+
+	public void setTableRows(int tableRows) {
+		this.tableRows = tableRows;
+	}
+
+	/**
+	 * Creates the context of a simulation run with these preferences.
+	 *
+	 * @param events The user events of the run.
+	 * @return The simulation context.
+	 */
+	public SimulationContext toSimulationContext(List<UserEvent> events) {
+		return new SimulationContext(clkFreq, extClkFreq, rangeFrom, rangeTo, monitoringPeriod, waitMs, onlyChanges,
+				outputs, scheduler, events);
+	}
+
 }
@@ -0,0 +1,109 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.io.trace;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Constants and encoding helpers of the binary trace format shared by
+ * {@link TraceWriter} and {@link TraceReader}. All numbers are big-endian.
+ *
+ * <pre>
+ * header:  int MAGIC, int VERSION, double timeResolution, int channelCount,
+ *          per channel: short nameLength, UTF-8 name, byte bitWidth
+ * block:   int sampleCount, then one column for the times and one per channel,
+ *          each column: int byteLength, data
+ *            times:            varint first time, varint deltas
+ *            1-bit channels:   bit-packed, sample i in bit (i % 8) of byte i / 8
+ *            other channels:   zigzag varint deltas (the first to 0)
+ * index:   per block: long offset, long firstTime, int sampleCount, int length
+ * footer:  long indexOffset, int blockCount, int INDEX_MAGIC
+ * </pre>
+ *
+ * Times are stored in units of the time resolution (seconds per unit). Blocks
+ * can be decoded independently, and a single channel can be read without
+ * decoding the others.
+ *
+ * @author Veronika Lenková
+ */
+final class TraceFormat {
+
+	/** Magic number at the start of a trace file ("PSTR") */
+	static final int MAGIC = 0x50535452;
+
+	/** Magic number at the end of a finished trace file ("PSTI") */
+	static final int INDEX_MAGIC = 0x50535449;
+
+	/** Version of the format */
+	static final int VERSION = 1;
+
+	/** Size of the footer in bytes */
+	static final int FOOTER_BYTES = Long.BYTES + Integer.BYTES + Integer.BYTES;
+
+	/** Size of one block index entry in bytes */
+	static final int INDEX_ENTRY_BYTES = Long.BYTES + Long.BYTES + Integer.BYTES + Integer.BYTES;
+
+	/** Maximum size of a varint encoded long in bytes */
+	static final int MAX_VARINT_BYTES = 10;
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private TraceFormat() {
+	}
+
+	/**
+	 * Writes an unsigned variable-length long, 7 bits per byte with the highest
+	 * bit set on all bytes except the last one.
+	 *
+	 * @param buffer The buffer to write to.
+	 * @param value  The value (treated as unsigned).
+	 */
+	static void putVarLong(ByteBuffer buffer, long value) {
+		while ((value & ~0x7FL) != 0) {
+			buffer.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte) value);
+	}
+
+	/**
+	 * Reads an unsigned variable-length long written by
+	 * {@link #putVarLong(ByteBuffer, long)}.
+	 *
+	 * @param buffer The buffer to read from.
+	 * @return The value.
+	 */
+	static long getVarLong(ByteBuffer buffer) {
+		long value = 0;
+		int shift = 0;
+		byte b;
+		do {
+			b = buffer.get();
+			value |= (long) (b & 0x7F) << shift;
+			shift += 7;
+		} while (b < 0);
+		return value;
+	}
+
+	/**
+	 * Maps a signed value to an unsigned one so that small magnitudes have few
+	 * significant bits (0, -1, 1, -2 ... to 0, 1, 2, 3 ...).
+	 *
+	 * @param value The signed value.
+	 * @return The zigzag encoded value.
+	 */
+	static long zigzag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	/**
+	 * Reverses {@link #zigzag(long)}.
+	 *
+	 * @param value The zigzag encoded value.
+	 * @return The signed value.
+	 */
+	static long unzigzag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+}
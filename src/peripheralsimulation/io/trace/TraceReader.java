@@ -0,0 +1,289 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.io.trace;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a trace file written by {@link TraceWriter}. The file is memory-mapped
+ * (as a whole when it fits into one mapping, otherwise block by block), so only
+ * the decoded block or channel is held on the heap. Samples are read block by
+ * block into caller-provided primitive arrays of at least
+ * {@link #getMaxBlockSampleCount()} elements.
+ *
+ * @author Veronika Lenková
+ */
+public class TraceReader implements Closeable {
+
+	/** The channel of the trace file */
+	private final FileChannel channel;
+
+	/** Mapping of the whole file, null if the file is too large for one mapping */
+	private final MappedByteBuffer file;
+
+	/** Names of the channels */
+	private final String[] channelNames;
+
+	/** Bit widths of the channels */
+	private final int[] bitWidths;
+
+	/** Time resolution in seconds per stored time unit */
+	private final double timeResolution;
+
+	/** Offsets of the blocks */
+	private final long[] blockOffsets;
+
+	/** Times of the first samples of the blocks */
+	private final long[] blockFirstTimes;
+
+	/** Sample counts of the blocks */
+	private final int[] blockCounts;
+
+	/** Lengths of the blocks in bytes */
+	private final int[] blockLengths;
+
+	/** Total number of samples */
+	private final long sampleCount;
+
+	/** Largest sample count of a block */
+	private final int maxBlockSampleCount;
+
+	/**
+	 * Constructor for TraceReader. Opens and maps the file and reads the header
+	 * and the block index.
+	 *
+	 * @param path The trace file.
+	 * @throws IOException If the file cannot be read or is not a finished trace.
+	 */
+	public TraceReader(Path path) throws IOException {
+		channel = FileChannel.open(path, StandardOpenOption.READ);
+		try {
+			long size = channel.size();
+			file = size <= Integer.MAX_VALUE ? channel.map(FileChannel.MapMode.READ_ONLY, 0, size) : null;
+
+			ByteBuffer header = map(0, Math.min(size, Integer.MAX_VALUE));
+			if (header.remaining() < 3 * Integer.BYTES + Double.BYTES || header.getInt() != TraceFormat.MAGIC) {
+				throw new IOException("Not a trace file: " + path);
+			}
+			int version = header.getInt();
+			if (version != TraceFormat.VERSION) {
+				throw new IOException("Unsupported trace version " + version + ": " + path);
+			}
+			timeResolution = header.getDouble();
+			channelNames = new String[header.getInt()];
+			bitWidths = new int[channelNames.length];
+			for (int i = 0; i < channelNames.length; i++) {
+				byte[] name = new byte[header.getShort()];
+				header.get(name);
+				channelNames[i] = new String(name, StandardCharsets.UTF_8);
+				bitWidths[i] = header.get();
+			}
+
+			if (size < header.position() + TraceFormat.FOOTER_BYTES) {
+				throw new IOException("Trace file is not finished: " + path);
+			}
+			ByteBuffer footer = map(size - TraceFormat.FOOTER_BYTES, TraceFormat.FOOTER_BYTES);
+			long indexOffset = footer.getLong();
+			int blockCount = footer.getInt();
+			if (footer.getInt() != TraceFormat.INDEX_MAGIC) {
+				throw new IOException("Trace file is not finished: " + path);
+			}
+
+			blockOffsets = new long[blockCount];
+			blockFirstTimes = new long[blockCount];
+			blockCounts = new int[blockCount];
+			blockLengths = new int[blockCount];
+			ByteBuffer index = map(indexOffset, (long) blockCount * TraceFormat.INDEX_ENTRY_BYTES);
+			long samples = 0;
+			int maxCount = 0;
+			for (int i = 0; i < blockCount; i++) {
+				blockOffsets[i] = index.getLong();
+				blockFirstTimes[i] = index.getLong();
+				blockCounts[i] = index.getInt();
+				blockLengths[i] = index.getInt();
+				samples += blockCounts[i];
+				maxCount = Math.max(maxCount, blockCounts[i]);
+			}
+			sampleCount = samples;
+			maxBlockSampleCount = maxCount;
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns a buffer over the given region of the file.
+	 */
+	private ByteBuffer map(long offset, long length) throws IOException {
+		if (file != null) {
+			return file.slice((int) offset, (int) length);
+		}
+		return channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+	}
+
+	/**
+	 * Returns a buffer positioned at the column of the block, skipping the
+	 * preceding columns.
+	 *
+	 * @param block  The block index.
+	 * @param column The column (0 for the times, channel index + 1 otherwise).
+	 */
+	private ByteBuffer column(int block, int column) throws IOException {
+		ByteBuffer data = map(blockOffsets[block], blockLengths[block]);
+		data.position(Integer.BYTES);
+		for (int i = 0; i < column; i++) {
+			int length = data.getInt();
+			data.position(data.position() + length);
+		}
+		data.getInt();
+		return data;
+	}
+
+	/**
+	 * Reads the times of the samples of a block.
+	 *
+	 * @param block The block index.
+	 * @param times The array to fill, in units of the time resolution.
+	 * @return The number of samples in the block.
+	 * @throws IOException If the block cannot be mapped.
+	 */
+	public int readTimes(int block, long[] times) throws IOException {
+		ByteBuffer data = column(block, 0);
+		int count = blockCounts[block];
+		long time = 0;
+		for (int i = 0; i < count; i++) {
+			time += TraceFormat.getVarLong(data);
+			times[i] = time;
+		}
+		return count;
+	}
+
+	/**
+	 * Reads the values of one channel for the samples of a block.
+	 *
+	 * @param block        The block index.
+	 * @param channelIndex The channel index.
+	 * @param values       The array to fill (1-bit channels give 0 or 1).
+	 * @return The number of samples in the block.
+	 * @throws IOException If the block cannot be mapped.
+	 */
+	public int readChannel(int block, int channelIndex, int[] values) throws IOException {
+		ByteBuffer data = column(block, channelIndex + 1);
+		int count = blockCounts[block];
+		if (bitWidths[channelIndex] == 1) {
+			int bits = 0;
+			for (int i = 0; i < count; i++) {
+				if ((i & 7) == 0) {
+					bits = data.get();
+				}
+				values[i] = (bits >>> (i & 7)) & 1;
+			}
+		} else {
+			long value = 0;
+			for (int i = 0; i < count; i++) {
+				value += TraceFormat.unzigzag(TraceFormat.getVarLong(data));
+				values[i] = (int) value;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the block containing the given time: the last block starting at or
+	 * before it (0 if the time is before the first sample).
+	 *
+	 * @param time The time in units of the time resolution.
+	 * @return The block index, -1 if the trace is empty.
+	 */
+	public int findBlock(long time) {
+		int low = 0;
+		int high = blockFirstTimes.length - 1;
+		if (high < 0) {
+			return -1;
+		}
+		while (low < high) {
+			int middle = (low + high + 1) >>> 1;
+			if (blockFirstTimes[middle] <= time) {
+				low = middle;
+			} else {
+				high = middle - 1;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Converts a stored time to seconds.
+	 *
+	 * @param time The time in units of the time resolution.
+	 * @return The time in seconds.
+	 */
+	public double toSeconds(long time) {
+		return time * timeResolution;
+	}
+
+	/**
+	 * Returns the index of the channel with the given name.
+	 *
+	 * @param name The channel name.
+	 * @return The channel index.
+	 * @throws IllegalArgumentException If there is no such channel.
+	 */
+	public int getChannelIndex(String name) {
+		for (int i = 0; i < channelNames.length; i++) {
+			if (channelNames[i].equals(name)) {
+				return i;
+			}
+		}
+		throw new IllegalArgumentException("Unknown channel " + name);
+	}
+
+	public String[] getChannelNames() {
+		return channelNames.clone();
+	}
+
+	public int getChannelCount() {
+		return channelNames.length;
+	}
+
+	public int getBitWidth(int channelIndex) {
+		return bitWidths[channelIndex];
+	}
+
+	public double getTimeResolution() {
+		return timeResolution;
+	}
+
+	public long getSampleCount() {
+		return sampleCount;
+	}
+
+	public int getBlockCount() {
+		return blockCounts.length;
+	}
+
+	public int getBlockSampleCount(int block) {
+		return blockCounts[block];
+	}
+
+	public long getBlockFirstTime(int block) {
+		return blockFirstTimes[block];
+	}
+
+	public int getMaxBlockSampleCount() {
+		return maxBlockSampleCount;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+}
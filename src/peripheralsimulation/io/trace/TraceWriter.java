@@ -0,0 +1,409 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.io.trace;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+import peripheralsimulation.engine.SampleSink;
+import peripheralsimulation.model.OutputSchema;
+import peripheralsimulation.model.PeripheralModel;
+
+/**
+ * Writes simulation outputs to a binary columnar trace file (see
+ * {@link TraceFormat}). It is used as the output handler of the
+ * {@link peripheralsimulation.engine.SimulationEngine}; samples are collected
+ * per channel into primitive arrays and encoded block by block, so the memory
+ * use does not grow with the length of the run.
+ *
+ * <p>
+ * Times must not decrease. The file is readable by {@link TraceReader} only
+ * after {@link #close()}, which writes the block index.
+ * </p>
+ *
+ * @author Veronika Lenková
+ */
+public class TraceWriter implements BiConsumer<Double, Object[]>, SampleSink, Closeable {
+
+	/** Default number of samples per block */
+	public static final int DEFAULT_BLOCK_SIZE = 4096;
+
+	/** Default time resolution in seconds (1 ps) */
+	public static final double DEFAULT_TIME_RESOLUTION = 1e-12;
+
+	/** The channel of the trace file */
+	private final FileChannel channel;
+
+	/** Buffer for encoding one block */
+	private final ByteBuffer buffer;
+
+	/** Schema of the channels, used to convert the boxed outputs */
+	private final OutputSchema schema;
+
+	/** Bit widths of the channels */
+	private final int[] bitWidths;
+
+	/** Time resolution in seconds per stored time unit */
+	private final double timeResolution;
+
+	/** Times of the samples of the current block */
+	private final long[] blockTimes;
+
+	/** Values of the samples of the current block, indexed by channel, sample */
+	private final int[][] blockValues;
+
+	/** Values converted from the outputs of the last accepted sample */
+	private final int[] sampleValues;
+
+	/** Number of samples in the current block */
+	private int blockSamples;
+
+	/** Time of the last written sample */
+	private long lastTime = Long.MIN_VALUE;
+
+	/** File offset of the next block */
+	private long position;
+
+	/** Number of written samples */
+	private long sampleCount;
+
+	/** Index of the written blocks: offsets */
+	private long[] blockOffsets = new long[16];
+
+	/** Index of the written blocks: times of the first samples */
+	private long[] blockFirstTimes = new long[16];
+
+	/** Index of the written blocks: sample counts */
+	private int[] blockCounts = new int[16];
+
+	/** Index of the written blocks: lengths in bytes */
+	private int[] blockLengths = new int[16];
+
+	/** Number of written blocks */
+	private int blockCount;
+
+	/** Whether the writer was closed */
+	private boolean closed;
+
+	/**
+	 * Constructor for TraceWriter with one channel per output of the peripheral
+	 * model (see {@link PeripheralModel#getOutputSchema()}) and the default block
+	 * size and time resolution.
+	 *
+	 * @param file  The trace file to create (an existing file is replaced).
+	 * @param model The peripheral model whose outputs are written.
+	 * @throws IOException If the file cannot be created.
+	 */
+	public TraceWriter(Path file, PeripheralModel model) throws IOException {
+		this(file, model.getOutputSchema(), DEFAULT_TIME_RESOLUTION, DEFAULT_BLOCK_SIZE);
+	}
+
+	/**
+	 * Constructor for TraceWriter with integer channels.
+	 *
+	 * @param file           The trace file to create (an existing file is
+	 *                       replaced).
+	 * @param channelNames   The names of the channels.
+	 * @param bitWidths      The bit widths of the channels (1 to 32, 1 means
+	 *                       bit-packed).
+	 * @param timeResolution The time resolution in seconds per stored unit.
+	 * @param blockSize      The number of samples per block.
+	 * @throws IOException If the file cannot be created.
+	 */
+	public TraceWriter(Path file, String[] channelNames, int[] bitWidths, double timeResolution, int blockSize)
+			throws IOException {
+		this(file, OutputSchema.ofIntegers(channelNames, bitWidths), timeResolution, blockSize);
+	}
+
+	/**
+	 * Constructor for TraceWriter with one channel per channel of the schema.
+	 *
+	 * @param file           The trace file to create (an existing file is
+	 *                       replaced).
+	 * @param schema         The names, types and bit widths of the channels
+	 *                       (1 to 32 bits, 1 means bit-packed).
+	 * @param timeResolution The time resolution in seconds per stored unit.
+	 * @param blockSize      The number of samples per block.
+	 * @throws IOException If the file cannot be created.
+	 */
+	public TraceWriter(Path file, OutputSchema schema, double timeResolution, int blockSize) throws IOException {
+		String[] channelNames = new String[schema.size()];
+		int[] bitWidths = new int[schema.size()];
+		for (int i = 0; i < channelNames.length; i++) {
+			channelNames[i] = schema.getName(i);
+			bitWidths[i] = schema.getBitWidth(i);
+			if (bitWidths[i] > Integer.SIZE) {
+				throw new IllegalArgumentException("Invalid bit width: " + bitWidths[i]);
+			}
+		}
+		if (!(timeResolution > 0)) {
+			throw new IllegalArgumentException("Time resolution must be positive.");
+		}
+		if (blockSize < 1) {
+			throw new IllegalArgumentException("Block size must be positive.");
+		}
+		this.schema = schema;
+		this.bitWidths = bitWidths;
+		this.timeResolution = timeResolution;
+		this.blockTimes = new long[blockSize];
+		this.blockValues = new int[channelNames.length][blockSize];
+		this.sampleValues = new int[channelNames.length];
+		int columnBytes = Integer.BYTES + blockSize * TraceFormat.MAX_VARINT_BYTES;
+		// the buffer also takes the index entries and the footer when closing
+		this.buffer = ByteBuffer.allocateDirect(Math.max(Integer.BYTES + columnBytes * (channelNames.length + 1),
+				TraceFormat.INDEX_ENTRY_BYTES + TraceFormat.FOOTER_BYTES));
+		this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		writeHeader(channelNames);
+	}
+
+	/**
+	 * Writes the file header.
+	 */
+	private void writeHeader(String[] channelNames) throws IOException {
+		byte[][] names = new byte[channelNames.length][];
+		int length = 3 * Integer.BYTES + Double.BYTES;
+		for (int i = 0; i < names.length; i++) {
+			names[i] = channelNames[i].getBytes(StandardCharsets.UTF_8);
+			length += Short.BYTES + names[i].length + 1;
+		}
+		ByteBuffer header = ByteBuffer.allocate(length);
+		header.putInt(TraceFormat.MAGIC);
+		header.putInt(TraceFormat.VERSION);
+		header.putDouble(timeResolution);
+		header.putInt(names.length);
+		for (int i = 0; i < names.length; i++) {
+			header.putShort((short) names[i].length);
+			header.put(names[i]);
+			header.put((byte) bitWidths[i]);
+		}
+		header.flip();
+		write(header);
+	}
+
+	/**
+	 * Writes one sample given as engine outputs, converted by the types of the
+	 * schema (booleans as 1/0, numbers by their int value).
+	 *
+	 * @param time    The simulation time in seconds.
+	 * @param outputs The outputs of the peripheral model, one per channel.
+	 * @throws UncheckedIOException If the block cannot be written.
+	 */
+	@Override
+	public void accept(Double time, Object[] outputs) {
+		if (outputs.length != sampleValues.length) {
+			throw new IllegalArgumentException(
+					"Expected " + sampleValues.length + " outputs, got " + outputs.length + ".");
+		}
+		for (int i = 0; i < outputs.length; i++) {
+			sampleValues[i] = (int) schema.getType(i).unbox(outputs[i]);
+		}
+		try {
+			writeSample(Math.round(time / timeResolution), sampleValues);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Writes one primitive sample of the engine (see
+	 * {@link peripheralsimulation.engine.SimulationEngine#setSampleSink(SampleSink)}).
+	 *
+	 * @param time   The simulation time in seconds.
+	 * @param values The values of the peripheral model, one per channel.
+	 * @throws UncheckedIOException If the block cannot be written.
+	 */
+	@Override
+	public void acceptSample(double time, long[] values) {
+		if (values.length != sampleValues.length) {
+			throw new IllegalArgumentException(
+					"Expected " + sampleValues.length + " outputs, got " + values.length + ".");
+		}
+		for (int i = 0; i < values.length; i++) {
+			sampleValues[i] = (int) values[i];
+		}
+		try {
+			writeSample(Math.round(time / timeResolution), sampleValues);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Writes one sample. Values of 1-bit channels are stored as 1 if non-zero.
+	 *
+	 * @param time   The time in units of the time resolution.
+	 * @param values The values, one per channel (the array is not kept).
+	 * @throws IOException If the block cannot be written.
+	 */
+	public void writeSample(long time, int[] values) throws IOException {
+		if (closed) {
+			throw new IllegalStateException("Trace writer is closed.");
+		}
+		if (time < lastTime) {
+			throw new IllegalArgumentException("Time " + time + " is before the previous sample " + lastTime + ".");
+		}
+		lastTime = time;
+		blockTimes[blockSamples] = time;
+		for (int i = 0; i < blockValues.length; i++) {
+			blockValues[i][blockSamples] = values[i];
+		}
+		blockSamples++;
+		sampleCount++;
+		if (blockSamples == blockTimes.length) {
+			flushBlock();
+		}
+	}
+
+	/**
+	 * Encodes and writes the current block.
+	 */
+	private void flushBlock() throws IOException {
+		if (blockSamples == 0) {
+			return;
+		}
+		buffer.clear();
+		buffer.putInt(blockSamples);
+
+		int start = beginColumn();
+		long previousTime = 0;
+		for (int i = 0; i < blockSamples; i++) {
+			TraceFormat.putVarLong(buffer, blockTimes[i] - previousTime);
+			previousTime = blockTimes[i];
+		}
+		endColumn(start);
+
+		for (int channelIndex = 0; channelIndex < blockValues.length; channelIndex++) {
+			int[] values = blockValues[channelIndex];
+			start = beginColumn();
+			if (bitWidths[channelIndex] == 1) {
+				int bits = 0;
+				for (int i = 0; i < blockSamples; i++) {
+					if (values[i] != 0) {
+						bits |= 1 << (i & 7);
+					}
+					if ((i & 7) == 7) {
+						buffer.put((byte) bits);
+						bits = 0;
+					}
+				}
+				if ((blockSamples & 7) != 0) {
+					buffer.put((byte) bits);
+				}
+			} else {
+				long previous = 0;
+				for (int i = 0; i < blockSamples; i++) {
+					TraceFormat.putVarLong(buffer, TraceFormat.zigzag(values[i] - previous));
+					previous = values[i];
+				}
+			}
+			endColumn(start);
+		}
+
+		buffer.flip();
+		int length = buffer.remaining();
+		addIndexEntry(length);
+		write(buffer);
+		blockSamples = 0;
+	}
+
+	/**
+	 * Reserves the length of a column and returns the position of its data.
+	 */
+	private int beginColumn() {
+		buffer.putInt(0);
+		return buffer.position();
+	}
+
+	/**
+	 * Fills in the length of the column started at the given position.
+	 */
+	private void endColumn(int start) {
+		buffer.putInt(start - Integer.BYTES, buffer.position() - start);
+	}
+
+	/**
+	 * Records the current block in the block index.
+	 */
+	private void addIndexEntry(int length) {
+		if (blockCount == blockOffsets.length) {
+			int capacity = blockCount * 2;
+			blockOffsets = Arrays.copyOf(blockOffsets, capacity);
+			blockFirstTimes = Arrays.copyOf(blockFirstTimes, capacity);
+			blockCounts = Arrays.copyOf(blockCounts, capacity);
+			blockLengths = Arrays.copyOf(blockLengths, capacity);
+		}
+		blockOffsets[blockCount] = position;
+		blockFirstTimes[blockCount] = blockTimes[0];
+		blockCounts[blockCount] = blockSamples;
+		blockLengths[blockCount] = length;
+		blockCount++;
+	}
+
+	/**
+	 * Writes the whole buffer at the current position.
+	 */
+	private void write(ByteBuffer data) throws IOException {
+		while (data.hasRemaining()) {
+			position += channel.write(data);
+		}
+	}
+
+	/**
+	 * Returns the number of written samples.
+	 *
+	 * @return The number of samples.
+	 */
+	public long getSampleCount() {
+		return sampleCount;
+	}
+
+	/**
+	 * Writes the last block, the block index and the footer and closes the file.
+	 *
+	 * @throws IOException If the file cannot be written.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		try {
+			flushBlock();
+			long indexOffset = position;
+			buffer.clear();
+			for (int i = 0; i < blockCount; i++) {
+				if (buffer.remaining() < TraceFormat.INDEX_ENTRY_BYTES) {
+					buffer.flip();
+					write(buffer);
+					buffer.clear();
+				}
+				buffer.putLong(blockOffsets[i]);
+				buffer.putLong(blockFirstTimes[i]);
+				buffer.putInt(blockCounts[i]);
+				buffer.putInt(blockLengths[i]);
+			}
+			if (buffer.remaining() < TraceFormat.FOOTER_BYTES) {
+				buffer.flip();
+				write(buffer);
+				buffer.clear();
+			}
+			buffer.putLong(indexOffset);
+			buffer.putInt(blockCount);
+			buffer.putInt(TraceFormat.INDEX_MAGIC);
+			buffer.flip();
+			write(buffer);
+		} finally {
+			closed = true;
+			channel.close();
+		}
+	}
+
+}
@@ -0,0 +1,364 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.io.trace;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.BiConsumer;
+
+import peripheralsimulation.engine.SampleSink;
+import peripheralsimulation.model.OutputSchema;
+import peripheralsimulation.model.PeripheralModel;
+
+/**
+ * Writes simulation outputs as a Value Change Dump (IEEE 1364 VCD) for
+ * waveform viewers such as GTKWave. Each output of the peripheral model is one
+ * signal with the width given by its {@link PeripheralModel#getOutputSchema()}.
+ * Only changed values are written, through a fixed-size buffer, so the memory
+ * use does not depend on the length of the run.
+ *
+ * <p>
+ * The timescale is 1 ps; times must not decrease.
+ * </p>
+ *
+ * @author Veronika Lenková
+ */
+public class VcdWriter implements BiConsumer<Double, Object[]>, SampleSink, Closeable {
+
+	/** Timescale of the dump in seconds */
+	public static final double TIMESCALE = 1e-12;
+
+	/** Scope of the signals of a model without a peripheral type (e.g. a set) */
+	public static final String DEFAULT_SCOPE = "peripherals";
+
+	/** Size of the write buffer in bytes */
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/** First printable character used for signal identifiers */
+	private static final int FIRST_ID_CHAR = '!';
+
+	/** Number of printable characters used for signal identifiers */
+	private static final int ID_CHARS = '~' - '!' + 1;
+
+	/** The channel of the VCD file */
+	private final FileChannel channel;
+
+	/** The write buffer */
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+	/** Identifiers of the signals (ASCII) */
+	private final byte[][] identifiers;
+
+	/** Schema of the signals, used to convert the boxed outputs */
+	private final OutputSchema schema;
+
+	/** Bit widths of the signals */
+	private final int[] bitWidths;
+
+	/** Last written values of the signals */
+	private final int[] lastValues;
+
+	/** The values of the sample being written (reused) */
+	private final int[] sampleValues;
+
+	/** Time of the last written time stamp, -1 before the first sample */
+	private long lastWrittenTime = -1;
+
+	/** Time of the last sample */
+	private long lastTime = -1;
+
+	/** Number of accepted samples */
+	private long sampleCount;
+
+	/** Whether the writer was closed */
+	private boolean closed;
+
+	/**
+	 * Constructor for VcdWriter with one signal per output of the peripheral
+	 * model.
+	 *
+	 * @param file  The VCD file to create (an existing file is replaced).
+	 * @param model The peripheral model whose outputs are written.
+	 * @throws IOException If the file cannot be created.
+	 */
+	public VcdWriter(Path file, PeripheralModel model) throws IOException {
+		this(file, model.getPeripheralType() != null ? model.getPeripheralType().name() : DEFAULT_SCOPE,
+				model.getOutputSchema());
+	}
+
+	/**
+	 * Constructor for VcdWriter with integer signals.
+	 *
+	 * @param file        The VCD file to create (an existing file is replaced).
+	 * @param scope       The name of the module holding the signals.
+	 * @param signalNames The names of the signals.
+	 * @param bitWidths   The bit widths of the signals (1 to 32).
+	 * @throws IOException If the file cannot be created.
+	 */
+	public VcdWriter(Path file, String scope, String[] signalNames, int[] bitWidths) throws IOException {
+		this(file, scope, OutputSchema.ofIntegers(signalNames, bitWidths));
+	}
+
+	/**
+	 * Constructor for VcdWriter with one signal per channel of the schema.
+	 *
+	 * @param file   The VCD file to create (an existing file is replaced).
+	 * @param scope  The name of the module holding the signals.
+	 * @param schema The names, types and bit widths (1 to 32) of the signals.
+	 * @throws IOException If the file cannot be created.
+	 */
+	public VcdWriter(Path file, String scope, OutputSchema schema) throws IOException {
+		String[] signalNames = new String[schema.size()];
+		int[] bitWidths = new int[schema.size()];
+		for (int i = 0; i < signalNames.length; i++) {
+			signalNames[i] = schema.getName(i);
+			bitWidths[i] = schema.getBitWidth(i);
+			if (bitWidths[i] > Integer.SIZE) {
+				throw new IllegalArgumentException("Invalid bit width: " + bitWidths[i]);
+			}
+		}
+		this.schema = schema;
+		this.bitWidths = bitWidths;
+		this.lastValues = new int[signalNames.length];
+		this.sampleValues = new int[signalNames.length];
+		this.identifiers = new byte[signalNames.length][];
+		for (int i = 0; i < identifiers.length; i++) {
+			identifiers[i] = identifier(i);
+		}
+		this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		writeHeader(scope, signalNames);
+	}
+
+	/**
+	 * Returns the short identifier of a signal: the index in base 94 written with
+	 * the printable ASCII characters.
+	 */
+	private static byte[] identifier(int index) {
+		int length = 1;
+		for (int rest = index / ID_CHARS; rest > 0; rest /= ID_CHARS) {
+			length++;
+		}
+		byte[] id = new byte[length];
+		for (int i = length - 1; i >= 0; i--) {
+			id[i] = (byte) (FIRST_ID_CHAR + index % ID_CHARS);
+			index /= ID_CHARS;
+		}
+		return id;
+	}
+
+	/**
+	 * Writes the declarations of the signals.
+	 */
+	private void writeHeader(String scope, String[] signalNames) throws IOException {
+		putText("$version Peripheral simulation $end\n");
+		putText("$timescale 1ps $end\n");
+		putText("$scope module " + scope + " $end\n");
+		for (int i = 0; i < signalNames.length; i++) {
+			putText("$var wire " + bitWidths[i] + " ");
+			put(identifiers[i]);
+			putText(" " + signalNames[i] + (bitWidths[i] > 1 ? " [" + (bitWidths[i] - 1) + ":0]" : "") + " $end\n");
+		}
+		putText("$upscope $end\n");
+		putText("$enddefinitions $end\n");
+	}
+
+	/**
+	 * Writes the changed outputs of one sample, converted by the types of the
+	 * schema (booleans as 1/0, numbers by their int value).
+	 *
+	 * @param time    The simulation time in seconds.
+	 * @param outputs The outputs of the peripheral model, one per signal.
+	 * @throws UncheckedIOException If the dump cannot be written.
+	 */
+	@Override
+	public void accept(Double time, Object[] outputs) {
+		if (outputs.length != lastValues.length) {
+			throw new IllegalArgumentException(
+					"Expected " + lastValues.length + " outputs, got " + outputs.length + ".");
+		}
+		for (int i = 0; i < outputs.length; i++) {
+			sampleValues[i] = (int) schema.getType(i).unbox(outputs[i]);
+		}
+		writeSample(time, sampleValues);
+	}
+
+	/**
+	 * Writes the changed values of one primitive sample of the engine (see
+	 * {@link peripheralsimulation.engine.SimulationEngine#setSampleSink(SampleSink)}).
+	 *
+	 * @param time   The simulation time in seconds.
+	 * @param values The values of the peripheral model, one per signal.
+	 * @throws UncheckedIOException If the dump cannot be written.
+	 */
+	@Override
+	public void acceptSample(double time, long[] values) {
+		if (values.length != lastValues.length) {
+			throw new IllegalArgumentException(
+					"Expected " + lastValues.length + " outputs, got " + values.length + ".");
+		}
+		for (int i = 0; i < values.length; i++) {
+			sampleValues[i] = (int) values[i];
+		}
+		writeSample(time, sampleValues);
+	}
+
+	/**
+	 * Writes the changed values of one sample.
+	 */
+	private void writeSample(double time, int[] values) {
+		if (closed) {
+			throw new IllegalStateException("VCD writer is closed.");
+		}
+		long ticks = Math.round(time / TIMESCALE);
+		if (ticks < lastTime) {
+			throw new IllegalArgumentException("Time " + time + " is before the previous sample.");
+		}
+		try {
+			if (sampleCount == 0) {
+				writeTime(ticks);
+				putText("$dumpvars\n");
+				for (int i = 0; i < values.length; i++) {
+					writeValue(i, values[i]);
+				}
+				putText("$end\n");
+			} else {
+				for (int i = 0; i < values.length; i++) {
+					if (values[i] != lastValues[i]) {
+						if (lastWrittenTime != ticks) {
+							writeTime(ticks);
+						}
+						writeValue(i, values[i]);
+					}
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		lastTime = ticks;
+		sampleCount++;
+	}
+
+	/**
+	 * Writes a time stamp.
+	 */
+	private void writeTime(long ticks) throws IOException {
+		ensureRemaining(2 + 20);
+		buffer.put((byte) '#');
+		putDecimal(ticks);
+		buffer.put((byte) '\n');
+		lastWrittenTime = ticks;
+	}
+
+	/**
+	 * Writes the value of a signal and remembers it.
+	 */
+	private void writeValue(int signal, int value) throws IOException {
+		int width = bitWidths[signal];
+		ensureRemaining(Integer.SIZE + identifiers[signal].length + 3);
+		if (width == 1) {
+			buffer.put((byte) ((value & 1) == 0 ? '0' : '1'));
+		} else {
+			int masked = width == Integer.SIZE ? value : value & ((1 << width) - 1);
+			buffer.put((byte) 'b');
+			int highest = Math.max(0, Integer.SIZE - 1 - Integer.numberOfLeadingZeros(masked));
+			for (int bit = highest; bit >= 0; bit--) {
+				buffer.put((byte) (((masked >>> bit) & 1) == 0 ? '0' : '1'));
+			}
+			buffer.put((byte) ' ');
+		}
+		buffer.put(identifiers[signal]);
+		buffer.put((byte) '\n');
+		lastValues[signal] = value;
+	}
+
+	/**
+	 * Writes a non-negative number in decimal without creating a string.
+	 */
+	private void putDecimal(long value) {
+		long divisor = 1;
+		while (value / divisor >= 10) {
+			divisor *= 10;
+		}
+		for (; divisor > 0; divisor /= 10) {
+			buffer.put((byte) ('0' + (value / divisor) % 10));
+		}
+	}
+
+	/**
+	 * Writes ASCII text (used for the header only).
+	 */
+	private void putText(String text) throws IOException {
+		put(text.getBytes(StandardCharsets.US_ASCII));
+	}
+
+	/**
+	 * Writes bytes, flushing the buffer as needed.
+	 */
+	private void put(byte[] bytes) throws IOException {
+		int offset = 0;
+		while (offset < bytes.length) {
+			ensureRemaining(1);
+			int length = Math.min(bytes.length - offset, buffer.remaining());
+			buffer.put(bytes, offset, length);
+			offset += length;
+		}
+	}
+
+	/**
+	 * Flushes the buffer if it has less than the given number of free bytes.
+	 */
+	private void ensureRemaining(int bytes) throws IOException {
+		if (buffer.remaining() < bytes) {
+			flush();
+		}
+	}
+
+	/**
+	 * Writes the buffered bytes to the file.
+	 */
+	private void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	/**
+	 * Returns the number of accepted samples.
+	 *
+	 * @return The number of samples.
+	 */
+	public long getSampleCount() {
+		return sampleCount;
+	}
+
+	/**
+	 * Writes the time of the last sample (so viewers show the whole run),
+	 * flushes the buffer and closes the file.
+	 *
+	 * @throws IOException If the file cannot be written.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		try {
+			if (lastTime > lastWrittenTime) {
+				writeTime(lastTime);
+			}
+			flush();
+		} finally {
+			closed = true;
+			channel.close();
+		}
+	}
+
+}
@@ -0,0 +1,134 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.io.trace.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import peripheralsimulation.engine.SimulationEngine;
+import peripheralsimulation.io.trace.TraceReader;
+import peripheralsimulation.io.trace.TraceWriter;
+import peripheralsimulation.model.SysTickTimerModel;
+import peripheralsimulation.model.test.SysTickFixtures;
+
+/**
+ * Test class for {@link TraceWriter} and {@link TraceReader}.
+ *
+ * @author Veronika Lenková
+ */
+public class TraceWriterTest {
+
+	/** Folder for the trace files */
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Samples spread over several blocks must be read back unchanged, for both
+	 * bit-packed and multi-bit channels.
+	 */
+	@Test
+	public void testRoundTrip() throws IOException {
+		Path file = folder.getRoot().toPath().resolve("random.trace");
+		String[] names = { "FLAG", "COUNTER", "RAW" };
+		int[] widths = { 1, 16, 32 };
+		int blockSize = 100;
+		int samples = 1_037;
+		Random random = new Random(3);
+		long[] times = new long[samples];
+		int[][] values = new int[names.length][samples];
+		long time = 0;
+		try (TraceWriter writer = new TraceWriter(file, names, widths, 1e-9, blockSize)) {
+			int[] sample = new int[names.length];
+			for (int i = 0; i < samples; i++) {
+				time += random.nextInt(10) == 0 ? random.nextInt(1 << 30) : random.nextInt(3);
+				times[i] = time;
+				values[0][i] = sample[0] = random.nextInt(2);
+				values[1][i] = sample[1] = random.nextInt(1 << 16);
+				values[2][i] = sample[2] = i % 7 == 0 ? (i % 2 == 0 ? Integer.MIN_VALUE : Integer.MAX_VALUE)
+						: random.nextInt();
+				writer.writeSample(time, sample);
+			}
+			assertEquals(samples, writer.getSampleCount());
+		}
+
+		try (TraceReader reader = new TraceReader(file)) {
+			assertArrayEquals(names, reader.getChannelNames());
+			assertEquals(1, reader.getBitWidth(0));
+			assertEquals(16, reader.getBitWidth(1));
+			assertEquals(1e-9, reader.getTimeResolution(), 0);
+			assertEquals(samples, reader.getSampleCount());
+			assertEquals(11, reader.getBlockCount());
+
+			long[] blockTimes = new long[reader.getMaxBlockSampleCount()];
+			int[] blockValues = new int[reader.getMaxBlockSampleCount()];
+			int offset = 0;
+			for (int block = 0; block < reader.getBlockCount(); block++) {
+				int count = reader.readTimes(block, blockTimes);
+				for (int i = 0; i < count; i++) {
+					assertEquals(times[offset + i], blockTimes[i]);
+				}
+				// channels read in any order
+				for (int channel = names.length - 1; channel >= 0; channel--) {
+					assertEquals(count, reader.readChannel(block, channel, blockValues));
+					for (int i = 0; i < count; i++) {
+						assertEquals(values[channel][offset + i], blockValues[i]);
+					}
+				}
+				assertEquals(block, reader.findBlock(reader.getBlockFirstTime(block)));
+				offset += count;
+			}
+			assertEquals(samples, offset);
+		}
+	}
+
+	/**
+	 * A SysTick run written through the engine output handler must keep the
+	 * boolean outputs, and the flags must be bit-packed.
+	 */
+	@Test
+	public void testEngineOutputsAreWritten() throws IOException {
+		Path file = folder.getRoot().toPath().resolve("systick.trace");
+		SysTickTimerModel model = SysTickFixtures.createSysTick(9);
+		List<Object[]> expected = new ArrayList<>();
+		try (TraceWriter writer = new TraceWriter(file, model)) {
+			SimulationEngine engine = new SimulationEngine((time, outputs) -> {
+				expected.add(outputs.clone());
+				writer.accept(time, outputs);
+			});
+			engine.setPeripheralModel(model);
+			engine.initSimulation();
+			engine.startSimulation(1e-3);
+		}
+		assertTrue("Samples must be written", expected.size() > 10);
+
+		try (TraceReader reader = new TraceReader(file)) {
+			assertArrayEquals(model.getOutputNames(), reader.getChannelNames());
+			assertEquals(1, reader.getBitWidth(reader.getChannelIndex("INTERRUPT")));
+			assertEquals(expected.size(), reader.getSampleCount());
+			int[] values = new int[reader.getMaxBlockSampleCount()];
+			int offset = 0;
+			for (int block = 0; block < reader.getBlockCount(); block++) {
+				for (int channel = 0; channel < reader.getChannelCount(); channel++) {
+					int count = reader.readChannel(block, channel, values);
+					for (int i = 0; i < count; i++) {
+						Object output = expected.get(offset + i)[channel];
+						int value = output instanceof Boolean b ? (b ? 1 : 0) : ((Number) output).intValue();
+						assertEquals(value, values[i]);
+					}
+				}
+				offset += reader.getBlockSampleCount(block);
+			}
+		}
+	}
+
+}
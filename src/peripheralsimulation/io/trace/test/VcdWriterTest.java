@@ -0,0 +1,94 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.io.trace.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import peripheralsimulation.headless.HeadlessRunner;
+import peripheralsimulation.io.trace.VcdWriter;
+import peripheralsimulation.model.Peripheral;
+
+/**
+ * Test class for {@link VcdWriter}.
+ *
+ * @author Veronika Lenková
+ */
+public class VcdWriterTest {
+
+	/** Folder for the dump files */
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * The dump declares every signal with its width, writes all values at the
+	 * first sample and afterwards only the changed ones.
+	 */
+	@Test
+	public void testOnlyChangesAreWritten() throws IOException {
+		Path file = folder.getRoot().toPath().resolve("out.vcd");
+		try (VcdWriter writer = new VcdWriter(file, "systick", new String[] { "CURRENT", "INTERRUPT" },
+				new int[] { 24, 1 })) {
+			writer.accept(0.0, new Object[] { 5, false });
+			writer.accept(1e-9, new Object[] { 4, false });
+			writer.accept(2e-9, new Object[] { 4, false });
+			writer.accept(3e-9, new Object[] { 0, true });
+			writer.accept(4e-9, new Object[] { -1, true });
+			writer.accept(5e-9, new Object[] { -1, true });
+		}
+		assertEquals(List.of(
+				"$version Peripheral simulation $end",
+				"$timescale 1ps $end",
+				"$scope module systick $end",
+				"$var wire 24 ! CURRENT [23:0] $end",
+				"$var wire 1 \" INTERRUPT $end",
+				"$upscope $end",
+				"$enddefinitions $end",
+				"#0",
+				"$dumpvars",
+				"b101 !",
+				"0\"",
+				"$end",
+				"#1000",
+				"b100 !",
+				"#3000",
+				"b0 !",
+				"1\"",
+				"#4000",
+				"b111111111111111111111111 !",
+				"#5000"), Files.readAllLines(file));
+	}
+
+	/**
+	 * The headless runner writes a dump of all SysTick outputs when the output
+	 * file ends with .vcd.
+	 */
+	@Test
+	public void testHeadlessRunnerWritesDump() throws IOException {
+		Path registers = folder.getRoot().toPath().resolve("systick.csv");
+		Files.write(registers, List.of("SYST_CSR,0x00000007", "SYST_RVR,0x00000009", "SYST_CVR,0x00000000",
+				"SYST_CALIB,0x00000000"));
+		Path config = folder.getRoot().toPath().resolve("config.yaml");
+		Files.write(config, List.of("preferences:", "  rangeTo: 0.0001", "  clkFreq: 1000000",
+				"  extClkFreq: 1000000"));
+		Path file = folder.getRoot().toPath().resolve("systick.vcd");
+
+		long samples = HeadlessRunner.run(Peripheral.SYSTICKTIMER, registers, config, file);
+
+		assertTrue("Samples must be written", samples > 0);
+		List<String> lines = Files.readAllLines(file);
+		assertTrue(lines.contains("$var wire 24 ! CURRENT [23:0] $end"));
+		assertTrue(lines.contains("$var wire 1 \" INTERRUPT $end"));
+		assertTrue(lines.contains("$var wire 1 # COUNTFLAG $end"));
+		assertTrue("The interrupt must rise", lines.contains("1\""));
+	}
+
+}
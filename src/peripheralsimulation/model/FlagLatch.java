@@ -0,0 +1,102 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.model;
+
+/**
+ * A flag output of a peripheral model which remembers that it was raised until
+ * the outputs are sampled. The level follows the hardware flag (set and
+ * cleared by the model); {@link #sample()} reports whether the flag was set at
+ * any time since the previous sample, so a flag raised and cleared between two
+ * monitoring points is not lost. Sampling does not change the level, so the
+ * simulated hardware does not depend on how often it is monitored.
+ *
+ * <p>
+ * The raises are latched twice: for the samples at the monitoring points and
+ * for the observations of the time steps between them ({@link #observe()}),
+ * so observing the flag for a monitoring window does not consume a raise which
+ * the next sample has to report.
+ * </p>
+ *
+ * @author Veronika Lenková
+ */
+public final class FlagLatch {
+
+	/** The current level of the flag */
+	private boolean level;
+
+	/** True if the flag was raised since the previous sample */
+	private boolean raised;
+
+	/** True if the flag was raised since the previous observation or sample */
+	private boolean observedRaised;
+
+	/**
+	 * Sets the flag.
+	 */
+	public void set() {
+		level = true;
+		raised = true;
+		observedRaised = true;
+	}
+
+	/**
+	 * Raises the flag for an instant (e.g. an interrupt request): the level stays
+	 * low, but the next sample reports the flag.
+	 */
+	public void pulse() {
+		raised = true;
+		observedRaised = true;
+	}
+
+	/**
+	 * Clears the flag. A raise since the previous sample is still reported by
+	 * the next sample.
+	 */
+	public void clear() {
+		level = false;
+	}
+
+	/**
+	 * Clears the flag and forgets the raises (e.g. on initialization).
+	 */
+	public void reset() {
+		level = false;
+		raised = false;
+		observedRaised = false;
+	}
+
+	/**
+	 * Returns the current level of the flag.
+	 *
+	 * @return True if the flag is set.
+	 */
+	public boolean isSet() {
+		return level;
+	}
+
+	/**
+	 * Samples the flag: returns true if it is set or was raised since the
+	 * previous sample, and starts a new sampling interval.
+	 *
+	 * @return True if the flag was set since the previous sample.
+	 */
+	public boolean sample() {
+		boolean sampled = level || raised;
+		raised = false;
+		observedRaised = false;
+		return sampled;
+	}
+
+	/**
+	 * Observes the flag after a time step between two samples: returns true if
+	 * it is set or was raised since the previous observation or sample. The raise
+	 * is still reported by the next {@link #sample()}.
+	 *
+	 * @return True if the flag was set since the previous observation.
+	 */
+	public boolean observe() {
+		boolean observed = level || observedRaised;
+		observedRaised = false;
+		return observed;
+	}
+
+}
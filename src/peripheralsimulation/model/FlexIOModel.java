@@ -2,10 +2,10 @@
 package peripheralsimulation.model;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import peripheralsimulation.engine.SimulationEngine;
-import peripheralsimulation.io.UserPreferences;
 import peripheralsimulation.model.flexio.Edge;
 import peripheralsimulation.model.flexio.FlexIOConfig;
 import peripheralsimulation.model.flexio.FlexIOShifter;
@@ -25,6 +25,14 @@ import peripheralsimulation.model.flexio.FlexIOTimer;
  * = Transmit/Receive</li>
  * </ul>
  *
+ * <p>
+ * The model is scheduled edge to edge: the shifters only act on timer edges and
+ * the timer counters between two edges only count down, so the model computes
+ * the clock cycle of the nearest timer edge and schedules a single event there.
+ * The cycles in between are skipped in bulk. Reading outputs or registers, and
+ * writing registers, first bring the timers up to the current clock cycle.
+ * </p>
+ *
  * @author Veronika Lenková
  */
 public class FlexIOModel implements PeripheralModel {
@@ -32,11 +40,35 @@ public class FlexIOModel implements PeripheralModel {
 	/** Output names */
 	private final String[] outputNames;
 
+	/** Types and widths of the outputs (all integers, flags and pins are 0/1) */
+	private final OutputSchema outputSchema;
+
+	/** Values sampled for the {@code Object[]} output API (reused) */
+	private final long[] sampledValues;
+
 	/** The configuration object with all the "register" bits */
 	private final FlexIOConfig config;
 
-	/** Clock period (in seconds) */
-	private double tickPeriod;
+	/** Clock period (in ticks of the engine time base) */
+	private long tickPeriod;
+
+	/** Marker of "no event scheduled" */
+	private static final long NO_TICK = Long.MIN_VALUE;
+
+	/** Id of the engine handler processing the next timer edge */
+	private int edgeHandler;
+
+	/** The engine simulating this model (known after initialize) */
+	private SimulationEngine engine;
+
+	/** True if the model was started (FlexIO enabled at initialization) */
+	private boolean active;
+
+	/** Tick of the last clock cycle the timers were brought up to */
+	private long lastCycleTick;
+
+	/** Tick of the pending edge event (NO_TICK if none) */
+	private long nextEdgeTick = NO_TICK;
 
 	/** The timers used in the FlexIO peripheral */
 	private FlexIOTimer[] timers;
@@ -50,6 +82,9 @@ public class FlexIOModel implements PeripheralModel {
 	/** Number of shifters */
 	private int shifterCount;
 
+	/** Edges produced by the timers in the current clock cycle (reused) */
+	private Edge[] edges;
+
 	/**
 	 * Constructor for FlexIOModel.
 	 *
@@ -76,11 +111,29 @@ public class FlexIOModel implements PeripheralModel {
 		outputNames = names.toArray(String[]::new);
 		timersCount = timers.length;
 		shifterCount = shifters.length;
+		edges = new Edge[timersCount];
+		// every output is a pin level or a flag, except the 16-bit timer counters
+		int[] bitWidths = new int[outputNames.length];
+		Arrays.fill(bitWidths, 1);
+		for (int i = 0; i < timersCount; i++) {
+			bitWidths[i * 3 + 1] = 16;
+		}
+		outputSchema = OutputSchema.ofIntegers(outputNames, bitWidths);
+		sampledValues = new long[outputNames.length];
 	}
 
 	@Override
 	public void initialize(SimulationEngine engine) {
-		tickPeriod = 1.0 / UserPreferences.getInstance().getClockFrequency();
+		this.engine = engine;
+		tickPeriod = engine.getClockPeriod(engine.getClockFrequency());
+		edgeHandler = engine.registerHandler(this::onEdge);
+		active = false;
+		nextEdgeTick = NO_TICK;
+		if (engine.getContext().getMonitoringPeriod() <= 0) {
+			// without monitoring points, an event at the start samples the reset levels
+			engine.scheduleEventAtTick(engine.getCurrentTick(), engine.registerHandler(() -> {
+			}));
+		}
 		if (!config.isEnabled() || config.isDozeEnabled() || config.isDebugEnabled())
 			return;
 
@@ -91,16 +144,51 @@ public class FlexIOModel implements PeripheralModel {
 		for (FlexIOShifter shifter : shifters)
 			shifter.reset();
 
-		scheduleEvent(engine, engine.getCurrentTime() + tickPeriod);
+		active = true;
+		lastCycleTick = engine.getCurrentTick();
+		reschedule();
 	}
 
+	/**
+	 * Advances the timers and shifters by exactly one clock cycle, regardless of
+	 * the engine time. The engine does not call this method with edge-to-edge
+	 * scheduling; it is kept for stepping the model manually.
+	 */
 	@Override
 	public void update(SimulationEngine engine) {
-		Edge[] edges = new Edge[timers.length];
+		advanceTo(currentTick());
+		clockCycle(0);
+
+		// Re-schedule the next edge
+		if (engine.isSimulationRunning()) {
+			reschedule();
+		}
+	}
+
+	/**
+	 * Handler of the edge event.
+	 */
+	private void onEdge() {
+		long now = currentTick();
+		if (now != nextEdgeTick) {
+			return; // made obsolete by a register write
+		}
+		advanceTo(now);
+		reschedule();
+	}
+
+	/**
+	 * Runs one clock cycle of all timers (after skipping the given number of
+	 * cycles without edges) and lets the shifters act on the resulting edges.
+	 *
+	 * @param skippedCycles The number of cycles to skip before the clock cycle.
+	 */
+	private void clockCycle(long skippedCycles) {
 		// timers
 		for (int i = 0; i < timers.length; i++) {
 			// decrement timer, compare with CMP, set/clear TIMSTAT bits, trigger shifters,
 			// etc.
+			timers[i].skip(skippedCycles);
 			edges[i] = timers[i].tick();
 		}
 		// shifters
@@ -110,15 +198,56 @@ public class FlexIOModel implements PeripheralModel {
 			Edge clockEdge = edges[shifter.getTimerSelect()];
 			shifter.shift(clockEdge);
 		}
+	}
 
-		// Re-schedule next tick
-		if (engine.isSimulationRunning()) {
-			scheduleEvent(engine, engine.getCurrentTime() + tickPeriod);
+	/**
+	 * Brings the timers and shifters up to the last clock cycle at or before the
+	 * given tick. There is at most one edge in this interval (at its end), because
+	 * an event is always scheduled at the nearest edge.
+	 *
+	 * @param now The current time in ticks.
+	 */
+	private void advanceTo(long now) {
+		if (!active || tickPeriod <= 0) {
+			return;
+		}
+		long cycles = (now - lastCycleTick) / tickPeriod;
+		if (cycles <= 0) {
+			return;
+		}
+		lastCycleTick += cycles * tickPeriod;
+		clockCycle(cycles - 1);
+	}
+
+	/**
+	 * Schedules an event at the nearest timer edge. Nothing is scheduled if an
+	 * event is already pending at the same tick, or if no timer produces edges.
+	 */
+	private void reschedule() {
+		if (!active || engine == null || tickPeriod <= 0) {
+			return;
+		}
+		long cycles = FlexIOTimer.NO_EDGE;
+		for (FlexIOTimer timer : timers) {
+			cycles = Math.min(cycles, timer.ticksToNextEdge());
+		}
+		if (cycles == FlexIOTimer.NO_EDGE) {
+			nextEdgeTick = NO_TICK;
+			return;
+		}
+		long edgeTick = lastCycleTick + cycles * tickPeriod;
+		if (edgeTick != nextEdgeTick) {
+			nextEdgeTick = edgeTick;
+			engine.scheduleEventAtTick(edgeTick, edgeHandler);
 		}
 	}
 
-	private void scheduleEvent(SimulationEngine engine, double eventTime) {
-		engine.scheduleEvent(eventTime, () -> update(engine));
+	/**
+	 * Returns the current engine time (or the last cycle if the model is not
+	 * attached to an engine yet).
+	 */
+	private long currentTick() {
+		return (engine == null) ? lastCycleTick : engine.getCurrentTick();
 	}
 
 	@Override
@@ -134,25 +263,65 @@ public class FlexIOModel implements PeripheralModel {
 	@Override
 	public Object[] getOutputs() {
 		Object[] outputs = new Object[(timersCount + shifterCount) * 3];
-		int k = 0;
+		writeOutputs(outputs, 0);
+		return outputs;
+	}
+
+	@Override
+	public void writeOutputs(Object[] outputs, int offset) {
+		sampleOutputs(sampledValues, 0);
+		for (int i = 0; i < sampledValues.length; i++) {
+			outputs[offset + i] = outputSchema.getType(i).box(sampledValues[i]);
+		}
+	}
+
+	@Override
+	public void sampleOutputs(long[] values, int offset) {
+		writeValues(values, offset, config.getLatchedTimStat(), config.getLatchedShiftStat(),
+				config.getLatchedShiftErr());
+		// the register flags stay set until the software clears them
+		config.clearLatchedFlags();
+	}
+
+	@Override
+	public void observeOutputs(long[] values, int offset) {
+		writeValues(values, offset, config.getObservedTimStat(), config.getObservedShiftStat(),
+				config.getObservedShiftErr());
+		config.clearObservedFlags();
+	}
+
+	/**
+	 * Writes the outputs at the current tick with the given flags.
+	 */
+	private void writeValues(long[] values, int offset, int timStat, int shiftStat, int shiftErr) {
+		advanceTo(currentTick());
+		int k = offset;
 
 		/* TIMERy */
 		for (int i = 0; i < timersCount; i++) {
 			FlexIOTimer timer = timers[i];
-			outputs[k++] = timer.isClockLevelHigh() ? 1 : 0; // _OUT
-			outputs[k++] = timer.getCurrentCounter(); // _CNT
-			outputs[k++] = timer.isStatusFlagSet() ? 1 : 0; // _TSF
+			values[k++] = timer.isClockLevelHigh() ? 1 : 0; // _OUT
+			values[k++] = timer.getCurrentCounter(); // _CNT
+			values[k++] = (timStat >>> i) & 1; // _TSF
 		}
 
 		/* SHIFTERy */
 		for (int i = 0; i < shifterCount; i++) {
 			FlexIOShifter shifter = shifters[i];
-			outputs[k++] = shifter.isPinLevelHigh() ? 1 : 0; // _PIN
-			outputs[k++] = shifter.isStatusFlagSet() ? 1 : 0; // _SSF
-			outputs[k++] = shifter.isErrorFlagSet() ? 1 : 0; // _SEF
+			values[k++] = shifter.isPinLevelHigh() ? 1 : 0; // _PIN
+			values[k++] = (shiftStat >>> i) & 1; // _SSF
+			values[k++] = (shiftErr >>> i) & 1; // _SEF
 		}
-		config.clearRuntimeFlags();
-		return outputs;
+	}
+
+	@Override
+	public OutputSchema getOutputSchema() {
+		return outputSchema;
+	}
+
+	@Override
+	public int getOutputBitWidth(int index) {
+		return outputSchema.getBitWidth(index);
 	}
 
 	@Override
@@ -163,13 +332,28 @@ public class FlexIOModel implements PeripheralModel {
 		throw new IllegalArgumentException("Unknown output " + name);
 	}
 
+	@Override
+	public boolean hasRegister(int registerAddress) {
+		return config.hasRegister(registerAddress);
+	}
+
 	@Override
 	public void setRegisterValue(int addr, int value) {
+		if (!config.hasRegister(addr)) {
+			throw new IllegalArgumentException("Invalid register address: " + addr);
+		}
+		advanceTo(currentTick());
 		config.writeByAddress(addr, value);
+		// the write can change the reload values or the mode, so the next edge too
+		reschedule();
 	}
 
 	@Override
 	public Integer getRegisterValue(int addr) {
+		if (!config.hasRegister(addr)) {
+			return null;
+		}
+		advanceTo(currentTick());
 		return config.readByAddress(addr);
 	}
 
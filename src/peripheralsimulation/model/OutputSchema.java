@@ -0,0 +1,150 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.model;
+
+import java.util.Arrays;
+
+/**
+ * Description of the output channels of a peripheral model: for every channel
+ * the name, the type and the number of significant bits, in the order of the
+ * sampled values (see {@link PeripheralModel#sampleOutputs(long[], int)}).
+ *
+ * @author Veronika Lenková
+ */
+public final class OutputSchema {
+
+	/** Names of the channels */
+	private final String[] names;
+
+	/** Types of the channels */
+	private final OutputType[] types;
+
+	/** Numbers of significant bits of the channels */
+	private final int[] bitWidths;
+
+	/**
+	 * Constructor for OutputSchema.
+	 *
+	 * @param names     Names of the channels.
+	 * @param types     Types of the channels.
+	 * @param bitWidths Numbers of significant bits of the channels (1 to 64).
+	 * @throws IllegalArgumentException If the arrays have different lengths or a
+	 *                                  bit width is out of range.
+	 */
+	public OutputSchema(String[] names, OutputType[] types, int[] bitWidths) {
+		if (names.length != types.length || names.length != bitWidths.length) {
+			throw new IllegalArgumentException("Names, types and bit widths must have the same length");
+		}
+		for (int i = 0; i < bitWidths.length; i++) {
+			if (bitWidths[i] < 1 || bitWidths[i] > Long.SIZE) {
+				throw new IllegalArgumentException("Invalid bit width of " + names[i] + ": " + bitWidths[i]);
+			}
+		}
+		this.names = names.clone();
+		this.types = types.clone();
+		this.bitWidths = bitWidths.clone();
+	}
+
+	/**
+	 * Creates the schema of a model from its output names and bit widths. The
+	 * type of every channel is {@link OutputType#INTEGER}; models with boolean
+	 * outputs should describe their channels themselves.
+	 *
+	 * @param model The peripheral model.
+	 * @return The schema of the model outputs.
+	 */
+	public static OutputSchema of(PeripheralModel model) {
+		String[] names = model.getOutputNames();
+		int[] bitWidths = new int[names.length];
+		for (int i = 0; i < names.length; i++) {
+			bitWidths[i] = model.getOutputBitWidth(i);
+		}
+		return ofIntegers(names, bitWidths);
+	}
+
+	/**
+	 * Creates a schema in which every channel is an {@link OutputType#INTEGER}.
+	 *
+	 * @param names     Names of the channels.
+	 * @param bitWidths Numbers of significant bits of the channels (1 to 64).
+	 * @return The schema.
+	 * @throws IllegalArgumentException If the arrays have different lengths or a
+	 *                                  bit width is out of range.
+	 */
+	public static OutputSchema ofIntegers(String[] names, int[] bitWidths) {
+		OutputType[] types = new OutputType[names.length];
+		Arrays.fill(types, OutputType.INTEGER);
+		return new OutputSchema(names, types, bitWidths);
+	}
+
+	/**
+	 * Returns the number of channels.
+	 *
+	 * @return The number of channels.
+	 */
+	public int size() {
+		return names.length;
+	}
+
+	/**
+	 * Returns the name of a channel, as in {@link PeripheralModel#getOutputNames()}.
+	 *
+	 * @param channel The index of the channel.
+	 * @return The name of the channel.
+	 */
+	public String getName(int channel) {
+		return names[channel];
+	}
+
+	/**
+	 * Returns the type of a channel, which decides how its values are boxed and
+	 * unboxed.
+	 *
+	 * @param channel The index of the channel.
+	 * @return The type of the channel.
+	 */
+	public OutputType getType(int channel) {
+		return types[channel];
+	}
+
+	/**
+	 * Returns the number of significant bits of a channel (1 for a flag or pin
+	 * level), e.g. the width of the signal in a trace.
+	 *
+	 * @param channel The index of the channel.
+	 * @return The bit width, 1 to 64.
+	 */
+	public int getBitWidth(int channel) {
+		return bitWidths[channel];
+	}
+
+	/**
+	 * Returns the index of the channel with the given name.
+	 *
+	 * @param name The name of the channel.
+	 * @return The index of the channel, or -1 if there is no such channel.
+	 */
+	public int indexOf(String name) {
+		for (int i = 0; i < names.length; i++) {
+			if (names[i].equals(name)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Boxes sampled values for the {@code Object[]} output API.
+	 *
+	 * @param values The sampled values.
+	 * @param offset The index of the first channel in the values.
+	 * @return A new array with one boxed value per channel.
+	 */
+	public Object[] toObjects(long[] values, int offset) {
+		Object[] outputs = new Object[names.length];
+		for (int i = 0; i < outputs.length; i++) {
+			outputs[i] = types[i].box(values[offset + i]);
+		}
+		return outputs;
+	}
+
+}
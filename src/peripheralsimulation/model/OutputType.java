@@ -0,0 +1,69 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.model;
+
+/**
+ * Enum representing the type of an output channel of a peripheral model. The
+ * type decides how a primitive sample value (see
+ * {@link PeripheralModel#sampleOutputs(long[], int)}) is boxed for the
+ * {@code Object[]} output API.
+ *
+ * @author Veronika Lenková
+ */
+public enum OutputType {
+
+	/** A flag or pin level, boxed as {@link Boolean} (0 = false) */
+	BOOLEAN,
+
+	/** A counter or register value, boxed as {@link Integer} */
+	INTEGER;
+
+	/**
+	 * Boxes a primitive sample value.
+	 *
+	 * @param value The sample value.
+	 * @return The boxed value.
+	 */
+	public Object box(long value) {
+		if (this == BOOLEAN) {
+			return value != 0 ? Boolean.TRUE : Boolean.FALSE;
+		}
+		return Integer.valueOf((int) value);
+	}
+
+	/**
+	 * Converts a boxed output value of a channel of this type to a primitive
+	 * sample value, the inverse of {@link #box(long)}: a boolean channel is 1 or
+	 * 0, an integer channel the value of the number (1 or 0 for a Boolean).
+	 *
+	 * @param value The output value (Boolean or Number).
+	 * @return The sample value.
+	 * @throws IllegalArgumentException If the value is neither a Boolean nor a
+	 *                                  Number.
+	 */
+	public long unbox(Object value) {
+		long sample = toLong(value);
+		if (this == BOOLEAN) {
+			return sample != 0 ? 1 : 0;
+		}
+		return sample;
+	}
+
+	/**
+	 * Converts a boxed output value to a primitive sample value.
+	 *
+	 * @param value The output value (Boolean or Number).
+	 * @return The sample value (1 or 0 for a Boolean).
+	 * @throws IllegalArgumentException If the value is neither a Boolean nor a
+	 *                                  Number.
+	 */
+	public static long toLong(Object value) {
+		if (value instanceof Boolean b) {
+			return b ? 1 : 0;
+		}
+		if (value instanceof Number n) {
+			return n.longValue();
+		}
+		throw new IllegalArgumentException("Unsupported output value: " + value);
+	}
+
+}
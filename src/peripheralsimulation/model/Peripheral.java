@@ -1,6 +1,10 @@
 /** Copyright (c) 2025, Veronika Lenková */
 package peripheralsimulation.model;
 
+import peripheralsimulation.model.flexio.FlexIOConfig;
+import peripheralsimulation.model.systick.SysTickTimerConfig;
+import peripheralsimulation.utils.RegisterMap;
+
 /**
  * Enum representing different types of peripherals in the simulation. Each
  * peripheral has a display name that can be used for user-friendly
@@ -45,6 +49,23 @@ public enum Peripheral {
 		throw new IllegalArgumentException("No enum constant for display name: " + displayName);
 	}
 
+	/**
+	 * Creates a model of this peripheral configured by the given registers.
+	 *
+	 * @param registerMap the register values (offset -> value)
+	 * @return the new peripheral model
+	 */
+	public PeripheralModel createModel(RegisterMap registerMap) {
+		switch (this) {
+		case SYSTICKTIMER:
+			return new SysTickTimerModel(new SysTickTimerConfig(registerMap));
+		case FLEXIO:
+			return new FlexIOModel(new FlexIOConfig(registerMap));
+		default:
+			throw new IllegalArgumentException("Unknown peripheral.");
+		}
+	}
+
 	@Override
 	public String toString() {
 		return displayName;
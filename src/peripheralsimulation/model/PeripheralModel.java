@@ -21,7 +21,10 @@ public interface PeripheralModel {
 
 	/**
 	 * Called by the SimulationEngine before running begins. This is where you can
-	 * schedule initial events or set initial state.
+	 * schedule initial events or set initial state. Events scheduled over and over
+	 * again should use a handler registered by
+	 * {@link SimulationEngine#registerHandler(Runnable)}, which avoids allocation
+	 * per event.
 	 *
 	 * @param engine The core simulation engine controlling scheduling and time.
 	 */
@@ -61,6 +64,64 @@ public interface PeripheralModel {
 	 */
 	Object[] getOutputs();
 
+	/**
+	 * Writes the current outputs into the array, starting at the offset, in the
+	 * order of {@link #getOutputNames()}. The engine uses this to sample several
+	 * models into one array; the default copies {@link #getOutputs()}.
+	 *
+	 * @param outputs The array to write to.
+	 * @param offset  The index of the first output in the array.
+	 */
+	default void writeOutputs(Object[] outputs, int offset) {
+		Object[] own = getOutputs();
+		System.arraycopy(own, 0, outputs, offset, own.length);
+	}
+
+	/**
+	 * Writes the current outputs as primitive values into the array, starting at
+	 * the offset, in the order of {@link #getOutputSchema()} (booleans as 1 or 0).
+	 * Reading the outputs has the same effect as {@link #getOutputs()} (e.g.
+	 * clears flags which are cleared on read), but nothing is allocated, so the
+	 * engine can sample into one reused array. The default is a slow adapter
+	 * which converts {@link #getOutputs()}.
+	 *
+	 * @param values The array to write to.
+	 * @param offset The index of the first output in the array.
+	 */
+	default void sampleOutputs(long[] values, int offset) {
+		Object[] own = getOutputs();
+		for (int i = 0; i < own.length; i++) {
+			values[offset + i] = OutputType.toLong(own[i]);
+		}
+	}
+
+	/**
+	 * Writes the outputs after a time step between two monitoring points, for the
+	 * aggregation over a monitoring window, in the layout of
+	 * {@link #sampleOutputs(long[], int)}. A model which latches its flags until
+	 * the next sample reports here the flags raised since the previous
+	 * observation, from a separate latch, so the observation does not consume
+	 * the flags of the next sample. The default samples the outputs, which is
+	 * right for a model without latched flags.
+	 *
+	 * @param values The array to write to.
+	 * @param offset The index of the first output in the array.
+	 */
+	default void observeOutputs(long[] values, int offset) {
+		sampleOutputs(values, offset);
+	}
+
+	/**
+	 * Returns the description of the output channels (name, type and bit width).
+	 * The default describes every output as an integer of
+	 * {@link #getOutputBitWidth(int)} bits.
+	 *
+	 * @return The output schema.
+	 */
+	default OutputSchema getOutputSchema() {
+		return OutputSchema.of(this);
+	}
+
 	/**
 	 * Returns the names of all outputs for this peripheral.
 	 *
@@ -68,6 +129,18 @@ public interface PeripheralModel {
 	 */
 	String[] getOutputNames();
 
+	/**
+	 * Returns the number of significant bits of an output. Outputs with width 1
+	 * are flags or pin levels (true/false or 0/1) and are bit-packed in binary
+	 * traces. The default is a full 32-bit value.
+	 *
+	 * @param index The index of the output.
+	 * @return The number of significant bits (1 to 32).
+	 */
+	default int getOutputBitWidth(int index) {
+		return Integer.SIZE;
+	}
+
 	/**
 	 * Sets the value of a register by its address.
 	 *
@@ -84,6 +157,18 @@ public interface PeripheralModel {
 	 */
 	Integer getRegisterValue(int registerAddress);
 
+	/**
+	 * Returns true if the address is a register of the peripheral: an offset in
+	 * its register block, or an address in the block of the peripheral. A
+	 * {@link PeripheralSet} routes the register accesses by it.
+	 *
+	 * @param registerAddress The address (or the offset) of the register.
+	 * @return True if the peripheral has a register at the address.
+	 */
+	default boolean hasRegister(int registerAddress) {
+		return true;
+	}
+
 	/**
 	 * Applies a user event to the peripheral.
 	 *
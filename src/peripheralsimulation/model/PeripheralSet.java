@@ -0,0 +1,283 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import peripheralsimulation.engine.SimulationEngine;
+
+/**
+ * Several peripheral models simulated together on one timeline, e.g. a SysTick
+ * timer next to two FlexIO instances. Each model is added under an instance
+ * name and its outputs are namespaced as {@code <instance>.<output>} (e.g.
+ * {@code FLEXIO1.Timer0_OUT}), so the set can be passed wherever a single
+ * {@link PeripheralModel} is expected (engine, trace writers, UI).
+ *
+ * <p>
+ * The outputs of all models are sampled into one array per sample. Registers
+ * are addressed through the member models: user events should target the
+ * model of the instance (see {@link #getModel(String)}). The register methods
+ * of the set route an address to the only model which has it
+ * ({@link PeripheralModel#hasRegister(int)}), e.g. a SysTick address in the
+ * System Control Space; an address which several models have (e.g. a bare
+ * offset, or a register of two FlexIO instances) is rejected and must be
+ * accessed through the model of the instance.
+ * </p>
+ *
+ * @author Veronika Lenková
+ */
+public class PeripheralSet implements PeripheralModel {
+
+	/** Separator between the instance name and the output name */
+	public static final String SEPARATOR = ".";
+
+	/** Instance names, in the order in which the models were added */
+	private final List<String> instanceNames = new ArrayList<>();
+
+	/** The member models, in the order in which they were added */
+	private final List<PeripheralModel> models = new ArrayList<>();
+
+	/** Index of the first output of each model, plus the total output count */
+	private int[] offsets = { 0 };
+
+	/** Namespaced output names */
+	private String[] outputNames = new String[0];
+
+	/** Indices of the namespaced output names */
+	private final Map<String, Integer> outputIndices = new HashMap<>();
+
+	/** Schema of the namespaced outputs (null until requested after a change) */
+	private OutputSchema outputSchema;
+
+	/**
+	 * Adds a model under the given instance name.
+	 *
+	 * @param instanceName The unique name of the instance (without the
+	 *                     separator).
+	 * @param model        The peripheral model.
+	 * @throws IllegalArgumentException If the name is empty, contains the
+	 *                                  separator or is already used.
+	 */
+	public void add(String instanceName, PeripheralModel model) {
+		if (instanceName == null || instanceName.isEmpty() || instanceName.contains(SEPARATOR)) {
+			throw new IllegalArgumentException("Invalid instance name: " + instanceName);
+		}
+		if (instanceNames.contains(instanceName)) {
+			throw new IllegalArgumentException("Duplicate instance name: " + instanceName);
+		}
+		if (model == null || model instanceof PeripheralSet) {
+			throw new IllegalArgumentException("Invalid model of instance " + instanceName);
+		}
+		String[] names = model.getOutputNames();
+		int first = outputNames.length;
+		outputNames = Arrays.copyOf(outputNames, first + names.length);
+		for (int i = 0; i < names.length; i++) {
+			outputNames[first + i] = instanceName + SEPARATOR + names[i];
+			outputIndices.put(outputNames[first + i], first + i);
+		}
+		instanceNames.add(instanceName);
+		models.add(model);
+		offsets = Arrays.copyOf(offsets, offsets.length + 1);
+		offsets[offsets.length - 1] = outputNames.length;
+		outputSchema = null;
+	}
+
+	/**
+	 * Returns the model of an instance.
+	 *
+	 * @param instanceName The name of the instance.
+	 * @return The model, or null if there is no such instance.
+	 */
+	public PeripheralModel getModel(String instanceName) {
+		int index = instanceNames.indexOf(instanceName);
+		return index < 0 ? null : models.get(index);
+	}
+
+	/**
+	 * Returns the instance names in the order in which the models were added.
+	 *
+	 * @return The instance names.
+	 */
+	public List<String> getInstanceNames() {
+		return List.copyOf(instanceNames);
+	}
+
+	/**
+	 * Returns the number of models in the set.
+	 *
+	 * @return The number of models.
+	 */
+	public int size() {
+		return models.size();
+	}
+
+	@Override
+	public void initialize(SimulationEngine engine) {
+		for (PeripheralModel model : models) {
+			model.initialize(engine);
+		}
+	}
+
+	@Override
+	public void update(SimulationEngine engine) {
+		for (PeripheralModel model : models) {
+			model.update(engine);
+		}
+	}
+
+	@Override
+	public String getOutputName(int index) {
+		return outputNames[index];
+	}
+
+	@Override
+	public int getOutputIndex(String name) {
+		Integer index = outputIndices.get(name);
+		if (index == null) {
+			throw new IllegalArgumentException("Invalid output name: " + name);
+		}
+		return index;
+	}
+
+	@Override
+	public Object[] getOutputs() {
+		Object[] outputs = new Object[outputNames.length];
+		writeOutputs(outputs, 0);
+		return outputs;
+	}
+
+	@Override
+	public void writeOutputs(Object[] outputs, int offset) {
+		for (int i = 0; i < models.size(); i++) {
+			models.get(i).writeOutputs(outputs, offset + offsets[i]);
+		}
+	}
+
+	@Override
+	public void sampleOutputs(long[] values, int offset) {
+		for (int i = 0; i < models.size(); i++) {
+			models.get(i).sampleOutputs(values, offset + offsets[i]);
+		}
+	}
+
+	@Override
+	public void observeOutputs(long[] values, int offset) {
+		for (int i = 0; i < models.size(); i++) {
+			models.get(i).observeOutputs(values, offset + offsets[i]);
+		}
+	}
+
+	@Override
+	public OutputSchema getOutputSchema() {
+		if (outputSchema == null) {
+			OutputType[] types = new OutputType[outputNames.length];
+			int[] bitWidths = new int[outputNames.length];
+			for (int i = 0; i < models.size(); i++) {
+				OutputSchema member = models.get(i).getOutputSchema();
+				for (int channel = 0; channel < member.size(); channel++) {
+					types[offsets[i] + channel] = member.getType(channel);
+					bitWidths[offsets[i] + channel] = member.getBitWidth(channel);
+				}
+			}
+			outputSchema = new OutputSchema(outputNames, types, bitWidths);
+		}
+		return outputSchema;
+	}
+
+	@Override
+	public String[] getOutputNames() {
+		return outputNames;
+	}
+
+	@Override
+	public int getOutputBitWidth(int index) {
+		int model = modelOfOutput(index);
+		return models.get(model).getOutputBitWidth(index - offsets[model]);
+	}
+
+	@Override
+	public boolean hasRegister(int registerAddress) {
+		for (PeripheralModel model : models) {
+			if (model.hasRegister(registerAddress)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Writes the register of the only model which has the address.
+	 *
+	 * @throws IllegalArgumentException If no model or several models have the
+	 *                                  address.
+	 */
+	@Override
+	public void setRegisterValue(int registerAddress, int value) {
+		PeripheralModel model = modelOfRegister(registerAddress);
+		if (model == null) {
+			throw new IllegalArgumentException("Register not found for address: " + registerAddress);
+		}
+		model.setRegisterValue(registerAddress, value);
+	}
+
+	/**
+	 * Reads the register of the only model which has the address.
+	 *
+	 * @return The value of the register, or null if no model has the address.
+	 * @throws IllegalArgumentException If several models have the address.
+	 */
+	@Override
+	public Integer getRegisterValue(int registerAddress) {
+		PeripheralModel model = modelOfRegister(registerAddress);
+		return model == null ? null : model.getRegisterValue(registerAddress);
+	}
+
+	/**
+	 * Returns the only model which has the register, null if there is none.
+	 *
+	 * @throws IllegalArgumentException If several models have the register.
+	 */
+	private PeripheralModel modelOfRegister(int registerAddress) {
+		PeripheralModel owner = null;
+		for (PeripheralModel model : models) {
+			if (model.hasRegister(registerAddress)) {
+				if (owner != null) {
+					throw new IllegalArgumentException("Register address " + Integer.toHexString(registerAddress)
+							+ " is ambiguous, access it through the model of the instance");
+				}
+				owner = model;
+			}
+		}
+		return owner;
+	}
+
+	/**
+	 * Returns null, a set of models has no single peripheral type.
+	 */
+	@Override
+	public Peripheral getPeripheralType() {
+		return null;
+	}
+
+	/**
+	 * Returns the index of the model owning the output.
+	 */
+	private int modelOfOutput(int index) {
+		if (index < 0 || index >= outputNames.length) {
+			throw new IndexOutOfBoundsException("Invalid output index: " + index);
+		}
+		int position = Arrays.binarySearch(offsets, index);
+		// exact match is the first output of a model (skip models without outputs)
+		if (position >= 0) {
+			while (offsets[position + 1] == index) {
+				position++;
+			}
+			return position;
+		}
+		return -position - 2;
+	}
+
+}
@@ -2,7 +2,6 @@
 package peripheralsimulation.model;
 
 import peripheralsimulation.engine.SimulationEngine;
-import peripheralsimulation.io.UserPreferences;
 import peripheralsimulation.model.systick.SysTickOutputs;
 import peripheralsimulation.model.systick.SysTickTimerConfig;
 import peripheralsimulation.utils.RegisterUtils;
@@ -12,6 +11,25 @@ import peripheralsimulation.utils.RegisterUtils;
  * (ENABLE, TICKINT, CLKSOURCE, COUNTFLAG) - SYST_RVR (Reload Value) - SYST_CVR
  * (Current Value) - SYST_CALIB (optional read-only info)
  *
+ * <p>
+ * The model runs in next-deadline mode: instead of one event per clock cycle it
+ * only schedules the underflow (and one event a clock cycle later, where
+ * COUNTFLAG is cleared by the next decrement). The current value is derived
+ * lazily from the number of clock edges since the last reference point
+ * ({@link #baseTick}, {@link #baseValue}). Register writes first bring the
+ * counter up to date and then reschedule the underflow. Events made obsolete
+ * by a reschedule stay in the engine queue and are ignored when they fire.
+ * </p>
+ *
+ * <p>
+ * Events at the same tick keep the order of one event per cycle, where each
+ * decrement was scheduled by the previous one: a register access at the tick of
+ * a clock edge comes before the decrement of that edge. Register accesses
+ * therefore only apply the edges before their tick, and the underflow event is
+ * scheduled one clock cycle ahead of the underflow by an arming event, so it
+ * runs after the user events scheduled before.
+ * </p>
+ *
  * @author Veronika Lenková
  */
 public class SysTickTimerModel implements PeripheralModel {
@@ -21,93 +39,302 @@ public class SysTickTimerModel implements PeripheralModel {
 	private static final int IDX_INTERRUPT = 1;
 	private static final int IDX_COUNTFLAG = 2;
 
+	/* Marker of "no event scheduled" / "no underflow yet" */
+	private static final long NO_TICK = Long.MIN_VALUE;
+
 	/* Output names */
 	private static final String[] OUTPUT_NAMES = SysTickOutputs.getOutputNames();
 
+	/* Types and widths of the outputs: 24-bit current value, two flags */
+	private static final OutputSchema OUTPUT_SCHEMA = new OutputSchema(OUTPUT_NAMES,
+			new OutputType[] { OutputType.INTEGER, OutputType.BOOLEAN, OutputType.BOOLEAN }, new int[] { 24, 1, 1 });
+
 	/* The configuration object with all the "register" bits */
 	private final SysTickTimerConfig config;
 
-	/* The current value of the counter */
-	private int currentValue;
+	/* The counter value at baseTick */
+	private int baseValue;
+
+	/* Tick of the last clock edge the counter was brought up to (or of the last write while stopped) */
+	private long baseTick;
+
+	/* Tick of the last underflow (NO_TICK if none) */
+	private long lastUnderflowTick = NO_TICK;
+
+	/* Tick of the next underflow (NO_TICK if the timer is stopped) */
+	private long underflowTick = NO_TICK;
+
+	/* Tick of the pending event arming the underflow event (NO_TICK if none) */
+	private long armTick = NO_TICK;
+
+	/* Tick of the pending COUNTFLAG clear event (NO_TICK if none) */
+	private long flagClearTick = NO_TICK;
+
+	/* COUNTFLAG bit (auto-clear on read or reload), latched until the next sample */
+	private final FlagLatch countFlag = new FlagLatch();
+
+	/* Interrupt requests since the last sample, for highlighting "interrupt triggered" in UI */
+	private final FlagLatch interrupt = new FlagLatch();
+
+	/* Derived field (ticks of the engine time base per clock cycle) */
+	private long tickPeriod;
 
-	/* COUNTFLAG bit (auto-clear on read or reload) */
-	private boolean countFlag;
+	/* The engine simulating this model (known after initialize) */
+	private SimulationEngine engine;
 
-	/* For highlighting "interrupt triggered" in UI */
-	private boolean isInterrupt;
+	/* Id of the engine handler scheduling the underflow event a cycle ahead */
+	private int armHandler;
 
-	/* Derived field (time per tick). Could be re-computed if config changes */
-	private double tickPeriod;
+	/* Id of the engine handler processing an underflow */
+	private int underflowHandler;
+
+	/* Id of the engine handler processing the clock edge after an underflow */
+	private int flagClearHandler;
 
 	/**
 	 * Construct SysTick with some initial config, e.g. from SysTickConfig
 	 */
 	public SysTickTimerModel(SysTickTimerConfig config) {
 		this.config = config;
-		this.currentValue = 0; // will get set in initialize() or on write
-		this.countFlag = false;
-		this.isInterrupt = false;
+		this.baseValue = 0; // will get set in initialize() or on write
 	}
 
 	/**
-	 * Calculate the tick period based on the configuration
+	 * Calculate the tick period (in ticks of the engine time base) based on the
+	 * configuration
 	 */
-	private double calculateTickPeriod() {
-		double freq = config.isUseCpuClock() ? UserPreferences.getInstance().getClockFrequency()
-				: UserPreferences.getInstance().getExternalClockFrequency();
-		return (freq <= 0) ? 1.0 : (1.0 / freq);
+	private long calculateTickPeriod() {
+		if (engine == null) {
+			return tickPeriod;
+		}
+		long freq = config.isUseCpuClock() ? engine.getClockFrequency() : engine.getExternalClockFrequency();
+		return engine.getClockPeriod(freq);
 	}
 
 	@Override
 	public void initialize(SimulationEngine engine) {
+		this.engine = engine;
+		this.armHandler = engine.registerHandler(this::onArm);
+		this.underflowHandler = engine.registerHandler(this::onUnderflow);
+		this.flagClearHandler = engine.registerHandler(this::onFlagClear);
 		// Writing to SYST_CVR sets it to 0 and clears COUNTFLAG
-		currentValue = config.getRVR();
-		countFlag = false;
-		isInterrupt = false;
+		baseValue = config.getRVR();
+		baseTick = engine.getCurrentTick();
+		lastUnderflowTick = NO_TICK;
+		underflowTick = NO_TICK;
+		armTick = NO_TICK;
+		flagClearTick = NO_TICK;
+		countFlag.reset();
+		interrupt.reset();
 		this.tickPeriod = calculateTickPeriod();
 
-		// If the timer is enabled, schedule the first decrement
-		if (config.isEnabled()) {
-			scheduleNextDecrement(engine, engine.getCurrentTime() + tickPeriod);
+		if (engine.getContext().getMonitoringPeriod() <= 0) {
+			// without monitoring points, an event at the start samples the reset state
+			engine.scheduleEventAtTick(baseTick, engine.registerHandler(() -> {
+			}));
 		}
+		// If the timer is enabled, schedule the first underflow
+		reschedule();
 	}
 
+	/**
+	 * Advances the counter by exactly one clock cycle, regardless of the engine
+	 * time. The engine does not call this method in next-deadline mode; it is
+	 * kept for stepping the model manually.
+	 */
 	@Override
 	public void update(SimulationEngine engine) {
 		// Decrement only if enabled
 		if (config.isEnabled()) {
-			currentValue--; // 24-bit down counter
-			if (currentValue < 0) {
+			advanceTo(currentTick());
+			baseValue--; // 24-bit down counter
+			if (baseValue < 0) {
 				// Underflow => reload from SYST_RVR
-				currentValue = config.getRVR();
+				baseValue = config.getRVR();
+				lastUnderflowTick = baseTick;
 
 				// COUNTFLAG bit => set to true once we underflow
-				countFlag = true;
+				countFlag.set();
 
 				// If TICKINT=1 => raise interrupt
 				if (config.isTickInt()) {
-					isInterrupt = true;
+					interrupt.pulse();
 				}
 			} else {
-				countFlag = false;
+				countFlag.clear();
 			}
 
-			// Re-schedule next tick
+			// Re-schedule the underflow
 			if (engine.isSimulationRunning()) {
-				scheduleNextDecrement(engine, engine.getCurrentTime() + tickPeriod);
+				reschedule();
 			}
 		}
 
 	}
 
 	/**
-	 * Schedule the next decrement of the SysTick timer
+	 * Handler of the event one clock cycle before an underflow, which schedules
+	 * the underflow event.
+	 */
+	private void onArm() {
+		long now = currentTick();
+		if (now != armTick) {
+			return; // made obsolete by a register write
+		}
+		armTick = NO_TICK;
+		engine.scheduleEventAtTick(underflowTick, underflowHandler);
+	}
+
+	/**
+	 * Handler of the underflow event.
+	 */
+	private void onUnderflow() {
+		long now = currentTick();
+		if (now != underflowTick) {
+			return; // made obsolete by a register write
+		}
+		advanceTo(now);
+		reschedule();
+	}
+
+	/**
+	 * Handler of the event one clock cycle after an underflow (the decrement which
+	 * clears COUNTFLAG).
+	 */
+	private void onFlagClear() {
+		long now = currentTick();
+		if (now != flagClearTick) {
+			return; // made obsolete by a register write
+		}
+		flagClearTick = NO_TICK;
+		advanceTo(now);
+	}
+
+	/**
+	 * Returns the current engine time (or the reference time if the model is not
+	 * attached to an engine yet).
+	 */
+	private long currentTick() {
+		return (engine == null) ? baseTick : engine.getCurrentTick();
+	}
+
+	/**
+	 * Brings the counter up to the last clock edge at or before the given tick:
+	 * applies all decrements and reloads since {@link #baseTick} at once and
+	 * updates COUNTFLAG and the interrupt flag as the per-cycle decrements would
+	 * have done.
 	 *
-	 * @param engine    The simulation engine to use for scheduling.
-	 * @param eventTime The time at which the next decrement should occur.
+	 * @param now The current time in ticks.
 	 */
-	private void scheduleNextDecrement(SimulationEngine engine, double eventTime) {
-		engine.scheduleEvent(eventTime, () -> update(engine));
+	private void advanceTo(long now) {
+		if (!config.isEnabled() || tickPeriod <= 0) {
+			// stopped counter keeps its value, the clock phase restarts at the next enable
+			baseTick = now;
+			return;
+		}
+		long edges = (now - baseTick) / tickPeriod;
+		if (edges <= 0) {
+			return;
+		}
+		if (edges > baseValue) {
+			// at least one underflow, the later ones repeat every RVR + 1 cycles
+			long reloadCycle = (long) config.getRVR() + 1;
+			long afterFirstUnderflow = edges - baseValue - 1;
+			long sinceLastUnderflow = afterFirstUnderflow % reloadCycle;
+			lastUnderflowTick = baseTick + (edges - sinceLastUnderflow) * tickPeriod;
+			baseValue = (int) (config.getRVR() - sinceLastUnderflow);
+			// the flag was set by the underflow, even if later edges cleared it
+			countFlag.set();
+			if (sinceLastUnderflow != 0) {
+				countFlag.clear();
+			}
+			if (config.isTickInt()) {
+				interrupt.pulse();
+			}
+		} else {
+			baseValue -= (int) edges;
+			countFlag.clear();
+		}
+		baseTick += edges * tickPeriod;
+	}
+
+	/**
+	 * Brings the counter up to the last clock edge before the given tick, for a
+	 * register access: the decrement of an edge at the tick itself comes after
+	 * the access, as with one event per cycle.
+	 *
+	 * @param now The current time in ticks.
+	 */
+	private void advanceBefore(long now) {
+		if (config.isEnabled() && tickPeriod > 0) {
+			advanceTo(now - 1);
+		} else {
+			advanceTo(now);
+		}
+	}
+
+	/**
+	 * Sets SYST_CSR. If the timer keeps running on another clock, the pending
+	 * clock edge stays where it is and the later edges follow in the new clock
+	 * period.
+	 *
+	 * @param value The new value of SYST_CSR.
+	 */
+	private void setCSR(int value) {
+		advanceBefore(currentTick());
+		boolean wasEnabled = config.isEnabled();
+		long oldTickPeriod = tickPeriod;
+		config.setCSR(value);
+		this.tickPeriod = calculateTickPeriod();
+		if (wasEnabled && config.isEnabled() && tickPeriod != oldTickPeriod && oldTickPeriod > 0
+				&& tickPeriod > 0) {
+			long pendingEdge = baseTick + oldTickPeriod;
+			if (lastUnderflowTick == baseTick) {
+				// COUNTFLAG is still cleared by the pending edge
+				lastUnderflowTick = pendingEdge - tickPeriod;
+			}
+			baseTick = pendingEdge - tickPeriod;
+		}
+		reschedule();
+	}
+
+	/**
+	 * Schedules the next underflow and, right after an underflow, the event
+	 * clearing COUNTFLAG. The underflow event is scheduled by an arming event one
+	 * clock cycle before it, or directly if that cycle is not in the future.
+	 * Nothing is scheduled if the underflow has not moved.
+	 */
+	private void reschedule() {
+		if (engine == null) {
+			return;
+		}
+		if (!config.isEnabled() || tickPeriod <= 0) {
+			underflowTick = NO_TICK;
+			armTick = NO_TICK;
+			flagClearTick = NO_TICK;
+			return;
+		}
+		long nextUnderflow = baseTick + ((long) baseValue + 1) * tickPeriod;
+		if (nextUnderflow != underflowTick) {
+			underflowTick = nextUnderflow;
+			long arm = nextUnderflow - tickPeriod;
+			if (arm > currentTick()) {
+				armTick = arm;
+				engine.scheduleEventAtTick(arm, armHandler);
+			} else {
+				armTick = NO_TICK;
+				engine.scheduleEventAtTick(nextUnderflow, underflowHandler);
+			}
+		}
+		long nextEdge = baseTick + tickPeriod;
+		if (lastUnderflowTick == baseTick && nextEdge < nextUnderflow) {
+			if (nextEdge != flagClearTick) {
+				flagClearTick = nextEdge;
+				engine.scheduleEventAtTick(nextEdge, flagClearHandler);
+			}
+		} else {
+			flagClearTick = NO_TICK;
+		}
 	}
 
 	/**
@@ -117,7 +344,8 @@ public class SysTickTimerModel implements PeripheralModel {
 	 */
 	public int readCVR() {
 		// reading SYST_CVR doesn't clear it in real SysTick
-		return currentValue & RegisterUtils.BIT_MASK;
+		advanceTo(currentTick());
+		return baseValue & RegisterUtils.BIT_MASK;
 	}
 
 	/**
@@ -129,9 +357,11 @@ public class SysTickTimerModel implements PeripheralModel {
 	public void writeCVR(int value) {
 		// writing any value =>
 		// sets SYST_CVR to 0, clears COUNTFLAG
-		currentValue = 0;
-		countFlag = false;
+		advanceBefore(currentTick());
+		baseValue = 0;
+		countFlag.clear();
 		config.setCVR(value);
+		reschedule();
 	}
 
 	/**
@@ -142,34 +372,31 @@ public class SysTickTimerModel implements PeripheralModel {
 	 * @param clksource
 	 */
 	public void writeCSR(boolean enable, boolean tickInt, boolean clksource) {
-		config.setEnabled(enable);
-		config.setTickInt(tickInt);
-		config.setUseCpuClock(clksource);
-
-		// re-calculate tickPeriod
-		this.tickPeriod = calculateTickPeriod();
+		int csr = config.getCSR() & ~0x7;
+		setCSR(csr | (enable ? 0x1 : 0) | (tickInt ? 0x2 : 0) | (clksource ? 0x4 : 0));
 	}
 
 	/**
-	 * Get the COUNTFLAG (auto-clears on read in real hardware)
+	 * Get the COUNTFLAG (auto-clears on read in real hardware). The read clears
+	 * only the flag, an underflow since the last sample is still sampled.
 	 *
 	 * @return true if COUNTFLAG was set
 	 */
 	public boolean readCountFlag() {
-		boolean temp = countFlag;
-		countFlag = false; // hardware auto-clear
+		advanceTo(currentTick());
+		boolean temp = countFlag.isSet();
+		countFlag.clear(); // hardware auto-clear
 		return temp;
 	}
 
 	/**
-	 * "interrupt" read
+	 * "interrupt" read, shares the latch with the INTERRUPT output
 	 *
-	 * @return true if interrupt was generated
+	 * @return true if interrupt was generated since the last read or sample
 	 */
 	public boolean isInterruptGenerated() {
-		boolean temp = isInterrupt;
-		isInterrupt = false; // clear after reading for next cycle
-		return temp;
+		advanceTo(currentTick());
+		return interrupt.sample();
 	}
 
 	@Override
@@ -179,7 +406,35 @@ public class SysTickTimerModel implements PeripheralModel {
 
 	@Override
 	public Object[] getOutputs() {
-		return new Object[] { readCVR(), isInterruptGenerated(), readCountFlag() };
+		Object[] outputs = new Object[OUTPUT_NAMES.length];
+		writeOutputs(outputs, 0);
+		return outputs;
+	}
+
+	@Override
+	public void writeOutputs(Object[] outputs, int offset) {
+		outputs[offset + IDX_CURRENT] = readCVR();
+		outputs[offset + IDX_INTERRUPT] = interrupt.sample();
+		outputs[offset + IDX_COUNTFLAG] = countFlag.sample();
+	}
+
+	@Override
+	public void sampleOutputs(long[] values, int offset) {
+		values[offset + IDX_CURRENT] = readCVR();
+		values[offset + IDX_INTERRUPT] = interrupt.sample() ? 1 : 0;
+		values[offset + IDX_COUNTFLAG] = countFlag.sample() ? 1 : 0;
+	}
+
+	@Override
+	public void observeOutputs(long[] values, int offset) {
+		values[offset + IDX_CURRENT] = readCVR();
+		values[offset + IDX_INTERRUPT] = interrupt.observe() ? 1 : 0;
+		values[offset + IDX_COUNTFLAG] = countFlag.observe() ? 1 : 0;
+	}
+
+	@Override
+	public OutputSchema getOutputSchema() {
+		return OUTPUT_SCHEMA;
 	}
 
 	@Override
@@ -187,6 +442,11 @@ public class SysTickTimerModel implements PeripheralModel {
 		return OUTPUT_NAMES;
 	}
 
+	@Override
+	public int getOutputBitWidth(int index) {
+		return OUTPUT_SCHEMA.getBitWidth(index);
+	}
+
 	@Override
 	public int getOutputIndex(String name) {
 		SysTickOutputs output = SysTickOutputs.valueOf(name);
@@ -202,16 +462,34 @@ public class SysTickTimerModel implements PeripheralModel {
 		}
 	}
 
+	/**
+	 * Returns true for the SysTick registers, addressed by their offsets or in
+	 * the System Control Space.
+	 */
+	@Override
+	public boolean hasRegister(int registerAddress) {
+		int block = registerAddress & ~0xfff;
+		int offset = registerAddress & 0xfff;
+		return (block == 0 || block == SysTickTimerConfig.SCS_BASE_ADDRESS)
+				&& offset >= SysTickTimerConfig.CSR_OFFSET && offset <= SysTickTimerConfig.CALIB_OFFSET
+				&& (offset & 0x3) == 0;
+	}
+
 	@Override
 	public void setRegisterValue(int registerAddress, int value) {
+		if (!hasRegister(registerAddress)) {
+			throw new IllegalArgumentException("Invalid register address: " + registerAddress);
+		}
 		int offset = registerAddress & 0xfff;
 		switch (offset) {
 		case SysTickTimerConfig.CSR_OFFSET:
-			config.setCSR(value);
-			this.tickPeriod = calculateTickPeriod();
+			setCSR(value);
 			break;
 		case SysTickTimerConfig.RVR_OFFSET:
+			// the new reload value is used from the next underflow on
+			advanceBefore(currentTick());
 			config.setRVR(value);
+			reschedule();
 			break;
 		case SysTickTimerConfig.CVR_OFFSET:
 			writeCVR(value);
@@ -225,6 +503,9 @@ public class SysTickTimerModel implements PeripheralModel {
 
 	@Override
 	public Integer getRegisterValue(int registerAddress) {
+		if (!hasRegister(registerAddress)) {
+			return null;
+		}
 		int offset = registerAddress & 0xfff;
 		switch (offset) {
 		case SysTickTimerConfig.CSR_OFFSET:
@@ -232,7 +513,9 @@ public class SysTickTimerModel implements PeripheralModel {
 		case SysTickTimerConfig.RVR_OFFSET:
 			return config.getRVR();
 		case SysTickTimerConfig.CVR_OFFSET:
-			return readCVR();
+			// a read at the tick of a clock edge sees the value before its decrement
+			advanceBefore(currentTick());
+			return baseValue & RegisterUtils.BIT_MASK;
 		case SysTickTimerConfig.CALIB_OFFSET:
 			return config.getCALIB();
 		default:
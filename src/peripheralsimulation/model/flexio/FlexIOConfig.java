@@ -49,6 +49,15 @@ public class FlexIOConfig {
 	public static final int TIMCMP0_OFFSET = 0x500;
 	public static final int TIMER_STRIDE = 0x004;
 
+	/** Size of the FlexIO register block */
+	public static final int REGISTER_BLOCK_SIZE = 0x1000;
+
+	/** Start of the peripheral region of the Cortex-M address map */
+	private static final int PERIPHERAL_REGION_START = 0x4000_0000;
+
+	/** End of the peripheral region of the Cortex-M address map (exclusive) */
+	private static final int PERIPHERAL_REGION_END = 0x6000_0000;
+
 	/** Map of register names to their offsets */
 	private static final Map<String, Integer> NAME2OFFSET = new HashMap<>();
 
@@ -93,6 +102,18 @@ public class FlexIOConfig {
 	private int SHIFTERR;
 	/** Timer status flag, 0 - Status flag is clear, 1 - Status flag is set */
 	private int TIMSTAT;
+	/** SHIFTSTAT bits set since the outputs were last sampled */
+	private int latchedShiftStat;
+	/** SHIFTERR bits set since the outputs were last sampled */
+	private int latchedShiftErr;
+	/** TIMSTAT bits set since the outputs were last sampled */
+	private int latchedTimStat;
+	/** SHIFTSTAT bits set since the outputs were last observed or sampled */
+	private int observedShiftStat;
+	/** SHIFTERR bits set since the outputs were last observed or sampled */
+	private int observedShiftErr;
+	/** TIMSTAT bits set since the outputs were last observed or sampled */
+	private int observedTimStat;
     /** Shifter status interrupt enable register, 0 - Interrupt disabled, 1 - Interrupt enabled */	
 	private int SHIFTSIEN;
 	/** Shifter error interrupt enable register, 0 - Interrupt disabled, 1 - Interrupt enabled */
@@ -240,6 +261,8 @@ public class FlexIOConfig {
 
 	public void setShiftStat(int mask) {
 		SHIFTSTAT |= mask;
+		latchedShiftStat |= mask;
+		observedShiftStat |= mask;
 		registerMap.setRegisterValue(SHIFTSTAT_OFFSET, SHIFTSTAT);
 	}
 
@@ -257,6 +280,8 @@ public class FlexIOConfig {
 
 	public void setShiftErr(int mask) {
 		SHIFTERR |= mask;
+		latchedShiftErr |= mask;
+		observedShiftErr |= mask;
 		registerMap.setRegisterValue(SHIFTERR_OFFSET, SHIFTERR);
 	}
 
@@ -275,6 +300,8 @@ public class FlexIOConfig {
 
 	public void setTimStat(int mask) {
 		TIMSTAT |= mask;
+		latchedTimStat |= mask;
+		observedTimStat |= mask;
 		registerMap.setRegisterValue(TIMSTAT_OFFSET, TIMSTAT);
 	}
 
@@ -445,11 +472,22 @@ public class FlexIOConfig {
 		return timersCount;
 	}
 
+	/**
+	 * Returns true if the address is in the FlexIO register block: an offset in
+	 * the block, or an address in the peripheral region of the device (the base
+	 * address of the FlexIO differs between the devices).
+	 */
+	public boolean hasRegister(int address) {
+		int block = address & ~(REGISTER_BLOCK_SIZE - 1);
+		boolean peripheralRegion = address >= PERIPHERAL_REGION_START && address < PERIPHERAL_REGION_END;
+		return (block == 0 || peripheralRegion) && (address & 0x3) == 0;
+	}
+
 	/**
 	 * Reads any FlexIO register by absolute address.
 	 */
 	public Integer readByAddress(int address) {
-		int offset = address & 0xFFFF;
+		int offset = address & (REGISTER_BLOCK_SIZE - 1);
 		return registerMap.getRegisterValue(offset);
 	}
 
@@ -457,7 +495,7 @@ public class FlexIOConfig {
 	 * Writes a value to a FlexIO register by absolute address.
 	 */
 	public void writeByAddress(int address, int value) {
-		int offset = address & 0xFFFF;
+		int offset = address & (REGISTER_BLOCK_SIZE - 1);
 		registerMap.setRegisterValue(offset, value);
 		switch (offset) {
 		case CTRL_OFFSET -> setCTRL(value);
@@ -552,12 +590,99 @@ public class FlexIOConfig {
 	}
 
 	/**
-	 * Clears all runtime flags (status and error) for shifters and timers.
+	 * Clears all runtime flags (status and error) for shifters and timers, and
+	 * their latched copies.
 	 */
 	public void clearRuntimeFlags() {
 		clearShiftStat(~0);
 		clearShiftErr(~0);
 		clearTimStat(~0);
+		clearLatchedFlags();
+	}
+
+	/* ================================================================== */
+	/* 						Latched flags (outputs)	 					  */
+	/* ================================================================== */
+
+	/**
+	 * Returns the SHIFTSTAT bits set since the last {@link #clearLatchedFlags()}.
+	 * The flags of the outputs are latched separately from the registers, so
+	 * sampling the outputs does not clear the register flags and a flag set
+	 * between two samples is still reported.
+	 *
+	 * @return The latched SHIFTSTAT bits.
+	 */
+	public int getLatchedShiftStat() {
+		return latchedShiftStat;
+	}
+
+	/**
+	 * Returns the SHIFTERR bits set since the last {@link #clearLatchedFlags()}.
+	 *
+	 * @return The latched SHIFTERR bits.
+	 */
+	public int getLatchedShiftErr() {
+		return latchedShiftErr;
+	}
+
+	/**
+	 * Returns the TIMSTAT bits set since the last {@link #clearLatchedFlags()}.
+	 *
+	 * @return The latched TIMSTAT bits.
+	 */
+	public int getLatchedTimStat() {
+		return latchedTimStat;
+	}
+
+	/**
+	 * Clears the latched flags after the outputs were sampled, with the observed
+	 * ones (the sample reported them). The status and error registers are not
+	 * changed.
+	 */
+	public void clearLatchedFlags() {
+		latchedShiftStat = 0;
+		latchedShiftErr = 0;
+		latchedTimStat = 0;
+		clearObservedFlags();
+	}
+
+	/**
+	 * Returns the SHIFTSTAT bits set since the last {@link #clearObservedFlags()}.
+	 * The observations of the time steps between two samples have their own
+	 * latch, so they do not consume the flags of the next sample.
+	 *
+	 * @return The observed SHIFTSTAT bits.
+	 */
+	public int getObservedShiftStat() {
+		return observedShiftStat;
+	}
+
+	/**
+	 * Returns the SHIFTERR bits set since the last {@link #clearObservedFlags()}.
+	 *
+	 * @return The observed SHIFTERR bits.
+	 */
+	public int getObservedShiftErr() {
+		return observedShiftErr;
+	}
+
+	/**
+	 * Returns the TIMSTAT bits set since the last {@link #clearObservedFlags()}.
+	 *
+	 * @return The observed TIMSTAT bits.
+	 */
+	public int getObservedTimStat() {
+		return observedTimStat;
+	}
+
+	/**
+	 * Clears the observed flags after the outputs were observed between two
+	 * samples. The latched flags of the next sample are not changed.
+	 */
+	public void clearObservedFlags() {
+		observedShiftStat = 0;
+		observedShiftErr = 0;
+		observedTimStat = 0;
 	}
 
 }
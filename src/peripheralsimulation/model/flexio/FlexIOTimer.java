@@ -23,6 +23,9 @@ public class FlexIOTimer {
 	/** Single 16-bit timer mode */
 	private static final int TIMOD_16BIT = 0b11;
 
+	/** Returned by {@link #ticksToNextEdge()} when the timer produces no edges */
+	public static final long NO_EDGE = Long.MAX_VALUE;
+
 	/** Index of the timer */
 	private int index;
 
@@ -285,6 +288,77 @@ public class FlexIOTimer {
 		return result;
 	}
 
+	/**
+	 * Returns the number of {@link #tick()} calls until the next call which can
+	 * produce an edge (or set TIMSTAT). All calls before it only decrement the
+	 * counters and can be replaced by {@link #skip(long)}.
+	 *
+	 * @return The number of clock cycles to the next edge (at least 1), or
+	 *         {@link #NO_EDGE} if the timer does not produce edges in its mode.
+	 */
+	public long ticksToNextEdge() {
+		if (stopDelay > 0) {
+			// the stop bit delay runs out first, the counters do not move meanwhile
+			long next = ticksToNextEdgeWhenRunning();
+			return next == NO_EDGE ? NO_EDGE : stopDelay + next;
+		}
+		if (!running) {
+			return 1; // the stop-on-disable state is not predicted, tick cycle by cycle
+		}
+		return ticksToNextEdgeWhenRunning();
+	}
+
+	/**
+	 * Returns the number of clock cycles to the next edge of a running timer.
+	 */
+	private long ticksToNextEdgeWhenRunning() {
+		int counter;
+		switch (timerMode) {
+		case TIMOD_PWM -> counter = outLevel ? counterLow : counterHigh;
+		case TIMOD_BAUDBIT -> counter = counterLow;
+		default -> {
+			return NO_EDGE;
+		}
+		}
+		// a counter which is already at zero only counts further down and never reloads
+		return counter > 0 ? counter : NO_EDGE;
+	}
+
+	/**
+	 * Advances the timer by the given number of clock cycles without an edge. The
+	 * result is the same as calling {@link #tick()} the given number of times,
+	 * which must be less than {@link #ticksToNextEdge()}.
+	 *
+	 * @param cycles The number of clock cycles to skip.
+	 */
+	public void skip(long cycles) {
+		if (cycles <= 0) {
+			return;
+		}
+		if (stopDelay > 0) {
+			long delay = Math.min(cycles, stopDelay);
+			stopDelay -= (int) delay;
+			cycles -= delay;
+			if (stopDelay == 0)
+				running = true; // znova sa spustí
+		}
+		if (cycles == 0 || !running) {
+			return;
+		}
+		switch (timerMode) {
+		case TIMOD_PWM -> {
+			if (outLevel) {
+				counterLow -= (int) cycles;
+			} else {
+				counterHigh -= (int) cycles;
+			}
+		}
+		case TIMOD_BAUDBIT -> counterLow -= (int) cycles;
+		default -> {
+			/* ostatné TIMOD neimplementované */ }
+		}
+	}
+
 	/**
 	 * Returns the timer output level.
 	 *
@@ -21,6 +21,9 @@ public class SysTickTimerConfig {
 	 * 					Register offsets (constants) 					  *
 	 * ------------------------------------------------------------------ *
 	 */
+	/** Base address of the System Control Space with the SysTick registers */
+	public static final int SCS_BASE_ADDRESS = 0xE000_E000;
+
 	public static final int CSR_OFFSET = 0x010;
 	public static final int RVR_OFFSET = 0x014;
 	public static final int CVR_OFFSET = 0x018;
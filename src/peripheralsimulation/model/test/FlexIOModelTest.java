@@ -4,13 +4,21 @@ package peripheralsimulation.model.test;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.Test;
 
+import peripheralsimulation.engine.SchedulerType;
+import peripheralsimulation.engine.SimulationContext;
 import peripheralsimulation.engine.SimulationEngine;
 import peripheralsimulation.model.FlexIOModel;
+import peripheralsimulation.model.OutputSchema;
+import peripheralsimulation.model.OutputType;
 import peripheralsimulation.model.flexio.FlexIOConfig;
 import peripheralsimulation.utils.RegisterMap;
 
@@ -27,6 +35,10 @@ import peripheralsimulation.utils.RegisterMap;
  * <li><b>Timer status flag</b> – verifies that a timer in dual-8-bit baud/bit
  * mode (TIMOD = 01) sets the corresponding TIMSTAT bit after the programmed
  * number of bits has elapsed.</li>
+ * <li><b>Edge-to-edge scheduling</b> – verifies that a run scheduled only at
+ * timer edges produces the same outputs as stepping every clock cycle.</li>
+ * <li><b>Monitoring between edges</b> – verifies that the counters are sampled
+ * at monitoring points which fall between the timer edges.</li>
  * </ul>
  *
  * <p>
@@ -129,4 +141,158 @@ public class FlexIOModelTest {
 		assertTrue("TIMSTAT[0] set after one bit period", (cfg.getTimStat() & 0x1) != 0);
 	}
 
+	/*
+	 * Creates a UART-like configuration: Timer 0 in baud/bit mode (4 cycles per
+	 * bit, 8 bits, stop on compare) clocking a transmitting Shifter 0, and Timer 1
+	 * in PWM mode (4 cycles high, 3 cycles low).
+	 */
+	private static FlexIOConfig createUartAndPwmConfig() {
+		Map<Integer, Integer> regs = new HashMap<>();
+		regs.put(FlexIOConfig.CTRL_OFFSET, 0x0000_0001);
+		regs.put(FlexIOConfig.TIMCTL0_OFFSET, 0b01);
+		regs.put(FlexIOConfig.TIMCFG0_OFFSET, 0x10);
+		regs.put(FlexIOConfig.TIMCMP0_OFFSET, 0x0F01);
+		regs.put(FlexIOConfig.TIMCTL0_OFFSET + FlexIOConfig.TIMER_STRIDE, 0b10);
+		regs.put(FlexIOConfig.TIMCFG0_OFFSET + FlexIOConfig.TIMER_STRIDE, 0);
+		regs.put(FlexIOConfig.TIMCMP0_OFFSET + FlexIOConfig.TIMER_STRIDE, 0x0203);
+		regs.put(FlexIOConfig.SHIFTCTL0_OFFSET, 0b010);
+		regs.put(FlexIOConfig.SHIFTCFG0_OFFSET, 0x32);
+		regs.put(FlexIOConfig.SHIFTBUF0_OFFSET, 0x55);
+		return new FlexIOConfig(new RegisterMap(regs));
+	}
+
+	/**
+	 * A run scheduled only at timer edges must produce the same outputs (including
+	 * the derived counters at a cycle without an edge) as stepping the model every
+	 * clock cycle, with far fewer events.
+	 */
+	@Test
+	public void testEdgeToEdgeMatchesCycleByCycle() {
+		int cycles = 400;
+
+		/* Reference: one update per clock cycle */
+		FlexIOModel reference = new FlexIOModel(createUartAndPwmConfig());
+		SimulationEngine referenceEngine = new SimulationEngine((t, outs) -> {
+		});
+		referenceEngine.initSimulation();
+		reference.initialize(referenceEngine);
+		List<Object[]> expected = new ArrayList<>();
+		expected.add(reference.getOutputs());
+		for (int i = 1; i <= cycles; i++) {
+			reference.update(referenceEngine);
+			expected.add(reference.getOutputs());
+		}
+
+		/* Edge-to-edge run in the engine */
+		FlexIOModel model = new FlexIOModel(createUartAndPwmConfig());
+		List<long[]> rowCycles = new ArrayList<>();
+		List<Object[]> rows = new ArrayList<>();
+		SimulationEngine[] engine = new SimulationEngine[1];
+		long period = new SimulationEngine((t, outs) -> {
+		}).getClockPeriod(SimulationContext.DEFAULT_CLOCK_FREQUENCY);
+		engine[0] = new SimulationEngine((time, outs) -> {
+			rowCycles.add(new long[] { engine[0].getCurrentTick() / period });
+			rows.add(outs);
+		});
+		engine[0].setPeripheralModel(model);
+		engine[0].initSimulation();
+		// an unrelated event between two edges, the counters must be derived there
+		engine[0].scheduleEventAtTick(101 * period + period / 2, () -> {
+		});
+		engine[0].startSimulation(engine[0].getTimeBase().toSeconds(cycles * period));
+
+		for (int i = 0; i < rows.size(); i++) {
+			int cycle = (int) rowCycles.get(i)[0];
+			assertArrayEquals("Outputs at cycle " + cycle, expected.get(cycle), rows.get(i));
+		}
+		assertTrue("Derived counters were checked between edges",
+				rowCycles.stream().anyMatch(c -> c[0] == 101));
+		assertTrue("Every edge was processed", rows.size() > cycles / 4);
+		assertTrue("Events only at edges", rows.size() < cycles / 2);
+	}
+
+	/**
+	 * With a monitoring period of 7 clock cycles most monitoring points fall
+	 * between two timer edges: the engine must still sample there, and the
+	 * counters must equal those of a run stepped every clock cycle.
+	 */
+	@Test
+	public void testCountersAtMonitoringPointsBetweenEdges() {
+		int cycles = 400;
+
+		/* Reference: one update per clock cycle */
+		FlexIOModel reference = new FlexIOModel(createUartAndPwmConfig());
+		SimulationEngine referenceEngine = new SimulationEngine((t, outs) -> {
+		});
+		referenceEngine.initSimulation();
+		reference.initialize(referenceEngine);
+		List<Object[]> expected = new ArrayList<>();
+		expected.add(reference.getOutputs());
+		for (int i = 1; i <= cycles; i++) {
+			reference.update(referenceEngine);
+			expected.add(reference.getOutputs());
+		}
+
+		/* Edge-to-edge run sampled every 7 cycles at 1 MHz */
+		List<Double> times = new ArrayList<>();
+		List<Object[]> rows = new ArrayList<>();
+		SimulationEngine engine = new SimulationEngine((time, outs) -> {
+			times.add(time);
+			rows.add(outs);
+		});
+		engine.setContext(new SimulationContext(1_000_000, 1_000_000, 0, cycles * 1e-6, 7e-6, 0, false, List.of(),
+				SchedulerType.HEAP, List.of()));
+		FlexIOModel model = new FlexIOModel(createUartAndPwmConfig());
+		engine.setPeripheralModel(model);
+		engine.initSimulation();
+		engine.startSimulation(cycles * 1e-6);
+
+		// monitoring points at cycles 0, 7, ..., 399
+		assertEquals(cycles / 7 + 1, rows.size());
+		String[] names = model.getOutputNames();
+		for (int i = 0; i < rows.size(); i++) {
+			int cycle = (int) Math.round(times.get(i) * 1e6);
+			assertEquals(7 * i, cycle);
+			for (int j = 0; j < names.length; j++) {
+				if (names[j].endsWith("_CNT")) {
+					assertEquals(names[j] + " at cycle " + cycle, expected.get(cycle)[j], rows.get(i)[j]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Primitive samples must hold the same values as the boxed outputs, every
+	 * clock cycle, and the schema must describe the 16-bit counters.
+	 */
+	@Test
+	public void testPrimitiveSamplesMatchOutputs() {
+		FlexIOModel reference = new FlexIOModel(createUartAndPwmConfig());
+		FlexIOModel model = new FlexIOModel(createUartAndPwmConfig());
+		SimulationEngine engine = new SimulationEngine((t, outs) -> {
+		});
+		engine.initSimulation();
+		reference.initialize(engine);
+		model.initialize(engine);
+
+		OutputSchema schema = model.getOutputSchema();
+		assertEquals(model.getOutputNames().length, schema.size());
+		assertEquals("Timer0_CNT", schema.getName(1));
+		assertEquals(16, schema.getBitWidth(1));
+		assertEquals(1, schema.getBitWidth(2));
+
+		long[] values = new long[schema.size()];
+		for (int cycle = 0; cycle < 200; cycle++) {
+			Object[] expected = reference.getOutputs();
+			model.sampleOutputs(values, 0);
+			for (int i = 0; i < values.length; i++) {
+				assertEquals("Output " + schema.getName(i) + " at cycle " + cycle, OutputType.toLong(expected[i]),
+						values[i]);
+			}
+			assertArrayEquals(expected, schema.toObjects(values, 0));
+			reference.update(engine);
+			model.update(engine);
+		}
+	}
+
 }
@@ -0,0 +1,246 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.model.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import peripheralsimulation.engine.SchedulerType;
+import peripheralsimulation.engine.SimulationContext;
+import peripheralsimulation.engine.SimulationEngine;
+import peripheralsimulation.engine.SimulationMetrics;
+import peripheralsimulation.model.FlagLatch;
+import peripheralsimulation.model.OutputSchema;
+import peripheralsimulation.model.OutputType;
+import peripheralsimulation.model.PeripheralSet;
+import peripheralsimulation.model.SysTickTimerModel;
+
+/**
+ * Test class for the primitive output sampling API ({@link OutputSchema},
+ * {@code sampleOutputs} and the sample sink of the engine), the sampling at
+ * the due monitoring points only and the emission of changed samples only.
+ *
+ * @author Veronika Lenková
+ */
+public class OutputSamplingTest {
+
+	/**
+	 * The SysTick schema must describe a 24-bit counter and two boolean flags,
+	 * boxing must restore the types of {@code getOutputs()} and unboxing the
+	 * sample values.
+	 */
+	@Test
+	public void testSysTickSchema() {
+		OutputSchema schema = SysTickFixtures.createSysTick(99).getOutputSchema();
+		assertEquals(3, schema.size());
+		assertEquals("CURRENT", schema.getName(0));
+		assertEquals(OutputType.INTEGER, schema.getType(0));
+		assertEquals(24, schema.getBitWidth(0));
+		assertEquals(OutputType.BOOLEAN, schema.getType(1));
+		assertEquals(OutputType.BOOLEAN, schema.getType(2));
+		assertArrayEquals(new Object[] { 5, Boolean.TRUE, Boolean.FALSE },
+				schema.toObjects(new long[] { 0, 5, 1, 0 }, 1));
+		// unboxing by the channel types restores the samples
+		assertEquals(5, schema.getType(0).unbox(5));
+		assertEquals(1, schema.getType(1).unbox(Boolean.TRUE));
+		assertEquals(1, schema.getType(2).unbox(7));
+	}
+
+	/**
+	 * The schema of a set must concatenate the namespaced member channels.
+	 */
+	@Test
+	public void testPeripheralSetSchema() {
+		PeripheralSet set = new PeripheralSet();
+		set.add("A", SysTickFixtures.createSysTick(99));
+		set.add("B", SysTickFixtures.createSysTick(99));
+		OutputSchema schema = set.getOutputSchema();
+		assertEquals(6, schema.size());
+		assertEquals("B.CURRENT", schema.getName(3));
+		assertEquals(24, schema.getBitWidth(3));
+		assertEquals(OutputType.BOOLEAN, schema.getType(5));
+	}
+
+	/**
+	 * With a sample sink the engine must sample into one reused array and pass
+	 * the same sample, boxed, to the output handler.
+	 */
+	@Test
+	public void testEngineSampleSink() {
+		List<Object[]> boxed = new ArrayList<>();
+		List<long[]> primitive = new ArrayList<>();
+		long[][] array = new long[1][];
+		SimulationEngine engine = new SimulationEngine((time, outputs) -> boxed.add(outputs));
+		engine.setSampleSink((time, values) -> {
+			if (array[0] == null) {
+				array[0] = values;
+			}
+			assertSame("The sample array must be reused", array[0], values);
+			primitive.add(values.clone());
+		});
+		engine.setContext(new SimulationContext(1_000_000, 1_000_000, 0, 0.001, 0, 0, false, List.of(),
+				SchedulerType.HEAP, List.of()));
+		SysTickTimerModel model = SysTickFixtures.createSysTick(99);
+		engine.setPeripheralModel(model);
+		engine.initSimulation();
+		engine.startSimulation(0.001);
+
+		assertTrue("Underflows must be sampled", primitive.size() >= 10);
+		assertEquals(primitive.size(), boxed.size());
+		assertEquals(primitive.size(), engine.getMetrics().getSamplesEmitted());
+		for (int i = 0; i < primitive.size(); i++) {
+			assertArrayEquals(model.getOutputSchema().toObjects(primitive.get(i), 0), boxed.get(i));
+		}
+	}
+
+	/**
+	 * With a monitoring period longer than the SysTick period the engine must
+	 * sample only at the due monitoring points, and every sample must report the
+	 * underflows since the previous one, although the flags were cleared again
+	 * before the sample.
+	 */
+	@Test
+	public void testSparseMonitoringKeepsFlags() {
+		List<Object[]> samples = new ArrayList<>();
+		SimulationEngine engine = new SimulationEngine((time, outputs) -> samples.add(outputs));
+		// underflow every 100 us, a monitoring point every 250 us
+		engine.setContext(new SimulationContext(1_000_000, 1_000_000, 0, 0.01, 0.00025, 0, false, List.of(),
+				SchedulerType.HEAP, List.of()));
+		engine.setPeripheralModel(SysTickFixtures.createSysTick(99));
+		engine.initSimulation();
+		engine.startSimulation(0.01);
+
+		// monitoring points 0, 250 us, ..., 10 ms
+		assertEquals("One sample per monitoring point", 41, samples.size());
+		// the sample at 0 us precedes the first underflow
+		assertEquals(Boolean.FALSE, samples.get(0)[1]);
+		for (Object[] sample : samples.subList(1, samples.size())) {
+			assertEquals("INTERRUPT", Boolean.TRUE, sample[1]);
+			assertEquals("COUNTFLAG", Boolean.TRUE, sample[2]);
+		}
+	}
+
+	/**
+	 * The monitoring points must start at rangeFrom and follow each other by the
+	 * monitoring period, also where the timer has no event (its underflows are
+	 * at multiples of 100 us, the points at 155 us, 255 us, ...).
+	 */
+	@Test
+	public void testMonitoringPointsFromRangeFrom() {
+		List<Double> times = new ArrayList<>();
+		List<Object[]> samples = new ArrayList<>();
+		SimulationEngine engine = new SimulationEngine((time, outputs) -> {
+			times.add(time);
+			samples.add(outputs);
+		});
+		engine.setContext(new SimulationContext(1_000_000, 1_000_000, 0.000155, 0.001, 0.0001, 0, false,
+				List.of(), SchedulerType.HEAP, List.of()));
+		engine.setPeripheralModel(SysTickFixtures.createSysTick(99));
+		engine.initSimulation();
+		engine.startSimulation(0.001);
+
+		// monitoring points 155 us, 255 us, ..., 955 us
+		assertEquals(9, times.size());
+		for (int i = 0; i < times.size(); i++) {
+			assertEquals(0.000155 + i * 0.0001, times.get(i), 1e-12);
+			// 55 us after the last reload of 99
+			assertEquals("CURRENT", 44, samples.get(i)[0]);
+		}
+	}
+
+	/**
+	 * The monitoring events must not count as executed events, and the run must
+	 * end with the last event of the model instead of going on to the end of the
+	 * range.
+	 */
+	@Test
+	public void testMonitoringPointsAreNotEvents() {
+		List<Double> times = new ArrayList<>();
+		SimulationEngine engine = new SimulationEngine((time, outputs) -> times.add(time));
+		engine.setContext(new SimulationContext(1_000_000, 1_000_000, 0, 1, 0.0001, 0, false, List.of(),
+				SchedulerType.HEAP, List.of()));
+		// a disabled timer has no events of its own
+		engine.setPeripheralModel(SysTickFixtures.createSysTick(0, 99));
+		engine.initSimulation();
+		for (int i = 1; i <= 3; i++) {
+			engine.scheduleEvent(i * 0.001, () -> {
+			});
+		}
+		engine.startSimulation(1);
+
+		SimulationMetrics metrics = engine.getMetrics();
+		assertEquals(3, metrics.getEventsExecuted());
+		assertEquals(3, metrics.getEventsScheduled());
+		assertEquals(0.003, metrics.getSimulatedTime(), 1e-12);
+		// monitoring points 0, 100 us, ..., 3 ms
+		assertEquals(31, times.size());
+		assertEquals(0.003, times.get(times.size() - 1), 1e-12);
+	}
+
+	/**
+	 * With only changes the engine must emit a sample only when a selected
+	 * output changed: without TICKINT the interrupt output never changes, so only
+	 * the first sample is emitted, while all outputs change with every step.
+	 */
+	@Test
+	public void testOnlyChangesOfSelectedOutputs() {
+		assertEquals(1, countEmitted(List.of("INTERRUPT")));
+		long all = countEmitted(List.of());
+		assertTrue("Every step changes CURRENT", all > 100);
+	}
+
+	/**
+	 * A selected output which the model does not have must be rejected.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testOnlyChangesOfUnknownOutput() {
+		countEmitted(List.of("UNKNOWN"));
+	}
+
+	/**
+	 * A latch must report a flag set since the previous sample once, and keep
+	 * reporting a flag which is still set.
+	 */
+	@Test
+	public void testFlagLatch() {
+		FlagLatch latch = new FlagLatch();
+		assertFalse(latch.sample());
+		latch.set();
+		latch.clear();
+		assertFalse(latch.isSet());
+		assertTrue("A cleared flag is sampled once", latch.sample());
+		assertFalse(latch.sample());
+		latch.set();
+		assertTrue(latch.sample());
+		assertTrue("A set flag stays set", latch.sample());
+		latch.reset();
+		latch.pulse();
+		assertFalse(latch.isSet());
+		assertTrue(latch.sample());
+		assertFalse(latch.sample());
+	}
+
+	/**
+	 * Runs a SysTick timer without TICKINT for 10 ms with only changes of the
+	 * outputs, and returns the number of emitted samples.
+	 */
+	private static long countEmitted(List<String> outputs) {
+		long[] emitted = new long[1];
+		SimulationEngine engine = new SimulationEngine((time, values) -> emitted[0]++);
+		engine.setContext(new SimulationContext(1_000_000, 1_000_000, 0, 0.01, 0, 0, true, outputs,
+				SchedulerType.HEAP, List.of()));
+		engine.setPeripheralModel(SysTickFixtures.createSysTick(0x5, 99));
+		engine.initSimulation();
+		engine.startSimulation(0.01);
+		assertEquals(emitted[0], engine.getMetrics().getSamplesEmitted());
+		return emitted[0];
+	}
+
+}
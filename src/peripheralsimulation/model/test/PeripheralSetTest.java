@@ -0,0 +1,160 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.model.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import peripheralsimulation.engine.SchedulerType;
+import peripheralsimulation.engine.SimulationEngine;
+import peripheralsimulation.io.UserPreferencesBlock;
+import peripheralsimulation.model.FlexIOModel;
+import peripheralsimulation.model.PeripheralSet;
+import peripheralsimulation.model.SysTickTimerModel;
+import peripheralsimulation.model.flexio.FlexIOConfig;
+import peripheralsimulation.model.systick.SysTickTimerConfig;
+import peripheralsimulation.ui.SimulationGuiChoice;
+import peripheralsimulation.utils.OutputRowStore;
+import peripheralsimulation.utils.OverflowPolicy;
+import peripheralsimulation.utils.RegisterMap;
+
+/**
+ * Test class for {@link PeripheralSet} and several models in one engine.
+ *
+ * @author Veronika Lenková
+ */
+public class PeripheralSetTest {
+
+	/**
+	 * Outputs of the members must be namespaced by the instance name and keep
+	 * their bit widths.
+	 */
+	@Test
+	public void testNamespacedOutputs() {
+		PeripheralSet set = new PeripheralSet();
+		SysTickTimerModel first = SysTickFixtures.createSysTick(3);
+		set.add("SYSTICK0", first);
+		set.add("SYSTICK1", SysTickFixtures.createSysTick(7));
+
+		assertArrayEquals(new String[] { "SYSTICK0.CURRENT", "SYSTICK0.INTERRUPT", "SYSTICK0.COUNTFLAG",
+				"SYSTICK1.CURRENT", "SYSTICK1.INTERRUPT", "SYSTICK1.COUNTFLAG" }, set.getOutputNames());
+		assertEquals(4, set.getOutputIndex("SYSTICK1.INTERRUPT"));
+		assertEquals("SYSTICK1.CURRENT", set.getOutputName(3));
+		assertEquals(24, set.getOutputBitWidth(3));
+		assertEquals(1, set.getOutputBitWidth(5));
+		assertSame(first, set.getModel("SYSTICK0"));
+		assertEquals(List.of("SYSTICK0", "SYSTICK1"), set.getInstanceNames());
+		assertEquals(6, set.getOutputs().length);
+	}
+
+	/**
+	 * Instance names must be unique and must not contain the separator.
+	 */
+	@Test
+	public void testInvalidInstanceNames() {
+		PeripheralSet set = new PeripheralSet();
+		set.add("A", SysTickFixtures.createSysTick(3));
+		assertThrows(() -> set.add("A", SysTickFixtures.createSysTick(3)));
+		assertThrows(() -> set.add("B.C", SysTickFixtures.createSysTick(3)));
+		assertThrows(() -> set.add("", SysTickFixtures.createSysTick(3)));
+	}
+
+	/**
+	 * Two timers in one engine must share the timeline, with one sample per time
+	 * step even when both underflow at the same tick.
+	 */
+	@Test
+	public void testModelsShareTimeline() {
+		List<Double> times = new ArrayList<>();
+		List<Object[]> samples = new ArrayList<>();
+		SimulationEngine engine = new SimulationEngine((time, outputs) -> {
+			times.add(time);
+			samples.add(outputs);
+		});
+		engine.setSettings(new UserPreferencesBlock(0, 0, 1, 1_000_000, 1_000_000, 0, false, List.of(),
+				SimulationGuiChoice.TABLE, "us", SchedulerType.HEAP, OverflowPolicy.BLOCK,
+				OutputRowStore.DEFAULT_CAPACITY));
+		engine.addPeripheralModel("FAST", SysTickFixtures.createSysTick(3));
+		engine.addPeripheralModel("SLOW", SysTickFixtures.createSysTick(7));
+		engine.initSimulation();
+		engine.startSimulation(1e-3);
+
+		assertTrue(engine.getPeripheralModel() instanceof PeripheralSet);
+		assertTrue("Both timers must produce events", samples.size() > 0);
+		for (int i = 1; i < times.size(); i++) {
+			assertTrue("One sample per time step", times.get(i) > times.get(i - 1));
+		}
+		for (Object[] outputs : samples) {
+			assertEquals(6, outputs.length);
+		}
+		assertTrue("Coinciding events are sampled once",
+				engine.getMetrics().getSamplesEmitted() < engine.getMetrics().getEventsExecuted());
+	}
+
+	/**
+	 * In a set of a SysTick timer and a FlexIO, the register accesses must reach
+	 * the peripheral which owns the address, and a bare offset which both have
+	 * must be rejected.
+	 */
+	@Test
+	public void testRegistersRoutedByAddress() {
+		SimulationEngine engine = new SimulationEngine(null);
+		SysTickTimerModel sysTick = SysTickFixtures.createSysTick(3);
+		Map<Integer, Integer> regs = new HashMap<>();
+		regs.put(FlexIOConfig.CTRL_OFFSET, 0x1);
+		regs.put(FlexIOConfig.TIMCTL0_OFFSET, 0b10);
+		FlexIOModel flexIO = new FlexIOModel(new FlexIOConfig(new RegisterMap(regs)));
+		engine.addPeripheralModel("SYSTICK", sysTick);
+		engine.addPeripheralModel("FLEXIO", flexIO);
+		engine.initSimulation();
+		PeripheralSet set = (PeripheralSet) engine.getPeripheralModel();
+
+		// FlexIO CTRL at its base address in the peripheral region
+		assertEquals(Integer.valueOf(0x1), set.getRegisterValue(0x4005F008));
+		// FlexIO SHIFTSTAT, not SysTick CSR
+		set.setRegisterValue(0x4005F010, 0x1);
+		assertEquals(Integer.valueOf(0x7), sysTick.getRegisterValue(SysTickTimerConfig.CSR_OFFSET));
+		// SysTick RVR in the System Control Space
+		set.setRegisterValue(0xE000E014, 9);
+		assertEquals(Integer.valueOf(9), set.getRegisterValue(0xE000E014));
+		assertEquals(Integer.valueOf(9), sysTick.getRegisterValue(SysTickTimerConfig.RVR_OFFSET));
+		assertEquals(Integer.valueOf(0), flexIO.getRegisterValue(SysTickTimerConfig.RVR_OFFSET));
+
+		assertNull(sysTick.getRegisterValue(0x4005F008));
+		assertNull(set.getRegisterValue(0x2000_0000));
+		assertThrows(() -> set.setRegisterValue(0x2000_0000, 1));
+		assertThrows(() -> set.getRegisterValue(SysTickTimerConfig.CSR_OFFSET));
+	}
+
+	/**
+	 * Adding a model to an engine with a single model set must fail.
+	 */
+	@Test(expected = IllegalStateException.class)
+	public void testAddAfterSingleModel() {
+		SimulationEngine engine = new SimulationEngine(null);
+		engine.setPeripheralModel(SysTickFixtures.createSysTick(3));
+		engine.addPeripheralModel("SYSTICK1", SysTickFixtures.createSysTick(7));
+	}
+
+	/**
+	 * Asserts that the action throws an IllegalArgumentException.
+	 */
+	private static void assertThrows(Runnable action) {
+		try {
+			action.run();
+		} catch (IllegalArgumentException e) {
+			return;
+		}
+		throw new AssertionError("IllegalArgumentException expected");
+	}
+
+}
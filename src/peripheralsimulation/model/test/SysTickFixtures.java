@@ -0,0 +1,68 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.model.test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import peripheralsimulation.model.SysTickTimerModel;
+import peripheralsimulation.model.systick.SysTickTimerConfig;
+import peripheralsimulation.utils.RegisterMap;
+
+/**
+ * SysTick timers shared by the tests, created from their register values.
+ *
+ * @author Veronika Lenková
+ */
+public final class SysTickFixtures {
+
+	/** SYST_CSR of an enabled timer with TICKINT on the processor clock */
+	public static final int CSR_ENABLED_PROCESSOR_CLOCK = 0x7;
+
+	/** SYST_CSR of an enabled timer with TICKINT on the external clock */
+	public static final int CSR_ENABLED_EXTERNAL_CLOCK = 0x3;
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private SysTickFixtures() {
+	}
+
+	/**
+	 * Creates the configuration of a SysTick timer with SYST_CVR and SYST_CALIB
+	 * 0.
+	 *
+	 * @param csr         The value of SYST_CSR.
+	 * @param reloadValue The value of SYST_RVR.
+	 * @return The configuration.
+	 */
+	public static SysTickTimerConfig createConfig(int csr, int reloadValue) {
+		RegisterMap map = new RegisterMap(new HashMap<>(Map.of(SysTickTimerConfig.CSR_OFFSET, csr, // SYST_CSR
+				SysTickTimerConfig.RVR_OFFSET, reloadValue, // SYST_RVR
+				SysTickTimerConfig.CVR_OFFSET, 0, // SYST_CVR
+				SysTickTimerConfig.CALIB_OFFSET, 0 // SYST_CALIB
+		)));
+		return new SysTickTimerConfig(map);
+	}
+
+	/**
+	 * Creates a SysTick model with SYST_CVR and SYST_CALIB 0.
+	 *
+	 * @param csr         The value of SYST_CSR.
+	 * @param reloadValue The value of SYST_RVR.
+	 * @return The model.
+	 */
+	public static SysTickTimerModel createSysTick(int csr, int reloadValue) {
+		return new SysTickTimerModel(createConfig(csr, reloadValue));
+	}
+
+	/**
+	 * Creates an enabled SysTick model with TICKINT on the processor clock.
+	 *
+	 * @param reloadValue The value of SYST_RVR.
+	 * @return The model.
+	 */
+	public static SysTickTimerModel createSysTick(int reloadValue) {
+		return createSysTick(CSR_ENABLED_PROCESSOR_CLOCK, reloadValue);
+	}
+
+}
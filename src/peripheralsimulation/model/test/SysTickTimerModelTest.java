@@ -5,11 +5,14 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.Test;
 
+import peripheralsimulation.engine.SimulationContext;
 import peripheralsimulation.engine.SimulationEngine;
 import peripheralsimulation.model.SysTickTimerModel;
 import peripheralsimulation.model.systick.SysTickTimerConfig;
@@ -75,4 +78,298 @@ public class SysTickTimerModelTest {
 		assertEquals(0, model.readCVR());
 		assertFalse(model.readCountFlag());
 	}
+
+	/**
+	 * A register write applied at a tick of the engine time base.
+	 */
+	private static final class RegisterWrite {
+
+		/** The tick of the write */
+		private final long tick;
+
+		/** The address of the written register */
+		private final int address;
+
+		/** The written value */
+		private final int value;
+
+		/**
+		 * Constructor for RegisterWrite.
+		 *
+		 * @param tick    The tick of the write.
+		 * @param address The address of the written register.
+		 * @param value   The written value.
+		 */
+		private RegisterWrite(long tick, int address, int value) {
+			this.tick = tick;
+			this.address = address;
+			this.value = value;
+		}
+	}
+
+	/**
+	 * Creates an enabled SysTick model (TICKINT=1, external clock) with the given
+	 * reload value.
+	 */
+	private static SysTickTimerModel createModel(int reloadValue) {
+		return SysTickFixtures.createSysTick(SysTickFixtures.CSR_ENABLED_EXTERNAL_CLOCK, reloadValue);
+	}
+
+	/**
+	 * Returns the period of a clock in ticks of the default engine time base.
+	 */
+	private static long clockPeriod(long frequency) {
+		return new SimulationEngine((t, outs) -> {
+		}).getClockPeriod(frequency);
+	}
+
+	/**
+	 * Runs the model in an engine with the register writes as events and returns
+	 * the ticks at which the interrupt was reported. The outputs and the ticks at
+	 * which COUNTFLAG was reported are added to the lists.
+	 */
+	private static List<Long> runAndCollectInterrupts(SysTickTimerModel model, long maxTick, List<Object[]> outputs,
+			List<Long> countFlagTicks, RegisterWrite... writes) {
+		List<Long> interruptTicks = new ArrayList<>();
+		SimulationEngine[] engine = new SimulationEngine[1];
+		engine[0] = new SimulationEngine((time, outs) -> {
+			outputs.add(outs);
+			if ((Boolean) outs[1]) {
+				interruptTicks.add(engine[0].getCurrentTick());
+			}
+			if ((Boolean) outs[2]) {
+				countFlagTicks.add(engine[0].getCurrentTick());
+			}
+		});
+		engine[0].setPeripheralModel(model);
+		engine[0].initSimulation();
+		for (RegisterWrite write : writes) {
+			engine[0].scheduleEventAtTick(write.tick, () -> model.setRegisterValue(write.address, write.value));
+		}
+		engine[0].startSimulation(engine[0].getTimeBase().toSeconds(maxTick));
+		return interruptTicks;
+	}
+
+	/**
+	 * Steps the model one clock cycle at a time with
+	 * {@link SysTickTimerModel#update(SimulationEngine)}, as the engine did
+	 * before next-deadline mode, and returns the ticks of the clock edges at
+	 * which the interrupt was reported. The ticks at which COUNTFLAG was reported
+	 * are added to the list. A register write is applied before the clock edge
+	 * at its tick, as the per-cycle engine ran the write before the decrement
+	 * scheduled a cycle earlier. The clock edges start again at the write which
+	 * enables the timer; a write which switches the clock keeps the pending
+	 * edge, the later edges follow in the new period.
+	 */
+	private static List<Long> runPerCycle(SysTickTimerModel model, long maxTick, List<Long> countFlagTicks,
+			RegisterWrite... writes) {
+		List<Long> interruptTicks = new ArrayList<>();
+		SimulationEngine engine = new SimulationEngine((t, outs) -> {
+		});
+		engine.initSimulation();
+		// the engine is not started, its time stays 0 and update() decrements by one cycle
+		model.initialize(engine);
+		long nextEdge = nextEdge(model, engine, 0);
+		int next = 0;
+		while (true) {
+			if (next < writes.length && writes[next].tick <= nextEdge) {
+				boolean enabled = isEnabled(model);
+				model.setRegisterValue(writes[next].address, writes[next].value);
+				if (!isEnabled(model)) {
+					nextEdge = Long.MAX_VALUE;
+				} else if (!enabled) {
+					nextEdge = nextEdge(model, engine, writes[next].tick);
+				}
+				next++;
+			} else if (nextEdge <= maxTick) {
+				long edge = nextEdge;
+				model.update(engine);
+				nextEdge = nextEdge(model, engine, edge);
+				Object[] outputs = model.getOutputs();
+				if ((Boolean) outputs[1]) {
+					interruptTicks.add(edge);
+				}
+				if ((Boolean) outputs[2]) {
+					countFlagTicks.add(edge);
+				}
+			} else {
+				return interruptTicks;
+			}
+		}
+	}
+
+	/**
+	 * Returns true if SYST_CSR enables the timer.
+	 */
+	private static boolean isEnabled(SysTickTimerModel model) {
+		return (model.getRegisterValue(SysTickTimerConfig.CSR_OFFSET) & 0x1) != 0;
+	}
+
+	/**
+	 * Returns the tick of the clock edge one period of the selected clock after
+	 * the given tick, or Long.MAX_VALUE if the timer is disabled.
+	 */
+	private static long nextEdge(SysTickTimerModel model, SimulationEngine engine, long tick) {
+		int csr = model.getRegisterValue(SysTickTimerConfig.CSR_OFFSET);
+		if ((csr & 0x1) == 0) {
+			return Long.MAX_VALUE;
+		}
+		long frequency = (csr & 0x4) != 0 ? engine.getClockFrequency() : engine.getExternalClockFrequency();
+		return tick + engine.getClockPeriod(frequency);
+	}
+
+	/**
+	 * Runs the model in next-deadline mode and cycle by cycle with the same
+	 * register writes, checks that both report the interrupt and COUNTFLAG at the
+	 * same ticks and returns the interrupt ticks.
+	 */
+	private static List<Long> assertMatchesPerCycle(int reloadValue, long maxTick, RegisterWrite... writes) {
+		List<Long> countFlagTicks = new ArrayList<>();
+		List<Long> interruptTicks = runAndCollectInterrupts(createModel(reloadValue), maxTick, new ArrayList<>(),
+				countFlagTicks, writes);
+		List<Long> referenceCountFlagTicks = new ArrayList<>();
+		List<Long> referenceInterruptTicks = runPerCycle(createModel(reloadValue), maxTick, referenceCountFlagTicks,
+				writes);
+		assertEquals("Interrupts as with one event per cycle", referenceInterruptTicks, interruptTicks);
+		assertEquals("COUNTFLAG as with one event per cycle", referenceCountFlagTicks, countFlagTicks);
+		assertFalse("COUNTFLAG set by the underflows", countFlagTicks.isEmpty());
+		return interruptTicks;
+	}
+
+	/**
+	 * In next-deadline mode the interrupt and COUNTFLAG must be reported at every
+	 * (RVR + 1)-th clock cycle and cleared one cycle later, exactly as with one
+	 * event per cycle, while only three events per reload are processed: the
+	 * cycle before the underflow, which schedules it, the underflow and the
+	 * following cycle.
+	 */
+	@Test
+	public void testUnderflowTraceWithoutPerCycleEvents() {
+		SysTickTimerModel model = createModel(3);
+		List<Object[]> outputs = new ArrayList<>();
+		long period = clockPeriod(SimulationContext.DEFAULT_EXTERNAL_CLOCK_FREQUENCY);
+
+		List<Long> interruptTicks = runAndCollectInterrupts(model, 40 * period, outputs, new ArrayList<>());
+
+		assertEquals("10 reloads in 40 cycles", 10, interruptTicks.size());
+		for (int i = 0; i < interruptTicks.size(); i++) {
+			assertEquals((i + 1) * 4 * period, interruptTicks.get(i).longValue());
+		}
+		assertEquals("Reset state sampled at the start", 3, outputs.get(0)[0]);
+		assertTrue("Only the start and the cycles around the underflow are events", outputs.size() <= 31);
+		for (int i = 1; i + 2 < outputs.size(); i += 3) {
+			assertEquals("CVR at 0 a cycle before underflow", 0, outputs.get(i)[0]);
+			assertFalse("No interrupt before underflow", (Boolean) outputs.get(i)[1]);
+			assertEquals("CVR reloads at underflow", 3, outputs.get(i + 1)[0]);
+			assertTrue("COUNTFLAG set at underflow", (Boolean) outputs.get(i + 1)[2]);
+			assertEquals("CVR decremented a cycle later", 2, outputs.get(i + 2)[0]);
+			assertFalse("Interrupt cleared a cycle later", (Boolean) outputs.get(i + 2)[1]);
+			assertFalse("COUNTFLAG cleared a cycle later", (Boolean) outputs.get(i + 2)[2]);
+		}
+	}
+
+	/**
+	 * SYST_CVR must be derived from the elapsed time when it is read between
+	 * events.
+	 */
+	@Test
+	public void testCurrentValueDerivedFromElapsedTime() {
+		SysTickTimerModel model = createModel(0x0001D4BF);
+		SimulationEngine engine = new SimulationEngine((t, outs) -> {
+		});
+		engine.setPeripheralModel(model);
+		engine.initSimulation();
+		long period = engine.getClockPeriod(SimulationContext.DEFAULT_EXTERNAL_CLOCK_FREQUENCY);
+		int[] read = new int[1];
+		engine.scheduleEventAtTick(1000 * period + period / 2,
+				() -> read[0] = model.getRegisterValue(SysTickTimerConfig.CVR_OFFSET));
+		engine.startSimulation(engine.getTimeBase().toSeconds(2000 * period));
+
+		assertEquals(0x0001D4BF - 1000, read[0]);
+	}
+
+	/**
+	 * Writing SYST_RVR mid-run must not change the pending underflow, but all
+	 * later reloads must use the new value.
+	 */
+	@Test
+	public void testReloadValueWriteReschedules() {
+		long period = clockPeriod(SimulationContext.DEFAULT_EXTERNAL_CLOCK_FREQUENCY);
+		List<Long> interruptTicks = runAndCollectInterrupts(createModel(3), 30 * period, new ArrayList<>(),
+				new ArrayList<>(), new RegisterWrite(period + period / 2, SysTickTimerConfig.RVR_OFFSET, 9));
+
+		assertEquals(List.of(4 * period, 14 * period, 24 * period), interruptTicks);
+	}
+
+	/**
+	 * Disabling the timer must stop the counter at its value, and enabling it
+	 * again between two clock edges must restart the count from the enabling
+	 * write, as with one event per cycle.
+	 */
+	@Test
+	public void testDisableAndEnableMatchesPerCycle() {
+		long period = clockPeriod(SimulationContext.DEFAULT_EXTERNAL_CLOCK_FREQUENCY);
+		long enableTick = 20 * period + period / 2;
+		List<Long> interruptTicks = assertMatchesPerCycle(9, 60 * period,
+				new RegisterWrite(13 * period, SysTickTimerConfig.CSR_OFFSET, 0x2),
+				new RegisterWrite(enableTick, SysTickTimerConfig.CSR_OFFSET, 0x3));
+
+		// the disable runs before the decrement at its tick, so the counter stops
+		// at 7, which takes eight more cycles after the enable
+		assertEquals(List.of(10 * period, enableTick + 8 * period, enableTick + 18 * period,
+				enableTick + 28 * period, enableTick + 38 * period), interruptTicks);
+	}
+
+	/**
+	 * Switching CLKSOURCE to the processor clock must count the rest of the
+	 * reload and all later reloads in processor clock cycles, as with one event
+	 * per cycle.
+	 */
+	@Test
+	public void testClockSourceSwitchMatchesPerCycle() {
+		long period = clockPeriod(SimulationContext.DEFAULT_EXTERNAL_CLOCK_FREQUENCY);
+		long cpuPeriod = clockPeriod(SimulationContext.DEFAULT_CLOCK_FREQUENCY);
+		long switchTick = 15 * period;
+		List<Long> interruptTicks = assertMatchesPerCycle(9, switchTick + 40 * cpuPeriod,
+				new RegisterWrite(switchTick, SysTickTimerConfig.CSR_OFFSET,
+						SysTickFixtures.CSR_ENABLED_PROCESSOR_CLOCK));
+
+		// 4 left at the switch
+		assertEquals(List.of(10 * period, switchTick + 5 * cpuPeriod, switchTick + 15 * cpuPeriod,
+				switchTick + 25 * cpuPeriod, switchTick + 35 * cpuPeriod), interruptTicks);
+	}
+
+	/**
+	 * Writing SYST_CVR during a countdown must clear the counter, so it reloads
+	 * at the next clock edge, as with one event per cycle. A write at the tick
+	 * of a clock edge runs before its decrement, so the counter reloads at that
+	 * edge.
+	 */
+	@Test
+	public void testCurrentValueWriteMatchesPerCycle() {
+		long period = clockPeriod(SimulationContext.DEFAULT_EXTERNAL_CLOCK_FREQUENCY);
+		List<Long> interruptTicks = assertMatchesPerCycle(9, 60 * period,
+				new RegisterWrite(14 * period, SysTickTimerConfig.CVR_OFFSET, 123),
+				new RegisterWrite(27 * period, SysTickTimerConfig.CVR_OFFSET, 0));
+
+		assertEquals(List.of(10 * period, 14 * period, 24 * period, 27 * period, 37 * period, 47 * period,
+				57 * period), interruptTicks);
+	}
+
+	/**
+	 * A SYST_CSR write at the tick of an underflow must run before the
+	 * underflow, as with one event per cycle: clearing TICKINT there suppresses
+	 * that interrupt, setting it again at the next underflow reports it.
+	 */
+	@Test
+	public void testControlWriteAtUnderflowTickMatchesPerCycle() {
+		long period = clockPeriod(SimulationContext.DEFAULT_EXTERNAL_CLOCK_FREQUENCY);
+		List<Long> interruptTicks = assertMatchesPerCycle(9, 60 * period,
+				new RegisterWrite(10 * period, SysTickTimerConfig.CSR_OFFSET, 0x1),
+				new RegisterWrite(20 * period, SysTickTimerConfig.CSR_OFFSET, 0x3),
+				new RegisterWrite(30 * period, SysTickTimerConfig.CSR_OFFSET, 0x1),
+				new RegisterWrite(40 * period, SysTickTimerConfig.CSR_OFFSET, 0x3));
+
+		assertEquals(List.of(20 * period, 40 * period, 50 * period, 60 * period), interruptTicks);
+	}
 }
@@ -4,11 +4,27 @@ package peripheralsimulation.test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
+import peripheralsimulation.engine.test.EventSchedulerTest;
+import peripheralsimulation.engine.test.SampleWindowTest;
+import peripheralsimulation.engine.test.SimulationContextTest;
+import peripheralsimulation.engine.test.SimulationControlTest;
 import peripheralsimulation.engine.test.SimulationEngineTest;
-import peripheralsimulation.engine.test.SimulationEventTest;
+import peripheralsimulation.engine.test.SimulationJfrTest;
+import peripheralsimulation.engine.test.SimulationMetricsTest;
 import peripheralsimulation.engine.test.UserEventGeneratorTest;
+import peripheralsimulation.headless.test.HeadlessRunnerTest;
+import peripheralsimulation.headless.test.SweepRunnerTest;
+import peripheralsimulation.io.trace.test.TraceWriterTest;
+import peripheralsimulation.io.trace.test.VcdWriterTest;
 import peripheralsimulation.model.test.FlexIOModelTest;
+import peripheralsimulation.model.test.OutputSamplingTest;
+import peripheralsimulation.model.test.PeripheralSetTest;
 import peripheralsimulation.model.test.SysTickTimerModelTest;
+import peripheralsimulation.utils.test.MinMaxDecimatorTest;
+import peripheralsimulation.utils.test.MinMaxPyramidTest;
+import peripheralsimulation.utils.test.OutputRowStoreTest;
+import peripheralsimulation.utils.test.SampleRingBufferTest;
+import peripheralsimulation.utils.test.SimulationLoggerTest;
 
 /**
  * Aggregates all unit tests for the Peripheral-Simulation project so they can
@@ -20,10 +36,26 @@ import peripheralsimulation.model.test.SysTickTimerModelTest;
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
 	    SimulationEngineTest.class,
-	    SimulationEventTest.class,
+	    EventSchedulerTest.class,
         UserEventGeneratorTest.class,
         SysTickTimerModelTest.class,
         FlexIOModelTest.class,
+        HeadlessRunnerTest.class,
+        SweepRunnerTest.class,
+        TraceWriterTest.class,
+        VcdWriterTest.class,
+        SampleRingBufferTest.class,
+        OutputRowStoreTest.class,
+        MinMaxDecimatorTest.class,
+        MinMaxPyramidTest.class,
+        SimulationLoggerTest.class,
+        SimulationMetricsTest.class,
+        SimulationJfrTest.class,
+        SimulationControlTest.class,
+        SimulationContextTest.class,
+        PeripheralSetTest.class,
+        OutputSamplingTest.class,
+        SampleWindowTest.class,
 })
 public class AllTests {
 	/*
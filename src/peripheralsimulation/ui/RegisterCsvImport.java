@@ -0,0 +1,58 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.ui;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.jface.dialogs.MessageDialog;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.FileDialog;
+
+import peripheralsimulation.utils.RegisterUtils;
+
+/**
+ * Interactive import of registers from a CSV file. The file is chosen in a file
+ * dialog and parsed by {@link RegisterUtils#loadRegistersFromCsv(Path)}.
+ *
+ * @author Veronika Lenková
+ */
+public final class RegisterCsvImport {
+
+	/** Private constructor for RegisterCsvImport */
+	private RegisterCsvImport() {
+		// Prevent instantiation
+	}
+
+	/**
+	 * Lets the user choose a CSV file and loads the registers from it. The result
+	 * of the import is reported in a message dialog.
+	 *
+	 * @return Map of register names and their values (empty if the dialog was
+	 *         canceled or the file could not be loaded).
+	 */
+	public static Map<String, Integer> loadRegistersFromCsv() {
+		FileDialog importDialog = new FileDialog(Display.getCurrent().getActiveShell(), SWT.OPEN);
+		importDialog.setText("Import registers from CSV file");
+		importDialog.setFilterExtensions(new String[] { "*.csv", "*.*" });
+
+		String file = importDialog.open();
+		if (file == null) { // user canceled the dialog
+			return new HashMap<>(); // empty map
+		}
+
+		try {
+			Map<String, Integer> map = RegisterUtils.loadRegistersFromCsv(Path.of(file));
+			MessageDialog.openInformation(Display.getCurrent().getActiveShell(), "Import Successful",
+					"The registers were successfully imported.");
+			return map;
+		} catch (IOException | NumberFormatException ex) {
+			MessageDialog.openError(Display.getCurrent().getActiveShell(), "Error during import",
+					"CSV file could not be loaded.\n" + ex.getMessage());
+			return new HashMap<>();
+		}
+	}
+
+}
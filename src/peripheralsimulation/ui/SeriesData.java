@@ -1,14 +1,15 @@
 /** Copyright (c) 2025, Veronika Lenková */
 package peripheralsimulation.ui;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import org.eclipse.swtchart.ILineSeries;
 import org.eclipse.swtchart.extensions.charts.InteractiveChart;
 
+import peripheralsimulation.utils.MinMaxPyramid;
+
 /**
- * Data structure to hold series data for charting.
+ * Data structure to hold series data for charting. Points are kept in a
+ * {@link MinMaxPyramid}, ordered by time, so any visible time range can be
+ * rendered from its summary and the memory of a series stays bounded.
  *
  * @author Veronika Lenková
  */
@@ -20,10 +21,82 @@ public class SeriesData {
 	/** The series to be plotted */
 	ILineSeries<?> series;
 
-	/** Time values for the x-axis (seriex.setXseriex(timeValues) */
-	List<Double> timeValues = new ArrayList<>();
+	/** Time (x) and output (y) values with their min/max summary */
+	final MinMaxPyramid points = new MinMaxPyramid();
+
+	/** Start of the time range last handed to the series */
+	double renderedLower = Double.NaN;
+
+	/** End of the time range last handed to the series */
+	double renderedUpper = Double.NaN;
+
+	/** Number of points when the series was last rendered */
+	long renderedSize = -1;
+
+	/**
+	 * Appends a point.
+	 *
+	 * @param time  The time value.
+	 * @param value The output value.
+	 */
+	void add(double time, double value) {
+		points.add(time, value);
+	}
+
+	/**
+	 * Removes all points.
+	 */
+	void clear() {
+		points.clear();
+		renderedSize = -1;
+	}
+
+	/**
+	 * Returns true if the series has no points.
+	 *
+	 * @return true if the series is empty.
+	 */
+	boolean isEmpty() {
+		return points.size() == 0;
+	}
+
+	/**
+	 * Returns the output value of the last point. The series must not be empty.
+	 *
+	 * @return The last output value.
+	 */
+	double lastValue() {
+		return points.getLastY();
+	}
+
+	/**
+	 * Returns the time of the first point. The series must not be empty.
+	 *
+	 * @return The first time value.
+	 */
+	double firstTime() {
+		return points.getFirstX();
+	}
+
+	/**
+	 * Returns the time of the last point. The series must not be empty.
+	 *
+	 * @return The last time value.
+	 */
+	double lastTime() {
+		return points.getLastX();
+	}
 
-	/** Output values for the y-axis (series.setYseriex(outputValues) */
-	List<Double> outputValues = new ArrayList<>();
+	/**
+	 * Returns true if the series was already rendered for the range with all its
+	 * current points.
+	 *
+	 * @param lower The start of the time range.
+	 * @param upper The end of the time range.
+	 * @return true if rendering again would give the same points.
+	 */
+	boolean isRendered(double lower, double upper) {
+		return renderedSize == points.size() && renderedLower == lower && renderedUpper == upper;
+	}
 
 }
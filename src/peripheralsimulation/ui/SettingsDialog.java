@@ -25,12 +25,8 @@ import org.eclipse.swt.widgets.Text;
 import peripheralsimulation.io.ConfigYamlUtils;
 import peripheralsimulation.io.SimulationConfig;
 import peripheralsimulation.io.UserPreferences;
-import peripheralsimulation.model.FlexIOModel;
 import peripheralsimulation.model.Peripheral;
 import peripheralsimulation.model.PeripheralModel;
-import peripheralsimulation.model.SysTickTimerModel;
-import peripheralsimulation.model.flexio.FlexIOConfig;
-import peripheralsimulation.model.systick.SysTickTimerConfig;
 import peripheralsimulation.utils.RegisterMap;
 import peripheralsimulation.utils.RegisterUtils;
 
@@ -161,7 +157,7 @@ public class SettingsDialog extends Dialog {
 		}
 		onlyChanges = new Button(dialog, SWT.CHECK);
 		onlyChanges.setText("Show only changes");
-		onlyChanges.setToolTipText("Show only changes when TABLE is chosen.");
+		onlyChanges.setToolTipText("Show only samples in which a selected output changed.");
 		onlyChanges.setSelection(userPreferences.isOnlyChanges());
 	}
 
@@ -298,23 +294,11 @@ public class SettingsDialog extends Dialog {
 		importBtn.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
 		importBtn.setText("Import of registers");
 		importBtn.addListener(SWT.Selection, e -> {
-			Map<String, Integer> newRegs = RegisterUtils.loadRegistersFromCsv();
+			Map<String, Integer> newRegs = RegisterCsvImport.loadRegistersFromCsv();
 			if (!newRegs.isEmpty()) {
-				PeripheralModel peripheralModel = userPreferences.getPeripheralModel();
 				Peripheral peripheral = userPreferences.getSelectedPeripheralType();
 				RegisterMap registerMap = RegisterUtils.convertToRegisterMap(newRegs, peripheral);
-				switch (peripheral) {
-				case SYSTICKTIMER:
-					SysTickTimerConfig config = new SysTickTimerConfig(registerMap);
-					peripheralModel = new SysTickTimerModel(config);
-					break;
-				case FLEXIO:
-					FlexIOConfig flexioConfig = new FlexIOConfig(registerMap);
-					peripheralModel = new FlexIOModel(flexioConfig);
-					break;
-				default:
-					throw new IllegalArgumentException("Unknown peripheral.");
-				}
+				PeripheralModel peripheralModel = peripheral.createModel(registerMap);
 				userPreferences.setPeripheralModel(peripheralModel);
 				close();
 			}
@@ -2,6 +2,7 @@
 package peripheralsimulation.ui;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.layout.GridData;
@@ -14,6 +15,8 @@ import org.eclipse.swtchart.Range;
 import org.eclipse.swtchart.extensions.charts.InteractiveChart;
 import peripheralsimulation.io.UserPreferences;
 import peripheralsimulation.utils.ColorsUtils;
+import peripheralsimulation.utils.MinMaxDecimator;
+import peripheralsimulation.utils.SimulationLogger;
 
 import org.eclipse.swtchart.ILineSeries.PlotSymbolType;
 import org.eclipse.swtchart.ISeries;
@@ -29,6 +32,9 @@ import org.eclipse.swtchart.ISeries.SeriesType;
  */
 public class SimulationChart implements SimulationGUI {
 
+	/** Logger of the value changes (trace level, off by default). */
+	private static final SimulationLogger LOG = SimulationLogger.getLogger(SimulationChart.class);
+
 	/** Container that holds all individual charts. */
 	private final Composite container;
 
@@ -38,6 +44,18 @@ public class SimulationChart implements SimulationGUI {
 	/** List of series data for charting. */
 	private List<SeriesData> seriesList = new ArrayList<>();
 
+	/** Width in pixels used for decimation before the chart is laid out. */
+	private static final int DEFAULT_PLOT_WIDTH = 1000;
+
+	/**
+	 * True if the user zoomed or panned the time axis to a part of the simulated
+	 * time; the refreshes then keep the visible range instead of widening it.
+	 */
+	private boolean zoomed;
+
+	/** True while the time axes are set by the chart itself, not by the user. */
+	private boolean synchronisingAxes;
+
 	/**
 	 * Constructor for the SimulationChart.
 	 *
@@ -56,8 +74,7 @@ public class SimulationChart implements SimulationGUI {
 	@Override
 	public void clear() {
 		for (SeriesData outputData : seriesList) {
-			outputData.timeValues.clear();
-			outputData.outputValues.clear();
+			outputData.clear();
 			outputData.series.setXSeries(new double[0]);
 			outputData.series.setYSeries(new double[0]);
 			for (ISeries<?> series : outputData.chart.getSeriesSet().getSeries()) {
@@ -66,6 +83,7 @@ public class SimulationChart implements SimulationGUI {
 			}
 		}
 		seriesList.clear();
+		zoomed = false;
 		synchroniseTimeAxes();
 		container.layout();
 	}
@@ -79,22 +97,32 @@ public class SimulationChart implements SimulationGUI {
 			int outputIndex = selectedOutputs[position];
 			SeriesData outputData = seriesList.get(position);
 			double numericVal = convertToDouble(outputs[outputIndex]);
-			List<Double> outputValues = outputData.outputValues;
-			Double lastVal = outputValues.isEmpty() ? null : outputValues.get(outputValues.size() - 1);
 
-			if (lastVal == null || !lastVal.equals(numericVal)) {
-				if (lastVal != null) {
+			if (outputData.isEmpty() || outputData.lastValue() != numericVal) {
+				if (!outputData.isEmpty()) {
 					// Horizontal segment up to the change
-					outputData.timeValues.add(timeValue);
-					outputValues.add(lastVal);
+					outputData.add(timeValue, outputData.lastValue());
+				}
+				outputData.add(timeValue, numericVal);
+				if (LOG.isTraceEnabled()) {
+					LOG.trace("time=" + timeValue + ", outputIndex=" + outputIndex + ", value=" + numericVal);
 				}
-				outputData.timeValues.add(timeValue);
-				outputValues.add(numericVal);
-				System.out.println("[SimulationChart] time=" + timeValue + ", outputIndex=" + outputIndex + ", value="
-						+ numericVal);
 			}
 		}
-		// redrawAllSeries(); // Uncomment when you want to see "real-time" updates
+	}
+
+	@Override
+	public void refresh() {
+		if (!zoomed) {
+			// decimated series are cheap to hand over, so the chart follows the run
+			synchroniseTimeAxes();
+		} else {
+			// the new points in the range the user looks at
+			for (SeriesData outputData : seriesList) {
+				renderSeries(outputData, outputData.chart.getAxisSet().getXAxis(0).getRange());
+			}
+		}
+		container.layout();
 	}
 
 	/**
@@ -119,24 +147,51 @@ public class SimulationChart implements SimulationGUI {
 	}
 
 	/**
-	 * Redraws all series in the chart.
+	 * Redraws all series in the chart over the whole simulated time, also if the
+	 * user zoomed in; the following refreshes widen the range again.
 	 */
 	public void redrawAllSeries() {
-		for (SeriesData outputData : seriesList) {
-			int size = outputData.timeValues.size();
-			double[] xs = new double[size];
-			double[] ys = new double[size];
-			for (int i = 0; i < size; i++) {
-				xs[i] = outputData.timeValues.get(i);
-				ys[i] = outputData.outputValues.get(i);
-			}
-			outputData.series.setXSeries(xs);
-			outputData.series.setYSeries(ys);
-		}
+		zoomed = false;
 		synchroniseTimeAxes();
 		container.layout();
 	}
 
+	/**
+	 * Hands the points of the series in the time range to SWTChart, at most two
+	 * per pixel column, read from the min/max pyramid of the series. Called when
+	 * the time axis range changes (zoom, pan or a redraw).
+	 *
+	 * @param outputData The series.
+	 * @param range      The visible time range.
+	 */
+	private void renderSeries(SeriesData outputData, Range range) {
+		if (outputData.series == null || outputData.isRendered(range.lower, range.upper)) {
+			return;
+		}
+		int buckets = plotWidth(outputData);
+		double[] xs = new double[MinMaxDecimator.maxOutputSize(buckets)];
+		double[] ys = new double[xs.length];
+		int count = outputData.points.query(range.lower, range.upper, buckets, xs, ys);
+		outputData.series.setXSeries(Arrays.copyOf(xs, count));
+		outputData.series.setYSeries(Arrays.copyOf(ys, count));
+		outputData.renderedLower = range.lower;
+		outputData.renderedUpper = range.upper;
+		outputData.renderedSize = outputData.points.size();
+	}
+
+	/**
+	 * Returns the width of the chart of the series in pixels (a default width
+	 * before the chart is laid out). It is slightly more than the plot area, which
+	 * only means a few more points.
+	 *
+	 * @param outputData The series.
+	 * @return The width in pixels.
+	 */
+	private int plotWidth(SeriesData outputData) {
+		int width = outputData.chart.getSize().x;
+		return width > 0 ? width : DEFAULT_PLOT_WIDTH;
+	}
+
 	/**
 	 * Creates a new chart for the specified output.
 	 *
@@ -190,19 +245,29 @@ public class SimulationChart implements SimulationGUI {
 		data.series.setSymbolType(PlotSymbolType.NONE);
 		data.series.setLineColor(ColorsUtils.getNextColor());
 
+		// zooming or panning re-renders the visible range from the pyramid
+		data.chart.getAxisSet().getXAxis(0).addListener((axis, range) -> {
+			if (!synchronisingAxes) {
+				// a range which shows all points (e.g. adjusting the range) follows the run again
+				zoomed = !showsAllPoints(range);
+			}
+			renderSeries(data, range);
+		});
+
 		seriesList.add(data);
 	}
 
 	/**
-	 * Synchronizes the time axes of all charts to have the same range.
+	 * Synchronizes the time axes of all charts to have the same range and renders
+	 * the series for it.
 	 */
 	private void synchroniseTimeAxes() {
 		double min = Double.MAX_VALUE;
 		double max = -Double.MAX_VALUE;
 		for (SeriesData outputData : seriesList) {
-			if (!outputData.timeValues.isEmpty()) {
-				min = Math.min(min, outputData.timeValues.get(0));
-				max = Math.max(max, outputData.timeValues.get(outputData.timeValues.size() - 1));
+			if (!outputData.isEmpty()) {
+				min = Math.min(min, outputData.firstTime());
+				max = Math.max(max, outputData.lastTime());
 			}
 		}
 		if (min == Double.MAX_VALUE || max == -Double.MAX_VALUE) {
@@ -213,10 +278,32 @@ public class SimulationChart implements SimulationGUI {
 			max = min + 1;
 		}
 		Range commonRange = new Range(min, max);
+		synchronisingAxes = true;
+		try {
+			for (SeriesData outputData : seriesList) {
+				outputData.chart.getAxisSet().getXAxis(0).setRange(commonRange);
+				renderSeries(outputData, commonRange);
+				outputData.chart.getAxisSet().getYAxis(0).adjustRange();
+			}
+		} finally {
+			synchronisingAxes = false;
+		}
+	}
+
+	/**
+	 * Returns true if the time range shows all points of all series.
+	 *
+	 * @param range The time range.
+	 * @return True if no point lies outside the range.
+	 */
+	private boolean showsAllPoints(Range range) {
 		for (SeriesData outputData : seriesList) {
-			outputData.chart.getAxisSet().getXAxis(0).setRange(commonRange);
-			outputData.chart.getAxisSet().getYAxis(0).adjustRange();
+			if (!outputData.isEmpty()
+					&& (outputData.firstTime() < range.lower || outputData.lastTime() > range.upper)) {
+				return false;
+			}
 		}
+		return true;
 	}
 
 	/**
@@ -20,6 +20,14 @@ public interface SimulationGUI {
 	 */
 	public void update(double timeValue, Object[] outputs);
 
+	/**
+	 * Called on the UI thread after a batch of {@link #update(double, Object[])}
+	 * calls (once per frame while the simulation runs). Implementations that
+	 * render lazily can repaint here instead of on every update.
+	 */
+	public default void refresh() {
+	}
+
 	/**
 	 * Clears the GUI, removing all displayed data.
 	 */
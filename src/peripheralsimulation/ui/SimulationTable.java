@@ -5,34 +5,44 @@ import org.eclipse.swt.SWT;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Table;
 import org.eclipse.swt.widgets.TableColumn;
 import org.eclipse.swt.widgets.TableItem;
 
 import peripheralsimulation.io.UserPreferences;
-import peripheralsimulation.model.PeripheralModel;
+import peripheralsimulation.utils.OutputRowStore;
 
 /**
  * Class for displaying a simulation table using SWT.
  * 
  * This class implements the SimulationGUI interface and provides methods to
- * update and clear the table.
+ * update and clear the table. The table is virtual: the last rows (see
+ * {@link UserPreferences#getTableRows()}) are kept in an {@link OutputRowStore}
+ * and table items are filled only when they become visible, so neither the
+ * memory nor the number of native widgets grows with the run.
  *
  * @author Veronika Lenková
  */
 public class SimulationTable implements SimulationGUI {
 
+	/** Name of the output whose rows are highlighted when it is true. */
+	private static final String HIGHLIGHTED_OUTPUT = "INTERRUPT";
+
 	/** The table in which the simulation results are displayed. Graph later. */
 	private Table table;
 
 	/** User preferences for the simulation. */
 	private UserPreferences userPreferences = UserPreferences.getInstance();
 
-	/** The simulation model. */
-	private PeripheralModel peripheralModel;
+	/** The rows of the table. */
+	private OutputRowStore rows = createRows();
+
+	/** The column of the highlighted output, -1 if it is not selected. */
+	private int highlightedColumn = -1;
 
-	/** The last output values for each selected output. */
-	private Object[] lastOutputValues = new Object[userPreferences.getSelectedOutputs().size()];
+	/** Evicted rows when the table items were last updated. */
+	private long shownEvictedCount;
 
 	/**
 	 * Constructor for the SimulationTable.
@@ -40,55 +50,67 @@ public class SimulationTable implements SimulationGUI {
 	 * @param parent The parent composite for the table.
 	 */
 	public SimulationTable(Composite parent) {
-		table = new Table(parent, SWT.BORDER | SWT.V_SCROLL | SWT.H_SCROLL);
+		table = new Table(parent, SWT.BORDER | SWT.V_SCROLL | SWT.H_SCROLL | SWT.VIRTUAL);
 		table.setHeaderVisible(true);
 		table.setLinesVisible(true);
 		GridData tableGridData = new GridData(SWT.FILL, SWT.FILL, true, true, 4, 1);
 		table.setLayoutData(tableGridData);
-		lastOutputValues = new Object[userPreferences.getSelectedOutputs().size()];
+		table.addListener(SWT.SetData, this::fillTableItem);
 	}
 
 	@Override
 	public void clear() {
+		rows.clear();
+		shownEvictedCount = 0;
 		if (table != null && !table.isDisposed()) {
 			table.removeAll();
 		}
-		// outputsMap.clear();
-		lastOutputValues = new Object[userPreferences.getSelectedOutputs().size()];
 	}
 
 	@Override
 	public void update(double timeValue, Object[] outputs) {
-		// Build an array of strings for the row (one per column)
-		int colCount = table.getColumnCount();
-		if (colCount == 0) {
+		if (table.getColumnCount() == 0) {
 			createColumnsInTable();
-			colCount = table.getColumnCount();
 		}
-		String[] rowText = new String[colCount];
-		rowText[0] = formatTime(timeValue);
-		// true if at least one output changed (for the onlyChanges mode)
-		boolean anyChange = false;
-
-		// fill the user-chosen outputs
-		int[] selectedIndices = userPreferences.getSelectedOutputsIndices();
-		for (int i = 0; i < selectedIndices.length; i++) {
-			int outputIndex = selectedIndices[i];
-			Object outputValue = outputs[outputIndex];
-			rowText[i + 1] = (outputValue == null) ? "" : outputValue.toString();
-
-			Object lastValue = lastOutputValues[i];
-			if (lastValue == null || !lastValue.equals(outputValue)) {
-				// outputMap.put(timeValue, outputValue);
-				lastOutputValues[i] = outputValue;
-				anyChange = true;
-			}
+		// unchanged samples (onlyChanges) are already skipped by the engine
+		rows.add(timeValue, outputs, userPreferences.getSelectedOutputsIndices());
+	}
+
+	@Override
+	public void refresh() {
+		if (table == null || table.isDisposed()) {
+			return;
+		}
+		if (rows.getEvictedCount() != shownEvictedCount) {
+			// the oldest rows were replaced, every row index moved
+			shownEvictedCount = rows.getEvictedCount();
+			table.clearAll();
+		}
+		if (table.getItemCount() != rows.size()) {
+			table.setItemCount(rows.size());
 		}
+	}
 
-		if (!userPreferences.isOnlyChanges() || anyChange) {
-			createTableItem(outputs, rowText);
-			System.out.println("Row: " + String.join(", ", rowText));
+	/**
+	 * Fill a table item which became visible with the text of its row.
+	 *
+	 * @param event The SWT.SetData event of the table item.
+	 */
+	private void fillTableItem(Event event) {
+		TableItem item = (TableItem) event.item;
+		int row = event.index;
+		String[] rowText = new String[rows.getColumnCount() + 1];
+		rowText[0] = formatTime(rows.getTime(row));
+		for (int column = 0; column < rows.getColumnCount(); column++) {
+			rowText[column + 1] = rows.getText(row, column);
 		}
+		item.setText(rowText);
+
+		// If an interrupt is "true", highlight the row
+		if (highlightedColumn >= 0 && rows.getValue(row, highlightedColumn) != 0) {
+			item.setBackground(Display.getDefault().getSystemColor(SWT.COLOR_YELLOW));
+		}
+		// other outputs can be highlighted as well
 	}
 
 	/**
@@ -101,27 +123,6 @@ public class SimulationTable implements SimulationGUI {
 		return userPreferences.getTimeFormat().format(timeValue) + " " + userPreferences.getTimeUnits();
 	}
 
-	/**
-	 * Create a new row in the table with the given text.
-	 *
-	 * @param outputs The output values for the row.
-	 * @param rowText The text to display in the row.
-	 */
-	private void createTableItem(Object[] outputs, String[] rowText) {
-		TableItem item = new TableItem(table, SWT.NONE);
-		item.setText(rowText);
-
-		// If an interrupt is "true", highlight the row
-		String output = "INTERRUPT";
-		if (userPreferences.getSelectedOutputs().contains(output)) {
-			String interruptVal = outputs[peripheralModel.getOutputIndex(output)].toString();
-			if (interruptVal.equals("true")) {
-				item.setBackground(Display.getDefault().getSystemColor(SWT.COLOR_YELLOW));
-			}
-		}
-		// other outputs can be highlighted as well
-	}
-
 	/**
 	 * Create columns in the table based on the user's selected outputs.
 	 */
@@ -132,6 +133,21 @@ public class SimulationTable implements SimulationGUI {
 		for (String output : userPreferences.getSelectedOutputs()) {
 			createColumnForOutput(output);
 		}
+		highlightedColumn = userPreferences.getSelectedOutputs().indexOf(HIGHLIGHTED_OUTPUT);
+		if (rows.getColumnCount() != userPreferences.getSelectedOutputs().size()
+				|| rows.getCapacity() != userPreferences.getTableRows()) {
+			rows = createRows();
+			shownEvictedCount = 0;
+		}
+	}
+
+	/**
+	 * Create an empty row store for the selected outputs.
+	 *
+	 * @return the row store
+	 */
+	private OutputRowStore createRows() {
+		return new OutputRowStore(userPreferences.getSelectedOutputs().size(), userPreferences.getTableRows());
 	}
 
 	/**
@@ -159,8 +175,9 @@ public class SimulationTable implements SimulationGUI {
 			for (TableColumn column : table.getColumns()) {
 				column.dispose();
 			}
-			lastOutputValues = new Object[userPreferences.getSelectedOutputs().size()];
-			peripheralModel = userPreferences.getPeripheralModel();
+			table.removeAll();
+			rows = createRows();
+			shownEvictedCount = 0;
 			createColumnsInTable();
 		});
 	}
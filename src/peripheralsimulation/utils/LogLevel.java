@@ -0,0 +1,30 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.utils;
+
+/**
+ * Enum representing the levels of {@link SimulationLogger} messages, from the
+ * most detailed to the most severe.
+ *
+ * @author Veronika Lenková
+ */
+public enum LogLevel {
+
+	/** Per-event and per-sample messages (very high volume) */
+	TRACE,
+
+	/** Diagnostic messages */
+	DEBUG,
+
+	/** Simulation lifecycle messages */
+	INFO,
+
+	/** Recoverable problems */
+	WARN,
+
+	/** Failures */
+	ERROR,
+
+	/** No messages at all (only as a threshold) */
+	OFF;
+
+}
@@ -0,0 +1,143 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.utils;
+
+/**
+ * Reduces a series (ordered by x) to the points needed to draw it at a given
+ * horizontal resolution: the visible x-range is split into buckets (one per
+ * pixel column) and only the minimum and the maximum point of each bucket are
+ * kept, in their original order. Every edge and spike of the series stays
+ * visible, while the number of points is at most two per bucket plus the
+ * neighbours just outside the range.
+ *
+ * @author Veronika Lenková
+ */
+public final class MinMaxDecimator {
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private MinMaxDecimator() {
+	}
+
+	/**
+	 * Returns the maximum number of points written by
+	 * {@link #decimate(double[], double[], int, double, double, int, double[], double[])}.
+	 *
+	 * @param buckets The number of buckets.
+	 * @return The size the output arrays must have.
+	 */
+	public static int maxOutputSize(int buckets) {
+		// two points per bucket, the bucket of xMax may also hold the point after
+		// the range, and the point before the range
+		return 2 * buckets + 4;
+	}
+
+	/**
+	 * Decimates the points of the series lying in the x-range [xMin, xMax]. The
+	 * last point before and the first point after the range are kept as well, so
+	 * the lines reach the borders of the plot.
+	 *
+	 * @param xs      The x values (non-decreasing).
+	 * @param ys      The y values.
+	 * @param size    The number of points.
+	 * @param xMin    The start of the visible x-range.
+	 * @param xMax    The end of the visible x-range.
+	 * @param buckets The number of buckets (typically the plot width in pixels).
+	 * @param outX    The array for the x values of the kept points, at least
+	 *                {@link #maxOutputSize(int)} long.
+	 * @param outY    The array for the y values of the kept points.
+	 * @return The number of kept points.
+	 */
+	public static int decimate(double[] xs, double[] ys, int size, double xMin, double xMax, int buckets,
+			double[] outX, double[] outY) {
+		if (buckets < 1) {
+			throw new IllegalArgumentException("Invalid bucket count: " + buckets);
+		}
+		int from = Math.max(0, lowerBound(xs, size, xMin) - 1);
+		int to = Math.min(size, upperBound(xs, size, xMax) + 1);
+		int count = 0;
+		if (to - from <= maxOutputSize(buckets)) {
+			for (int i = from; i < to; i++) {
+				outX[count] = xs[i];
+				outY[count] = ys[i];
+				count++;
+			}
+			return count;
+		}
+
+		double scale = xMax > xMin ? buckets / (xMax - xMin) : 0;
+		int i = from;
+		while (i < to) {
+			int bucket = bucketOf(xs[i], xMin, scale, buckets);
+			int minIndex = i;
+			int maxIndex = i;
+			int j = i + 1;
+			while (j < to && bucketOf(xs[j], xMin, scale, buckets) == bucket) {
+				if (ys[j] < ys[minIndex]) {
+					minIndex = j;
+				} else if (ys[j] > ys[maxIndex]) {
+					maxIndex = j;
+				}
+				j++;
+			}
+			int first = Math.min(minIndex, maxIndex);
+			int second = Math.max(minIndex, maxIndex);
+			outX[count] = xs[first];
+			outY[count] = ys[first];
+			count++;
+			if (second != first) {
+				outX[count] = xs[second];
+				outY[count] = ys[second];
+				count++;
+			}
+			i = j;
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the bucket of an x value; values outside the range fall into the
+	 * extra buckets -1 and {@code buckets}.
+	 */
+	private static int bucketOf(double x, double xMin, double scale, int buckets) {
+		if (x < xMin) {
+			return -1;
+		}
+		return (int) Math.min(buckets, (x - xMin) * scale);
+	}
+
+	/**
+	 * Returns the index of the first x not smaller than the value.
+	 */
+	private static int lowerBound(double[] xs, int size, double value) {
+		int low = 0;
+		int high = size;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (xs[middle] < value) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Returns the index of the first x greater than the value.
+	 */
+	private static int upperBound(double[] xs, int size, double value) {
+		int low = 0;
+		int high = size;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (xs[middle] <= value) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+}
@@ -0,0 +1,492 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.utils;
+
+import java.util.Arrays;
+
+/**
+ * Multi-resolution min/max summary (mipmap) of a series ordered by x. Level 0
+ * holds the points; every entry of level k + 1 holds the minimum and maximum
+ * point (value and x) of {@value #FANOUT} consecutive entries of level k.
+ * Entries are completed while points are appended, so the pyramid is always
+ * ready for a query.
+ *
+ * <p>
+ * A query renders any x-range at a given number of buckets (pixel columns)
+ * reading O(buckets * FANOUT * levels) entries, independent of the number of
+ * points in the range. Small ranges are decimated directly from level 0 with
+ * {@link MinMaxDecimator}.
+ * </p>
+ *
+ * <p>
+ * Every level keeps at most {@link #getCapacity()} entries. When a level is
+ * full, its oldest half is dropped; these entries are already summarized by
+ * the level above, which reaches further back. The memory of a series is
+ * therefore bounded by the capacity and the number of levels instead of the
+ * number of points: the latest points stay at full resolution, older ranges
+ * are rendered from the finest level still covering them.
+ * </p>
+ *
+ * @author Veronika Lenková
+ */
+public class MinMaxPyramid {
+
+	/** Number of entries summarized by one entry of the next level */
+	public static final int FANOUT = 8;
+
+	/** Default number of entries kept per level */
+	public static final int DEFAULT_CAPACITY = 1 << 20;
+
+	/** Ranges with up to this many points per bucket are decimated directly */
+	private static final int DIRECT_POINTS_PER_BUCKET = 4 * FANOUT;
+
+	/** Initial number of allocated points */
+	private static final int INITIAL_CAPACITY = 1024;
+
+	/** Largest array length the virtual machine reliably allocates */
+	private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+	/** Maximum number of entries kept per level */
+	private final int capacity;
+
+	/** Point x values (level 0), indexed by point - dropped[0] */
+	private double[] xs;
+
+	/** Point y values (level 0), indexed by point - dropped[0] */
+	private double[] ys;
+
+	/** Number of points */
+	private long size;
+
+	/** x of the first point */
+	private double firstX;
+
+	/** Number of dropped (oldest) entries, indexed by level */
+	private long[] dropped;
+
+	/** Minimum y of the entries, indexed by level - 1, entry - dropped */
+	private double[][] minValues;
+
+	/** x of the minimum y of the entries, indexed by level - 1, entry - dropped */
+	private double[][] minXs;
+
+	/** Maximum y of the entries, indexed by level - 1, entry - dropped */
+	private double[][] maxValues;
+
+	/** x of the maximum y of the entries, indexed by level - 1, entry - dropped */
+	private double[][] maxXs;
+
+	/** Number of entries, indexed by level - 1 */
+	private long[] levelSizes;
+
+	/** Result of {@link #rangeMinMax(int, long, long)}: minimum y */
+	private double foundMin;
+
+	/** Result of {@link #rangeMinMax(int, long, long)}: x of the minimum */
+	private double foundMinX;
+
+	/** Result of {@link #rangeMinMax(int, long, long)}: maximum y */
+	private double foundMax;
+
+	/** Result of {@link #rangeMinMax(int, long, long)}: x of the maximum */
+	private double foundMaxX;
+
+	/**
+	 * Constructor for MinMaxPyramid keeping {@value #DEFAULT_CAPACITY} entries
+	 * per level.
+	 */
+	public MinMaxPyramid() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructor for MinMaxPyramid.
+	 *
+	 * @param capacity The maximum number of entries kept per level.
+	 * @throws IllegalArgumentException If the capacity is smaller than two
+	 *                                  summary entries or too large.
+	 */
+	public MinMaxPyramid(int capacity) {
+		if (capacity < 2 * FANOUT || capacity > MAX_ARRAY_LENGTH) {
+			throw new IllegalArgumentException("Invalid capacity: " + capacity);
+		}
+		this.capacity = capacity;
+		allocate();
+	}
+
+	/**
+	 * Allocates the arrays of an empty pyramid.
+	 */
+	private void allocate() {
+		xs = new double[Math.min(INITIAL_CAPACITY, capacity)];
+		ys = new double[xs.length];
+		size = 0;
+		dropped = new long[1];
+		minValues = new double[0][];
+		minXs = new double[0][];
+		maxValues = new double[0][];
+		maxXs = new double[0][];
+		levelSizes = new long[0];
+	}
+
+	/**
+	 * Appends a point and completes the summary entries it closes.
+	 *
+	 * @param x The x value (not smaller than the previous one).
+	 * @param y The y value.
+	 */
+	public void add(double x, double y) {
+		int index = (int) (size - dropped[0]);
+		if (index == xs.length) {
+			if (index < capacity) {
+				int length = grownLength(index);
+				xs = Arrays.copyOf(xs, length);
+				ys = Arrays.copyOf(ys, length);
+			} else {
+				int removed = dropCount();
+				System.arraycopy(xs, removed, xs, 0, index - removed);
+				System.arraycopy(ys, removed, ys, 0, index - removed);
+				dropped[0] += removed;
+				index -= removed;
+			}
+		}
+		if (size == 0) {
+			firstX = x;
+		}
+		xs[index] = x;
+		ys[index] = y;
+		size++;
+		long count = size;
+		for (int level = 1; count % FANOUT == 0; level++) {
+			count = summarize(level, count / FANOUT - 1);
+		}
+	}
+
+	/**
+	 * Returns the doubled length of a level array, up to the capacity.
+	 */
+	private int grownLength(int length) {
+		return (int) Math.min(2L * length, capacity);
+	}
+
+	/**
+	 * Returns the number of entries dropped from a full level: the oldest half,
+	 * in whole blocks. All but the last {@value #FANOUT} - 1 entries of a level
+	 * are summarized by the level above, so the dropped ones are.
+	 */
+	private int dropCount() {
+		return capacity / (2 * FANOUT) * FANOUT;
+	}
+
+	/**
+	 * Creates the entry of the level summarizing the last {@value #FANOUT} entries
+	 * of the level below.
+	 *
+	 * @return The number of entries of the level.
+	 */
+	private long summarize(int level, long entry) {
+		if (level > levelSizes.length) {
+			addLevel();
+		}
+		int index = level - 1;
+		int slot = (int) (entry - dropped[level]);
+		if (slot == minValues[index].length) {
+			if (slot < capacity) {
+				int length = grownLength(slot);
+				minValues[index] = Arrays.copyOf(minValues[index], length);
+				minXs[index] = Arrays.copyOf(minXs[index], length);
+				maxValues[index] = Arrays.copyOf(maxValues[index], length);
+				maxXs[index] = Arrays.copyOf(maxXs[index], length);
+			} else {
+				int removed = dropCount();
+				System.arraycopy(minValues[index], removed, minValues[index], 0, slot - removed);
+				System.arraycopy(minXs[index], removed, minXs[index], 0, slot - removed);
+				System.arraycopy(maxValues[index], removed, maxValues[index], 0, slot - removed);
+				System.arraycopy(maxXs[index], removed, maxXs[index], 0, slot - removed);
+				dropped[level] += removed;
+				slot -= removed;
+			}
+		}
+		resetFound();
+		for (long i = entry * FANOUT; i < (entry + 1) * FANOUT; i++) {
+			consider(level - 1, i);
+		}
+		minValues[index][slot] = foundMin;
+		minXs[index][slot] = foundMinX;
+		maxValues[index][slot] = foundMax;
+		maxXs[index][slot] = foundMaxX;
+		levelSizes[index] = entry + 1;
+		return entry + 1;
+	}
+
+	/**
+	 * Adds an empty level on top of the pyramid.
+	 */
+	private void addLevel() {
+		int levels = levelSizes.length + 1;
+		minValues = Arrays.copyOf(minValues, levels);
+		minXs = Arrays.copyOf(minXs, levels);
+		maxValues = Arrays.copyOf(maxValues, levels);
+		maxXs = Arrays.copyOf(maxXs, levels);
+		levelSizes = Arrays.copyOf(levelSizes, levels);
+		dropped = Arrays.copyOf(dropped, levels + 1);
+		minValues[levels - 1] = new double[FANOUT];
+		minXs[levels - 1] = new double[FANOUT];
+		maxValues[levels - 1] = new double[FANOUT];
+		maxXs[levels - 1] = new double[FANOUT];
+	}
+
+	/**
+	 * Renders the points lying in the x-range [xMin, xMax] as at most two points
+	 * (the minimum and the maximum, in x order) per bucket. The last point before
+	 * and the first point after the range are added as well, so the lines reach
+	 * the borders of the plot. A range reaching back before the points kept at
+	 * full resolution is rendered from the finest level still covering it.
+	 *
+	 * @param xMin    The start of the x-range.
+	 * @param xMax    The end of the x-range.
+	 * @param buckets The number of buckets (typically the plot width in pixels).
+	 * @param outX    The array for the x values, at least
+	 *                {@link MinMaxDecimator#maxOutputSize(int)} long.
+	 * @param outY    The array for the y values.
+	 * @return The number of points written.
+	 */
+	public int query(double xMin, double xMax, int buckets, double[] outX, double[] outY) {
+		if (buckets < 1) {
+			throw new IllegalArgumentException("Invalid bucket count: " + buckets);
+		}
+		int level = baseLevel(xMin);
+		long first = lowerBound(level, xMin);
+		long end = upperBound(level, xMax);
+		if (level == 0 && end - first <= (long) DIRECT_POINTS_PER_BUCKET * buckets) {
+			return MinMaxDecimator.decimate(xs, ys, (int) (size - dropped[0]), xMin, xMax, buckets, outX, outY);
+		}
+		int count = 0;
+		if (first > dropped[level]) {
+			// the last point of the entry before the range
+			rangeMinMax(level, first - 1, first);
+			boolean minLast = foundMinX > foundMaxX;
+			outX[count] = minLast ? foundMinX : foundMaxX;
+			outY[count] = minLast ? foundMin : foundMax;
+			count++;
+		}
+		double width = (xMax - xMin) / buckets;
+		long start = first;
+		for (int bucket = 0; bucket < buckets && start < end; bucket++) {
+			long stop = bucket == buckets - 1 ? end : Math.min(end, lowerBound(level, xMin + (bucket + 1) * width));
+			if (stop > start) {
+				rangeMinMax(level, start, stop);
+				boolean minFirst = foundMinX <= foundMaxX;
+				outX[count] = minFirst ? foundMinX : foundMaxX;
+				outY[count] = minFirst ? foundMin : foundMax;
+				count++;
+				if (foundMin != foundMax || foundMinX != foundMaxX) {
+					outX[count] = minFirst ? foundMaxX : foundMinX;
+					outY[count] = minFirst ? foundMax : foundMin;
+					count++;
+				}
+				start = stop;
+			}
+		}
+		if (end < entryCount(level)) {
+			// the first point of the entry after the range
+			rangeMinMax(level, end, end + 1);
+			boolean minFirst = foundMinX <= foundMaxX;
+			outX[count] = minFirst ? foundMinX : foundMaxX;
+			outY[count] = minFirst ? foundMin : foundMax;
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the finest level whose kept entries reach back to the value: no
+	 * entry of it is dropped, or an entry before the value is still kept.
+	 */
+	private int baseLevel(double value) {
+		for (int level = 0; level < levelSizes.length; level++) {
+			if (dropped[level] == 0 || entryX(level, dropped[level]) < value) {
+				return level;
+			}
+		}
+		return levelSizes.length;
+	}
+
+	/**
+	 * Finds the minimum and maximum of the entries [from, to) of a level using
+	 * the largest complete summary entries.
+	 */
+	private void rangeMinMax(int level, long from, long to) {
+		resetFound();
+		while (from < to) {
+			while (from < to && from % FANOUT != 0) {
+				consider(level, from++);
+			}
+			while (from < to && to % FANOUT != 0) {
+				consider(level, --to);
+			}
+			from /= FANOUT;
+			to /= FANOUT;
+			level++;
+		}
+	}
+
+	/**
+	 * Clears the result of a search.
+	 */
+	private void resetFound() {
+		foundMin = Double.POSITIVE_INFINITY;
+		foundMax = Double.NEGATIVE_INFINITY;
+	}
+
+	/**
+	 * Includes a kept entry of a level into the result of a search.
+	 */
+	private void consider(int level, long entry) {
+		int slot = (int) (entry - dropped[level]);
+		double min;
+		double minX;
+		double max;
+		double maxX;
+		if (level == 0) {
+			min = max = ys[slot];
+			minX = maxX = xs[slot];
+		} else {
+			min = minValues[level - 1][slot];
+			minX = minXs[level - 1][slot];
+			max = maxValues[level - 1][slot];
+			maxX = maxXs[level - 1][slot];
+		}
+		if (min < foundMin) {
+			foundMin = min;
+			foundMinX = minX;
+		}
+		if (max > foundMax) {
+			foundMax = max;
+			foundMaxX = maxX;
+		}
+	}
+
+	/**
+	 * Returns the number of entries of a level, including the dropped ones.
+	 */
+	private long entryCount(int level) {
+		return level == 0 ? size : levelSizes[level - 1];
+	}
+
+	/**
+	 * Returns the x by which a kept entry of a level is ordered: the point x on
+	 * level 0, the x of its first extreme above.
+	 */
+	private double entryX(int level, long entry) {
+		int slot = (int) (entry - dropped[level]);
+		if (level == 0) {
+			return xs[slot];
+		}
+		return Math.min(minXs[level - 1][slot], maxXs[level - 1][slot]);
+	}
+
+	/**
+	 * Returns the first kept entry of a level with x not smaller than the value.
+	 */
+	private long lowerBound(int level, double value) {
+		long low = dropped[level];
+		long high = entryCount(level);
+		while (low < high) {
+			long middle = (low + high) >>> 1;
+			if (entryX(level, middle) < value) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Returns the first kept entry of a level with x greater than the value.
+	 */
+	private long upperBound(int level, double value) {
+		long low = dropped[level];
+		long high = entryCount(level);
+		while (low < high) {
+			long middle = (low + high) >>> 1;
+			if (entryX(level, middle) <= value) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Returns the number of points appended since the last clear.
+	 *
+	 * @return The number of points.
+	 */
+	public long size() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of points kept at full resolution.
+	 *
+	 * @return The number of latest points kept, at most {@link #getCapacity()}.
+	 */
+	public int getRetainedSize() {
+		return (int) (size - dropped[0]);
+	}
+
+	/**
+	 * Returns the maximum number of entries kept per level.
+	 *
+	 * @return The capacity.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Returns the x value of the first point. The pyramid must not be empty.
+	 *
+	 * @return The first x value.
+	 */
+	public double getFirstX() {
+		return firstX;
+	}
+
+	/**
+	 * Returns the x value of the last point. The pyramid must not be empty.
+	 *
+	 * @return The last x value.
+	 */
+	public double getLastX() {
+		return xs[getRetainedSize() - 1];
+	}
+
+	/**
+	 * Returns the y value of the last point. The pyramid must not be empty.
+	 *
+	 * @return The last y value.
+	 */
+	public double getLastY() {
+		return ys[getRetainedSize() - 1];
+	}
+
+	/**
+	 * Returns the number of summary levels above the points.
+	 *
+	 * @return The number of levels.
+	 */
+	public int getLevelCount() {
+		return levelSizes.length;
+	}
+
+	/**
+	 * Removes all points and summaries and releases the grown arrays.
+	 */
+	public void clear() {
+		allocate();
+	}
+
+}
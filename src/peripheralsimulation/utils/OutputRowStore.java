@@ -0,0 +1,246 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.utils;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Compact in-memory ring of output rows (time and selected outputs) backing
+ * the virtual simulation table. Times are kept in a {@code double[]} and the
+ * values row by row in an {@code int[]}, so a row costs 8 + 4 * columns bytes
+ * instead of a widget and its strings. Boolean outputs are stored as 1/0 and
+ * shown as true/false again; null outputs are marked per cell and shown empty.
+ *
+ * <p>
+ * The store keeps the last {@link #getCapacity()} rows: once it is full, each
+ * added row replaces the oldest one, so the memory of a run does not depend on
+ * its length. Row 0 is always the oldest row kept.
+ * </p>
+ *
+ * @author Veronika Lenková
+ */
+public class OutputRowStore {
+
+	/** Default number of rows kept */
+	public static final int DEFAULT_CAPACITY = 100_000;
+
+	/** Initial number of allocated rows */
+	private static final int INITIAL_ROWS = 1024;
+
+	/** Largest array length the virtual machine reliably allocates */
+	private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+	/** Number of value columns */
+	private final int columns;
+
+	/** Maximum number of rows kept */
+	private final int capacity;
+
+	/** Whether a column holds boolean outputs, indexed by column */
+	private final boolean[] booleanColumns;
+
+	/** Row times, indexed by slot */
+	private double[] times;
+
+	/** Row values, indexed by slot * columns + column */
+	private int[] values;
+
+	/** Cells (slot * columns + column) holding a null output */
+	private BitSet nullCells;
+
+	/** Slot of the oldest row */
+	private int start;
+
+	/** Number of rows */
+	private int size;
+
+	/** Number of rows replaced by newer ones since the last clear */
+	private long evictedCount;
+
+	/**
+	 * Constructor for OutputRowStore keeping the last
+	 * {@value #DEFAULT_CAPACITY} rows.
+	 *
+	 * @param columns The number of value columns.
+	 * @throws IllegalArgumentException If the number of columns is negative or
+	 *                                  too large.
+	 */
+	public OutputRowStore(int columns) {
+		this(columns, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructor for OutputRowStore.
+	 *
+	 * @param columns  The number of value columns.
+	 * @param capacity The maximum number of rows kept.
+	 * @throws IllegalArgumentException If the number of columns is negative or
+	 *                                  the values of all rows do not fit into
+	 *                                  one array.
+	 */
+	public OutputRowStore(int columns, int capacity) {
+		if (columns < 0) {
+			throw new IllegalArgumentException("Invalid column count: " + columns);
+		}
+		if (capacity < 1 || (long) capacity * columns > MAX_ARRAY_LENGTH) {
+			throw new IllegalArgumentException("Invalid capacity: " + capacity + " rows of " + columns + " outputs");
+		}
+		this.columns = columns;
+		this.capacity = capacity;
+		this.booleanColumns = new boolean[columns];
+		allocate();
+	}
+
+	/**
+	 * Allocates the arrays of an empty store.
+	 */
+	private void allocate() {
+		int rows = Math.min(INITIAL_ROWS, capacity);
+		times = new double[rows];
+		values = new int[rows * columns];
+		nullCells = new BitSet();
+	}
+
+	/**
+	 * Appends a row with the selected outputs. If the store is full, the oldest
+	 * row is replaced.
+	 *
+	 * @param time          The row time.
+	 * @param outputs       All outputs of the peripheral model.
+	 * @param outputIndices The indices of the outputs stored in the columns.
+	 */
+	public void add(double time, Object[] outputs, int[] outputIndices) {
+		int slot;
+		if (size < capacity) {
+			if (size == times.length) {
+				grow();
+			}
+			slot = size++;
+		} else {
+			slot = start;
+			start = start + 1 == capacity ? 0 : start + 1;
+			evictedCount++;
+		}
+		times[slot] = time;
+		int offset = slot * columns;
+		for (int column = 0; column < columns; column++) {
+			Object output = outputs[outputIndices[column]];
+			nullCells.set(offset + column, output == null);
+			if (output instanceof Boolean b) {
+				booleanColumns[column] = true;
+				values[offset + column] = b ? 1 : 0;
+			} else {
+				values[offset + column] = output instanceof Number n ? n.intValue() : 0;
+			}
+		}
+	}
+
+	/**
+	 * Doubles the allocated rows, up to the capacity. Only called before the
+	 * store is full, so the rows are still in slot order.
+	 */
+	private void grow() {
+		int rows = (int) Math.min(2L * times.length, capacity);
+		times = Arrays.copyOf(times, rows);
+		values = Arrays.copyOf(values, rows * columns);
+	}
+
+	/**
+	 * Returns the slot of a row.
+	 */
+	private int slot(int row) {
+		if (row < 0 || row >= size) {
+			throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+		}
+		int slot = start + row;
+		return slot >= capacity ? slot - capacity : slot;
+	}
+
+	/**
+	 * Returns the time of a row.
+	 *
+	 * @param row The row index (0 = oldest row kept).
+	 * @return The time.
+	 */
+	public double getTime(int row) {
+		return times[slot(row)];
+	}
+
+	/**
+	 * Returns a value of a row.
+	 *
+	 * @param row    The row index (0 = oldest row kept).
+	 * @param column The column index.
+	 * @return The value (1/0 for boolean outputs, 0 for a null output).
+	 */
+	public int getValue(int row, int column) {
+		return values[slot(row) * columns + column];
+	}
+
+	/**
+	 * Returns a value of a row as displayed text.
+	 *
+	 * @param row    The row index (0 = oldest row kept).
+	 * @param column The column index.
+	 * @return The value as text (true/false for boolean outputs, empty for a null
+	 *         output).
+	 */
+	public String getText(int row, int column) {
+		int cell = slot(row) * columns + column;
+		if (nullCells.get(cell)) {
+			return "";
+		}
+		if (booleanColumns[column]) {
+			return values[cell] != 0 ? "true" : "false";
+		}
+		return Integer.toString(values[cell]);
+	}
+
+	/**
+	 * Returns the number of rows.
+	 *
+	 * @return The number of rows kept, at most {@link #getCapacity()}.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the maximum number of rows kept.
+	 *
+	 * @return The capacity.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Returns the number of rows replaced by newer ones since the last clear.
+	 *
+	 * @return The number of evicted rows.
+	 */
+	public long getEvictedCount() {
+		return evictedCount;
+	}
+
+	/**
+	 * Returns the number of value columns.
+	 *
+	 * @return The number of columns.
+	 */
+	public int getColumnCount() {
+		return columns;
+	}
+
+	/**
+	 * Removes all rows and releases the grown arrays.
+	 */
+	public void clear() {
+		start = 0;
+		size = 0;
+		evictedCount = 0;
+		allocate();
+		Arrays.fill(booleanColumns, false);
+	}
+
+}
@@ -0,0 +1,39 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.utils;
+
+/**
+ * Enum representing what a {@link SampleRingBuffer} does when the producer
+ * finds it full.
+ * <p>
+ * The policy of the buffer between the simulation and the UI is selected in
+ * the YAML preferences block (key {@code uiOverflow}).
+ * </p>
+ *
+ * @author Veronika Lenková
+ */
+public enum OverflowPolicy {
+
+	/** The producer waits until the consumer frees a slot (no sample is lost) */
+	BLOCK("Block"),
+
+	/** The sample is dropped and counted, the producer never waits */
+	DROP("Drop");
+
+	/** The display name of the policy */
+	private final String displayName;
+
+	/**
+	 * Constructor for OverflowPolicy enum.
+	 *
+	 * @param displayName the display name of the policy
+	 */
+	OverflowPolicy(String displayName) {
+		this.displayName = displayName;
+	}
+
+	@Override
+	public String toString() {
+		return displayName;
+	}
+
+}
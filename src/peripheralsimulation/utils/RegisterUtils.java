@@ -6,11 +6,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
-
-import org.eclipse.jface.dialogs.MessageDialog;
-import org.eclipse.swt.SWT;
-import org.eclipse.swt.widgets.Display;
-import org.eclipse.swt.widgets.FileDialog;
+import java.util.stream.Stream;
 
 import peripheralsimulation.model.Peripheral;
 import peripheralsimulation.model.flexio.FlexIOConfig;
@@ -34,26 +30,20 @@ public class RegisterUtils {
 	}
 
 	/**
-	 * Loads FlexIO registers from a CSV file and returns them as a map (register
-	 * name -> register value).
+	 * Loads registers from a CSV file (lines {@code NAME,0xVALUE}) and returns them
+	 * as a map (register name -> register value). Blank and malformed lines are
+	 * skipped.
 	 *
+	 * @param file The CSV file to load.
 	 * @return Map of register names and their values.
+	 * @throws IOException           If the file cannot be read.
+	 * @throws NumberFormatException If a register value is not a hexadecimal
+	 *                               number.
 	 */
-	public static Map<String, Integer> loadRegistersFromCsv() {
-
+	public static Map<String, Integer> loadRegistersFromCsv(Path file) throws IOException {
 		Map<String, Integer> map = new HashMap<>();
-
-		FileDialog importDialog = new FileDialog(Display.getCurrent().getActiveShell(), SWT.OPEN);
-		importDialog.setText("Import registers from CSV file");
-		importDialog.setFilterExtensions(new String[] { "*.csv", "*.*" });
-
-		String file = importDialog.open();
-		if (file == null) { // user canceled the dialog
-			return map; // empty map
-		}
-
-		try {
-			Files.lines(Path.of(file)).filter(line -> !line.isBlank()).forEach(line -> {
+		try (Stream<String> lines = Files.lines(file)) {
+			lines.filter(line -> !line.isBlank()).forEach(line -> {
 				String[] parts = line.split(",", 2);
 				if (parts.length != 2)
 					return;
@@ -62,14 +52,7 @@ public class RegisterUtils {
 				int regValue = (int) Long.parseLong(hexValue, 16);
 				map.put(regName, regValue);
 			});
-			MessageDialog.openInformation(Display.getCurrent().getActiveShell(), "Import Successful",
-					"The registers were successfully imported.");
-
-		} catch (IOException | NumberFormatException ex) {
-			MessageDialog.openError(Display.getCurrent().getActiveShell(), "Error during import",
-					"CSV file could not be loaded.\n" + ex.getMessage());
 		}
-
 		return map;
 	}
 
@@ -82,12 +65,7 @@ public class RegisterUtils {
 	public static RegisterMap convertToRegisterMap(Map<String, Integer> map, Peripheral peripheralType) {
 		Map<Integer, Integer> registerMap = new HashMap<>();
 		for (Map.Entry<String, Integer> entry : map.entrySet()) {
-			int offset = -1;
-			if (peripheralType == Peripheral.SYSTICKTIMER) {
-				offset = SysTickTimerConfig.getRegisterOffset(entry.getKey());
-			} else if (peripheralType == Peripheral.FLEXIO) {
-				offset = FlexIOConfig.getRegisterOffset(entry.getKey());
-			}
+			int offset = getRegisterOffset(entry.getKey(), peripheralType);
 			if (offset != -1) {
 				registerMap.put(offset, entry.getValue());
 			}
@@ -95,4 +73,20 @@ public class RegisterUtils {
 		return new RegisterMap(registerMap);
 	}
 
+	/**
+	 * Returns the offset of a register of the peripheral.
+	 *
+	 * @param name           The register name (e.g. {@code SYST_RVR}).
+	 * @param peripheralType The peripheral.
+	 * @return The register offset, or -1 if the peripheral has no such register.
+	 */
+	public static int getRegisterOffset(String name, Peripheral peripheralType) {
+		if (peripheralType == Peripheral.SYSTICKTIMER) {
+			return SysTickTimerConfig.getRegisterOffset(name);
+		} else if (peripheralType == Peripheral.FLEXIO) {
+			return FlexIOConfig.getRegisterOffset(name);
+		}
+		return -1;
+	}
+
 }
@@ -0,0 +1,213 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded single-producer/single-consumer ring buffer of output samples (time
+ * and primitive output values). The simulation thread offers samples, the UI
+ * thread drains them in batches; the values are copied into preallocated
+ * slots, so no locks are taken and nothing is allocated per sample.
+ * When the buffer is full, the {@link OverflowPolicy} decides whether the
+ * producer waits or the sample is dropped and counted.
+ *
+ * <p>
+ * Exactly one thread may call {@link #offer(double, long[])} and exactly one
+ * (possibly other) thread may call {@link #drain(SampleConsumer, int)}.
+ * </p>
+ *
+ * @author Veronika Lenková
+ */
+public class SampleRingBuffer {
+
+	/** Number of busy-wait rounds of a blocked producer before it parks */
+	private static final int SPIN_ROUNDS = 100;
+
+	/** Time a blocked producer parks between checks, in nanoseconds */
+	private static final long PARK_NANOS = 100_000;
+
+	/**
+	 * Receiver of drained samples.
+	 */
+	@FunctionalInterface
+	public interface SampleConsumer {
+
+		/**
+		 * Accepts one sample.
+		 *
+		 * @param time   The simulation time in seconds.
+		 * @param values The output values (reused by the buffer, copy them to
+		 *               keep them).
+		 */
+		void accept(double time, long[] values);
+	}
+
+	/** Sample times, indexed by slot */
+	private final double[] times;
+
+	/** Sample values, indexed by slot * channels + channel */
+	private final long[] values;
+
+	/** Number of values of a sample */
+	private final int channels;
+
+	/** The values of the drained sample (reused, consumer only) */
+	private final long[] drained;
+
+	/** Mask of the slot index (capacity is a power of two) */
+	private final int mask;
+
+	/** What to do when the buffer is full */
+	private final OverflowPolicy policy;
+
+	/** Sequence of the next sample to read (written by the consumer only) */
+	private final AtomicLong head = new AtomicLong();
+
+	/** Sequence of the next sample to write (written by the producer only) */
+	private final AtomicLong tail = new AtomicLong();
+
+	/** Last head seen by the producer (saves reading the shared head) */
+	private long cachedHead;
+
+	/** Number of dropped samples (written by the producer only) */
+	private volatile long droppedCount;
+
+	/** Set when the consumer stops; offers are then dropped */
+	private volatile boolean closed;
+
+	/**
+	 * Constructor for SampleRingBuffer.
+	 *
+	 * @param capacity The maximum number of buffered samples (rounded up to a
+	 *                 power of two).
+	 * @param channels The number of values of a sample.
+	 * @param policy   What to do when the buffer is full.
+	 */
+	public SampleRingBuffer(int capacity, int channels, OverflowPolicy policy) {
+		if (capacity < 1 || capacity > (1 << 30)) {
+			throw new IllegalArgumentException("Invalid capacity: " + capacity);
+		}
+		int size = Integer.highestOneBit(capacity);
+		if (size < capacity) {
+			size <<= 1;
+		}
+		if (channels < 0 || (long) size * channels > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("Invalid channel count: " + channels);
+		}
+		this.times = new double[size];
+		this.values = new long[size * channels];
+		this.channels = channels;
+		this.drained = new long[channels];
+		this.mask = size - 1;
+		this.policy = policy;
+	}
+
+	/**
+	 * Adds a sample (producer thread only). If the buffer is full, the sample is
+	 * dropped with {@link OverflowPolicy#DROP}, otherwise the call waits until
+	 * the consumer frees a slot or the buffer is closed. Samples offered to a
+	 * closed buffer are dropped.
+	 *
+	 * @param time   The simulation time in seconds.
+	 * @param sample The output values (copied, the array can be reused).
+	 * @return true if the sample was added, false if it was dropped.
+	 */
+	public boolean offer(double time, long[] sample) {
+		if (closed) {
+			droppedCount++;
+			return false;
+		}
+		long sequence = tail.get();
+		if (sequence - cachedHead > mask) {
+			cachedHead = head.get();
+			int rounds = 0;
+			while (sequence - cachedHead > mask) {
+				if (closed || policy == OverflowPolicy.DROP) {
+					droppedCount++;
+					return false;
+				}
+				if (rounds++ < SPIN_ROUNDS) {
+					Thread.onSpinWait();
+				} else {
+					LockSupport.parkNanos(PARK_NANOS);
+				}
+				cachedHead = head.get();
+			}
+		}
+		int slot = (int) sequence & mask;
+		times[slot] = time;
+		System.arraycopy(sample, 0, values, slot * channels, channels);
+		// publishes the slot to the consumer
+		tail.lazySet(sequence + 1);
+		return true;
+	}
+
+	/**
+	 * Passes buffered samples to the consumer in the order in which they were
+	 * offered (consumer thread only). The consumer gets the values of every
+	 * sample in the same reused array.
+	 *
+	 * @param consumer   The receiver of the samples.
+	 * @param maxSamples The maximum number of samples to drain.
+	 * @return The number of drained samples.
+	 */
+	public int drain(SampleConsumer consumer, int maxSamples) {
+		long first = head.get();
+		int count = (int) Math.min(tail.get() - first, maxSamples);
+		for (int i = 0; i < count; i++) {
+			int slot = (int) (first + i) & mask;
+			System.arraycopy(values, slot * channels, drained, 0, channels);
+			consumer.accept(times[slot], drained);
+		}
+		// frees the slots for the producer
+		head.lazySet(first + count);
+		return count;
+	}
+
+	/**
+	 * Returns true if no sample is buffered.
+	 *
+	 * @return true if the buffer is empty.
+	 */
+	public boolean isEmpty() {
+		return tail.get() == head.get();
+	}
+
+	/**
+	 * Returns the number of buffered samples.
+	 *
+	 * @return The number of samples.
+	 */
+	public int size() {
+		return (int) (tail.get() - head.get());
+	}
+
+	/**
+	 * Returns the maximum number of buffered samples.
+	 *
+	 * @return The capacity.
+	 */
+	public int getCapacity() {
+		return mask + 1;
+	}
+
+	/**
+	 * Returns the number of samples dropped because the buffer was full or
+	 * closed.
+	 *
+	 * @return The number of dropped samples.
+	 */
+	public long getDroppedCount() {
+		return droppedCount;
+	}
+
+	/**
+	 * Stops accepting samples: a waiting producer returns and further offers
+	 * are dropped. Called when the consumer goes away.
+	 */
+	public void close() {
+		closed = true;
+	}
+
+}
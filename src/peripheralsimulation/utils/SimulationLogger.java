@@ -0,0 +1,292 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.utils;
+
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Leveled asynchronous logger. Messages at or above the global level are
+ * queued by the calling thread and written in batches by a daemon writer
+ * thread, so the simulation thread never waits for the console. When the queue
+ * is full, messages are dropped and their number is reported.
+ *
+ * <p>
+ * The level is {@link LogLevel#INFO} by default and can be set with
+ * {@link #setLevel(LogLevel)} or the system property {@value #LEVEL_PROPERTY}.
+ * Hot paths should check {@link #isTraceEnabled()} before building a message.
+ * </p>
+ *
+ * @author Veronika Lenková
+ */
+public final class SimulationLogger {
+
+	/** System property with the initial level (e.g. TRACE) */
+	public static final String LEVEL_PROPERTY = "peripheralsimulation.logLevel";
+
+	/** Maximum number of queued messages */
+	private static final int QUEUE_CAPACITY = 8192;
+
+	/** Maximum number of messages written at once */
+	private static final int BATCH_SIZE = 256;
+
+	/** Queued messages (formatted lines) */
+	private static final BlockingQueue<String> QUEUE = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+	/** Number of queued messages since the start */
+	private static final AtomicLong ENQUEUED = new AtomicLong();
+
+	/** Number of written messages since the start */
+	private static final AtomicLong WRITTEN = new AtomicLong();
+
+	/** Number of dropped messages not reported yet */
+	private static final AtomicLong DROPPED = new AtomicLong();
+
+	/** Current level */
+	private static volatile LogLevel level = initialLevel();
+
+	/** Stream the messages are written to */
+	private static volatile PrintStream output = System.out;
+
+	/**
+	 * The writer thread, started with the first message. Read without the lock,
+	 * so the lock is only taken until the thread is started.
+	 */
+	private static volatile Thread writer;
+
+	/** Prefix of the messages of this logger */
+	private final String prefix;
+
+	/**
+	 * Constructor for SimulationLogger.
+	 *
+	 * @param name The name shown with the messages.
+	 */
+	private SimulationLogger(String name) {
+		this.prefix = " [" + name + "] ";
+	}
+
+	/**
+	 * Returns a logger named after the class.
+	 *
+	 * @param type The class using the logger.
+	 * @return The logger.
+	 */
+	public static SimulationLogger getLogger(Class<?> type) {
+		return new SimulationLogger(type.getSimpleName());
+	}
+
+	/**
+	 * Reads the initial level from the system property.
+	 */
+	private static LogLevel initialLevel() {
+		String property = System.getProperty(LEVEL_PROPERTY);
+		if (property == null) {
+			return LogLevel.INFO;
+		}
+		try {
+			return LogLevel.valueOf(property.trim().toUpperCase());
+		} catch (IllegalArgumentException e) {
+			return LogLevel.INFO;
+		}
+	}
+
+	/**
+	 * Sets the global level; messages below it are discarded by the caller.
+	 *
+	 * @param newLevel The new level.
+	 */
+	public static void setLevel(LogLevel newLevel) {
+		level = newLevel;
+	}
+
+	/**
+	 * Returns the global level.
+	 *
+	 * @return The level.
+	 */
+	public static LogLevel getLevel() {
+		return level;
+	}
+
+	/**
+	 * Sets the stream the messages are written to (System.out by default).
+	 *
+	 * @param stream The stream.
+	 */
+	public static void setOutput(PrintStream stream) {
+		output = stream;
+	}
+
+	/**
+	 * Waits until all queued messages are written (or the timeout elapses).
+	 *
+	 * @param timeoutMillis The maximum time to wait in milliseconds.
+	 * @return true if all messages were written.
+	 */
+	public static boolean flush(long timeoutMillis) {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+		long target = ENQUEUED.get();
+		while (WRITTEN.get() < target) {
+			if (System.nanoTime() > deadline) {
+				return false;
+			}
+			try {
+				Thread.sleep(1);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns true if messages of the level are written.
+	 *
+	 * @param messageLevel The level of the message.
+	 * @return true if the level is enabled.
+	 */
+	public boolean isEnabled(LogLevel messageLevel) {
+		return messageLevel != LogLevel.OFF && messageLevel.compareTo(level) >= 0;
+	}
+
+	/**
+	 * Returns true if trace messages are written.
+	 *
+	 * @return true if the trace level is enabled.
+	 */
+	public boolean isTraceEnabled() {
+		return isEnabled(LogLevel.TRACE);
+	}
+
+	/**
+	 * Logs a trace message (e.g. every chart value change). Check
+	 * {@link #isTraceEnabled()} before building an expensive message.
+	 *
+	 * @param message The message.
+	 */
+	public void trace(String message) {
+		log(LogLevel.TRACE, message, null);
+	}
+
+	/**
+	 * Logs a debug message, such as the lifecycle of the engine.
+	 *
+	 * @param message The message.
+	 */
+	public void debug(String message) {
+		log(LogLevel.DEBUG, message, null);
+	}
+
+	/**
+	 * Logs an informational message for the user.
+	 *
+	 * @param message The message.
+	 */
+	public void info(String message) {
+		log(LogLevel.INFO, message, null);
+	}
+
+	/**
+	 * Logs a warning about a recoverable problem.
+	 *
+	 * @param message The message.
+	 */
+	public void warn(String message) {
+		log(LogLevel.WARN, message, null);
+	}
+
+	/**
+	 * Logs an error.
+	 *
+	 * @param message The message.
+	 */
+	public void error(String message) {
+		log(LogLevel.ERROR, message, null);
+	}
+
+	/**
+	 * Logs an error with the stack trace of its cause.
+	 *
+	 * @param message The message.
+	 * @param error   The cause of the error.
+	 */
+	public void error(String message, Throwable error) {
+		log(LogLevel.ERROR, message, error);
+	}
+
+	/**
+	 * Queues the message if its level is enabled.
+	 */
+	private void log(LogLevel messageLevel, String message, Throwable error) {
+		if (!isEnabled(messageLevel)) {
+			return;
+		}
+		String line = messageLevel + prefix + message;
+		if (error != null) {
+			StringWriter trace = new StringWriter();
+			error.printStackTrace(new PrintWriter(trace));
+			line += System.lineSeparator() + trace;
+		}
+		if (writer == null) {
+			startWriter();
+		}
+		if (QUEUE.offer(line)) {
+			ENQUEUED.incrementAndGet();
+		} else {
+			DROPPED.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Starts the writer thread if no other thread started it meanwhile.
+	 */
+	private static synchronized void startWriter() {
+		if (writer != null) {
+			return;
+		}
+		Thread thread = new Thread(SimulationLogger::writeMessages, "SimulationLogger");
+		thread.setDaemon(true);
+		thread.start();
+		writer = thread;
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> flush(1000)));
+	}
+
+	/**
+	 * Body of the writer thread: writes the queued messages in batches.
+	 */
+	private static void writeMessages() {
+		List<String> batch = new ArrayList<>(BATCH_SIZE);
+		StringBuilder text = new StringBuilder();
+		while (true) {
+			try {
+				batch.add(QUEUE.take());
+			} catch (InterruptedException e) {
+				return;
+			}
+			QUEUE.drainTo(batch, BATCH_SIZE - 1);
+			for (String line : batch) {
+				text.append(line).append(System.lineSeparator());
+			}
+			long dropped = DROPPED.getAndSet(0);
+			if (dropped > 0) {
+				text.append(LogLevel.WARN).append(" [SimulationLogger] ").append(dropped)
+						.append(" messages dropped (queue full)").append(System.lineSeparator());
+			}
+			PrintStream stream = output;
+			stream.print(text);
+			stream.flush();
+			WRITTEN.addAndGet(batch.size());
+			batch.clear();
+			text.setLength(0);
+		}
+	}
+
+}
@@ -0,0 +1,68 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.utils.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import peripheralsimulation.utils.MinMaxDecimator;
+
+/**
+ * Test class for {@link MinMaxDecimator}.
+ *
+ * @author Veronika Lenková
+ */
+public class MinMaxDecimatorTest {
+
+	/**
+	 * A long series is reduced to at most two points per bucket, and the minimum
+	 * and maximum of every bucket (here a one-sample spike) are kept.
+	 */
+	@Test
+	public void testSpikesSurviveDecimation() {
+		int size = 1_000_000;
+		double[] xs = new double[size];
+		double[] ys = new double[size];
+		for (int i = 0; i < size; i++) {
+			xs[i] = i;
+			ys[i] = i == 123_457 ? 10 : (i == 876_543 ? -10 : i % 2);
+		}
+		int buckets = 500;
+		double[] outX = new double[MinMaxDecimator.maxOutputSize(buckets)];
+		double[] outY = new double[outX.length];
+		int count = MinMaxDecimator.decimate(xs, ys, size, 0, size - 1, buckets, outX, outY);
+
+		assertTrue("At most two points per bucket", count <= MinMaxDecimator.maxOutputSize(buckets));
+		boolean high = false;
+		boolean low = false;
+		for (int i = 0; i < count; i++) {
+			high |= outY[i] == 10 && outX[i] == 123_457;
+			low |= outY[i] == -10 && outX[i] == 876_543;
+			if (i > 0) {
+				assertTrue("Points stay in order", outX[i] >= outX[i - 1]);
+			}
+		}
+		assertTrue("Maximum is kept", high);
+		assertTrue("Minimum is kept", low);
+	}
+
+	/**
+	 * A short series is passed through, limited to the range and its direct
+	 * neighbours.
+	 */
+	@Test
+	public void testShortSeriesIsCopied() {
+		double[] xs = { 0, 1, 2, 3, 4, 5, 6 };
+		double[] ys = { 0, 1, 0, 1, 0, 1, 0 };
+		double[] outX = new double[MinMaxDecimator.maxOutputSize(100)];
+		double[] outY = new double[outX.length];
+		int count = MinMaxDecimator.decimate(xs, ys, xs.length, 2, 4, 100, outX, outY);
+		assertEquals(5, count);
+		assertArrayEquals(new double[] { 1, 2, 3, 4, 5 }, Arrays.copyOf(outX, count), 0);
+	}
+
+}
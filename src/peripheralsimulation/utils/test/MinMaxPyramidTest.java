@@ -0,0 +1,151 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.utils.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import peripheralsimulation.utils.MinMaxDecimator;
+import peripheralsimulation.utils.MinMaxPyramid;
+
+/**
+ * Test class for {@link MinMaxPyramid}.
+ *
+ * @author Veronika Lenková
+ */
+public class MinMaxPyramidTest {
+
+	/**
+	 * For any range, the rendered points of each bucket must have the same
+	 * minimum and maximum as the raw points of that bucket.
+	 */
+	@Test
+	public void testQueryMatchesRawMinMax() {
+		Random random = new Random(5);
+		int size = 100_000;
+		double[] xs = new double[size];
+		double[] ys = new double[size];
+		MinMaxPyramid pyramid = new MinMaxPyramid();
+		double x = 0;
+		for (int i = 0; i < size; i++) {
+			x += random.nextInt(4);
+			xs[i] = x;
+			ys[i] = random.nextInt(1000);
+			pyramid.add(xs[i], ys[i]);
+		}
+		assertTrue("Summary levels are built", pyramid.getLevelCount() >= 5);
+
+		int buckets = 300;
+		double[] outX = new double[MinMaxDecimator.maxOutputSize(buckets)];
+		double[] outY = new double[outX.length];
+		for (int round = 0; round < 8; round++) {
+			double lower = random.nextDouble() * x / 2;
+			double upper = lower + random.nextDouble() * x / 2;
+			int count = pyramid.query(lower, upper, buckets, outX, outY);
+			assertTrue(count <= outX.length);
+
+			double width = (upper - lower) / buckets;
+			for (int bucket = 0; bucket < buckets; bucket++) {
+				double from = lower + bucket * width;
+				double to = bucket == buckets - 1 ? Double.POSITIVE_INFINITY : lower + (bucket + 1) * width;
+				double rawMin = Double.POSITIVE_INFINITY;
+				double rawMax = Double.NEGATIVE_INFINITY;
+				for (int i = 0; i < size; i++) {
+					if (xs[i] >= from && xs[i] < to && xs[i] <= upper) {
+						rawMin = Math.min(rawMin, ys[i]);
+						rawMax = Math.max(rawMax, ys[i]);
+					}
+				}
+				double min = Double.POSITIVE_INFINITY;
+				double max = Double.NEGATIVE_INFINITY;
+				for (int i = 0; i < count; i++) {
+					if (outX[i] >= from && outX[i] < to && outX[i] <= upper) {
+						min = Math.min(min, outY[i]);
+						max = Math.max(max, outY[i]);
+					}
+				}
+				assertEquals(rawMin, min, 0);
+				assertEquals(rawMax, max, 0);
+			}
+		}
+	}
+
+	/**
+	 * A zoomed-in range with few points returns them unchanged.
+	 */
+	@Test
+	public void testSmallRangeReturnsRawPoints() {
+		MinMaxPyramid pyramid = new MinMaxPyramid();
+		for (int i = 0; i < 10_000; i++) {
+			pyramid.add(i, i % 2);
+		}
+		double[] outX = new double[MinMaxDecimator.maxOutputSize(100)];
+		double[] outY = new double[outX.length];
+		int count = pyramid.query(5_000, 5_009, 100, outX, outY);
+		assertEquals(12, count);
+		assertEquals(4_999, outX[0], 0);
+		assertEquals(5_010, outX[count - 1], 0);
+		pyramid.clear();
+		assertEquals(0, pyramid.query(0, 1, 100, outX, outY));
+	}
+
+	/**
+	 * A full level drops its oldest entries: the memory stays bounded, the
+	 * latest points are kept at full resolution, and older ranges are rendered
+	 * from real points of the coarser levels, with the minimum and maximum of
+	 * all points in the whole range.
+	 */
+	@Test
+	public void testBoundedLevelsKeepSummaries() {
+		Random random = new Random(7);
+		int size = 100_000;
+		double[] ys = new double[size];
+		MinMaxPyramid pyramid = new MinMaxPyramid(64);
+		for (int i = 0; i < size; i++) {
+			ys[i] = random.nextInt(1000);
+			pyramid.add(i, ys[i]);
+		}
+		assertEquals(size, pyramid.size());
+		assertTrue("Points are dropped", pyramid.getRetainedSize() <= 64);
+		assertEquals(0, pyramid.getFirstX(), 0);
+		assertEquals(size - 1, pyramid.getLastX(), 0);
+		assertEquals(ys[size - 1], pyramid.getLastY(), 0);
+
+		int buckets = 100;
+		double[] outX = new double[MinMaxDecimator.maxOutputSize(buckets)];
+		double[] outY = new double[outX.length];
+		// the latest points are returned unchanged
+		int count = pyramid.query(size - 30, size - 1, buckets, outX, outY);
+		assertEquals(31, count);
+		for (int i = 0; i < count; i++) {
+			assertEquals(size - 31 + i, outX[i], 0);
+			assertEquals(ys[size - 31 + i], outY[i], 0);
+		}
+
+		// the whole range has the minimum and maximum of all points
+		count = pyramid.query(0, size - 1, buckets, outX, outY);
+		assertTrue(count <= outX.length);
+		double min = Double.POSITIVE_INFINITY;
+		double max = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < count; i++) {
+			min = Math.min(min, outY[i]);
+			max = Math.max(max, outY[i]);
+		}
+		assertEquals(Arrays.stream(ys).min().getAsDouble(), min, 0);
+		assertEquals(Arrays.stream(ys).max().getAsDouble(), max, 0);
+
+		for (double[] range : new double[][] { { 1_000, 2_000 }, { 50_000, 99_990 } }) {
+			count = pyramid.query(range[0], range[1], buckets, outX, outY);
+			assertTrue("The range is drawn", count > 0);
+			for (int i = 0; i < count; i++) {
+				assertEquals("A real point", ys[(int) outX[i]], outY[i], 0);
+				assertTrue("In x order", i == 0 || outX[i - 1] <= outX[i]);
+			}
+		}
+	}
+
+}
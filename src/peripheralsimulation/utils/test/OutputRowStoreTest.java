@@ -0,0 +1,94 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.utils.test;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import peripheralsimulation.utils.OutputRowStore;
+
+/**
+ * Test class for {@link OutputRowStore}.
+ *
+ * @author Veronika Lenková
+ */
+public class OutputRowStoreTest {
+
+	/**
+	 * Rows keep the selected outputs in column order, also after the arrays
+	 * have grown, and boolean outputs are shown as true/false.
+	 */
+	@Test
+	public void testRowsKeepSelectedOutputs() {
+		OutputRowStore rows = new OutputRowStore(2);
+		int[] selected = { 2, 0 };
+		for (int i = 0; i < 5_000; i++) {
+			rows.add(i * 0.5, new Object[] { i, "ignored", i % 3 == 0 }, selected);
+		}
+		assertEquals(5_000, rows.size());
+		assertEquals(2_000.0, rows.getTime(4_000), 0);
+		assertEquals(1, rows.getValue(3_999, 0));
+		assertEquals(3_999, rows.getValue(3_999, 1));
+		assertEquals("true", rows.getText(3_999, 0));
+		assertEquals("false", rows.getText(4_000, 0));
+		assertEquals("4000", rows.getText(4_000, 1));
+	}
+
+	/**
+	 * A null output must be shown as an empty cell, not as 0.
+	 */
+	@Test
+	public void testNullOutputShownEmpty() {
+		OutputRowStore rows = new OutputRowStore(2);
+		rows.add(1.0, new Object[] { null, 0 }, new int[] { 0, 1 });
+		rows.add(2.0, new Object[] { 5, null }, new int[] { 0, 1 });
+		assertEquals("", rows.getText(0, 0));
+		assertEquals("0", rows.getText(0, 1));
+		assertEquals("5", rows.getText(1, 0));
+		assertEquals("", rows.getText(1, 1));
+	}
+
+	/**
+	 * A run much longer than the capacity keeps only the last rows, oldest
+	 * first, and never allocates more rows than the capacity.
+	 */
+	@Test
+	public void testLongRunStaysWithinCapacity() {
+		OutputRowStore rows = new OutputRowStore(2, 1_000);
+		int[] selected = { 0, 1 };
+		Object[] outputs = new Object[2];
+		for (int i = 0; i < 10_000_000; i++) {
+			outputs[0] = i;
+			outputs[1] = i % 2 == 0 ? null : i;
+			rows.add(i, outputs, selected);
+		}
+		assertEquals(1_000, rows.size());
+		assertEquals(10_000_000 - 1_000, rows.getEvictedCount());
+		assertEquals(9_999_000.0, rows.getTime(0), 0);
+		assertEquals(9_999_999.0, rows.getTime(999), 0);
+		assertEquals(9_999_500, rows.getValue(500, 0));
+		assertEquals("", rows.getText(500, 1));
+		assertEquals("9999501", rows.getText(501, 1));
+	}
+
+	/**
+	 * The values of all rows kept must fit into one array.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testCapacityMustFitIntoOneArray() {
+		new OutputRowStore(40, Integer.MAX_VALUE / 40 + 1);
+	}
+
+	/**
+	 * Clear removes all rows, reading a missing row fails.
+	 */
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testClearRemovesRows() {
+		OutputRowStore rows = new OutputRowStore(1);
+		rows.add(1.0, new Object[] { 7 }, new int[] { 0 });
+		rows.clear();
+		assertEquals(0, rows.size());
+		rows.getTime(0);
+	}
+
+}
@@ -0,0 +1,98 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.utils.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import peripheralsimulation.utils.OverflowPolicy;
+import peripheralsimulation.utils.SampleRingBuffer;
+
+/**
+ * Test class for {@link SampleRingBuffer}.
+ *
+ * @author Veronika Lenková
+ */
+public class SampleRingBufferTest {
+
+	/**
+	 * With the block policy a fast producer waits for a slow consumer, and every
+	 * sample arrives exactly once and in order.
+	 */
+	@Test(timeout = 10_000)
+	public void testBlockPolicyKeepsEverySampleInOrder() throws InterruptedException {
+		SampleRingBuffer buffer = new SampleRingBuffer(16, 1, OverflowPolicy.BLOCK);
+		int samples = 200_000;
+		Thread producer = new Thread(() -> {
+			long[] values = new long[1];
+			for (int i = 0; i < samples; i++) {
+				values[0] = i;
+				buffer.offer(i, values);
+			}
+		});
+		producer.start();
+		long[] received = { 0 };
+		while (received[0] < samples) {
+			buffer.drain((time, values) -> {
+				assertEquals(received[0], (long) time);
+				assertEquals(received[0], values[0]);
+				received[0]++;
+			}, 7);
+		}
+		producer.join();
+		assertTrue(buffer.isEmpty());
+		assertEquals(0, buffer.getDroppedCount());
+	}
+
+	/**
+	 * With the drop policy a full buffer rejects and counts samples without
+	 * waiting. The values are copied, so the offered array can be reused.
+	 */
+	@Test
+	public void testDropPolicyCountsRejectedSamples() {
+		SampleRingBuffer buffer = new SampleRingBuffer(5, 2, OverflowPolicy.DROP);
+		assertEquals("Capacity is rounded up to a power of two", 8, buffer.getCapacity());
+		long[] values = new long[2];
+		for (int i = 0; i < 10; i++) {
+			values[0] = i;
+			values[1] = i % 2;
+			buffer.offer(i, values);
+		}
+		assertEquals(8, buffer.size());
+		assertEquals(2, buffer.getDroppedCount());
+
+		List<Double> times = new ArrayList<>();
+		assertEquals(3, buffer.drain((time, drained) -> {
+			assertEquals((long) time, drained[0]);
+			assertEquals((long) time % 2, drained[1]);
+			times.add(time);
+		}, 3));
+		assertEquals(List.of(0.0, 1.0, 2.0), times);
+		assertTrue(buffer.offer(10, values));
+		assertEquals(6, buffer.size());
+	}
+
+	/**
+	 * Closing the buffer releases a blocked producer and drops later samples.
+	 */
+	@Test(timeout = 10_000)
+	public void testCloseReleasesBlockedProducer() throws InterruptedException {
+		SampleRingBuffer buffer = new SampleRingBuffer(1, 0, OverflowPolicy.BLOCK);
+		assertTrue(buffer.offer(0, new long[0]));
+		boolean[] accepted = { true };
+		Thread producer = new Thread(() -> accepted[0] = buffer.offer(1, new long[0]));
+		producer.start();
+		Thread.sleep(50);
+		buffer.close();
+		producer.join();
+		assertFalse(accepted[0]);
+		assertFalse(buffer.offer(2, new long[0]));
+		assertEquals(2, buffer.getDroppedCount());
+	}
+
+}
@@ -0,0 +1,62 @@
+/** Copyright (c) 2025, Veronika Lenková */
+package peripheralsimulation.utils.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.After;
+import org.junit.Test;
+
+import peripheralsimulation.utils.LogLevel;
+import peripheralsimulation.utils.SimulationLogger;
+
+/**
+ * Test class for {@link SimulationLogger}.
+ *
+ * @author Veronika Lenková
+ */
+public class SimulationLoggerTest {
+
+	/** The level before the test */
+	private final LogLevel originalLevel = SimulationLogger.getLevel();
+
+	@After
+	public void tearDown() {
+		SimulationLogger.flush(1000);
+		SimulationLogger.setLevel(originalLevel);
+		SimulationLogger.setOutput(System.out);
+	}
+
+	/**
+	 * Only messages at or above the level are written, in order, by the writer
+	 * thread.
+	 */
+	@Test
+	public void testMessagesBelowLevelAreDiscarded() {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		SimulationLogger.flush(1000);
+		SimulationLogger.setOutput(new PrintStream(bytes, true, StandardCharsets.UTF_8));
+		SimulationLogger.setLevel(LogLevel.DEBUG);
+		SimulationLogger logger = SimulationLogger.getLogger(SimulationLoggerTest.class);
+
+		assertFalse(logger.isTraceEnabled());
+		logger.trace("hidden");
+		for (int i = 0; i < 1000; i++) {
+			logger.debug("sample " + i);
+		}
+		logger.error("failed", new IllegalStateException("broken"));
+		assertTrue(SimulationLogger.flush(5000));
+
+		String[] lines = bytes.toString(StandardCharsets.UTF_8).split(System.lineSeparator());
+		assertEquals("DEBUG [SimulationLoggerTest] sample 0", lines[0]);
+		assertEquals("DEBUG [SimulationLoggerTest] sample 999", lines[999]);
+		assertEquals("ERROR [SimulationLoggerTest] failed", lines[1000]);
+		assertEquals("java.lang.IllegalStateException: broken", lines[1001]);
+	}
+
+}
@@ -6,6 +6,8 @@ import org.eclipse.swt.widgets.Combo;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Spinner;
+import org.eclipse.swt.widgets.Text;
 import org.eclipse.ui.*;
 
 import java.util.List;
@@ -16,15 +18,16 @@ import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.events.SelectionListener;
 
 import jakarta.inject.Inject;
+import peripheralsimulation.engine.SimulationContext;
 import peripheralsimulation.engine.SimulationEngine;
-import peripheralsimulation.engine.UserEvent;
+import peripheralsimulation.engine.SimulationMetrics;
+import peripheralsimulation.engine.SimulationState;
 import peripheralsimulation.io.UserPreferences;
 import peripheralsimulation.io.UserPreferencesListener;
+import peripheralsimulation.model.OutputSchema;
 import peripheralsimulation.model.Peripheral;
 import peripheralsimulation.model.PeripheralModel;
-import peripheralsimulation.model.SysTickTimerModel;
-import peripheralsimulation.model.flexio.FlexIOConfig;
-import peripheralsimulation.model.systick.SysTickTimerConfig;
+import peripheralsimulation.ui.RegisterCsvImport;
 import peripheralsimulation.ui.SettingsDialog;
 import peripheralsimulation.ui.SimulationChart;
 import peripheralsimulation.ui.SimulationGUI;
@@ -32,7 +35,8 @@ import peripheralsimulation.ui.SimulationTable;
 import peripheralsimulation.ui.UserEventDialog;
 import peripheralsimulation.utils.RegisterMap;
 import peripheralsimulation.utils.RegisterUtils;
-import peripheralsimulation.model.FlexIOModel;
+import peripheralsimulation.utils.SampleRingBuffer;
+import peripheralsimulation.utils.SimulationLogger;
 
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.layout.GridLayout;
@@ -50,6 +54,9 @@ import org.eclipse.ui.part.ViewPart;
  */
 public class SimulationView extends ViewPart implements UserPreferencesListener {
 
+	/** Logger of the simulation failures. */
+	private static final SimulationLogger LOG = SimulationLogger.getLogger(SimulationView.class);
+
 	/** The ID of the view as specified by the extension. */
 	public static final String ID = "peripheralsimulation.views.SimulationView";
 
@@ -59,6 +66,9 @@ public class SimulationView extends ViewPart implements UserPreferencesListener
 	/** Label for the status of the simulation. */
 	private Label statusLabel;
 
+	/** Label showing the metrics of the simulation engine. */
+	private Label statsLabel;
+
 	/** Buttons for running the simulation. */
 	private Button runSimulationButton;
 
@@ -68,6 +78,21 @@ public class SimulationView extends ViewPart implements UserPreferencesListener
 	/** Button for clearing the simulation. */
 	private Button clearSimulationButton;
 
+	/** Button for pausing and resuming the simulation. */
+	private Button pauseSimulationButton;
+
+	/** Button for executing a number of events of a paused simulation. */
+	private Button stepSimulationButton;
+
+	/** Number of events executed by the step button. */
+	private Spinner stepCountSpinner;
+
+	/** Time (in the UI time units) until which the simulation should run. */
+	private Text runUntilText;
+
+	/** State of the simulation shown in the status label and control buttons. */
+	private SimulationState shownState = SimulationState.IDLE;
+
 	/** The simulation engine. */
 	private SimulationEngine simulationEngine;
 
@@ -80,6 +105,27 @@ public class SimulationView extends ViewPart implements UserPreferencesListener
 	/** The GUI for the simulation. */
 	private SimulationGUI simulationGUI;
 
+	/** Buffer of the outputs between the simulation thread and the UI thread. */
+	private volatile SampleRingBuffer outputBuffer;
+
+	/** Schema of the outputs in the output buffer, boxes them for the GUI. */
+	private OutputSchema outputSchema;
+
+	/** Whether the simulation thread of the last run has not finished yet. */
+	private volatile boolean simulationActive;
+
+	/** Drains the output buffer once per frame while the simulation runs. */
+	private final Runnable frameTick = this::onFrame;
+
+	/** Period of the UI refresh while the simulation runs, in milliseconds. */
+	private static final int FRAME_MILLIS = 40;
+
+	/** Number of samples buffered between the simulation and the UI. */
+	private static final int OUTPUT_BUFFER_CAPACITY = 1 << 16;
+
+	/** Maximum number of samples passed to the GUI in one frame. */
+	private static final int MAX_SAMPLES_PER_FRAME = 20_000;
+
 	/** Text for the run simulation button. */
 	private static final String RUN_SIMULATION_BTN_TEXT = "Run simulation";
 
@@ -89,12 +135,37 @@ public class SimulationView extends ViewPart implements UserPreferencesListener
 	/** Text for the clear simulation button. */
 	private static final String CLEAR_SIMULATION_BTN_TEXT = "Clear simulation";
 
+	/** Text for the pause simulation button. */
+	private static final String PAUSE_SIMULATION_BTN_TEXT = "Pause";
+
+	/** Text for the pause simulation button while the simulation is paused. */
+	private static final String RESUME_SIMULATION_BTN_TEXT = "Resume";
+
+	/** Text for the step simulation button. */
+	private static final String STEP_SIMULATION_BTN_TEXT = "Step";
+
+	/** Tooltip of the step count spinner. */
+	private static final String STEP_COUNT_TOOLTIP = "Number of events executed by " + STEP_SIMULATION_BTN_TEXT;
+
+	/** Maximal number of events executed by one step. */
+	private static final int MAX_STEP_COUNT = 1_000_000;
+
+	/** Message of the run until field (the argument is the time unit). */
+	private static final String RUN_UNTIL_MESSAGE = "Run until [%s] + Enter";
+
 	/** Text for the user events button. */
 	private static final String USER_EVENTS_BTN_TEXT = "User Events...";
 
 	/** Text for the settings button. */
 	private static final String SETTINGS_BTN_TEXT = "Settings...";
 
+	/** Name of the simulation metrics MXBean of this view. */
+	private static final String METRICS_NAME = "SimulationView";
+
+	/** Format of the metrics shown in the stats label. */
+	private static final String STATS_FORMAT = "Events: %,d (%,.0f/s) | Scheduled: %,d | Queue max: %,d"
+			+ " | Samples: %,d | Dropped: %,d | Sim/wall: %.3g";
+
 	/** Text for the status label when no simulation is running. */
 	private static final String EMPTY_SIMULATION = "Choose peripheral in the combo box and CSV file with the registers. \nConfigure simulation in "
 			+ SETTINGS_BTN_TEXT + " dialog and click '" + RUN_SIMULATION_BTN_TEXT + "' button to start simulation...";
@@ -111,6 +182,15 @@ public class SimulationView extends ViewPart implements UserPreferencesListener
 	/** Status label for simulation finished. */
 	private static final String STATUS_LABEL_SIMULATION_FINISHED = "Simulation finished.";
 
+	/** Status label suffix for samples dropped by the output buffer. */
+	private static final String STATUS_LABEL_DROPPED_SAMPLES = " Samples not displayed (UI too slow): ";
+
+	/** Status label for paused simulation. */
+	private static final String STATUS_LABEL_SIMULATION_PAUSED = "Simulation paused.";
+
+	/** Status label for an invalid run until time. */
+	private static final String STATUS_LABEL_INVALID_TIME = "Invalid time: ";
+
 	/** Status label for running simulation. */
 	private static final String STATUS_LABEL_RUNNING_SIMULATION = "Running simulation...";
 
@@ -120,9 +200,15 @@ public class SimulationView extends ViewPart implements UserPreferencesListener
 		parent.setLayout(layout);
 		createStatusLabel(parent);
 		createButtons(parent);
+		createControlButtons(parent);
+		createStatsLabel(parent);
 		userPreferences.addListener(this);
 		simulationGUI = updateSimulationGUI(parent);
-		simulationEngine = new SimulationEngine(this::updateGUI);
+		// the outputs are copied into the output buffer as primitive values and
+		// only boxed for the drained samples
+		simulationEngine = new SimulationEngine(null);
+		simulationEngine.setSampleSink(this::updateGUI);
+		simulationEngine.getMetrics().register(METRICS_NAME);
 	}
 
 	/**
@@ -137,6 +223,87 @@ public class SimulationView extends ViewPart implements UserPreferencesListener
 		statusLabel.setLayoutData(new GridData(SWT.LEFT, SWT.CENTER, true, false));
 	}
 
+	/**
+	 * Create the buttons controlling a running simulation: pause/resume, step a
+	 * number of events and run until a time.
+	 *
+	 * @param parent the parent composite
+	 */
+	private void createControlButtons(Composite parent) {
+		pauseSimulationButton = new Button(parent, SWT.PUSH);
+		pauseSimulationButton.setText(PAUSE_SIMULATION_BTN_TEXT);
+		pauseSimulationButton.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, false, false));
+		pauseSimulationButton.addListener(SWT.Selection, event -> {
+			if (simulationEngine.getSimulationState() == SimulationState.PAUSED) {
+				simulationEngine.resumeSimulation();
+			} else {
+				simulationEngine.pauseSimulation();
+			}
+		});
+
+		stepSimulationButton = new Button(parent, SWT.PUSH);
+		stepSimulationButton.setText(STEP_SIMULATION_BTN_TEXT);
+		stepSimulationButton.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, false, false));
+		stepSimulationButton
+				.addListener(SWT.Selection, event -> simulationEngine.stepSimulation(stepCountSpinner.getSelection()));
+
+		stepCountSpinner = new Spinner(parent, SWT.BORDER);
+		stepCountSpinner.setValues(1, 1, MAX_STEP_COUNT, 0, 1, 100);
+		stepCountSpinner.setToolTipText(STEP_COUNT_TOOLTIP);
+		stepCountSpinner.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, false, false));
+
+		runUntilText = new Text(parent, SWT.SINGLE | SWT.BORDER);
+		runUntilText.setMessage(String.format(RUN_UNTIL_MESSAGE, userPreferences.getTimeUnits()));
+		runUntilText.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
+		runUntilText.addListener(SWT.DefaultSelection, event -> runSimulationUntil());
+
+		updateControlButtons(SimulationState.IDLE);
+	}
+
+	/**
+	 * Run the simulation until the time entered in the run until field (in the UI
+	 * time units).
+	 */
+	private void runSimulationUntil() {
+		String text = runUntilText.getText().trim();
+		try {
+			double time = Double.parseDouble(text) / userPreferences.getTimeScaleFactor();
+			simulationEngine.runSimulationUntil(time);
+		} catch (NumberFormatException e) {
+			statusLabel.setText(STATUS_LABEL_INVALID_TIME + text);
+		}
+	}
+
+	/**
+	 * Update the control buttons and the status label for the simulation state.
+	 *
+	 * @param state the current simulation state
+	 */
+	private void updateControlButtons(SimulationState state) {
+		boolean active = state != SimulationState.IDLE;
+		pauseSimulationButton.setEnabled(active);
+		pauseSimulationButton.setText(state == SimulationState.PAUSED ? RESUME_SIMULATION_BTN_TEXT
+				: PAUSE_SIMULATION_BTN_TEXT);
+		stepSimulationButton.setEnabled(active);
+		stepCountSpinner.setEnabled(active);
+		runUntilText.setEnabled(active);
+		if (state != shownState && active) {
+			statusLabel.setText(
+					state == SimulationState.PAUSED ? STATUS_LABEL_SIMULATION_PAUSED : STATUS_LABEL_RUNNING_SIMULATION);
+		}
+		shownState = state;
+	}
+
+	/**
+	 * Create the label showing the engine metrics, spanning the whole row.
+	 *
+	 * @param parent the parent composite
+	 */
+	private void createStatsLabel(Composite parent) {
+		statsLabel = new Label(parent, SWT.NONE);
+		statsLabel.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 4, 1));
+	}
+
 	/**
 	 * Create the buttons for running, stopping, clearing, selecting the peripheral,
 	 * opening settings dialog and user events dialog.
@@ -222,22 +389,10 @@ public class SimulationView extends ViewPart implements UserPreferencesListener
 		Peripheral selectedPeripheral = Peripheral.fromDisplayName(selectPeripheralCombo.getText());
 		userPreferences.setSelectedPeripheralType(selectedPeripheral);
 
-		Map<String, Integer> registersNames2Values = RegisterUtils.loadRegistersFromCsv();
+		Map<String, Integer> registersNames2Values = RegisterCsvImport.loadRegistersFromCsv();
 		RegisterMap registerMap = RegisterUtils.convertToRegisterMap(registersNames2Values, selectedPeripheral);
 
-		switch (selectedPeripheral) {
-		case SYSTICKTIMER:
-			// fill in the fields from your exported data or from code
-			SysTickTimerConfig config = new SysTickTimerConfig(registerMap);
-			simulationModel = new SysTickTimerModel(config);
-			break;
-		case FLEXIO:
-			FlexIOConfig flexioConfig = new FlexIOConfig(registerMap);
-			simulationModel = new FlexIOModel(flexioConfig);
-			break;
-		default:
-			throw new IllegalArgumentException("Unknown peripheral.");
-		}
+		simulationModel = selectedPeripheral.createModel(registerMap);
 		userPreferences.setSelectedOutputs(List.of());
 		userPreferences.setPeripheralModel(simulationModel);
 		return simulationModel;
@@ -273,36 +428,61 @@ public class SimulationView extends ViewPart implements UserPreferencesListener
 	 */
 	private void runSimulation() {
 		clearSimulationButton.setEnabled(false);
+		runUntilText.setMessage(String.format(RUN_UNTIL_MESSAGE, userPreferences.getTimeUnits()));
 		simulationEngine.cleanSimulation();
 		PeripheralModel simulationModel = userPreferences.getPeripheralModel();
 		simulationEngine.setPeripheralModel(simulationModel);
-
-		for (UserEvent userEvent : userPreferences.getUserEvents()) {
-			simulationEngine.addUserEvent(userEvent);
+		SimulationContext context = userPreferences.toSimulationContext();
+		simulationEngine.setContext(context);
+
+		try {
+			// the engine is starting before the stop button is enabled, so a stop is
+			// always passed to the simulation thread
+			simulationEngine.initSimulation();
+		} catch (Exception e) {
+			LOG.error("Simulation failed.", e);
+			statusLabel.setText(STATUS_LABEL_SIMULATION_FAILURE);
+			runSimulationButton.setEnabled(true);
+			return;
 		}
 
 		Display.getDefault().asyncExec(() -> statusLabel.setText(STATUS_LABEL_RUNNING_SIMULATION));
+		OutputSchema schema = simulationModel.getOutputSchema();
+		SampleRingBuffer buffer = new SampleRingBuffer(OUTPUT_BUFFER_CAPACITY, schema.size(),
+				userPreferences.getUiOverflowPolicy());
+		outputSchema = schema;
+		outputBuffer = buffer;
+		simulationActive = true;
 		Thread simulationThread = new Thread(() -> {
 			try {
-				simulationEngine.initSimulation();
-				simulationEngine.startSimulation(userPreferences.getSimulationTimeRangeTo());
+				simulationEngine.startSimulation(context.getRangeTo());
 				if (!simulationEngine.isSimulationRunning()) {
 					Display.getDefault().asyncExec(() -> {
+						drainOutputs(buffer, schema, Integer.MAX_VALUE);
+						updateStats(buffer);
+						updateControlButtons(SimulationState.IDLE);
 						if (simulationGUI instanceof SimulationChart) {
-							((SimulationChart) simulationGUI).redrawAllSeries();
+							((SimulationChart) simulationGUI).refresh();
 						}
-						statusLabel.setText(STATUS_LABEL_SIMULATION_FINISHED);
+						String status = STATUS_LABEL_SIMULATION_FINISHED;
+						if (buffer.getDroppedCount() > 0) {
+							status += STATUS_LABEL_DROPPED_SAMPLES + buffer.getDroppedCount();
+						}
+						statusLabel.setText(status);
 						stopSimulationButton.setEnabled(false);
 						clearSimulationButton.setEnabled(true);
 					});
 				}
 			} catch (Exception e) {
-				e.printStackTrace();
+				LOG.error("Simulation failed.", e);
 				Display.getDefault().asyncExec(() -> statusLabel.setText(STATUS_LABEL_SIMULATION_FAILURE));
+			} finally {
+				simulationActive = false;
 			}
 		});
 
 		simulationThread.start();
+		Display.getDefault().timerExec(FRAME_MILLIS, frameTick);
 		runSimulationButton.setEnabled(false);
 		stopSimulationButton.setEnabled(true);
 		clearSimulationButton.setEnabled(false);
@@ -325,22 +505,71 @@ public class SimulationView extends ViewPart implements UserPreferencesListener
 	private void clearGUI() {
 		simulationGUI.clear();
 		statusLabel.setText(EMPTY_SIMULATION);
+		statsLabel.setText("");
 		runSimulationButton.setEnabled(true);
 		stopSimulationButton.setEnabled(false);
 		clearSimulationButton.setEnabled(false);
 	}
 
 	/**
-	 * Update the GUI with the simulation time and outputs.
+	 * Pass the simulation time and outputs to the UI thread (called on the
+	 * simulation thread). The sample is buffered and displayed on the next frame.
 	 * 
 	 * @param timeValue the simulation time
-	 * @param outputs   the simulation outputs
+	 * @param values    the simulation outputs (copied into the buffer)
 	 */
-	private void updateGUI(double timeValue, Object[] outputs) {
-		Display.getDefault().asyncExec(() -> {
-			double scaledTime = timeValue * userPreferences.getTimeScaleFactor();
-			simulationGUI.update(scaledTime, outputs);
-		});
+	private void updateGUI(double timeValue, long[] values) {
+		SampleRingBuffer buffer = outputBuffer;
+		if (buffer != null) {
+			buffer.offer(timeValue, values);
+		}
+	}
+
+	/**
+	 * Display the buffered outputs and schedule the next frame while the
+	 * simulation runs or outputs are left.
+	 */
+	private void onFrame() {
+		SampleRingBuffer buffer = outputBuffer;
+		if (buffer == null || statusLabel.isDisposed()) {
+			return;
+		}
+		drainOutputs(buffer, outputSchema, MAX_SAMPLES_PER_FRAME);
+		updateStats(buffer);
+		updateControlButtons(simulationEngine.getSimulationState());
+		if (simulationActive || !buffer.isEmpty()) {
+			Display.getDefault().timerExec(FRAME_MILLIS, frameTick);
+		}
+	}
+
+	/**
+	 * Pass buffered outputs to the simulation GUI.
+	 *
+	 * @param buffer     the output buffer to drain
+	 * @param schema     the schema of the buffered outputs
+	 * @param maxSamples the maximum number of outputs to pass
+	 */
+	private void drainOutputs(SampleRingBuffer buffer, OutputSchema schema, int maxSamples) {
+		double timeScale = userPreferences.getTimeScaleFactor();
+		int drained = buffer.drain(
+				(timeValue, values) -> simulationGUI.update(timeValue * timeScale, schema.toObjects(values, 0)),
+				maxSamples);
+		if (drained > 0) {
+			simulationGUI.refresh();
+		}
+	}
+
+	/**
+	 * Show the current engine metrics in the stats label.
+	 *
+	 * @param buffer the output buffer of the run (reports the dropped samples)
+	 */
+	private void updateStats(SampleRingBuffer buffer) {
+		SimulationMetrics metrics = simulationEngine.getMetrics();
+		metrics.setSamplesDropped(buffer.getDroppedCount());
+		statsLabel.setText(String.format(STATS_FORMAT, metrics.getEventsExecuted(), metrics.getEventsPerSecond(),
+				metrics.getEventsScheduled(), metrics.getQueueHighWaterMark(), metrics.getSamplesEmitted(),
+				metrics.getSamplesDropped(), metrics.getSimToWallRatio()));
 	}
 
 	@Override
@@ -363,6 +592,12 @@ public class SimulationView extends ViewPart implements UserPreferencesListener
 	@Override
 	public void dispose() {
 		userPreferences.removeListener(this);
+		simulationEngine.getMetrics().unregister();
+		SampleRingBuffer buffer = outputBuffer;
+		if (buffer != null) {
+			// a blocked simulation thread must not wait for the disposed view
+			buffer.close();
+		}
 		super.dispose();
 	}
 